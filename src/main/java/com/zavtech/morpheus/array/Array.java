@@ -15,6 +15,7 @@
  */
 package com.zavtech.morpheus.array;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -35,9 +36,11 @@ import java.util.function.ToLongFunction;
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 
+import com.zavtech.morpheus.array.mapped.MappedArrayConstructor;
 import com.zavtech.morpheus.stats.Stats;
 import com.zavtech.morpheus.util.functions.BooleanConsumer;
 import com.zavtech.morpheus.util.Bounds;
+import com.zavtech.morpheus.util.functions.IntDoubleConsumer;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
 
 /**
@@ -80,7 +83,7 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
     ArrayType typeCode();
 
     /**
-     * Returns the style for this array (DENSE, SPARSE, MAPPED)
+     * Returns the style for this array (DENSE, SPARSE, MAPPED, OFF_HEAP)
      * @return  the storage storage style for this array
      */
     ArrayStyle style();
@@ -111,10 +114,19 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
 
     /**
      * Returns a read-only view of this array
+     * <p>Dense boolean, int, long and long coded arrays that compress well are instead packed into a compressed read only
+     * snapshot, which does not reflect subsequent changes to this array. See PackedArrays for the encodings used.</p>
      * @return  a ready only view of this array
      */
     Array<T> readOnly();
 
+    /**
+     * Releases any off heap memory held by this array, after which the array has zero length and cannot be accessed
+     * The memory is reclaimed by the garbage collector once no view of the array still references it.
+     * This only applies to OFF_HEAP arrays, is a no-op for all other styles, and may be called more than once
+     */
+    void release();
+
     /**
      * Returns a deep copy of this array
      * @return  a deep copy of this array
@@ -164,6 +176,8 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
 
     /**
      * Returns the cumulative sum of this Array
+     * The running sum of byte and short arrays quickly exceeds their range, so their cumulative sum is widened to an
+     * Integer array, and its values should be accessed via getInt() or getDouble().
      * @return  the cumulative sum
      * @throws ArrayException   if the array is non numeric
      */
@@ -357,6 +371,35 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
      */
     int count(Predicate<ArrayValue<T>> predicate);
 
+    /**
+     * Returns the number of true values in this boolean array
+     * <p>Bit packed boolean arrays count a 64 bit word at a time rather than testing each element</p>
+     * @return  the number of true values
+     */
+    int countTrue();
+
+    /**
+     * Sets each element of this boolean array to the logical AND of itself and the same element of the other array
+     * <p>This combines 64 elements at a time when both arrays are bit packed, which makes combining masks cheap</p>
+     * @param other the other boolean array, which must have the same length as this array
+     * @return      this array reference
+     */
+    Array<T> and(Array<Boolean> other);
+
+    /**
+     * Sets each element of this boolean array to the logical OR of itself and the same element of the other array
+     * <p>This combines 64 elements at a time when both arrays are bit packed, which makes combining masks cheap</p>
+     * @param other the other boolean array, which must have the same length as this array
+     * @return      this array reference
+     */
+    Array<T> or(Array<Boolean> other);
+
+    /**
+     * Inverts each element of this boolean array
+     * @return  this array reference
+     */
+    Array<T> not();
+
     /**
      * Updates certain elements of this array from the update provided, expanding this array if necessary
      * Note that the fromIndexes and toIndexes lengths must be equal
@@ -482,6 +525,15 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
      */
     Array<T> forEachValue(Consumer<ArrayValue<T>> consumer);
 
+    /**
+     * Iterates over the stored elements of this array in index order, calling the consumer with each index and value
+     * <p>Sparse arrays of ints, longs and doubles only store values that differ from the default value, so the
+     * default values are skipped, while all other arrays store, and therefore visit, every element</p>
+     * @param consumer  the consumer of the index and value of each stored element, values as doubles
+     * @return          this array reference
+     */
+    Array<T> forEachStored(IntDoubleConsumer consumer);
+
     /**
      * Returns true if the value at the specified index is null
      * @param index the index in this array
@@ -635,6 +687,44 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
         return ArrayFactory.mapped().apply(type, length, defaultValue, path);
     }
 
+    /**
+     * Returns a memory mapped array backed by an existing file previously created via map() with a path
+     * The file is mapped as is without initializing its contents, and the type must match the type recorded in the file
+     * @param type          the element type for array
+     * @param path          the path of the existing memory mapped array file
+     * @param readOnly      true to map the file read only, false to write through to the file
+     * @param <V>           the type for array
+     * @return              the memory mapped array backed by the existing file
+     */
+    static <V> Array<V> open(Class<V> type, String path, boolean readOnly) {
+        return MappedArrayConstructor.open(type, new File(path), readOnly);
+    }
+
+    /**
+     * Returns a newly created off heap array of the type specified
+     * The memory is reclaimed when the array becomes unreachable, and release() drops it from the array eagerly
+     * @param type          the element type for array
+     * @param length        the initial length of the array
+     * @param <V>           the type
+     * @return              the newly created off heap array
+     */
+    static <V> Array<V> offHeap(Class<V> type, int length) {
+        return ArrayFactory.offHeap().apply(type, length, ArrayType.defaultValue(type));
+    }
+
+    /**
+     * Returns a newly created off heap array of the type specified
+     * The memory is reclaimed when the array becomes unreachable, and release() drops it from the array eagerly
+     * @param type          the element type for array
+     * @param length        the initial length of the array
+     * @param defaultValue  the default value for the array
+     * @param <V>           the type
+     * @return              the newly created off heap array
+     */
+    static <V> Array<V> offHeap(Class<V> type, int length, V defaultValue) {
+        return ArrayFactory.offHeap().apply(type, length, defaultValue);
+    }
+
     /**
      * Returns a newly created dense Array that wraps the object array specified
      * @param values    the values to wrap
@@ -681,6 +771,33 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
         return ArrayFactory.create(values);
     }
 
+    /**
+     * Returns a newly created dense Array that wraps the float array specified
+     * @param values    the values to wrap
+     * @return          the newly created Array
+     */
+    static Array<Float> of(float[] values) {
+        return ArrayFactory.create(values);
+    }
+
+    /**
+     * Returns a newly created dense Array that wraps the short array specified
+     * @param values    the values to wrap
+     * @return          the newly created Array
+     */
+    static Array<Short> of(short[] values) {
+        return ArrayFactory.create(values);
+    }
+
+    /**
+     * Returns a newly created dense Array that wraps the byte array specified
+     * @param values    the values to wrap
+     * @return          the newly created Array
+     */
+    static Array<Byte> of(byte[] values) {
+        return ArrayFactory.create(values);
+    }
+
     /**
      * Returns a newly created dense Array based on the arguments specified
      * @param type          the data type for Array
@@ -714,10 +831,40 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
             case DENSE:     return ArrayFactory.dense().apply(type, length, defaultValue);
             case SPARSE:    return ArrayFactory.sparse().apply(type, length, defaultValue);
             case MAPPED:    return ArrayFactory.mapped().apply(type, length, defaultValue);
+            case OFF_HEAP:  return ArrayFactory.offHeap().apply(type, length, defaultValue);
             default:        throw new IllegalArgumentException("Unsupported style specified: " + style);
         }
     }
 
+    /**
+     * Returns a newly created dense Array that dictionary encodes its values with per-array int codes
+     * @param type          the data type for Array
+     * @param length        the initial length for array
+     * @return              the newly created array
+     */
+    static <V> Array<V> ofDictionary(Class<V> type, int length) {
+        return Array.ofDictionary(type, length, ArrayType.defaultValue(type), ArrayStyle.DENSE);
+    }
+
+    /**
+     * Returns a newly created Array that dictionary encodes its values with per-array int codes
+     * Each distinct value is stored once and each element holds an int code, which suits data with few distinct values
+     * repeated many times, such as categorical String columns, but adds overhead for data with many distinct values.
+     * @param type          the data type for Array
+     * @param length        the initial length for array
+     * @param defaultValue  the default value for the array
+     * @param style         the array style, which must be DENSE, SPARSE or MAPPED
+     * @return              the newly created array
+     */
+    static <V> Array<V> ofDictionary(Class<V> type, int length, V defaultValue, ArrayStyle style) {
+        switch (style) {
+            case DENSE:     return ArrayFactory.dense().applyDictionary(type, length, defaultValue);
+            case SPARSE:    return ArrayFactory.sparse().applyDictionary(type, length, defaultValue);
+            case MAPPED:    return ArrayFactory.mapped().applyDictionary(type, length, defaultValue);
+            default:        throw new IllegalArgumentException("Dictionary encoding is not supported for style: " + style);
+        }
+    }
+
     /**
      * Returns a newly created Array based on the arguments specified
      * @param type          the data type for Array
@@ -865,6 +1012,9 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
                 case INTEGER:           result.applyInts(v -> source.getInt(v.index()));            break;
                 case LONG:              result.applyLongs(v -> source.getLong(v.index()));          break;
                 case DOUBLE:            result.applyDoubles(v -> source.getDouble(v.index()));      break;
+                case FLOAT:             result.applyDoubles(v -> source.getDouble(v.index()));      break;
+                case SHORT:             result.applyInts(v -> source.getInt(v.index()));            break;
+                case BYTE:              result.applyInts(v -> source.getInt(v.index()));            break;
                 case DATE:              result.applyLongs(v -> source.getLong(v.index()));          break;
                 case LOCAL_DATE:        result.applyLongs(v -> source.getLong(v.index()));          break;
                 case LOCAL_TIME:        result.applyLongs(v -> source.getLong(v.index()));          break;
@@ -894,6 +1044,9 @@ public interface Array<T> extends Iterable<T>, Serializable, Cloneable {
                 case INTEGER:           result.applyInts(v -> source.getInt(v.index()));            break;
                 case LONG:              result.applyLongs(v -> source.getLong(v.index()));          break;
                 case DOUBLE:            result.applyDoubles(v -> source.getDouble(v.index()));      break;
+                case FLOAT:             result.applyDoubles(v -> source.getDouble(v.index()));      break;
+                case SHORT:             result.applyInts(v -> source.getInt(v.index()));            break;
+                case BYTE:              result.applyInts(v -> source.getInt(v.index()));            break;
                 case DATE:              result.applyLongs(v -> source.getLong(v.index()));          break;
                 case LOCAL_DATE:        result.applyLongs(v -> source.getLong(v.index()));          break;
                 case LOCAL_TIME:        result.applyLongs(v -> source.getLong(v.index()));          break;
@@ -44,6 +44,7 @@ import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import com.zavtech.morpheus.array.packed.PackedArrays;
 import com.zavtech.morpheus.array.tasks.BoundsTask;
 import com.zavtech.morpheus.array.tasks.CountTask;
 import com.zavtech.morpheus.array.tasks.MaxTask;
@@ -55,6 +56,7 @@ import com.zavtech.morpheus.util.Bounds;
 import com.zavtech.morpheus.util.Comparators;
 import com.zavtech.morpheus.util.IntComparator;
 import com.zavtech.morpheus.util.SortAlgorithm;
+import com.zavtech.morpheus.util.functions.IntDoubleConsumer;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
 
 /**
@@ -122,7 +124,16 @@ public abstract class ArrayBase<T> implements Array<T> {
 
     @Override
     public Array<T> readOnly() {
-        return isReadOnly() ? this : new ArrayReadOnly<>(this);
+        if (isReadOnly()) {
+            return this;
+        } else {
+            return PackedArrays.pack(this).orElseGet(() -> new ArrayReadOnly<>(this));
+        }
+    }
+
+    @Override
+    public void release() {
+        // nothing to release by default
     }
 
     @Override
@@ -360,7 +371,7 @@ public abstract class ArrayBase<T> implements Array<T> {
 
 
     @Override
-    public final void forEach(Consumer<? super T> consumer) {
+    public void forEach(Consumer<? super T> consumer) {
         final int length = length();
         if (isParallel() && length > 0) {
             final int processors = Runtime.getRuntime().availableProcessors();
@@ -427,7 +438,7 @@ public abstract class ArrayBase<T> implements Array<T> {
     }
 
     @Override
-    public final Array<T> forEachDouble(DoubleConsumer consumer) {
+    public Array<T> forEachDouble(DoubleConsumer consumer) {
         final int length = length();
         if (isParallel() && length > 0) {
             final int processors = Runtime.getRuntime().availableProcessors();
@@ -459,6 +470,17 @@ public abstract class ArrayBase<T> implements Array<T> {
     }
 
 
+    @Override
+    public Array<T> forEachStored(IntDoubleConsumer consumer) {
+        final int length = length();
+        for (int i=0; i<length; ++i) {
+            final double value = getDouble(i);
+            consumer.accept(i, value);
+        }
+        return this;
+    }
+
+
     @Override
     public final Optional<ArrayValue<T>> previous(T value) {
         final int length = length();
@@ -604,6 +626,9 @@ public abstract class ArrayBase<T> implements Array<T> {
             case INTEGER:       return new ArrayStats<>((Array<Number>)this, 0, length());
             case LONG:          return new ArrayStats<>((Array<Number>)this, 0, length());
             case DOUBLE:        return new ArrayStats<>((Array<Number>)this, 0, length());
+            case FLOAT:         return new ArrayStats<>((Array<Number>)this, 0, length());
+            case SHORT:         return new ArrayStats<>((Array<Number>)this, 0, length());
+            case BYTE:          return new ArrayStats<>((Array<Number>)this, 0, length());
             default:    throw new IllegalStateException("The array is non-numeric: " + typeCode());
         }
     }
@@ -616,6 +641,9 @@ public abstract class ArrayBase<T> implements Array<T> {
             case INTEGER:       return new ArrayStats<>((Array<Number>)this, offset, length);
             case LONG:          return new ArrayStats<>((Array<Number>)this, offset, length);
             case DOUBLE:        return new ArrayStats<>((Array<Number>)this, offset, length);
+            case FLOAT:         return new ArrayStats<>((Array<Number>)this, offset, length);
+            case SHORT:         return new ArrayStats<>((Array<Number>)this, offset, length);
+            case BYTE:          return new ArrayStats<>((Array<Number>)this, offset, length);
             default:    throw new IllegalStateException("The array is non-numeric: " + typeCode());
         }
     }
@@ -700,6 +728,63 @@ public abstract class ArrayBase<T> implements Array<T> {
     }
 
 
+    @Override
+    public int countTrue() {
+        int count = 0;
+        for (int i=0; i<length(); ++i) {
+            if (getBoolean(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    @Override
+    public Array<T> and(Array<Boolean> other) {
+        this.checkLength(other);
+        for (int i=0; i<length(); ++i) {
+            if (getBoolean(i) && !other.getBoolean(i)) {
+                this.setBoolean(i, false);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public Array<T> or(Array<Boolean> other) {
+        this.checkLength(other);
+        for (int i=0; i<length(); ++i) {
+            if (!getBoolean(i) && other.getBoolean(i)) {
+                this.setBoolean(i, true);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public Array<T> not() {
+        for (int i=0; i<length(); ++i) {
+            this.setBoolean(i, !getBoolean(i));
+        }
+        return this;
+    }
+
+
+    /**
+     * Checks that the other array has the same length as this array, as required by logical operations
+     * @param other the other array
+     * @throws ArrayException   if the lengths differ
+     */
+    protected final void checkLength(Array<?> other) {
+        if (other.length() != length()) {
+            throw new ArrayException("Array lengths do not match for logical operation, " + length() + " != " + other.length());
+        }
+    }
+
+
     @Override
     public boolean getBoolean(int index) {
         throw new ArrayException("Boolean type not supported by this array, type = " + typeCode().name());
@@ -782,6 +867,9 @@ public abstract class ArrayBase<T> implements Array<T> {
                     case INTEGER:           return intEquals(array);
                     case LONG:              return longEquals(array);
                     case DOUBLE:            return doubleEquals(array);
+                    case FLOAT:             return doubleEquals(array);
+                    case SHORT:             return intEquals(array);
+                    case BYTE:              return intEquals(array);
                     case DATE:              return longEquals(array);
                     case ENUM:              return intEquals(array);
                     case ZONE_ID:           return intEquals(array);
@@ -96,6 +96,8 @@ public class ArrayBuilder<T> {
 
     /**
      * Returns a newly created builder for a dense arrays based on the arguments provided
+     * <p>With a load factor less than 1 the builder appends into a sparse array, and since values are added in index order,
+     * each append to a compressed sparse int, long or double array is constant time and default values are never stored.</p>
      * @param initialLength     the initial capacity for builder
      * @param type              the typeCode for array elements
      * @param defaultValue      the default value for the array (null allowed, even for primitive types)
@@ -17,11 +17,12 @@ package com.zavtech.morpheus.array;
 
 import com.zavtech.morpheus.array.dense.DenseArrayConstructor;
 import com.zavtech.morpheus.array.mapped.MappedArrayConstructor;
+import com.zavtech.morpheus.array.offheap.OffHeapArrayConstructor;
 import com.zavtech.morpheus.array.sparse.SparseArrayConstructor;
 import com.zavtech.morpheus.util.Asserts;
 
 /**
- * A factory class that exposes various Constructor objects for creating dense, sparse and memory mapped Morpheus Arrays.
+ * A factory class that exposes various Constructor objects for creating dense, sparse, memory mapped and off heap Morpheus Arrays.
  *
  * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
  *
@@ -32,6 +33,7 @@ public abstract class ArrayFactory {
     private static Constructor dense = new DenseArrayConstructor();
     private static Constructor sparse = new SparseArrayConstructor();
     private static Constructor mapped = new MappedArrayConstructor();
+    private static Constructor offHeap = new OffHeapArrayConstructor();
 
     /**
      * Returns a reference to the dense array constructor
@@ -57,6 +59,14 @@ public abstract class ArrayFactory {
         return mapped;
     }
 
+    /**
+     * Returns a reference to the off heap array constructor
+     * @return  the off heap array factory
+     */
+    public static Constructor offHeap() {
+        return offHeap;
+    }
+
     /**
      * Sets the dense array constructor
      * @param dense dense array constructor
@@ -84,6 +94,15 @@ public abstract class ArrayFactory {
         ArrayFactory.mapped = mapped;
     }
 
+    /**
+     * Sets the off heap array constructor
+     * @param offHeap off heap array constructor
+     */
+    public static void setOffHeap(Constructor offHeap) {
+        Asserts.notNull(offHeap, "The array constructor cannot be null");
+        ArrayFactory.offHeap = offHeap;
+    }
+
     /**
      * Returns a newly created Morpheus Array containing the array of values specified
      * @param array     an array of values to wrap in a Morpheus array
@@ -112,6 +131,15 @@ public abstract class ArrayFactory {
             } else if (arrayClass == double.class) {
                 final double[] doubles = (double[])array;
                 return mArray.applyDoubles(v -> doubles[v.index()]);
+            } else if (arrayClass == float.class) {
+                final float[] floats = (float[])array;
+                return mArray.applyDoubles(v -> floats[v.index()]);
+            } else if (arrayClass == short.class) {
+                final short[] shorts = (short[])array;
+                return mArray.applyInts(v -> shorts[v.index()]);
+            } else if (arrayClass == byte.class) {
+                final byte[] bytes = (byte[])array;
+                return mArray.applyInts(v -> bytes[v.index()]);
             } else {
                 final Object[] objects = (Object[])array;
                 return mArray.applyValues(v -> (T)objects[v.index()]);
@@ -162,7 +190,7 @@ public abstract class ArrayFactory {
 
 
     /**
-     * An interface to a constructor of a specific style of array (dense, sparse, memory mapped)
+     * An interface to a constructor of a specific style of array (dense, sparse, memory mapped, off heap)
      */
     public interface Constructor {
 
@@ -185,5 +213,17 @@ public abstract class ArrayFactory {
          */
         <T> Array<T> apply(Class<T> type, int length, T defaultValue, String path);
 
+        /**
+         * Returns a newly created array that dictionary encodes values, storing each distinct value once and an int code per element
+         * @param type          the array element type
+         * @param length        the initial length
+         * @param defaultValue  the default value for array
+         * @return              the newly created array
+         * @throws ArrayException   if this style of array does not support dictionary encoding
+         */
+        default <T> Array<T> applyDictionary(Class<T> type, int length, T defaultValue) {
+            throw new ArrayException("Dictionary encoded arrays are not supported by " + getClass().getSimpleName());
+        }
+
     }
 }
@@ -140,6 +140,26 @@ class ArrayReadOnly<T> extends ArrayBase<T> {
         return source.filter(predicate);
     }
 
+    @Override
+    public final int countTrue() {
+        return source.countTrue();
+    }
+
+    @Override
+    public final Array<T> and(Array<Boolean> other) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+    @Override
+    public final Array<T> or(Array<Boolean> other) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+    @Override
+    public final Array<T> not() {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
     @Override
     public final Array<T> expand(int newLength) {
         throw new ArrayException("This is a ready only Morpheus Array");
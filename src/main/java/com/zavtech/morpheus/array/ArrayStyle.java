@@ -26,7 +26,8 @@ public enum ArrayStyle {
 
     DENSE,
     SPARSE,
-    MAPPED;
+    MAPPED,
+    OFF_HEAP;
 
     /**
      * Returns true if this represents the DENSE style
@@ -52,6 +53,14 @@ public enum ArrayStyle {
         return this == MAPPED;
     }
 
+    /**
+     * Returns true if this represents the OFF_HEAP style
+     * @return  true if off heap
+     */
+    public boolean isOffHeap() {
+        return this == OFF_HEAP;
+    }
+
     /**
      * Returns the supported types for this array style
      * @return      the supported array types for this style
@@ -65,8 +74,12 @@ public enum ArrayStyle {
                     ArrayType.INTEGER,
                     ArrayType.LONG,
                     ArrayType.DOUBLE,
+                    ArrayType.FLOAT,
+                    ArrayType.SHORT,
+                    ArrayType.BYTE,
                     ArrayType.DATE,
                     ArrayType.STRING,
+                    ArrayType.OBJECT,
                     ArrayType.ENUM,
                     ArrayType.YEAR,
                     ArrayType.CURRENCY,
@@ -78,6 +91,22 @@ public enum ArrayStyle {
                     ArrayType.LOCAL_DATETIME,
                     ArrayType.ZONED_DATETIME
             };
+            case OFF_HEAP:  return new ArrayType[] {
+                    ArrayType.BOOLEAN,
+                    ArrayType.INTEGER,
+                    ArrayType.LONG,
+                    ArrayType.DOUBLE,
+                    ArrayType.DATE,
+                    ArrayType.ENUM,
+                    ArrayType.YEAR,
+                    ArrayType.CURRENCY,
+                    ArrayType.ZONE_ID,
+                    ArrayType.TIME_ZONE,
+                    ArrayType.INSTANT,
+                    ArrayType.LOCAL_DATE,
+                    ArrayType.LOCAL_TIME,
+                    ArrayType.LOCAL_DATETIME
+            };
             default:
                 throw new IllegalArgumentException("Unsupported style: " + this);
         }
@@ -187,6 +187,36 @@ public class ArrayUtils {
     }
 
 
+    /**
+     * Returns the value narrowed to a short, failing if it falls outside the range of a short
+     * @param value     the int value to narrow
+     * @return          the short value
+     * @throws ArrayException   if value cannot be represented as a short
+     */
+    public static short toShort(int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new ArrayException("Value out of range for short array: " + value);
+        } else {
+            return (short)value;
+        }
+    }
+
+
+    /**
+     * Returns the value narrowed to a byte, failing if it falls outside the range of a byte
+     * @param value     the int value to narrow
+     * @return          the byte value
+     * @throws ArrayException   if value cannot be represented as a byte
+     */
+    public static byte toByte(int value) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new ArrayException("Value out of range for byte array: " + value);
+        } else {
+            return (byte)value;
+        }
+    }
+
+
     /**
      * A convenience base class for distinct value calculators
      * @param <T>   the data type
@@ -15,11 +15,15 @@
  */
 package com.zavtech.morpheus.array.coding;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.Year;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Currency;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 import gnu.trove.map.TObjectIntMap;
@@ -51,6 +55,45 @@ public interface IntCoding<T> extends Coding<T> {
      */
     T getValue(int code);
 
+    /**
+     * Returns the code already assigned to the value specified, without assigning a new code
+     * @param value the value, which can be null
+     * @return      the code for value, Integer.MIN_VALUE if the value has not been assigned a code
+     */
+    default int findCode(T value) {
+        return getCode(value);
+    }
+
+    /**
+     * Compares the values for the two codes specified, which by default are ordered in the same way as their values
+     * @param code1 the first code
+     * @param code2 the second code
+     * @return      negative, zero or positive if the value for code1 is less than, equal to or greater than that for code2
+     */
+    default int compare(int code1, int code2) {
+        return Integer.compare(code1, code2);
+    }
+
+    /**
+     * Writes the code specified to a stream in the representation appropriate for this coding
+     * @param os    the output stream
+     * @param code  the code to write
+     * @throws IOException  if the write fails
+     */
+    default void write(ObjectOutputStream os, int code) throws IOException {
+        os.writeInt(code);
+    }
+
+    /**
+     * Reads a code from a stream that was written by <code>write()</code>
+     * @param is    the input stream
+     * @return      the code read from the stream
+     * @throws IOException  if the read fails
+     */
+    default int read(ObjectInputStream is) throws IOException {
+        return is.readInt();
+    }
+
 
     /**
      * Returns a new coding for the Year class
@@ -60,6 +103,22 @@ public interface IntCoding<T> extends Coding<T> {
         return new OfYear();
     }
 
+    /**
+     * Returns a new coding for the Short class
+     * @return  the newly created coding
+     */
+    static IntCoding<Short> ofShort() {
+        return new OfShort();
+    }
+
+    /**
+     * Returns a new coding for the Byte class
+     * @return  the newly created coding
+     */
+    static IntCoding<Byte> ofByte() {
+        return new OfByte();
+    }
+
     /**
      * Returns a new coding for the ZoneId class
      * @return  the newly created coding
@@ -84,6 +143,28 @@ public interface IntCoding<T> extends Coding<T> {
         return new OfCurrency();
     }
 
+    /**
+     * Returns a new dictionary coding where each code is the index of a value in the dictionary
+     * @param type      the data type
+     * @param values    the initial dictionary of distinct values, which is extended as new values are encoded
+     * @param <T>       the type
+     * @return          the newly created coding
+     */
+    static <T> OfDictionary<T> ofDictionary(Class<T> type, T[] values) {
+        return new OfDictionary<>(type, values);
+    }
+
+    /**
+     * Returns a new dictionary coding with an initially empty dictionary
+     * @param type      the data type
+     * @param <T>       the type
+     * @return          the newly created coding
+     */
+    @SuppressWarnings("unchecked")
+    static <T> OfDictionary<T> ofDictionary(Class<T> type) {
+        return new OfDictionary<>(type, (T[])java.lang.reflect.Array.newInstance(type, 0));
+    }
+
     /**
      * Returns a new coding for the enum specified
      * @param type  the enum type
@@ -161,6 +242,58 @@ public interface IntCoding<T> extends Coding<T> {
 
 
 
+    /**
+     * An IntCoding implementation for the Short class, where the code is the value itself
+     */
+    class OfShort extends BaseCoding<Short> implements IntCoding<Short> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor
+         */
+        public OfShort() {
+            super(Short.class);
+        }
+
+        @Override
+        public final int getCode(Short value) {
+            return value == null ? Integer.MIN_VALUE : value;
+        }
+
+        @Override
+        public final Short getValue(int code) {
+            return code == Integer.MIN_VALUE ? null : (short)code;
+        }
+    }
+
+
+    /**
+     * An IntCoding implementation for the Byte class, where the code is the value itself
+     */
+    class OfByte extends BaseCoding<Byte> implements IntCoding<Byte> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor
+         */
+        public OfByte() {
+            super(Byte.class);
+        }
+
+        @Override
+        public final int getCode(Byte value) {
+            return value == null ? Integer.MIN_VALUE : value;
+        }
+
+        @Override
+        public final Byte getValue(int code) {
+            return code == Integer.MIN_VALUE ? null : (byte)code;
+        }
+    }
+
+
     /**
      * An IntCoding implementation for the Currency class.
      */
@@ -266,4 +399,204 @@ public interface IntCoding<T> extends Coding<T> {
     }
 
 
+    /**
+     * An IntCoding implementation that maps values to their index in a dictionary of distinct values.
+     * The dictionary grows when a value not yet present is encoded, so codes are stable once assigned.
+     * Codes are ordered by the natural order of their values via ranks that are computed lazily, and
+     * codes are written to streams as values so that they can be read into a different dictionary.
+     * Only the assignment of new codes is synchronized, so lookups of existing codes and values are lock free.
+     */
+    class OfDictionary<T> extends BaseCoding<T> implements IntCoding<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private volatile T[] values;
+        private volatile int size;
+        private final ConcurrentHashMap<T,Integer> codeMap;
+        private transient volatile int[] ranks;
+        private transient volatile Lookup<T> lookup;
+
+        /**
+         * Constructor
+         * @param type      the data type
+         * @param values    the initial dictionary of distinct values
+         */
+        OfDictionary(Class<T> type, T[] values) {
+            super(type);
+            this.size = values.length;
+            this.values = Arrays.copyOf(values, Math.max(values.length, 16));
+            this.codeMap = new ConcurrentHashMap<>(Math.max(values.length * 2, 16));
+            for (int i=0; i<values.length; ++i) {
+                this.codeMap.put(values[i], i);
+            }
+        }
+
+        /**
+         * Returns the number of distinct values in the dictionary
+         * @return  the dictionary size
+         */
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public final int getCode(T value) {
+            if (value == null) {
+                return -1;
+            } else {
+                final Integer code = codeMap.get(value);
+                return code != null ? code : assign(value);
+            }
+        }
+
+        /**
+         * Assigns the next code to the value specified, unless another thread assigned it a code first
+         * <p>The value is written to the dictionary before the code is published via the map, and the dictionary array is
+         * re-published through its volatile reference, so any thread that resolves the code can also see the value.</p>
+         * @param value the value to assign a code to
+         * @return      the code for value
+         */
+        private synchronized int assign(T value) {
+            final Integer existing = codeMap.get(value);
+            if (existing != null) {
+                return existing;
+            } else {
+                final int code = size;
+                final T[] values = code == this.values.length ? Arrays.copyOf(this.values, code * 2) : this.values;
+                values[code] = value;
+                this.values = values;
+                this.size = code + 1;
+                this.codeMap.put(value, code);
+                return code;
+            }
+        }
+
+        /**
+         * Returns the code for a value without assigning a new code, which is cached against the value instance
+         * <p>Equality filters pass the same value instance for every element, so the code is resolved once per filter,
+         * and each element is then tested by comparing ints. A cached miss is only reused while the dictionary has not
+         * grown, since the value may since have been assigned a code.</p>
+         * @param value the value, which can be null
+         * @return      the code for value, Integer.MIN_VALUE if the value has not been assigned a code
+         */
+        @Override
+        public final int findCode(T value) {
+            if (value == null) {
+                return -1;
+            } else {
+                final Lookup<T> lookup = this.lookup;
+                if (lookup != null && lookup.value == value && (lookup.code >= 0 || lookup.size == size)) {
+                    return lookup.code;
+                } else {
+                    final int size = this.size;
+                    final Integer code = codeMap.get(value);
+                    final Lookup<T> result = new Lookup<>(value, code != null ? code : Integer.MIN_VALUE, size);
+                    this.lookup = result;
+                    return result.code;
+                }
+            }
+        }
+
+        @Override
+        public final T getValue(int code) {
+            if (code < 0) {
+                return null;
+            } else {
+                final T[] values = this.values;
+                final T value = code < values.length ? values[code] : null;
+                return value != null ? value : valueOf(code);
+            }
+        }
+
+        /**
+         * Returns the value for a code under the lock, for a code read before the value became visible to this thread
+         * @param code  the code
+         * @return      the value for code
+         */
+        private synchronized T valueOf(int code) {
+            if (code >= size) {
+                throw new IllegalArgumentException("No value assigned to dictionary code: " + code);
+            } else {
+                return values[code];
+            }
+        }
+
+        @Override
+        public final int compare(int code1, int code2) {
+            if (code1 == code2) {
+                return 0;
+            } else if (code1 < 0 || code2 < 0) {
+                return Integer.compare(code1, code2);
+            } else {
+                int[] ranks = this.ranks;
+                if (ranks == null || code1 >= ranks.length || code2 >= ranks.length) {
+                    ranks = ranks();
+                }
+                return Integer.compare(ranks[code1], ranks[code2]);
+            }
+        }
+
+        @Override
+        public final void write(ObjectOutputStream os, int code) throws IOException {
+            os.writeObject(getValue(code));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public final int read(ObjectInputStream is) throws IOException {
+            try {
+                return getCode((T)is.readObject());
+            } catch (ClassNotFoundException ex) {
+                throw new IOException("Failed to read value for dictionary coding", ex);
+            }
+        }
+
+        /**
+         * Returns the rank of each code in the natural order of the values, computing them if the dictionary has grown
+         * @return  the array of ranks indexed by code
+         */
+        @SuppressWarnings("unchecked")
+        private synchronized int[] ranks() {
+            if (ranks == null || ranks.length != size) {
+                final int[] order = IntStream.range(0, size).toArray();
+                if (Comparable.class.isAssignableFrom(getType())) {
+                    final T[] values = this.values;
+                    final IntComparator comparator = (i, j) -> ((Comparable)values[order[i]]).compareTo(values[order[j]]);
+                    SortAlgorithm.getDefault(false).sort(0, size, comparator, (i, j) -> {
+                        final int v1 = order[i]; order[i] = order[j]; order[j] = v1;
+                    });
+                }
+                final int[] result = new int[size];
+                for (int i=0; i<size; ++i) {
+                    result[order[i]] = i;
+                }
+                this.ranks = result;
+            }
+            return ranks;
+        }
+
+
+        /**
+         * An immutable record of the most recent code lookup for a value instance
+         */
+        private static class Lookup<T> {
+
+            private final T value;
+            private final int code;
+            private final int size;
+
+            /**
+             * Constructor
+             * @param value the value instance
+             * @param code  the code for value, Integer.MIN_VALUE if not assigned
+             * @param size  the dictionary size before the lookup
+             */
+            Lookup(T value, int code, int size) {
+                this.value = value;
+                this.code = code;
+                this.size = size;
+            }
+        }
+    }
+
 }
@@ -18,7 +18,7 @@ package com.zavtech.morpheus.array.dense;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Predicate;
 
 import gnu.trove.set.TShortSet;
@@ -33,7 +33,12 @@ import com.zavtech.morpheus.array.ArrayStyle;
 import com.zavtech.morpheus.array.ArrayValue;
 
 /**
- * An Array implementation designed to hold a dense array of boolean values
+ * An Array implementation designed to hold a dense array of boolean values packed into 64 bit words
+ *
+ * <p>Each value occupies a single bit, so this array is an eighth of the size of a boolean[], and counting, filling
+ * and the logical operations work a whole word at a time. Bits beyond the length of the array are always zero. Single
+ * element updates use a compare and set on the word, so that concurrent updates of adjacent elements from parallel
+ * tasks cannot overwrite each other.</p>
  *
  * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
  *
@@ -43,7 +48,8 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
 
     private static final long serialVersionUID = 1L;
 
-    private boolean[] values;
+    private int length;
+    private AtomicLongArray words;
     private boolean defaultValue;
 
     /**
@@ -53,9 +59,12 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
      */
     DenseArrayOfBooleans(int length, Boolean defaultValue) {
         super(Boolean.class, ArrayStyle.DENSE, false);
-        this.values = new boolean[length];
+        this.length = length;
+        this.words = new AtomicLongArray(wordCount(length));
         this.defaultValue = defaultValue != null ? defaultValue : false;
-        Arrays.fill(values, this.defaultValue);
+        if (this.defaultValue) {
+            this.fill(true, 0, length);
+        }
     }
 
     /**
@@ -65,14 +74,66 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
      */
     private DenseArrayOfBooleans(DenseArrayOfBooleans source, boolean parallel) {
         super(source.type(), ArrayStyle.DENSE, parallel);
-        this.values = source.values;
+        this.length = source.length;
+        this.words = source.words;
         this.defaultValue = source.defaultValue;
     }
 
 
+    /**
+     * Returns the number of 64 bit words required to hold the number of bits specified
+     * @param length    the number of bits
+     * @return          the number of words
+     */
+    private static int wordCount(int length) {
+        return (length + 63) >>> 6;
+    }
+
+
+    /**
+     * Checks the index is within the bounds of this array, since the last word may hold bits beyond the length
+     * @param index the index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Array index out of bounds: " + index + ", length " + length);
+        }
+    }
+
+
+    /**
+     * Returns a word of 64 bits starting at the bit index specified, with zeros beyond the end of the array
+     * @param index     the bit index of the first bit in the word
+     * @return          the word of bits starting at index
+     */
+    private long wordAt(int index) {
+        final int word = index >>> 6;
+        final int shift = index & 63;
+        if (shift == 0) {
+            return words.get(word);
+        } else if (word + 1 < words.length()) {
+            return (words.get(word) >>> shift) | (words.get(word + 1) << (64 - shift));
+        } else {
+            return words.get(word) >>> shift;
+        }
+    }
+
+
+    /**
+     * Clears the bits beyond the length of this array in the last word
+     */
+    private void clearTail() {
+        final int tail = length & 63;
+        if (tail != 0) {
+            final int last = words.length() - 1;
+            this.words.set(last, words.get(last) & (-1L >>> (64 - tail)));
+        }
+    }
+
+
     @Override
     public final int length() {
-        return values.length;
+        return length;
     }
 
 
@@ -105,7 +166,10 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
         try {
             final DenseArrayOfBooleans copy = (DenseArrayOfBooleans)super.clone();
             copy.defaultValue = this.defaultValue;
-            copy.values = this.values.clone();
+            copy.words = new AtomicLongArray(words.length());
+            for (int i=0; i<words.length(); ++i) {
+                copy.words.set(i, words.get(i));
+            }
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -115,9 +179,12 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
 
     @Override()
     public final Array<Boolean> copy(int[] indexes) {
-        final DenseArrayOfBooleans clone = new DenseArrayOfBooleans(indexes.length, defaultValue);
-        for (int i = 0; i < indexes.length; ++i) {
-            clone.values[i] = this.values[indexes[i]];
+        final DenseArrayOfBooleans clone = new DenseArrayOfBooleans(indexes.length, false);
+        clone.defaultValue = defaultValue;
+        for (int i=0; i<indexes.length; ++i) {
+            if (getBoolean(indexes[i])) {
+                clone.setBoolean(i, true);
+            }
         }
         return clone;
     }
@@ -126,30 +193,44 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
     @Override()
     public final Array<Boolean> copy(int start, int end) {
         final int length = end - start;
-        final DenseArrayOfBooleans clone = new DenseArrayOfBooleans(length, defaultValue);
-        System.arraycopy(values, start, clone.values, 0, length);
+        final DenseArrayOfBooleans clone = new DenseArrayOfBooleans(length, false);
+        clone.defaultValue = defaultValue;
+        for (int i=0; i<clone.words.length(); ++i) {
+            clone.words.set(i, wordAt(start + (i << 6)));
+        }
+        clone.clearTail();
         return clone;
     }
 
 
     @Override
     protected final Array<Boolean> sort(int start, int end, int multiplier) {
-        return doSort(start, end, (i, j) -> multiplier * Boolean.compare(values[i], values[j]));
+        final int trueCount = countTrue(start, end);
+        if (multiplier > 0) {
+            this.fill(false, start, end - trueCount);
+            this.fill(true, end - trueCount, end);
+        } else {
+            this.fill(true, start, start + trueCount);
+            this.fill(false, start + trueCount, end);
+        }
+        return this;
     }
 
 
     @Override
     public final int compare(int i, int j) {
-        return Boolean.compare(values[i], values[j]);
+        return Boolean.compare(getBoolean(i), getBoolean(j));
     }
 
 
     @Override
     public final Array<Boolean> swap(int i, int j) {
-        final boolean v1 = values[i];
-        final boolean v2 = values[j];
-        this.values[i] = v2;
-        this.values[j] = v1;
+        final boolean v1 = getBoolean(i);
+        final boolean v2 = getBoolean(j);
+        if (v1 != v2) {
+            this.setBoolean(i, v2);
+            this.setBoolean(j, v1);
+        }
         return this;
     }
 
@@ -158,7 +239,7 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
     public final Array<Boolean> filter(Predicate<ArrayValue<Boolean>> predicate) {
         final ArrayCursor<Boolean> cursor = cursor();
         final ArrayBuilder<Boolean> builder = ArrayBuilder.of(length(), type());
-        for (int i=0; i<values.length; ++i) {
+        for (int i=0; i<length; ++i) {
             cursor.moveTo(i);
             final boolean match = predicate.test(cursor);
             if (match) {
@@ -197,11 +278,17 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
 
     @Override
     public final Array<Boolean> expand(int newLength) {
-        if (newLength > values.length) {
-            final boolean[] newValues = new boolean[newLength];
-            System.arraycopy(values, 0, newValues, 0, values.length);
-            Arrays.fill(newValues, values.length, newValues.length, defaultValue);
-            this.values = newValues;
+        if (newLength > length) {
+            final int oldLength = length;
+            final AtomicLongArray newWords = new AtomicLongArray(wordCount(newLength));
+            for (int i=0; i<words.length(); ++i) {
+                newWords.set(i, words.get(i));
+            }
+            this.words = newWords;
+            this.length = newLength;
+            if (defaultValue) {
+                this.fill(true, oldLength, newLength);
+            }
         }
         return this;
     }
@@ -209,7 +296,108 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
 
     @Override
     public Array<Boolean> fill(Boolean value, int start, int end) {
-        Arrays.fill(values, start, end, value == null ? defaultValue : value);
+        if (start > end) {
+            throw new IllegalArgumentException("The fill start index " + start + " is greater than the end index " + end);
+        } else if (start < 0 || end > length) {
+            throw new ArrayIndexOutOfBoundsException("Array fill range [" + start + ", " + end + ") out of bounds, length " + length);
+        } else if (start < end) {
+            final boolean fillValue = value == null ? defaultValue : value;
+            final int first = start >>> 6;
+            final int last = (end - 1) >>> 6;
+            final long firstMask = -1L << start;
+            final long lastMask = -1L >>> -end;
+            if (first == last) {
+                this.fillWord(first, firstMask & lastMask, fillValue);
+            } else {
+                this.fillWord(first, firstMask, fillValue);
+                for (int i=first+1; i<last; ++i) {
+                    this.words.set(i, fillValue ? -1L : 0L);
+                }
+                this.fillWord(last, lastMask, fillValue);
+            }
+        }
+        return this;
+    }
+
+
+    /**
+     * Sets or clears the bits of the word selected by the mask
+     * @param word  the word index
+     * @param mask  the mask of bits to update
+     * @param value true to set the bits, false to clear them
+     */
+    private void fillWord(int word, long mask, boolean value) {
+        long current, update;
+        do {
+            current = words.get(word);
+            update = value ? current | mask : current & ~mask;
+        } while (current != update && !words.compareAndSet(word, current, update));
+    }
+
+
+    @Override
+    public int countTrue() {
+        int count = 0;
+        for (int i=0; i<words.length(); ++i) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns the number of true values in the range specified
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the number of true values in range
+     */
+    private int countTrue(int start, int end) {
+        int count = 0;
+        for (int i=start; i<end; i+=64) {
+            final long word = wordAt(i);
+            final int bits = end - i;
+            count += Long.bitCount(bits >= 64 ? word : word & ((1L << bits) - 1L));
+        }
+        return count;
+    }
+
+
+    @Override
+    public Array<Boolean> and(Array<Boolean> other) {
+        if (other instanceof DenseArrayOfBooleans) {
+            this.checkLength(other);
+            final AtomicLongArray otherWords = ((DenseArrayOfBooleans)other).words;
+            for (int i=0; i<words.length(); ++i) {
+                this.words.set(i, words.get(i) & otherWords.get(i));
+            }
+            return this;
+        } else {
+            return super.and(other);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> or(Array<Boolean> other) {
+        if (other instanceof DenseArrayOfBooleans) {
+            this.checkLength(other);
+            final AtomicLongArray otherWords = ((DenseArrayOfBooleans)other).words;
+            for (int i=0; i<words.length(); ++i) {
+                this.words.set(i, words.get(i) | otherWords.get(i));
+            }
+            return this;
+        } else {
+            return super.or(other);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> not() {
+        for (int i=0; i<words.length(); ++i) {
+            this.words.set(i, ~words.get(i));
+        }
+        this.clearTail();
         return this;
     }
 
@@ -222,40 +410,41 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
 
     @Override
     public final boolean isEqualTo(int index, Boolean value) {
-        return value != null && values[index] == value;
+        return value != null && getBoolean(index) == value;
     }
 
 
     @Override
     public final boolean getBoolean(int index) {
-        return values[index];
+        this.checkIndex(index);
+        return (words.get(index >>> 6) & (1L << index)) != 0L;
     }
 
 
     @Override
     public final Boolean getValue(int index) {
-        return values[index] ? Boolean.TRUE : Boolean.FALSE;
+        return getBoolean(index) ? Boolean.TRUE : Boolean.FALSE;
     }
 
 
     @Override
     public final boolean setBoolean(int index, boolean value) {
-        final boolean oldValue = values[index];
-        this.values[index] = value;
-        return oldValue;
+        this.checkIndex(index);
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        long current, update;
+        do {
+            current = words.get(word);
+            update = value ? current | mask : current & ~mask;
+        } while (current != update && !words.compareAndSet(word, current, update));
+        return (current & mask) != 0L;
     }
 
 
     @Override
     public final Boolean setValue(int index, Boolean value) {
-        final boolean oldValue = values[index];
-        if (value == null) {
-            this.values[index] = defaultValue;
-            return oldValue;
-        } else {
-            this.values[index] = value;
-            return oldValue;
-        }
+        final boolean oldValue = setBoolean(index, value == null ? defaultValue : value);
+        return oldValue ? Boolean.TRUE : Boolean.FALSE;
     }
 
 
@@ -299,22 +488,23 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
-            this.values[i] = is.readBoolean();
+            this.setBoolean(i, is.readBoolean());
         }
     }
 
     @Override
     public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
         for (int index : indexes) {
-            os.writeBoolean(values[index]);
+            os.writeBoolean(getBoolean(index));
         }
     }
 
     /** Custom serialization */
     private void writeObject(ObjectOutputStream os) throws IOException {
-        os.writeInt(values.length);
-        for (boolean value : values) {
-            os.writeBoolean(value);
+        os.writeInt(length);
+        os.writeBoolean(defaultValue);
+        for (int i=0; i<words.length(); ++i) {
+            os.writeLong(words.get(i));
         }
     }
 
@@ -322,10 +512,11 @@ class DenseArrayOfBooleans extends ArrayBase<Boolean> {
     @SuppressWarnings("unchecked")
     /** Custom serialization */
     private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
-        final int length = is.readInt();
-        this.values = new boolean[length];
-        for (int i=0; i<length; ++i) {
-            values[i] = is.readBoolean();
+        this.length = is.readInt();
+        this.defaultValue = is.readBoolean();
+        this.words = new AtomicLongArray(wordCount(length));
+        for (int i=0; i<words.length(); ++i) {
+            this.words.set(i, is.readLong());
         }
     }
 
@@ -0,0 +1,340 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.dense;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TByteSet;
+import gnu.trove.set.hash.TByteHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayUtils;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to hold a dense array of byte values
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class DenseArrayOfBytes extends ArrayBase<Byte> {
+
+    private static final long serialVersionUID = 1L;
+
+    private byte[] values;
+    private byte defaultValue;
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     */
+    DenseArrayOfBytes(int length, Byte defaultValue) {
+        super(Byte.class, ArrayStyle.DENSE, false);
+        this.values = new byte[length];
+        this.defaultValue = defaultValue != null ? defaultValue : 0;
+        Arrays.fill(values, this.defaultValue);
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private DenseArrayOfBytes(DenseArrayOfBytes source, boolean parallel) {
+        super(source.type(), ArrayStyle.DENSE, parallel);
+        this.values = source.values;
+        this.defaultValue = source.defaultValue;
+    }
+
+
+    @Override
+    public final int length() {
+        return values.length;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Byte defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Byte> parallel() {
+        return isParallel() ? this : new DenseArrayOfBytes(this, true);
+    }
+
+
+    @Override
+    public final Array<Byte> sequential() {
+        return isParallel() ? new DenseArrayOfBytes(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Byte> copy() {
+        try {
+            final DenseArrayOfBytes copy = (DenseArrayOfBytes)super.clone();
+            copy.defaultValue = this.defaultValue;
+            copy.values = this.values.clone();
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int[] indexes) {
+        final DenseArrayOfBytes clone = new DenseArrayOfBytes(indexes.length, defaultValue);
+        for (int i = 0; i < indexes.length; ++i) {
+            clone.values[i] = this.values[indexes[i]];
+        }
+        return clone;
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int start, int end) {
+        final int length = end - start;
+        final DenseArrayOfBytes clone = new DenseArrayOfBytes(length, defaultValue);
+        System.arraycopy(values, start, clone.values, 0, length);
+        return clone;
+    }
+
+
+    @Override
+    protected final Array<Byte> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> multiplier * Byte.compare(values[i], values[j]));
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        return Byte.compare(values[i], values[j]);
+    }
+
+
+    @Override
+    public final Array<Byte> swap(int i, int j) {
+        final byte v1 = values[i];
+        final byte v2 = values[j];
+        this.values[i] = v2;
+        this.values[j] = v1;
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> filter(Predicate<ArrayValue<Byte>> predicate) {
+        final ArrayCursor<Byte> cursor = cursor();
+        final ArrayBuilder<Byte> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<values.length; ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addInt(cursor.getInt());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Byte> update(Array<Byte> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final int update = from.getInt(fromIndex);
+                this.setInt(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> update(int toIndex, Array<Byte> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final int update = from.getInt(fromIndex + i);
+            this.setInt(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> expand(int newLength) {
+        if (newLength > values.length) {
+            final byte[] newValues = new byte[newLength];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            Arrays.fill(newValues, values.length, newValues.length, defaultValue);
+            this.values = newValues;
+        }
+        return this;
+    }
+
+
+    @Override
+    public Array<Byte> fill(Byte value, int start, int end) {
+        Arrays.fill(values, start, end, value == null ? defaultValue : value);
+        return this;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Byte value) {
+        return value != null && value == values[index];
+    }
+
+
+    @Override
+    public final int getInt(int index) {
+        return values[index];
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        return values[index];
+    }
+
+
+    @Override
+    public final Byte getValue(int index) {
+        return values[index];
+    }
+
+
+    @Override
+    public final int setInt(int index, int value) {
+        final int oldValue = getInt(index);
+        this.values[index] = ArrayUtils.toByte(value);
+        return oldValue;
+    }
+
+
+    @Override
+    public final Byte setValue(int index, Byte value) {
+        final Byte oldValue = getValue(index);
+        if (value == null) {
+            this.values[index] = defaultValue;
+            return oldValue;
+        } else {
+            this.values[index] = value;
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Byte value) {
+        return Arrays.binarySearch(values, start, end, (byte)value);
+    }
+
+
+    @Override
+    public final Array<Byte> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TByteSet set = new TByteHashSet(capacity);
+        final ArrayBuilder<Byte> builder = ArrayBuilder.of(capacity, Byte.class);
+        for (int i=0; i<length(); ++i) {
+            final byte value = values[i];
+            if (set.add(value)) {
+                builder.addInt(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final Array<Byte> cumSum() {
+        final int length = length();
+        final Array<Integer> result = Array.of(Integer.class, length);
+        int sum = 0;
+        for (int i=0; i<length; ++i) {
+            sum += values[i];
+            result.setInt(i, sum);
+        }
+        return (Array<Byte>)(Array<?>)result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            this.values[i] = is.readByte();
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            os.writeByte(values[index]);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(values.length);
+        for (byte value : values) {
+            os.writeByte(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        final int length = is.readInt();
+        this.values = new byte[length];
+        for (int i=0; i<length; ++i) {
+            values[i] = is.readByte();
+        }
+    }
+
+}
@@ -153,13 +153,13 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
 
     @Override
     protected final Array<T> sort(int start, int end, int multiplier) {
-        return doSort(start, end, (i, j) -> multiplier * Integer.compare(codes[i], codes[j]));
+        return doSort(start, end, (i, j) -> multiplier * coding.compare(codes[i], codes[j]));
     }
 
 
     @Override
     public final int compare(int i, int j) {
-        return Integer.compare(codes[i], codes[j]);
+        return coding.compare(codes[i], codes[j]);
     }
 
 
@@ -206,7 +206,7 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
 
     @Override
     public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
-        if (from instanceof DenseArrayWithIntCoding) {
+        if (from instanceof DenseArrayWithIntCoding && ((DenseArrayWithIntCoding)from).coding == coding) {
             final DenseArrayWithIntCoding other = (DenseArrayWithIntCoding) from;
             for (int i = 0; i < length; ++i) {
                 this.codes[toIndex + i] = other.codes[fromIndex + i];
@@ -256,7 +256,7 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
         if (value == null) {
             return isNull(index);
         } else {
-            final int code = coding.getCode(value);
+            final int code = coding.findCode(value);
             return code == codes[index];
         }
     }
@@ -264,7 +264,11 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
 
     @Override
     public int getInt(int index) {
-        return codes[index];
+        if (coding instanceof IntCoding.OfDictionary) {
+            return super.getInt(index);
+        } else {
+            return codes[index];
+        }
     }
 
 
@@ -288,7 +292,7 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
         final TIntSet set = new TIntHashSet(capacity);
         final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
         for (int i=0; i<length(); ++i) {
-            final int code = getInt(i);
+            final int code = codes[i];
             if (set.add(code)) {
                 final T value = getValue(i);
                 builder.add(value);
@@ -304,7 +308,7 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
-            this.codes[i] = is.readInt();
+            this.codes[i] = coding.read(is);
         }
     }
 
@@ -312,7 +316,7 @@ class DenseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T
     @Override
     public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
         for (int index : indexes) {
-            os.writeInt(codes[index]);
+            coding.write(os, codes[index]);
         }
     }
 
@@ -16,6 +16,9 @@
 package com.zavtech.morpheus.array.mapped;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -74,16 +77,33 @@ public class MappedArrayConstructor implements ArrayFactory.Constructor {
     @Override
     @SuppressWarnings("unchecked")
     public <T> Array<T> apply(Class<T> type, int length, T defaultValue, String path) {
-        final File file = path == null ? randomFile(true) : createDir(new File(path));
-        if (type.isEnum()) {
+        if (path != null) {
+            final File file = createDir(new File(path));
+            final MappedHeader header = header(type, length, defaultValue);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(MappedHeader.SIZE);
+                header.write(raf.getChannel());
+            } catch (IOException ex) {
+                throw new ArrayException("Failed to write memory mapped array header to file: " + file.getAbsolutePath(), ex);
+            }
+            final Array<T> array = map(type, length, defaultValue, file, MappedHeader.SIZE, FileChannel.MapMode.READ_WRITE, true);
+            return array.fill(defaultValue);
+        } else if (type.isEnum()) {
+            final File file = randomFile(true);
             final IntCoding<T> enumCoding = (IntCoding<T>)IntCoding.ofEnum((Class<Enum>) type);
             return new MappedArrayWithIntCoding<>(length, defaultValue, enumCoding, file);
         } else {
+            final File file = randomFile(true);
             switch (ArrayType.of(type)) {
-                case BOOLEAN:           return (Array<T>)new MappedArrayOfBooleans(length, (Boolean)defaultValue, file);
+                case BOOLEAN:           return (Array<T>)new MappedArrayOfBits(length, (Boolean)defaultValue, file);
                 case INTEGER:           return (Array<T>)new MappedArrayOfInts(length, (Integer)defaultValue, file);
                 case LONG:              return (Array<T>)new MappedArrayOfLongs(length, (Long)defaultValue, file);
                 case DOUBLE:            return (Array<T>)new MappedArrayOfDoubles(length, (Double)defaultValue, file);
+                case FLOAT:             return (Array<T>)new MappedArrayOfFloats(length, (Float)defaultValue, file);
+                case SHORT:             return (Array<T>)new MappedArrayOfShorts(length, (Short)defaultValue, file);
+                case BYTE:              return (Array<T>)new MappedArrayOfBytes(length, (Byte)defaultValue, file);
+                case OBJECT:            return new MappedArrayOfObjects<>(type, length, defaultValue, file);
+                case STRING:            return new MappedArrayOfObjects<>(type, length, defaultValue, file);
                 case CURRENCY:          return (Array<T>)new MappedArrayWithIntCoding<>(length, (Currency)defaultValue, currencyCoding, file);
                 case YEAR:              return (Array<T>)new MappedArrayWithIntCoding<>(length, (Year)defaultValue, yearCoding, file);
                 case ZONE_ID:           return (Array<T>)new MappedArrayWithIntCoding<>(length, (ZoneId)defaultValue, zoneIdCoding, file);
@@ -99,6 +119,247 @@ public class MappedArrayConstructor implements ArrayFactory.Constructor {
         }
     }
 
+
+    @Override()
+    public final <T> Array<T> applyDictionary(Class<T> type, int length, T defaultValue) {
+        return new MappedArrayWithIntCoding<>(length, defaultValue, IntCoding.ofDictionary(type), randomFile(true));
+    }
+
+
+    /**
+     * Returns an array that maps an existing file previously created with a path, without initializing its contents
+     * <p>The header at the start of the file records the type, length and default value of the array, so only the type
+     * needs to be specified, which must match that recorded in the file. A read/write array writes through to the file
+     * and expands it in place, while a read only array throws a ReadOnlyBufferException on any attempt to write.</p>
+     * @param type      the array element type, which must match the type recorded in the file
+     * @param file      the file previously created via a memory mapped array with a path
+     * @param readOnly  true to map the file read only, false to map read/write
+     * @param <T>       the element type
+     * @return          the array backed by the existing file
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Array<T> open(Class<T> type, File file, boolean readOnly) {
+        if (!file.isFile()) {
+            throw new ArrayException("No memory mapped array file exists at: " + file.getAbsolutePath());
+        } else {
+            final MappedHeader header;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                header = MappedHeader.read(file, raf.getChannel());
+            } catch (IOException ex) {
+                throw new ArrayException("Failed to read memory mapped array header from file: " + file.getAbsolutePath(), ex);
+            }
+            final int length = header.getLength();
+            final int elementBytes = elementBytes(type);
+            final boolean shortBooleans = type == Boolean.class && header.getElementBytes() == 2;
+            final long dataBytes = elementBytes == 0 ? MappedArrayOfBits.wordCount(length) * 8L : (long)length * elementBytes;
+            if (!header.getTypeName().equals(type.getName())) {
+                throw new ArrayException("Type mismatch for " + file.getAbsolutePath() + ", expected " + type.getName() + " but file holds " + header.getTypeName());
+            } else if (header.getElementBytes() != elementBytes && !shortBooleans) {
+                throw new ArrayException("Element size mismatch for " + file.getAbsolutePath() + ", expected " + elementBytes + " but file holds " + header.getElementBytes());
+            } else if (file.length() < MappedHeader.SIZE + (shortBooleans ? length * 2L : dataBytes)) {
+                throw new ArrayException("The memory mapped array file is truncated, expected " + length + " elements in " + file.getAbsolutePath());
+            } else {
+                final T defaultValue = defaultValue(type, header);
+                final FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+                if (shortBooleans) {
+                    return (Array<T>)new MappedArrayOfBooleans(length, (Boolean)defaultValue, file, MappedHeader.SIZE, mode, true);
+                } else {
+                    return map(type, length, defaultValue, file, MappedHeader.SIZE, mode, true);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns an array that maps an existing region of a file, without initializing its contents
+     * <p>The region must hold values in the same binary layout used by the memory mapped arrays, which is big endian
+     * with booleans stored as shorts and date/time types stored as the long codes of the standard LongCodings.</p>
+     * @param type          the array element type
+     * @param length        the length of the array
+     * @param defaultValue  the default value for the array
+     * @param file          the file that contains the region
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param <T>           the element type
+     * @return              the newly created array backed by the file region
+     */
+    public static <T> Array<T> map(Class<T> type, int length, T defaultValue, File file, long offset, FileChannel.MapMode mode) {
+        return map(type, length, defaultValue, file, offset, mode, false);
+    }
+
+
+    /**
+     * Returns an array of int codes that maps an existing region of a file, without initializing its contents
+     * @param coding        the coding between values and the int codes in the file
+     * @param length        the length of the array
+     * @param defaultValue  the default value for the array
+     * @param file          the file that contains the region
+     * @param offset        the byte offset of the first code in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param <T>           the element type
+     * @return              the newly created array backed by the file region
+     */
+    public static <T> Array<T> map(IntCoding<T> coding, int length, T defaultValue, File file, long offset, FileChannel.MapMode mode) {
+        return new MappedArrayWithIntCoding<>(length, defaultValue, coding, file, offset, mode, false);
+    }
+
+
+    /**
+     * Returns an array that maps a region of a file, without initializing its contents
+     * @param type          the array element type
+     * @param length        the length of the array
+     * @param defaultValue  the default value for the array
+     * @param file          the file that contains the region
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode
+     * @param header        true if a MappedHeader precedes the region
+     * @param <T>           the element type
+     * @return              the newly created array backed by the file region
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Array<T> map(Class<T> type, int length, T defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        if (type.isEnum()) {
+            final IntCoding<T> enumCoding = (IntCoding<T>)IntCoding.ofEnum((Class<Enum>) type);
+            return new MappedArrayWithIntCoding<>(length, defaultValue, enumCoding, file, offset, mode, header);
+        } else {
+            switch (ArrayType.of(type)) {
+                case BOOLEAN:           return header ? (Array<T>)new MappedArrayOfBits(length, (Boolean)defaultValue, file, offset, mode, true) : (Array<T>)new MappedArrayOfBooleans(length, (Boolean)defaultValue, file, offset, mode, false);
+                case INTEGER:           return (Array<T>)new MappedArrayOfInts(length, (Integer)defaultValue, file, offset, mode, header);
+                case LONG:              return (Array<T>)new MappedArrayOfLongs(length, (Long)defaultValue, file, offset, mode, header);
+                case DOUBLE:            return (Array<T>)new MappedArrayOfDoubles(length, (Double)defaultValue, file, offset, mode, header);
+                case FLOAT:             return (Array<T>)new MappedArrayOfFloats(length, (Float)defaultValue, file, offset, mode, header);
+                case SHORT:             return (Array<T>)new MappedArrayOfShorts(length, (Short)defaultValue, file, offset, mode, header);
+                case BYTE:              return (Array<T>)new MappedArrayOfBytes(length, (Byte)defaultValue, file, offset, mode, header);
+                case CURRENCY:          return (Array<T>)new MappedArrayWithIntCoding<>(length, (Currency)defaultValue, currencyCoding, file, offset, mode, header);
+                case YEAR:              return (Array<T>)new MappedArrayWithIntCoding<>(length, (Year)defaultValue, yearCoding, file, offset, mode, header);
+                case ZONE_ID:           return (Array<T>)new MappedArrayWithIntCoding<>(length, (ZoneId)defaultValue, zoneIdCoding, file, offset, mode, header);
+                case TIME_ZONE:         return (Array<T>)new MappedArrayWithIntCoding<>(length, (TimeZone)defaultValue, timeZoneCoding, file, offset, mode, header);
+                case DATE:              return (Array<T>)new MappedArrayWithLongCoding<>(length, (Date)defaultValue, dateCoding, file, offset, mode, header);
+                case INSTANT:           return (Array<T>)new MappedArrayWithLongCoding<>(length, (Instant)defaultValue, instantCoding, file, offset, mode, header);
+                case LOCAL_DATE:        return (Array<T>)new MappedArrayWithLongCoding<>(length, (LocalDate)defaultValue, localDateCoding, file, offset, mode, header);
+                case LOCAL_TIME:        return (Array<T>)new MappedArrayWithLongCoding<>(length, (LocalTime)defaultValue, localTimeCoding, file, offset, mode, header);
+                case LOCAL_DATETIME:    return (Array<T>)new MappedArrayWithLongCoding<>(length, (LocalDateTime)defaultValue, localDateTimeCoding, file, offset, mode, header);
+                case ZONED_DATETIME:    return (Array<T>)new MappedArrayOfZonedDateTimes(length, (ZonedDateTime)defaultValue, file, offset, mode, header);
+                default:                throw new UnsupportedOperationException("Data type currently not supported for memory mapped arrays: " + type);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes used to store each element of the type specified
+     * <p>Files created with a path store booleans packed 64 to a long, which is recorded in the header as zero bytes
+     * per element. Files created before bit packing recorded booleans as 2 byte shorts, and these can still be opened.</p>
+     * @param type  the array element type
+     * @return      the number of bytes per element, zero for bit packed booleans
+     */
+    private static int elementBytes(Class<?> type) {
+        if (type.isEnum()) {
+            return 4;
+        } else {
+            switch (ArrayType.of(type)) {
+                case BOOLEAN:           return 0;
+                case INTEGER:           return 4;
+                case FLOAT:             return 4;
+                case SHORT:             return 2;
+                case BYTE:              return 1;
+                case CURRENCY:          return 4;
+                case YEAR:              return 4;
+                case ZONE_ID:           return 4;
+                case TIME_ZONE:         return 4;
+                case ZONED_DATETIME:    return 10;
+                default:                return 8;
+            }
+        }
+    }
+
+
+    /**
+     * Returns a header that describes a memory mapped array with the arguments specified
+     * @param type          the array element type
+     * @param length        the array length
+     * @param defaultValue  the default value for the array
+     * @param <T>           the element type
+     * @return              the header for the array
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> MappedHeader header(Class<T> type, int length, T defaultValue) {
+        final String name = type.getName();
+        final int bytes = elementBytes(type);
+        if (type.isEnum()) {
+            final IntCoding<T> enumCoding = (IntCoding<T>)IntCoding.ofEnum((Class<Enum>) type);
+            return new MappedHeader(name, length, bytes, enumCoding.getCode(defaultValue), null);
+        } else {
+            switch (ArrayType.of(type)) {
+                case BOOLEAN:           return new MappedHeader(name, length, bytes, Boolean.TRUE.equals(defaultValue) ? 1L : 0L, null);
+                case INTEGER:           return new MappedHeader(name, length, bytes, defaultValue == null ? 0L : (Integer)defaultValue, null);
+                case LONG:              return new MappedHeader(name, length, bytes, defaultValue == null ? 0L : (Long)defaultValue, null);
+                case DOUBLE:            return new MappedHeader(name, length, bytes, Double.doubleToLongBits(defaultValue == null ? Double.NaN : (Double)defaultValue), null);
+                case FLOAT:             return new MappedHeader(name, length, bytes, Float.floatToIntBits(defaultValue == null ? Float.NaN : (Float)defaultValue), null);
+                case SHORT:             return new MappedHeader(name, length, bytes, defaultValue == null ? 0L : (Short)defaultValue, null);
+                case BYTE:              return new MappedHeader(name, length, bytes, defaultValue == null ? 0L : (Byte)defaultValue, null);
+                case CURRENCY:          return new MappedHeader(name, length, bytes, currencyCoding.getCode((Currency)defaultValue), null);
+                case YEAR:              return new MappedHeader(name, length, bytes, yearCoding.getCode((Year)defaultValue), null);
+                case ZONE_ID:           return new MappedHeader(name, length, bytes, zoneIdCoding.getCode((ZoneId)defaultValue), null);
+                case TIME_ZONE:         return new MappedHeader(name, length, bytes, timeZoneCoding.getCode((TimeZone)defaultValue), null);
+                case DATE:              return new MappedHeader(name, length, bytes, dateCoding.getCode((Date)defaultValue), null);
+                case INSTANT:           return new MappedHeader(name, length, bytes, instantCoding.getCode((Instant)defaultValue), null);
+                case LOCAL_DATE:        return new MappedHeader(name, length, bytes, localDateCoding.getCode((LocalDate)defaultValue), null);
+                case LOCAL_TIME:        return new MappedHeader(name, length, bytes, localTimeCoding.getCode((LocalTime)defaultValue), null);
+                case LOCAL_DATETIME:    return new MappedHeader(name, length, bytes, localDateTimeCoding.getCode((LocalDateTime)defaultValue), null);
+                case ZONED_DATETIME:
+                    final ZonedDateTime value = (ZonedDateTime)defaultValue;
+                    final long epochMillis = value == null ? Long.MIN_VALUE : value.toInstant().toEpochMilli();
+                    return new MappedHeader(name, length, bytes, epochMillis, value == null ? null : value.getZone().getId());
+                default:
+                    throw new UnsupportedOperationException("Data type currently not supported for memory mapped arrays: " + type);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the default value recorded in the header specified
+     * @param type      the array element type
+     * @param header    the header of the memory mapped array file
+     * @param <T>       the element type
+     * @return          the default value for the array
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T defaultValue(Class<T> type, MappedHeader header) {
+        final long bits = header.getDefaultBits();
+        if (type.isEnum()) {
+            final IntCoding<T> enumCoding = (IntCoding<T>)IntCoding.ofEnum((Class<Enum>) type);
+            return enumCoding.getValue((int)bits);
+        } else {
+            switch (ArrayType.of(type)) {
+                case BOOLEAN:           return (T)Boolean.valueOf(bits != 0L);
+                case INTEGER:           return (T)Integer.valueOf((int)bits);
+                case LONG:              return (T)Long.valueOf(bits);
+                case DOUBLE:            return (T)Double.valueOf(Double.longBitsToDouble(bits));
+                case FLOAT:             return (T)Float.valueOf(Float.intBitsToFloat((int)bits));
+                case SHORT:             return (T)Short.valueOf((short)bits);
+                case BYTE:              return (T)Byte.valueOf((byte)bits);
+                case CURRENCY:          return (T)currencyCoding.getValue((int)bits);
+                case YEAR:              return (T)yearCoding.getValue((int)bits);
+                case ZONE_ID:           return (T)zoneIdCoding.getValue((int)bits);
+                case TIME_ZONE:         return (T)timeZoneCoding.getValue((int)bits);
+                case DATE:              return (T)dateCoding.getValue(bits);
+                case INSTANT:           return (T)instantCoding.getValue(bits);
+                case LOCAL_DATE:        return (T)localDateCoding.getValue(bits);
+                case LOCAL_TIME:        return (T)localTimeCoding.getValue(bits);
+                case LOCAL_DATETIME:    return (T)localDateTimeCoding.getValue(bits);
+                case ZONED_DATETIME:
+                    final String zone = header.getDefaultZone();
+                    return zone.isEmpty() ? null : (T)ZonedDateTime.ofInstant(Instant.ofEpochMilli(bits), ZoneId.of(zone));
+                default:
+                    throw new UnsupportedOperationException("Data type currently not supported for memory mapped arrays: " + type);
+            }
+        }
+    }
+
+
     /**
      * Returns a newly created random file to store an array
      * @return      newly created random file
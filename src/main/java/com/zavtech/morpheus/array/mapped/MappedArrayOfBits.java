@@ -0,0 +1,607 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TShortSet;
+import gnu.trove.set.hash.TShortHashSet;
+
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to hold a mapped array of boolean values packed into 64 bit words
+ *
+ * <p>Each value occupies a single bit of a sequence of big endian longs, so this array is a sixteenth of the size of
+ * the short per value layout of MappedArrayOfBooleans, and counting, filling and the logical operations work a whole
+ * word at a time. Bits beyond the length of the array are always zero. Since a mapped buffer offers no compare and set,
+ * single element updates synchronize on the buffer so that concurrent updates of adjacent elements cannot collide.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedArrayOfBits extends ArrayBase<Boolean> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long BYTE_COUNT = 8L;
+
+    private File file;
+    private int length;
+    private long offset;
+    private boolean header;
+    private boolean defaultValue;
+    private boolean region;
+    private FileChannel channel;
+    private MappedBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     */
+    MappedArrayOfBits(int length, Boolean defaultValue , File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfBits(int length, Boolean defaultValue , File file, boolean fill) {
+        super(Boolean.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.defaultValue = defaultValue == null ? false : defaultValue;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, wordCount(length));
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first word in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfBits(int length, Boolean defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Boolean.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.offset = offset;
+            this.header = header;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? false : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, wordCount(length));
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private MappedArrayOfBits(MappedArrayOfBits source, boolean parallel) {
+        super(source.type(), ArrayStyle.MAPPED, parallel);
+        this.file = source.file;
+        this.length = source.length;
+        this.offset = source.offset;
+        this.header = source.header;
+        this.defaultValue = source.defaultValue;
+        this.channel = source.channel;
+        this.region = source.region;
+        this.buffer = source.buffer;
+    }
+
+
+    /**
+     * Returns the number of 64 bit words required to hold the number of bits specified
+     * @param length    the number of bits
+     * @return          the number of words
+     */
+    static int wordCount(int length) {
+        return (length + 63) >>> 6;
+    }
+
+
+    /**
+     * Checks the index is within the bounds of this array, since the last word may hold bits beyond the length
+     * @param index the index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Array index out of bounds: " + index + ", length " + length);
+        }
+    }
+
+
+    /**
+     * Returns a word of 64 bits starting at the bit index specified, with zeros beyond the end of the array
+     * @param index     the bit index of the first bit in the word
+     * @return          the word of bits starting at index
+     */
+    private long wordAt(int index) {
+        final int word = index >>> 6;
+        final int shift = index & 63;
+        if (shift == 0) {
+            return buffer.getLong(word);
+        } else if (word + 1 < buffer.length()) {
+            return (buffer.getLong(word) >>> shift) | (buffer.getLong(word + 1) << (64 - shift));
+        } else {
+            return buffer.getLong(word) >>> shift;
+        }
+    }
+
+
+    /**
+     * Clears the bits beyond the length of this array in the last word
+     */
+    private void clearTail() {
+        final int tail = length & 63;
+        if (tail != 0) {
+            final int last = buffer.length() - 1;
+            this.buffer.putLong(last, buffer.getLong(last) & (-1L >>> (64 - tail)));
+        }
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Boolean defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Boolean> parallel() {
+        return isParallel() ? this : new MappedArrayOfBits(this, true);
+    }
+
+
+    @Override
+    public final Array<Boolean> sequential() {
+        return isParallel() ? new MappedArrayOfBits(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy() {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBits copy = new MappedArrayOfBits(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, buffer.length());
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy(int[] indexes) {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBits copy = new MappedArrayOfBits(indexes.length, false, newFile, false);
+            copy.defaultValue = defaultValue;
+            for (int i=0; i<indexes.length; ++i) {
+                if (getBoolean(indexes[i])) {
+                    copy.setBoolean(i, true);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBits copy = new MappedArrayOfBits(newLength, defaultValue, newFile, false);
+            for (int i=0; i<copy.buffer.length(); ++i) {
+                copy.buffer.putLong(i, wordAt(start + (i << 6)));
+            }
+            copy.clearTail();
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Boolean> sort(int start, int end, int multiplier) {
+        final int trueCount = countTrue(start, end);
+        if (multiplier > 0) {
+            this.fill(false, start, end - trueCount);
+            this.fill(true, end - trueCount, end);
+        } else {
+            this.fill(true, start, start + trueCount);
+            this.fill(false, start + trueCount, end);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        return Boolean.compare(getBoolean(i), getBoolean(j));
+    }
+
+
+    @Override
+    public final Array<Boolean> swap(int i, int j) {
+        final boolean v1 = getBoolean(i);
+        final boolean v2 = getBoolean(j);
+        if (v1 != v2) {
+            this.setBoolean(i, v2);
+            this.setBoolean(j, v1);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> filter(Predicate<ArrayValue<Boolean>> predicate) {
+        final ArrayCursor<Boolean> cursor = cursor();
+        final ArrayBuilder<Boolean> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addBoolean(cursor.getBoolean());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Boolean> update(Array<Boolean> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final boolean update = from.getBoolean(fromIndex);
+                this.setBoolean(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> update(int toIndex, Array<Boolean> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final boolean update = from.getBoolean(fromIndex + i);
+            this.setBoolean(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                final int oldLength = length;
+                final int newWords = wordCount(newLength);
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newWords);
+                    this.buffer.copyTo(0, newBuffer, 0, buffer.length());
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                    this.header = false;
+                } else {
+                    this.buffer.expand(newWords);
+                    if (header) {
+                        MappedHeader.writeLength(channel, offset, newLength);
+                    }
+                }
+                this.length = newLength;
+                this.fill(defaultValue, oldLength, newLength);
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of memory mapped array at " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> fill(Boolean value, int start, int end) {
+        if (start > end) {
+            throw new IllegalArgumentException("The fill start index " + start + " is greater than the end index " + end);
+        } else if (start < 0 || end > length) {
+            throw new ArrayIndexOutOfBoundsException("Array fill range [" + start + ", " + end + ") out of bounds, length " + length);
+        } else if (start < end) {
+            final boolean fillValue = value == null ? defaultValue : value;
+            final int first = start >>> 6;
+            final int last = (end - 1) >>> 6;
+            final long firstMask = -1L << start;
+            final long lastMask = -1L >>> -end;
+            if (first == last) {
+                this.fillWord(first, firstMask & lastMask, fillValue);
+            } else {
+                this.fillWord(first, firstMask, fillValue);
+                for (int i=first+1; i<last; ++i) {
+                    this.buffer.putLong(i, fillValue ? -1L : 0L);
+                }
+                this.fillWord(last, lastMask, fillValue);
+            }
+        }
+        return this;
+    }
+
+
+    /**
+     * Sets or clears the bits of the word selected by the mask
+     * @param word  the word index
+     * @param mask  the mask of bits to update
+     * @param value true to set the bits, false to clear them
+     */
+    private void fillWord(int word, long mask, boolean value) {
+        synchronized (buffer) {
+            final long current = buffer.getLong(word);
+            this.buffer.putLong(word, value ? current | mask : current & ~mask);
+        }
+    }
+
+
+    @Override
+    public int countTrue() {
+        int count = 0;
+        for (int i=0; i<buffer.length(); ++i) {
+            count += Long.bitCount(buffer.getLong(i));
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns the number of true values in the range specified
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the number of true values in range
+     */
+    private int countTrue(int start, int end) {
+        int count = 0;
+        for (int i=start; i<end; i+=64) {
+            final long word = wordAt(i);
+            final int bits = end - i;
+            count += Long.bitCount(bits >= 64 ? word : word & ((1L << bits) - 1L));
+        }
+        return count;
+    }
+
+
+    @Override
+    public Array<Boolean> and(Array<Boolean> other) {
+        if (other instanceof MappedArrayOfBits) {
+            this.checkLength(other);
+            final MappedBuffer otherBuffer = ((MappedArrayOfBits)other).buffer;
+            for (int i=0; i<buffer.length(); ++i) {
+                this.buffer.putLong(i, buffer.getLong(i) & otherBuffer.getLong(i));
+            }
+            return this;
+        } else {
+            return super.and(other);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> or(Array<Boolean> other) {
+        if (other instanceof MappedArrayOfBits) {
+            this.checkLength(other);
+            final MappedBuffer otherBuffer = ((MappedArrayOfBits)other).buffer;
+            for (int i=0; i<buffer.length(); ++i) {
+                this.buffer.putLong(i, buffer.getLong(i) | otherBuffer.getLong(i));
+            }
+            return this;
+        } else {
+            return super.or(other);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> not() {
+        for (int i=0; i<buffer.length(); ++i) {
+            this.buffer.putLong(i, ~buffer.getLong(i));
+        }
+        this.clearTail();
+        return this;
+    }
+
+
+    @Override
+    public boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Boolean value) {
+        return value != null && getBoolean(index) == value;
+    }
+
+
+    @Override
+    public final boolean getBoolean(int index) {
+        this.checkIndex(index);
+        return (buffer.getLong(index >>> 6) & (1L << index)) != 0L;
+    }
+
+
+    @Override
+    public final Boolean getValue(int index) {
+        return getBoolean(index) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+
+    @Override
+    public final boolean setBoolean(int index, boolean value) {
+        this.checkIndex(index);
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        synchronized (buffer) {
+            final long current = buffer.getLong(word);
+            final long update = value ? current | mask : current & ~mask;
+            if (update != current) {
+                this.buffer.putLong(word, update);
+            }
+            return (current & mask) != 0L;
+        }
+    }
+
+
+    @Override
+    public final Boolean setValue(int index, Boolean value) {
+        final boolean oldValue = setBoolean(index, value == null ? defaultValue : value);
+        return oldValue ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+
+    @Override
+    public int binarySearch(int start, int end, Boolean value) {
+        int low = start;
+        int high = end - 1;
+        while (low <= high) {
+            final int midIndex = (low + high) >>> 1;
+            final boolean midValue = getBoolean(midIndex);
+            final int result = Boolean.compare(midValue, value);
+            if (result < 0) {
+                low = midIndex + 1;
+            } else if (result > 0) {
+                high = midIndex - 1;
+            } else {
+                return midIndex;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    @Override
+    public Array<Boolean> distinct(int limit) {
+        final TShortSet set = new TShortHashSet(limit);
+        final ArrayBuilder<Boolean> builder = ArrayBuilder.of(2, Boolean.class);
+        for (int i=0; i<length(); ++i) {
+            final boolean value = getBoolean(i);
+            if (set.add(value ? (short)1 : (short)0)) {
+                builder.addBoolean(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final boolean value = is.readBoolean();
+            this.setBoolean(i, value);
+        }
+    }
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final boolean value = getBoolean(index);
+            os.writeBoolean(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeBoolean(defaultValue);
+        for (int i=0; i<buffer.length(); ++i) {
+            os.writeLong(buffer.getLong(i));
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.file = MappedArrayConstructor.randomFile(true);
+        this.length = is.readInt();
+        this.defaultValue = is.readBoolean();
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, wordCount(length));
+        for (int i=0; i<buffer.length(); ++i) {
+            this.buffer.putLong(i, is.readLong());
+        }
+    }
+
+}
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.ShortBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -51,8 +50,9 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     private File file;
     private int length;
     private boolean defaultValue;
+    private boolean region;
     private FileChannel channel;
-    private ShortBuffer buffer;
+    private MappedBuffer buffer;
 
     /**
      * Constructor
@@ -61,19 +61,57 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
      * @param file          the memory mapped file reference
      */
     MappedArrayOfBooleans(int length, Boolean defaultValue , File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfBooleans(int length, Boolean defaultValue , File file, boolean fill) {
         super(Boolean.class, ArrayStyle.MAPPED, false);
         try {
             this.file = file;
             this.length = length;
             this.defaultValue = defaultValue == null ? false : defaultValue;
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asShortBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfBooleans(int length, Boolean defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Boolean.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? false : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -85,6 +123,7 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
         this.length = source.length;
         this.defaultValue = source.defaultValue;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -123,14 +162,8 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     public final Array<Boolean> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final short defaultShort = defaultValue ? (short)1 : (short)0;
-            final MappedArrayOfBooleans copy = new MappedArrayOfBooleans(length, defaultValue, newFile);
-            for (int i=0; i<length; ++i) {
-                final short value = buffer.get(i);
-                if (value != defaultShort) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayOfBooleans copy = new MappedArrayOfBooleans(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -145,9 +178,9 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
             final short defaultShort = defaultValue ? (short)1 : (short)0;
             final MappedArrayOfBooleans copy = new MappedArrayOfBooleans(indexes.length, defaultValue, newFile);
             for (int i=0; i<indexes.length; ++i) {
-                final short value = buffer.get(indexes[i]);
+                final short value = buffer.getShort(indexes[i]);
                 if (value != defaultShort) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putShort(i, value);
                 }
             }
             return copy;
@@ -162,14 +195,8 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final short defaultShort = defaultValue ? (short)1 : (short)0;
-            final MappedArrayOfBooleans copy = new MappedArrayOfBooleans(newLength, defaultValue, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final short value = buffer.get(start + i);
-                if (value != defaultShort) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayOfBooleans copy = new MappedArrayOfBooleans(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -180,8 +207,8 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     @Override
     protected final Array<Boolean> sort(int start, int end, int multiplier) {
         return doSort(start, end, (i, j) -> {
-            final boolean v1 = buffer.get(i) == 1;
-            final boolean v2 = buffer.get(j) == 1;
+            final boolean v1 = buffer.getShort(i) == 1;
+            final boolean v2 = buffer.getShort(j) == 1;
             return multiplier * Boolean.compare(v1, v2);
         });
     }
@@ -189,18 +216,18 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
 
     @Override
     public final int compare(int i, int j) {
-        final boolean v1 = buffer.get(i) == 1;
-        final boolean v2 = buffer.get(j) == 1;
+        final boolean v1 = buffer.getShort(i) == 1;
+        final boolean v2 = buffer.getShort(j) == 1;
         return Boolean.compare(v1, v2);
     }
 
 
     @Override
     public final Array<Boolean> swap(int i, int j) {
-        final short v1 = buffer.get(i);
-        final short v2 = buffer.get(j);
-        this.buffer.put(j, v1);
-        this.buffer.put(i, v2);
+        final short v1 = buffer.getShort(i);
+        final short v2 = buffer.getShort(j);
+        this.buffer.putShort(j, v1);
+        this.buffer.putShort(i, v2);
         return this;
     }
 
@@ -250,7 +277,18 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     public final Array<Boolean> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asShortBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -266,7 +304,7 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
         final boolean fillValue = value == null ? defaultValue : value;
         final short fillShort = fillValue ? (short)1 : (short)0;
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, fillShort);
+            this.buffer.putShort(i, fillShort);
         }
         return this;
     }
@@ -287,14 +325,14 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     @Override
     public final boolean getBoolean(int index) {
         this.checkBounds(index, length);
-        return this.buffer.get(index) == 1;
+        return this.buffer.getShort(index) == 1;
     }
 
 
     @Override
     public final Boolean getValue(int index) {
         this.checkBounds(index, length);
-        return this.buffer.get(index) == 1 ? Boolean.TRUE : Boolean.FALSE;
+        return this.buffer.getShort(index) == 1 ? Boolean.TRUE : Boolean.FALSE;
     }
 
 
@@ -302,7 +340,7 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     public final boolean setBoolean(int index, boolean value) {
         this.checkBounds(index, length);
         final boolean oldValue = getBoolean(index);
-        this.buffer.put(index, value ? (short)1 : (short)0);
+        this.buffer.putShort(index, value ? (short)1 : (short)0);
         return oldValue;
     }
 
@@ -311,10 +349,10 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
     public final Boolean setValue(int index, Boolean value) {
         final boolean oldValue = getBoolean(index);
         if (value == null) {
-            this.buffer.put(index, defaultValue ? (short)1 : (short)0);
+            this.buffer.putShort(index, defaultValue ? (short)1 : (short)0);
             return oldValue;
         } else {
-            this.buffer.put(index, value ? (short)1 : (short)0);
+            this.buffer.putShort(index, value ? (short)1 : (short)0);
             return oldValue;
         }
     }
@@ -391,7 +429,7 @@ class MappedArrayOfBooleans extends ArrayBase<Boolean> {
         this.length = is.readInt();
         this.defaultValue = is.readBoolean();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asShortBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final boolean value = is.readBoolean();
             this.setBoolean(i, value);
@@ -0,0 +1,474 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TByteSet;
+import gnu.trove.set.hash.TByteHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayUtils;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to represent a dense array of byte values in a memory-mapped file.
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedArrayOfBytes extends ArrayBase<Byte> {
+
+    private static final long BYTE_COUNT = 1L;
+
+    private File file;
+    private int length;
+    private byte defaultValue;
+    private boolean region;
+    private FileChannel channel;
+    private MappedBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     */
+    MappedArrayOfBytes(int length, Byte defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfBytes(int length, Byte defaultValue, File file, boolean fill) {
+        super(Byte.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfBytes(int length, Byte defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Byte.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private MappedArrayOfBytes(MappedArrayOfBytes source, boolean parallel) {
+        super(source.type(), ArrayStyle.MAPPED, parallel);
+        this.file = source.file;
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.channel = source.channel;
+        this.region = source.region;
+        this.buffer = source.buffer;
+    }
+
+    /**
+     * Returns the file handle for this memory mapped array
+     * @return      the file handle for memory mapped array
+     */
+    File getFile() {
+        return file;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Byte defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Byte> parallel() {
+        return isParallel() ? this : new MappedArrayOfBytes(this, true);
+    }
+
+
+    @Override
+    public final Array<Byte> sequential() {
+        return isParallel() ? new MappedArrayOfBytes(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Byte> copy() {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBytes copy = new MappedArrayOfBytes(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int[] indexes) {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBytes copy = new MappedArrayOfBytes(indexes.length, defaultValue, newFile);
+            for (int i=0; i<indexes.length; ++i) {
+                final byte value = buffer.getByte(indexes[i]);
+                if (value != defaultValue) {
+                    copy.buffer.putByte(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfBytes copy = new MappedArrayOfBytes(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Byte> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final int v1 = getInt(i);
+            final int v2 = getInt(j);
+            return multiplier * Integer.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final int v1 = getInt(i);
+        final int v2 = getInt(j);
+        return Integer.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<Byte> swap(int i, int j) {
+        final int v1 = getInt(i);
+        final int v2 = getInt(j);
+        this.setInt(i, v2);
+        this.setInt(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> filter(Predicate<ArrayValue<Byte>> predicate) {
+        final ArrayCursor<Byte> cursor = cursor();
+        final ArrayBuilder<Byte> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addInt(cursor.getInt());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Byte> update(Array<Byte> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final int update = from.getInt(fromIndex);
+                this.setInt(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> update(int toIndex, Array<Byte> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final int update = from.getInt(fromIndex + i);
+            this.setInt(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of memory mapped array at " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Byte> fill(Byte value, int start, int end) {
+        final byte fillValue = value == null ? defaultValue : value;
+        for (int i=start; i<end; ++i) {
+            this.buffer.putByte(i, fillValue);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Byte value) {
+        return value != null && value == buffer.getByte(index);
+    }
+
+
+    @Override
+    public final int getInt(int index) {
+        this.checkBounds(index, length);
+        return buffer.getByte(index);
+    }
+
+
+    @Override
+    public final long getLong(int index) {
+        this.checkBounds(index, length);
+        return buffer.getByte(index);
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return buffer.getByte(index);
+    }
+
+
+    @Override
+    public final Byte getValue(int index) {
+        this.checkBounds(index, length);
+        return buffer.getByte(index);
+    }
+
+
+    @Override
+    public final int setInt(int index, int value) {
+        this.checkBounds(index, length);
+        final int oldValue = buffer.getByte(index);
+        this.buffer.putByte(index, ArrayUtils.toByte(value));
+        return oldValue;
+    }
+
+
+    @Override
+    public final Byte setValue(int index, Byte value) {
+        final Byte oldValue = getValue(index);
+        this.buffer.putByte(index, value != null ? value : defaultValue);
+        return oldValue;
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Byte value) {
+        try {
+            int low = start;
+            int high = end - 1;
+            while (low <= high) {
+                final int midIndex = (low + high) >>> 1;
+                final byte midValue = buffer.getByte(midIndex);
+                final int result = Integer.compare(midValue, value);
+                if (result < 0) {
+                    low = midIndex + 1;
+                } else if (result > 0) {
+                    high = midIndex - 1;
+                } else {
+                    return midIndex;
+                }
+            }
+            return -(low + 1);
+        } catch (Exception ex) {
+            throw new ArrayException("Binary search of array failed", ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Byte> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TByteSet set = new TByteHashSet(capacity);
+        final ArrayBuilder<Byte> builder = ArrayBuilder.of(capacity, Byte.class);
+        for (int i=0; i<length(); ++i) {
+            final byte value = buffer.getByte(i);
+            if (set.add(value)) {
+                builder.addInt(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final Array<Byte> cumSum() {
+        final int length = length();
+        final Array<Integer> result = Array.of(Integer.class, length);
+        int sum = 0;
+        for (int i=0; i<length; ++i) {
+            sum += buffer.getByte(i);
+            result.setInt(i, sum);
+        }
+        return (Array<Byte>)(Array<?>)result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final byte value = is.readByte();
+            this.buffer.putByte(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final byte value = getValue(index);
+            os.writeByte(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeByte(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final byte value = buffer.getByte(i);
+            os.writeByte(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultValue = is.readByte();
+        this.file = MappedArrayConstructor.randomFile(true);
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final byte value = is.readByte();
+            this.buffer.putByte(i, value);
+        }
+    }
+
+
+}
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.DoubleBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -49,8 +48,9 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     private File file;
     private int length;
     private double defaultValue;
+    private boolean region;
     private FileChannel channel;
-    private DoubleBuffer buffer;
+    private MappedBuffer buffer;
 
     /**
      * Constructor
@@ -59,19 +59,57 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
      * @param file          the memory mapped file reference
      */
     MappedArrayOfDoubles(int length, Double defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfDoubles(int length, Double defaultValue, File file, boolean fill) {
         super(Double.class, ArrayStyle.MAPPED, false);
         try {
             this.file = file;
             this.length = length;
             this.defaultValue = defaultValue == null ? Double.NaN : defaultValue;
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asDoubleBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfDoubles(int length, Double defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Double.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? Double.NaN : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -83,6 +121,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
         this.length = source.length;
         this.defaultValue = source.defaultValue;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -130,11 +169,8 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     public final Array<Double> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfDoubles copy = new MappedArrayOfDoubles(length, defaultValue, newFile);
-            for (int i=0; i<length; ++i) {
-                final double v = buffer.get(i);
-                copy.buffer.put(i, v);
-            }
+            final MappedArrayOfDoubles copy = new MappedArrayOfDoubles(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -150,7 +186,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
             for (int i=0; i<indexes.length; ++i) {
                 final double value = getDouble(indexes[i]);
                 if (Double.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putDouble(i, value);
                 }
             }
             return copy;
@@ -165,13 +201,8 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfDoubles copy = new MappedArrayOfDoubles(newLength, defaultValue, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final double value = buffer.get(start + i);
-                if (Double.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayOfDoubles copy = new MappedArrayOfDoubles(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -252,7 +283,18 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     public final Array<Double> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asDoubleBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -267,7 +309,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     public final Array<Double> fill(Double value, int start, int end) {
         final double fillValue = value == null ? defaultValue : value;
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, fillValue);
+            this.buffer.putDouble(i, fillValue);
         }
         return this;
     }
@@ -288,22 +330,22 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     @Override
     public final double getDouble(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getDouble(index);
     }
 
 
     @Override
     public final Double getValue(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getDouble(index);
     }
 
 
     @Override
     public final double setDouble(int index, double value) {
         this.checkBounds(index, length);
-        final double oldValue = buffer.get(index);
-        this.buffer.put(index, value);
+        final double oldValue = buffer.getDouble(index);
+        this.buffer.putDouble(index, value);
         return oldValue;
     }
 
@@ -312,7 +354,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
     public final Double setValue(int index, Double value) {
         this.checkBounds(index, length);
         final Double oldValue = getValue(index);
-        this.buffer.put(index, value != null ? value : defaultValue);
+        this.buffer.putDouble(index, value != null ? value : defaultValue);
         return oldValue;
     }
 
@@ -324,7 +366,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
             int high = end - 1;
             while (low <= high) {
                 final int midIndex = (low + high) >>> 1;
-                final double midValue = buffer.get(midIndex);
+                final double midValue = buffer.getDouble(midIndex);
                 final int result = Double.compare(midValue, value);
                 if (result < 0) {
                     low = midIndex + 1;
@@ -366,7 +408,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
         result.setDouble(0, getDouble(0));
         for (int i=1; i<length; ++i) {
             final double prior = result.getDouble(i-1);
-            final double current = buffer.get(i);
+            final double current = buffer.getDouble(i);
             if (Double.isNaN(prior)) {
                 result.setDouble(i, current);
             } else if (Double.isNaN(current)) {
@@ -414,7 +456,7 @@ class MappedArrayOfDoubles extends ArrayBase<Double> {
         this.length = is.readInt();
         this.defaultValue = is.readDouble();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asDoubleBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final double value = is.readDouble();
             this.setDouble(i, value);
@@ -0,0 +1,467 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TFloatSet;
+import gnu.trove.set.hash.TFloatHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to represent a dense array of float values in a memory-mapped file.
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedArrayOfFloats extends ArrayBase<Float> {
+
+    private static final long BYTE_COUNT = 4L;
+
+    private File file;
+    private int length;
+    private float defaultValue;
+    private boolean region;
+    private FileChannel channel;
+    private MappedBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     */
+    MappedArrayOfFloats(int length, Float defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfFloats(int length, Float defaultValue, File file, boolean fill) {
+        super(Float.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.defaultValue = defaultValue == null ? Float.NaN : defaultValue;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfFloats(int length, Float defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Float.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? Float.NaN : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private MappedArrayOfFloats(MappedArrayOfFloats source, boolean parallel) {
+        super(source.type(), ArrayStyle.MAPPED, parallel);
+        this.file = source.file;
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.channel = source.channel;
+        this.region = source.region;
+        this.buffer = source.buffer;
+    }
+
+
+    /**
+     * Returns the file handle for this memory mapped array
+     * @return      the file handle for memory mapped array
+     */
+    File getFile() {
+        return file;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Float defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Float> parallel() {
+        return isParallel() ? this : new MappedArrayOfFloats(this, true);
+    }
+
+
+    @Override
+    public final Array<Float> sequential() {
+        return isParallel() ? new MappedArrayOfFloats(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Float> copy() {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfFloats copy = new MappedArrayOfFloats(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Float> copy(int[] indexes) {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfFloats copy = new MappedArrayOfFloats(indexes.length, defaultValue, newFile);
+            for (int i=0; i<indexes.length; ++i) {
+                final float value = buffer.getFloat(indexes[i]);
+                if (Float.compare(value, defaultValue) != 0) {
+                    copy.buffer.putFloat(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Float> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfFloats copy = new MappedArrayOfFloats(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Float> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final double v1 = getDouble(i);
+            final double v2 = getDouble(j);
+            return multiplier * Double.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final double v1 = getDouble(i);
+        final double v2 = getDouble(j);
+        return Double.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<Float> swap(int i, int j) {
+        final double v1 = getDouble(i);
+        final double v2 = getDouble(j);
+        this.setDouble(i, v2);
+        this.setDouble(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> filter(Predicate<ArrayValue<Float>> predicate) {
+        final ArrayCursor<Float> cursor = cursor();
+        final ArrayBuilder<Float> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addDouble(cursor.getDouble());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Float> update(Array<Float> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final double update = from.getDouble(fromIndex);
+                this.setDouble(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> update(int toIndex, Array<Float> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final double update = from.getDouble(fromIndex + i);
+            this.setDouble(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of memory mapped array at " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Float> fill(Float value, int start, int end) {
+        final float fillValue = value == null ? defaultValue : value;
+        for (int i=start; i<end; ++i) {
+            this.buffer.putFloat(i, fillValue);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return Double.isNaN(getDouble(index));
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Float value) {
+        return value == null || Float.isNaN(value) ? Double.isNaN(getDouble(index)) : buffer.getFloat(index) == value;
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return buffer.getFloat(index);
+    }
+
+
+    @Override
+    public final Float getValue(int index) {
+        this.checkBounds(index, length);
+        return buffer.getFloat(index);
+    }
+
+
+    @Override
+    public final double setDouble(int index, double value) {
+        this.checkBounds(index, length);
+        final double oldValue = buffer.getFloat(index);
+        this.buffer.putFloat(index, (float)value);
+        return oldValue;
+    }
+
+
+    @Override
+    public final Float setValue(int index, Float value) {
+        this.checkBounds(index, length);
+        final Float oldValue = getValue(index);
+        this.buffer.putFloat(index, value != null ? value : defaultValue);
+        return oldValue;
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Float value) {
+        try {
+            int low = start;
+            int high = end - 1;
+            while (low <= high) {
+                final int midIndex = (low + high) >>> 1;
+                final float midValue = buffer.getFloat(midIndex);
+                final int result = Float.compare(midValue, value);
+                if (result < 0) {
+                    low = midIndex + 1;
+                } else if (result > 0) {
+                    high = midIndex - 1;
+                } else {
+                    return midIndex;
+                }
+            }
+            return -(low + 1);
+        } catch (Exception ex) {
+            throw new ArrayException("Binary search of array failed", ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Float> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TFloatSet set = new TFloatHashSet(capacity);
+        final ArrayBuilder<Float> builder = ArrayBuilder.of(capacity, Float.class);
+        for (int i=0; i<length(); ++i) {
+            final float value = buffer.getFloat(i);
+            if (set.add(value)) {
+                builder.addDouble(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Float> cumSum() {
+        final int length = length();
+        final Array<Float> result = Array.of(Float.class, length);
+        result.setDouble(0, getDouble(0));
+        for (int i=1; i<length; ++i) {
+            final double prior = result.getDouble(i-1);
+            final double current = buffer.getFloat(i);
+            if (Double.isNaN(prior)) {
+                result.setDouble(i, current);
+            } else if (Double.isNaN(current)) {
+                result.setDouble(i, prior);
+            } else {
+                result.setDouble(i, prior + current);
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final float value = is.readFloat();
+            this.buffer.putFloat(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final float value = getValue(index);
+            os.writeFloat(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeFloat(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final float value = buffer.getFloat(i);
+            os.writeFloat(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.file = MappedArrayConstructor.randomFile(true);
+        this.length = is.readInt();
+        this.defaultValue = is.readFloat();
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final float value = is.readFloat();
+            this.buffer.putFloat(i, value);
+        }
+    }
+
+
+}
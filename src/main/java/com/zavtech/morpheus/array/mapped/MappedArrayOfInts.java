@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.IntBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -49,8 +48,9 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     private File file;
     private int length;
     private int defaultValue;
+    private boolean region;
     private FileChannel channel;
-    private IntBuffer buffer;
+    private MappedBuffer buffer;
 
     /**
      * Constructor
@@ -59,19 +59,57 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
      * @param file          the memory mapped file reference
      */
     MappedArrayOfInts(int length, Integer defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfInts(int length, Integer defaultValue, File file, boolean fill) {
         super(Integer.class, ArrayStyle.MAPPED, false);
         try {
             this.file = file;
             this.length = length;
             this.defaultValue = defaultValue == null ? 0 : defaultValue;
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asIntBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfInts(int length, Integer defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Integer.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -83,6 +121,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
         this.length = source.length;
         this.defaultValue = source.defaultValue;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -129,11 +168,8 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     public final Array<Integer> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfInts copy = new MappedArrayOfInts(length, defaultValue, newFile);
-            for (int i=0; i<length; ++i) {
-                final int v = getInt(i);
-                copy.buffer.put(i, v);
-            }
+            final MappedArrayOfInts copy = new MappedArrayOfInts(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -149,7 +185,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
             for (int i=0; i<indexes.length; ++i) {
                 final int value = getInt(indexes[i]);
                 if (Integer.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putInt(i, value);
                 }
             }
             return copy;
@@ -164,13 +200,8 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfInts copy = new MappedArrayOfInts(newLength, defaultValue, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final int value = buffer.get(start + i);
-                if (Integer.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayOfInts copy = new MappedArrayOfInts(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -251,7 +282,18 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     public final Array<Integer> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asIntBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -266,7 +308,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     public final Array<Integer> fill(Integer value, int start, int end) {
         final int fillValue = value == null ? defaultValue : value;
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, fillValue);
+            this.buffer.putInt(i, fillValue);
         }
         return this;
     }
@@ -280,43 +322,43 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
 
     @Override
     public final boolean isEqualTo(int index, Integer value) {
-        return value != null && value == buffer.get(index);
+        return value != null && value == buffer.getInt(index);
     }
 
 
     @Override
     public final int getInt(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getInt(index);
     }
 
 
     @Override
     public final long getLong(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getInt(index);
     }
 
 
     @Override
     public final double getDouble(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getInt(index);
     }
 
 
     @Override
     public final Integer getValue(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getInt(index);
     }
 
 
     @Override
     public final int setInt(int index, int value) {
         this.checkBounds(index, length);
-        final int oldValue = buffer.get(index);
-        this.buffer.put(index, value);
+        final int oldValue = buffer.getInt(index);
+        this.buffer.putInt(index, value);
         return oldValue;
     }
 
@@ -324,7 +366,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     @Override
     public final Integer setValue(int index, Integer value) {
         final Integer oldValue = getValue(index);
-        this.buffer.put(index, value != null ? value : defaultValue);
+        this.buffer.putInt(index, value != null ? value : defaultValue);
         return oldValue;
     }
 
@@ -336,7 +378,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
             int high = end - 1;
             while (low <= high) {
                 final int midIndex = (low + high) >>> 1;
-                final int midValue = buffer.get(midIndex);
+                final int midValue = buffer.getInt(midIndex);
                 final int result = Integer.compare(midValue, value);
                 if (result < 0) {
                     low = midIndex + 1;
@@ -375,10 +417,10 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
     public final Array<Integer> cumSum() {
         final int length = length();
         final Array<Integer> result = Array.of(Integer.class, length);
-        result.setInt(0, buffer.get(0));
+        result.setInt(0, buffer.getInt(0));
         for (int i=1; i<length; ++i) {
             final int prior = result.getInt(i-1);
-            final int current = buffer.get(i);
+            final int current = buffer.getInt(i);
             result.setInt(i, prior + current);
         }
         return result;
@@ -420,7 +462,7 @@ class MappedArrayOfInts extends ArrayBase<Integer> {
         this.defaultValue = is.readInt();
         this.file = MappedArrayConstructor.randomFile(true);
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asIntBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final int value = is.readInt();
             this.setInt(i, value);
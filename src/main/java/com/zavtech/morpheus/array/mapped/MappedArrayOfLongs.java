@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.LongBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -49,8 +48,9 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     private File file;
     private int length;
     private long defaultValue;
+    private boolean region;
     private FileChannel channel;
-    private LongBuffer buffer;
+    private MappedBuffer buffer;
 
     /**
      * Constructor
@@ -59,19 +59,57 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
      * @param file          the memory mapped file reference
      */
     MappedArrayOfLongs(int length, Long defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfLongs(int length, Long defaultValue, File file, boolean fill) {
         super(Long.class, ArrayStyle.MAPPED, false);
         try {
             this.file = file;
             this.length = length;
             this.defaultValue = defaultValue == null ? 0 : defaultValue;
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asLongBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfLongs(int length, Long defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(Long.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -83,6 +121,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
         this.length = source.length;
         this.defaultValue = source.defaultValue;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -129,11 +168,8 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     public final Array<Long> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfLongs copy = new MappedArrayOfLongs(length, defaultValue, newFile);
-            for (int i=0; i<length; ++i) {
-                final long v = getLong(i);
-                copy.buffer.put(i, v);
-            }
+            final MappedArrayOfLongs copy = new MappedArrayOfLongs(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -149,7 +185,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
             for (int i=0; i<indexes.length; ++i) {
                 final long value = getLong(indexes[i]);
                 if (Long.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putLong(i, value);
                 }
             }
             return copy;
@@ -164,13 +200,8 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfLongs copy = new MappedArrayOfLongs(newLength, defaultValue, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final long value = buffer.get(start + i);
-                if (Long.compare(value, defaultValue) != 0) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayOfLongs copy = new MappedArrayOfLongs(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -251,7 +282,18 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     public final Array<Long> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asLongBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -266,7 +308,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     public final Array<Long> fill(Long value, int start, int end) {
         final long fillValue = value == null ? defaultValue : value;
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, fillValue);
+            this.buffer.putLong(i, fillValue);
         }
         return this;
     }
@@ -280,36 +322,36 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
 
     @Override
     public final boolean isEqualTo(int index, Long value) {
-        return value != null && value == buffer.get(index);
+        return value != null && value == buffer.getLong(index);
     }
 
 
     @Override
     public final long getLong(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getLong(index);
     }
 
 
     @Override
     public final double getDouble(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getLong(index);
     }
 
 
     @Override
     public final Long getValue(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getLong(index);
     }
 
 
     @Override
     public final long setLong(int index, long value) {
         this.checkBounds(index, length);
-        final long oldValue = buffer.get(index);
-        this.buffer.put(index, value);
+        final long oldValue = buffer.getLong(index);
+        this.buffer.putLong(index, value);
         return oldValue;
     }
 
@@ -318,7 +360,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     public final Long setValue(int index, Long value) {
         this.checkBounds(index, length);
         final Long oldValue = getValue(index);
-        this.buffer.put(index, value != null ? value : defaultValue);
+        this.buffer.putLong(index, value != null ? value : defaultValue);
         return oldValue;
     }
 
@@ -330,7 +372,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
             int high = end - 1;
             while (low <= high) {
                 final int midIndex = (low + high) >>> 1;
-                final long midValue = buffer.get(midIndex);
+                final long midValue = buffer.getLong(midIndex);
                 final int result = Long.compare(midValue, value);
                 if (result < 0) {
                     low = midIndex + 1;
@@ -369,10 +411,10 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
     public final Array<Long> cumSum() {
         final int length = length();
         final Array<Long> result = Array.of(Long.class, length);
-        result.setLong(0, buffer.get(0));
+        result.setLong(0, buffer.getLong(0));
         for (int i=1; i<length; ++i) {
             final long prior = result.getLong(i-1);
-            final long current = buffer.get(i);
+            final long current = buffer.getLong(i);
             result.setLong(i, prior + current);
         }
         return result;
@@ -414,7 +456,7 @@ class MappedArrayOfLongs extends ArrayBase<Long> {
         this.length = is.readInt();
         this.defaultValue = is.readLong();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asLongBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final long value = is.readLong();
             this.setLong(i, value);
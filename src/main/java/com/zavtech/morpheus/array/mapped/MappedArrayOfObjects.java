@@ -0,0 +1,648 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import gnu.trove.map.TObjectLongMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to represent a dense array of variable length values in a pair of memory-mapped files.
+ *
+ * <p>The array file holds the long position of each value in a second data file, or -1 for null, and the data file
+ * holds each value as a length prefixed record, which is UTF-8 for Strings and Java serialization for other types.
+ * Values written to the array are de-duplicated via an on heap dictionary of up to 65536 distinct values, so a
+ * column of repeated values only stores each value once, and beyond that limit new values are simply appended.
+ * The limit can be configured via the <code>morpheus.array.dedupLimit</code> system property when the array is
+ * created, where zero disables de-duplication altogether, which suits columns of mostly distinct values.
+ * Replaced values are not reclaimed from the data file until the array is copied.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedArrayOfObjects<T> extends ArrayBase<T> {
+
+    private static final long BYTE_COUNT = 8L;
+    private static final long NULL_POSITION = -1L;
+    private static final int DEFAULT_DEDUP_LIMIT = 65536;
+
+    private File file;
+    private File dataFile;
+    private int length;
+    private T defaultValue;
+    private long defaultPosition;
+    private int dedupLimit;
+    private FileChannel channel;
+    private MappedBuffer buffer;
+    private MappedBytes bytes;
+    private TObjectLongMap<T> dedupMap;
+
+    /**
+     * Constructor
+     * @param type          the element type for array
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     */
+    MappedArrayOfObjects(Class<T> type, int length, T defaultValue, File file) {
+        this(type, length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param type          the element type for array
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfObjects(Class<T> type, int length, T defaultValue, File file, boolean fill) {
+        super(type, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.dataFile = dataFile(file);
+            this.length = length;
+            this.defaultValue = defaultValue;
+            this.dedupLimit = dedupLimit();
+            this.dedupMap = new TObjectLongHashMap<>(16, 0.5f, NULL_POSITION);
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            this.bytes = new MappedBytes(new RandomAccessFile(dataFile, "rw").getChannel());
+            if (fill) {
+                this.defaultPosition = position(defaultValue);
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private MappedArrayOfObjects(MappedArrayOfObjects<T> source, boolean parallel) {
+        super(source.type(), ArrayStyle.MAPPED, parallel);
+        this.file = source.file;
+        this.dataFile = source.dataFile;
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.defaultPosition = source.defaultPosition;
+        this.dedupLimit = source.dedupLimit;
+        this.channel = source.channel;
+        this.buffer = source.buffer;
+        this.bytes = source.bytes;
+        this.dedupMap = source.dedupMap;
+    }
+
+
+    /**
+     * Returns the data file that accompanies the array file specified
+     * @param file  the array file
+     * @return      the data file, which is deleted on exit
+     */
+    private static File dataFile(File file) {
+        final File dataFile = new File(file.getAbsolutePath() + ".data");
+        dataFile.deleteOnExit();
+        return dataFile;
+    }
+
+
+    /**
+     * Returns the maximum number of distinct values to de-duplicate, as configured by system property
+     * @return  the de-duplication limit, where zero disables de-duplication
+     */
+    private static int dedupLimit() {
+        final String value = System.getProperty("morpheus.array.dedupLimit");
+        final int dedupLimit = value != null ? Integer.parseInt(value) : DEFAULT_DEDUP_LIMIT;
+        if (dedupLimit < 0) {
+            throw new ArrayException("The morpheus.array.dedupLimit must be >= 0, not " + dedupLimit);
+        } else {
+            return dedupLimit;
+        }
+    }
+
+
+    /**
+     * Returns the file handle for this memory mapped array
+     * @return      the file handle for memory mapped array
+     */
+    File getFile() {
+        return file;
+    }
+
+
+    /**
+     * Returns the position in the data file of the value specified, appending it if required
+     * @param value     the value, which can be null
+     * @return          the position of the value in the data file
+     */
+    private long position(T value) {
+        if (value == null) {
+            return NULL_POSITION;
+        } else {
+            synchronized (bytes) {
+                final long existing = dedupMap.get(value);
+                if (existing != NULL_POSITION) {
+                    return existing;
+                } else {
+                    try {
+                        final long position = bytes.append(encode(value));
+                        if (dedupMap.size() < dedupLimit) {
+                            this.dedupMap.put(value, position);
+                        }
+                        return position;
+                    } catch (IOException ex) {
+                        throw new ArrayException("Failed to write value to memory mapped array at " + dataFile.getAbsolutePath(), ex);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the bytes that represent the value specified in the data file
+     * @param value     the value to encode
+     * @return          the encoded bytes
+     * @throws IOException  if the value cannot be serialized
+     */
+    private byte[] encode(T value) throws IOException {
+        if (type() == String.class) {
+            return ((String)value).getBytes(StandardCharsets.UTF_8);
+        } else {
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+            try (ObjectOutputStream os = new ObjectOutputStream(result)) {
+                os.writeObject(value);
+            }
+            return result.toByteArray();
+        }
+    }
+
+
+    /**
+     * Returns the value represented by the bytes specified
+     * @param data  the encoded bytes
+     * @return      the decoded value
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(byte[] data) {
+        if (type() == String.class) {
+            return (T)new String(data, StandardCharsets.UTF_8);
+        } else {
+            try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(data))) {
+                return (T)is.readObject();
+            } catch (Exception ex) {
+                throw new ArrayException("Failed to read value from memory mapped array at " + dataFile.getAbsolutePath(), ex);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the value at the data file position specified
+     * @param position  the position in the data file
+     * @return          the value, which can be null
+     */
+    private T valueAt(long position) {
+        return position == NULL_POSITION ? null : decode(bytes.read(position));
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final T defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<T> parallel() {
+        return isParallel() ? this : new MappedArrayOfObjects<>(this, true);
+    }
+
+
+    @Override
+    public final Array<T> sequential() {
+        return isParallel() ? new MappedArrayOfObjects<>(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<T> copy() {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfObjects<T> copy = new MappedArrayOfObjects<>(type(), length, defaultValue, newFile, false);
+            synchronized (bytes) {
+                this.bytes.copyTo(copy.bytes);
+                copy.dedupLimit = dedupLimit;
+                copy.dedupMap.putAll(dedupMap);
+            }
+            copy.defaultPosition = defaultPosition;
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int[] indexes) {
+        try {
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfObjects<T> copy = new MappedArrayOfObjects<>(type(), indexes.length, defaultValue, newFile);
+            for (int i=0; i<indexes.length; ++i) {
+                copy.setValue(i, getValue(indexes[i]));
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final File newFile = MappedArrayConstructor.randomFile(true);
+            final MappedArrayOfObjects<T> copy = new MappedArrayOfObjects<>(type(), newLength, defaultValue, newFile);
+            for (int i=0; i<newLength; ++i) {
+                copy.setValue(i, getValue(start + i));
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<T> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> multiplier * compare(i, j));
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final int compare(int i, int j) {
+        final long p1 = buffer.getLong(i);
+        final long p2 = buffer.getLong(j);
+        if (p1 == p2) {
+            return 0;
+        } else {
+            final Comparable c1 = (Comparable)valueAt(p1);
+            final Comparable c2 = (Comparable)valueAt(p2);
+            return (c1 == null ? c2 == null ? 0 : -1 : c2 == null ? 1 : c1.compareTo(c2));
+        }
+    }
+
+
+    @Override
+    public final Array<T> swap(int i, int j) {
+        final long p1 = buffer.getLong(i);
+        final long p2 = buffer.getLong(j);
+        this.buffer.putLong(i, p2);
+        this.buffer.putLong(j, p1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> filter(Predicate<ArrayValue<T>> predicate) {
+        final ArrayCursor<T> cursor = cursor();
+        final ArrayBuilder<T> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.add(cursor.getValue());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<T> update(Array<T> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final T update = from.getValue(fromIndex);
+                this.setValue(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final T update = from.getValue(fromIndex + i);
+            this.setValue(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                this.buffer.expand(newLength);
+                for (int i=length; i<newLength; ++i) {
+                    this.buffer.putLong(i, defaultPosition);
+                }
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of memory mapped array at " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    @Override
+    public final Array<T> fill(T value, int start, int end) {
+        final long position = position(value);
+        for (int i=start; i<end; ++i) {
+            this.buffer.putLong(i, position);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        this.checkBounds(index, length);
+        return buffer.getLong(index) == NULL_POSITION;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, T value) {
+        this.checkBounds(index, length);
+        if (value == null) {
+            return buffer.getLong(index) == NULL_POSITION;
+        } else {
+            final long position;
+            final boolean saturated;
+            synchronized (bytes) {
+                position = dedupMap.get(value);
+                saturated = dedupMap.size() >= dedupLimit;
+            }
+            if (position != NULL_POSITION) {
+                return position == buffer.getLong(index);
+            } else {
+                return saturated && value.equals(getValue(index));
+            }
+        }
+    }
+
+
+    @Override
+    public final boolean getBoolean(int index) {
+        if (type() == String.class) {
+            return super.getBoolean(index);
+        } else {
+            try {
+                final Object value = getValue(index);
+                return value != null ? (Boolean)value : false;
+            } catch (ClassCastException ex) {
+                throw new ArrayException("Array access exception: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @Override
+    public final int getInt(int index) {
+        if (type() == String.class) {
+            return super.getInt(index);
+        } else {
+            try {
+                final Object value = getValue(index);
+                return value != null ? ((Number)value).intValue() : 0;
+            } catch (ClassCastException ex) {
+                throw new ArrayException("Array access exception: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @Override
+    public final long getLong(int index) {
+        if (type() == String.class) {
+            return super.getLong(index);
+        } else {
+            try {
+                final Object value = getValue(index);
+                return value != null ? ((Number)value).longValue() : 0L;
+            } catch (ClassCastException ex) {
+                throw new ArrayException("Array access exception: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @Override
+    public final double getDouble(int index) {
+        if (type() == String.class) {
+            return super.getDouble(index);
+        } else {
+            try {
+                final Object value = getValue(index);
+                return value != null ? ((Number)value).doubleValue() : Double.NaN;
+            } catch (ClassCastException ex) {
+                throw new ArrayException("Array access exception: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+
+    @Override
+    public final T getValue(int index) {
+        this.checkBounds(index, length);
+        return valueAt(buffer.getLong(index));
+    }
+
+
+    @Override
+    public final T setValue(int index, T value) {
+        this.checkBounds(index, length);
+        final T oldValue = getValue(index);
+        this.buffer.putLong(index, position(value));
+        return oldValue;
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final boolean setBoolean(int index, boolean value) {
+        if (type() == String.class) {
+            return super.setBoolean(index, value);
+        } else {
+            final Object oldValue = setValue(index, (T)(Object)value);
+            return oldValue instanceof Boolean && (Boolean)oldValue;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final int setInt(int index, int value) {
+        if (type() == String.class) {
+            return super.setInt(index, value);
+        } else {
+            final Object oldValue = setValue(index, (T)(Object)value);
+            return oldValue != null ? ((Number)oldValue).intValue() : 0;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final long setLong(int index, long value) {
+        if (type() == String.class) {
+            return super.setLong(index, value);
+        } else {
+            final Object oldValue = setValue(index, (T)(Object)value);
+            return oldValue != null ? ((Number)oldValue).longValue() : 0L;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final double setDouble(int index, double value) {
+        if (type() == String.class) {
+            return super.setDouble(index, value);
+        } else {
+            final Object oldValue = setValue(index, (T)(Object)value);
+            return oldValue != null ? ((Number)oldValue).doubleValue() : Double.NaN;
+        }
+    }
+
+
+    @Override
+    public final Array<T> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TLongSet positions = new TLongHashSet(capacity);
+        final Set<T> set = new HashSet<>(capacity);
+        final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
+        for (int i=0; i<length(); ++i) {
+            final long position = buffer.getLong(i);
+            if (positions.add(position)) {
+                final T value = valueAt(position);
+                if (set.add(value)) {
+                    builder.add(value);
+                    if (set.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        try {
+            for (int i=0; i<count; ++i) {
+                final T value = (T)is.readObject();
+                this.setValue(i, value);
+            }
+        } catch (ClassNotFoundException ex) {
+            throw new ArrayException("Failed to de-serialized array", ex);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            os.writeObject(getValue(index));
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeObject(defaultValue);
+        for (int i=0; i<length; ++i) {
+            os.writeObject(getValue(i));
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.file = MappedArrayConstructor.randomFile(true);
+        this.dataFile = dataFile(file);
+        this.length = is.readInt();
+        this.defaultValue = (T)is.readObject();
+        this.dedupLimit = dedupLimit();
+        this.dedupMap = new TObjectLongHashMap<>(16, 0.5f, NULL_POSITION);
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+        this.bytes = new MappedBytes(new RandomAccessFile(dataFile, "rw").getChannel());
+        this.defaultPosition = position(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final T value = (T)is.readObject();
+            this.buffer.putLong(i, position(value));
+        }
+    }
+
+}
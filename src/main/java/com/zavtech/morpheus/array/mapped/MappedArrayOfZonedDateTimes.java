@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -29,6 +28,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 
 import com.zavtech.morpheus.array.ArrayBuilder;
@@ -50,7 +50,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
 
     private static final long serialVersionUID = 1L;
 
-    private static final int BYTE_COUNT = 10;
+    private static final long BYTE_COUNT = 10L;
 
     private static final Map<ZoneId,Short> zoneIdMap1 = new HashMap<>();
     private static final Map<Short,ZoneId> zoneIdMap2 = new HashMap<>();
@@ -62,7 +62,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         short counter = 0;
         final List<String> keys = new ArrayList<>();
         keys.add("Z");
-        keys.addAll(ZoneId.getAvailableZoneIds());
+        keys.addAll(new TreeSet<>(ZoneId.getAvailableZoneIds()));
         for (String key: keys) {
             final short index = ++counter;
             final ZoneId zoneId = ZoneId.of(key);
@@ -77,8 +77,9 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
 
     private File file;
     private int length;
+    private boolean region;
     private FileChannel channel;
-    private ByteBuffer byteBuffer;
+    private MappedBuffer buffer;
     private long defaultValueAsLong;
     private short defaultZoneId;
     private ZonedDateTime defaultValue;
@@ -91,6 +92,18 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
      * @param file          the memory mapped file reference
      */
     MappedArrayOfZonedDateTimes(int length, ZonedDateTime defaultValue, File file) {
+        this(length, defaultValue, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayOfZonedDateTimes(int length, ZonedDateTime defaultValue, File file, boolean fill) {
         super(ZonedDateTime.class, ArrayStyle.MAPPED, false);
         try {
             this.file = file;
@@ -99,13 +112,41 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
             this.defaultValueAsLong = defaultValue != null ? defaultValue.toInstant().toEpochMilli() : nullValue;
             this.defaultZoneId = defaultValue != null ? zoneIdMap1.get(defaultValue.getZone()) : NULL_ZONE;
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.byteBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length);
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayOfZonedDateTimes(int length, ZonedDateTime defaultValue, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(ZonedDateTime.class, ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.defaultValue = defaultValue;
+            this.defaultValueAsLong = defaultValue != null ? defaultValue.toInstant().toEpochMilli() : nullValue;
+            this.defaultZoneId = defaultValue != null ? zoneIdMap1.get(defaultValue.getZone()) : NULL_ZONE;
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -119,7 +160,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         this.defaultValueAsLong = source.defaultValueAsLong;
         this.defaultZoneId = source.defaultZoneId;
         this.channel = source.channel;
-        this.byteBuffer = source.byteBuffer;
+        this.region = source.region;
+        this.buffer = source.buffer;
     }
 
 
@@ -157,15 +199,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     public final Array<ZonedDateTime> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfZonedDateTimes copy = new MappedArrayOfZonedDateTimes(length, defaultValue, newFile);
-            for (int i=0; i<length; ++i) {
-                final int longIndex = i * BYTE_COUNT;
-                final int shortIndex = i * BYTE_COUNT + 8;
-                final long epochMillis = byteBuffer.getLong(longIndex);
-                final short zoneId = byteBuffer.getShort(shortIndex);
-                copy.byteBuffer.putLong(longIndex, epochMillis);
-                copy.byteBuffer.putShort(shortIndex, zoneId);
-            }
+            final MappedArrayOfZonedDateTimes copy = new MappedArrayOfZonedDateTimes(length, defaultValue, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -179,12 +214,10 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
             final File newFile = MappedArrayConstructor.randomFile(true);
             final MappedArrayOfZonedDateTimes copy = new MappedArrayOfZonedDateTimes(indexes.length, defaultValue, newFile);
             for (int i=0; i<indexes.length; ++i) {
-                final int toIndex = i * BYTE_COUNT;
-                final int fromIndex = indexes[i] * BYTE_COUNT;
-                final long epochMillis = byteBuffer.getLong(fromIndex);
-                final short zoneId = byteBuffer.getShort(fromIndex + 8);
-                copy.byteBuffer.putLong(toIndex, epochMillis);
-                copy.byteBuffer.putShort(toIndex + 8, zoneId);
+                final long epochMillis = buffer.getLong(indexes[i]);
+                final short zoneId = buffer.getShort(indexes[i], 8);
+                copy.buffer.putLong(i, epochMillis);
+                copy.buffer.putShort(i, 8, zoneId);
             }
             return copy;
         } catch (Exception ex) {
@@ -198,15 +231,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayOfZonedDateTimes copy = new MappedArrayOfZonedDateTimes(newLength, defaultValue, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final int toIndex = i * BYTE_COUNT;
-                final int fromIndex = (start + i) * BYTE_COUNT;
-                final long epochMillis = byteBuffer.getLong(fromIndex);
-                final short zoneId = byteBuffer.getShort(fromIndex + 8);
-                copy.byteBuffer.putLong(toIndex, epochMillis);
-                copy.byteBuffer.putShort(toIndex + 8, zoneId);
-            }
+            final MappedArrayOfZonedDateTimes copy = new MappedArrayOfZonedDateTimes(newLength, defaultValue, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -217,8 +243,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     protected final Array<ZonedDateTime> sort(int start, int end, int multiplier) {
         return doSort(start, end, (i, j) -> {
-            final long v1 = byteBuffer.getLong(i * BYTE_COUNT);
-            final long v2 = byteBuffer.getLong(j * BYTE_COUNT);
+            final long v1 = buffer.getLong(i);
+            final long v2 = buffer.getLong(j);
             return multiplier * Long.compare(v1, v2);
         });
     }
@@ -226,24 +252,22 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
 
     @Override
     public final int compare(int i, int j) {
-        final long v1 = byteBuffer.getLong(i * BYTE_COUNT);
-        final long v2 = byteBuffer.getLong(j * BYTE_COUNT);
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
         return Long.compare(v1, v2);
     }
 
 
     @Override
     public final Array<ZonedDateTime> swap(int i, int j) {
-        final int x = i * BYTE_COUNT;
-        final int y = j * BYTE_COUNT;
-        final long v1 = byteBuffer.getLong(x);
-        final long v2 = byteBuffer.getLong(y);
-        final short z1 = byteBuffer.getShort(x + 8);
-        final short z2 = byteBuffer.getShort(y + 8);
-        this.byteBuffer.putLong(x, v2);
-        this.byteBuffer.putLong(y, v1);
-        this.byteBuffer.putShort(x + 8, z2);
-        this.byteBuffer.putShort(y + 8, z1);
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
+        final short z1 = buffer.getShort(i, 8);
+        final short z2 = buffer.getShort(j, 8);
+        this.buffer.putLong(i, v2);
+        this.buffer.putLong(j, v1);
+        this.buffer.putShort(i, 8, z2);
+        this.buffer.putShort(j, 8, z1);
         return this;
     }
 
@@ -271,10 +295,10 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
             if (from instanceof MappedArrayOfZonedDateTimes) {
                 final MappedArrayOfZonedDateTimes other = (MappedArrayOfZonedDateTimes)from;
                 for (int i=0; i<fromIndexes.length; ++i) {
-                    final int toIndex = toIndexes[i] * BYTE_COUNT;
-                    final int fromIndex = fromIndexes[i] * BYTE_COUNT;
-                    this.byteBuffer.putLong(toIndex, other.byteBuffer.getLong(fromIndex));
-                    this.byteBuffer.putShort(toIndex + 8, byteBuffer.getShort(fromIndex + 8));
+                    final int toIndex = toIndexes[i];
+                    final int fromIndex = fromIndexes[i];
+                    this.buffer.putLong(toIndex, other.buffer.getLong(fromIndex));
+                    this.buffer.putShort(toIndex, 8, other.buffer.getShort(fromIndex, 8));
                 }
             } else {
                 for (int i=0; i<fromIndexes.length; ++i) {
@@ -293,12 +317,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     public final Array<ZonedDateTime> update(int toIndex, Array<ZonedDateTime> from, int fromIndex, int length) {
         if (from instanceof MappedArrayOfZonedDateTimes) {
             final MappedArrayOfZonedDateTimes other = (MappedArrayOfZonedDateTimes)from;
-            for (int i=0; i<length; ++i) {
-                final int x = toIndex * BYTE_COUNT;
-                final int y = fromIndex * BYTE_COUNT;
-                this.byteBuffer.putLong(x, other.byteBuffer.getLong(y));
-                this.byteBuffer.putShort(x + 8, byteBuffer.getShort(y + 8));
-            }
+            other.buffer.copyTo(fromIndex, buffer, toIndex, length);
         } else {
             for (int i=0; i<length; ++i) {
                 final ZonedDateTime update = from.getValue(fromIndex + i);
@@ -313,7 +332,18 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     public final Array<ZonedDateTime> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.byteBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength);
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -329,9 +359,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         final long fillEpochMillis = value == null ? nullValue : value.toInstant().toEpochMilli();
         final short fillZoneId = value == null ? NULL_ZONE : zoneIdMap1.get(value.getZone());
         for (int i=start; i<end; ++i) {
-            final int index = i * BYTE_COUNT;
-            this.byteBuffer.putLong(index, fillEpochMillis);
-            this.byteBuffer.putShort(index + 8, fillZoneId);
+            this.buffer.putLong(i, fillEpochMillis);
+            this.buffer.putShort(i, 8, fillZoneId);
         }
         return this;
     }
@@ -339,13 +368,13 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
 
     @Override
     public boolean isNull(int index) {
-        return byteBuffer.getLong(index * BYTE_COUNT) == nullValue;
+        return buffer.getLong(index) == nullValue;
     }
 
 
     @Override
     public final boolean isEqualTo(int index, ZonedDateTime value) {
-        final long epochMillis = byteBuffer.getLong(index * BYTE_COUNT);
+        final long epochMillis = buffer.getLong(index);
         if (value == null) {
             return epochMillis == nullValue;
         } else {
@@ -355,7 +384,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
             } else {
                 final ZoneId zoneId = value.getZone();
                 final short code1 = zoneIdMap1.get(zoneId);
-                final short code2 = byteBuffer.getShort(index * BYTE_COUNT + 8);
+                final short code2 = buffer.getShort(index, 8);
                 return code1 == code2;
             }
         }
@@ -365,7 +394,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     public final long getLong(int index) {
         this.checkBounds(index, length);
-        return byteBuffer.getLong(index * BYTE_COUNT);
+        return buffer.getLong(index);
     }
 
 
@@ -373,12 +402,11 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @SuppressWarnings("unchecked")
     public final ZonedDateTime getValue(int index) {
         this.checkBounds(index, length);
-        final int byteIndex = index * BYTE_COUNT;
-        final long value = byteBuffer.getLong(byteIndex);
+        final long value = buffer.getLong(index);
         if (value == nullValue) {
             return null;
         } else {
-            final short zoneId = byteBuffer.getShort(byteIndex + 8);
+            final short zoneId = buffer.getShort(index, 8);
             final ZoneId zone = zoneIdMap2.get(zoneId);
             final Instant instant = Instant.ofEpochMilli(value);
             return ZonedDateTime.ofInstant(instant, zone);
@@ -389,12 +417,11 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     public final long setLong(int index, long value) {
         this.checkBounds(index, length);
-        final int byteIndex = index * BYTE_COUNT;
-        final long oldMillis = byteBuffer.getLong(byteIndex);
-        final short oldZone = byteBuffer.getShort(byteIndex + 8);
-        this.byteBuffer.putLong(byteIndex, value);
+        final long oldMillis = buffer.getLong(index);
+        final short oldZone = buffer.getShort(index, 8);
+        this.buffer.putLong(index, value);
         if (oldZone < 0) {
-            this.byteBuffer.putShort(byteIndex + 8, UTC_ZONE);
+            this.buffer.putShort(index, 8, UTC_ZONE);
         }
         return oldMillis;
     }
@@ -403,15 +430,14 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     public final ZonedDateTime setValue(int index, ZonedDateTime value) {
         this.checkBounds(index, length);
-        final int byteIndex = index * BYTE_COUNT;
         final ZonedDateTime oldValue = getValue(index);
         if (value == null) {
-            this.byteBuffer.putLong(byteIndex, nullValue);
-            this.byteBuffer.putShort(byteIndex + 8, NULL_ZONE);
+            this.buffer.putLong(index, nullValue);
+            this.buffer.putShort(index, 8, NULL_ZONE);
             return oldValue;
         } else  {
-            this.byteBuffer.putLong(byteIndex, value.toInstant().toEpochMilli());
-            this.byteBuffer.putShort(byteIndex + 8, zoneIdMap1.get(value.getZone()));
+            this.buffer.putLong(index, value.toInstant().toEpochMilli());
+            this.buffer.putShort(index, 8, zoneIdMap1.get(value.getZone()));
             return oldValue;
         }
     }
@@ -425,7 +451,7 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
             final long epochMillis = value != null ? value.toInstant().toEpochMilli() : Long.MIN_VALUE;
             while (low <= high) {
                 final int midIndex = (low + high) >>> 1;
-                final long midValue = byteBuffer.getLong(midIndex * BYTE_COUNT);
+                final long midValue = buffer.getLong(midIndex);
                 final int result = Long.compare(midValue, epochMillis);
                 if (result < 0) {
                     low = midIndex + 1;
@@ -445,11 +471,10 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
-            final int byteIndex = i * BYTE_COUNT;
             final long epochMillis = is.readLong();
             final short zoneId = is.readShort();
-            this.byteBuffer.putLong(byteIndex, epochMillis);
-            this.byteBuffer.putShort(byteIndex + 8, zoneId);
+            this.buffer.putLong(i, epochMillis);
+            this.buffer.putShort(i, 8, zoneId);
         }
     }
 
@@ -457,9 +482,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
     @Override
     public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
         for (int index : indexes) {
-            final int byteIndex = index * BYTE_COUNT;
-            final long epochMillis = byteBuffer.getLong(byteIndex);
-            final short zoneId = byteBuffer.getShort(byteIndex + 8);
+            final long epochMillis = buffer.getLong(index);
+            final short zoneId = buffer.getShort(index, 8);
             os.writeLong(epochMillis);
             os.writeShort(zoneId);
         }
@@ -472,9 +496,8 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         os.writeShort(defaultZoneId);
         os.writeObject(defaultValue);
         for (int i=0; i<length; ++i) {
-            final int byteIndex = i * BYTE_COUNT;
-            final long epochMillis = byteBuffer.getLong(byteIndex);
-            final short zoneId = byteBuffer.getShort(byteIndex + 8);
+            final long epochMillis = buffer.getLong(i);
+            final short zoneId = buffer.getShort(i, 8);
             os.writeLong(epochMillis);
             os.writeShort(zoneId);
         }
@@ -490,13 +513,12 @@ class MappedArrayOfZonedDateTimes extends ArrayBase<ZonedDateTime> {
         this.defaultZoneId = is.readShort();
         this.defaultValue = (ZonedDateTime)is.readObject();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.byteBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length);
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
-            final int byteIndex = i * BYTE_COUNT;
             final long epochMillis = is.readLong();
             final short zoneId = is.readShort();
-            this.byteBuffer.putLong(byteIndex, epochMillis);
-            this.byteBuffer.putShort(byteIndex + 8, zoneId);
+            this.buffer.putLong(i, epochMillis);
+            this.buffer.putShort(i, 8, zoneId);
         }
     }
 
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.IntBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -55,8 +54,9 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     private T defaultValue;
     private int defaultCode;
     private IntCoding<T> coding;
+    private boolean region;
     private FileChannel channel;
-    private IntBuffer buffer;
+    private MappedBuffer buffer;
 
     /**
      * Constructor
@@ -66,6 +66,19 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
      * @param file          the memory mapped file reference
      */
     MappedArrayWithIntCoding(int length, T defaultValue, IntCoding<T> coding, File file) {
+        this(length, defaultValue, coding, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayWithIntCoding(int length, T defaultValue, IntCoding<T> coding, File file, boolean fill) {
         super(coding.getType(), ArrayStyle.MAPPED, false);
         try {
             this.file = file;
@@ -74,14 +87,42 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
             this.defaultValue = defaultValue;
             this.defaultCode = coding.getCode(defaultValue);
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asIntBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
 
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayWithIntCoding(int length, T defaultValue, IntCoding<T> coding, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(coding.getType(), ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.coding = coding;
+            this.defaultValue = defaultValue;
+            this.defaultCode = coding.getCode(defaultValue);
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to copy
@@ -95,6 +136,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         this.defaultValue = source.defaultValue;
         this.defaultCode = source.defaultCode;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -140,11 +182,8 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     public final Array<T> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayWithIntCoding<T> copy = new MappedArrayWithIntCoding<>(length, defaultValue, coding, newFile);
-            for (int i=0; i<length; ++i) {
-                final int v = buffer.get(i);
-                copy.buffer.put(i, v);
-            }
+            final MappedArrayWithIntCoding<T> copy = new MappedArrayWithIntCoding<>(length, defaultValue, coding, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -158,9 +197,9 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
             final File newFile = MappedArrayConstructor.randomFile(true);
             final MappedArrayWithIntCoding<T> copy = new MappedArrayWithIntCoding<>(indexes.length, defaultValue, coding, newFile);
             for (int i=0; i<indexes.length; ++i) {
-                final int value = buffer.get(indexes[i]);
+                final int value = buffer.getInt(indexes[i]);
                 if (Integer.compare(value, defaultCode) != 0) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putInt(i, value);
                 }
             }
             return copy;
@@ -175,13 +214,8 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayWithIntCoding<T> copy = new MappedArrayWithIntCoding<>(newLength, defaultValue, coding, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final int value = buffer.get(start + i);
-                if (Integer.compare(value, defaultCode) != 0) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayWithIntCoding<T> copy = new MappedArrayWithIntCoding<>(newLength, defaultValue, coding, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -192,27 +226,27 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     @Override
     protected final Array<T> sort(int start, int end, int multiplier) {
         return doSort(start, end, (i, j) -> {
-            final int v1 = buffer.get(i);
-            final int v2 = buffer.get(j);
-            return multiplier * Integer.compare(v1, v2);
+            final int v1 = buffer.getInt(i);
+            final int v2 = buffer.getInt(j);
+            return multiplier * coding.compare(v1, v2);
         });
     }
 
 
     @Override
     public final int compare(int i, int j) {
-        final int v1 = buffer.get(i);
-        final int v2 = buffer.get(j);
-        return Integer.compare(v1, v2);
+        final int v1 = buffer.getInt(i);
+        final int v2 = buffer.getInt(j);
+        return coding.compare(v1, v2);
     }
 
 
     @Override
     public final Array<T> swap(int i, int j) {
-        final int v1 = buffer.get(i);
-        final int v2 = buffer.get(j);
-        this.buffer.put(j, v1);
-        this.buffer.put(i, v2);
+        final int v1 = buffer.getInt(i);
+        final int v2 = buffer.getInt(j);
+        this.buffer.putInt(j, v1);
+        this.buffer.putInt(i, v2);
         return this;
     }
 
@@ -250,10 +284,10 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
 
     @Override
     public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
-        if (from instanceof MappedArrayWithIntCoding) {
+        if (from instanceof MappedArrayWithIntCoding && ((MappedArrayWithIntCoding)from).coding == coding) {
             final MappedArrayWithIntCoding other = (MappedArrayWithIntCoding) from;
             for (int i = 0; i < length; ++i) {
-                this.buffer.put(toIndex + i, other.buffer.get(fromIndex + i));
+                this.buffer.putInt(toIndex + i, other.buffer.getInt(fromIndex + i));
             }
         } else {
             for (int i=0; i<length; ++i) {
@@ -269,7 +303,18 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     public final Array<T> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asIntBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -285,7 +330,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     public Array<T> fill(T value, int start, int end) {
         final int code = coding.getCode(value);
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, code);
+            this.buffer.putInt(i, code);
         }
         return this;
     }
@@ -293,7 +338,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
 
     @Override
     public final boolean isNull(int index) {
-        return buffer.get(index) == coding.getCode(null);
+        return buffer.getInt(index) == coding.getCode(null);
     }
 
 
@@ -302,23 +347,27 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         if (value == null) {
             return isNull(index);
         } else {
-            final int code = coding.getCode(value);
-            return code == buffer.get(index);
+            final int code = coding.findCode(value);
+            return code == buffer.getInt(index);
         }
     }
 
 
     @Override
     public int getInt(int index) {
-        this.checkBounds(index, length);
-        return buffer.get(index);
+        if (coding instanceof IntCoding.OfDictionary) {
+            return super.getInt(index);
+        } else {
+            this.checkBounds(index, length);
+            return buffer.getInt(index);
+        }
     }
 
 
     @Override
     public final T getValue(int index) {
         this.checkBounds(index, length);
-        final int code = buffer.get(index);
+        final int code = buffer.getInt(index);
         return coding.getValue(code);
     }
 
@@ -327,7 +376,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     public final T setValue(int index, T value) {
         this.checkBounds(index, length);
         final T oldValue = getValue(index);
-        this.buffer.put(index, coding.getCode(value));
+        this.buffer.putInt(index, coding.getCode(value));
         return oldValue;
     }
 
@@ -338,7 +387,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         final TIntSet set = new TIntHashSet(capacity);
         final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
         for (int i=0; i<length(); ++i) {
-            final int code = getInt(i);
+            final int code = buffer.getInt(i);
             if (set.add(code)) {
                 final T value = getValue(i);
                 builder.add(value);
@@ -354,8 +403,8 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
-            final int code = is.readInt();
-            this.buffer.put(i, code);
+            final int code = coding.read(is);
+            this.buffer.putInt(i, code);
         }
     }
 
@@ -363,8 +412,8 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
     @Override
     public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
         for (int index : indexes) {
-            final int code = buffer.get(index);
-            os.writeInt(code);
+            final int code = buffer.getInt(index);
+            coding.write(os, code);
         }
     }
 
@@ -375,7 +424,7 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         os.writeObject(defaultValue);
         os.writeObject(coding);
         for (int i=0; i<length; ++i) {
-            final int value = buffer.get(i);
+            final int value = buffer.getInt(i);
             os.writeInt(value);
         }
     }
@@ -390,10 +439,10 @@ class MappedArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<
         this.defaultValue = (T)is.readObject();
         this.coding = (IntCoding<T>)is.readObject();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asIntBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final int value = is.readInt();
-            this.buffer.put(i, value);
+            this.buffer.putInt(i, value);
         }
     }
 
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.LongBuffer;
 import java.nio.channels.FileChannel;
 import java.util.function.Predicate;
 
@@ -54,8 +53,9 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     private T defaultValue;
     private long defaultCode;
     private LongCoding<T> coding;
+    private boolean region;
     private FileChannel channel;
-    private LongBuffer buffer;
+    private MappedBuffer buffer;
 
 
     /**
@@ -66,6 +66,19 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
      * @param file          the memory mapped file reference
      */
     MappedArrayWithLongCoding(int length, T defaultValue, LongCoding<T> coding, File file) {
+        this(length, defaultValue, coding, file, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param file          the memory mapped file reference
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private MappedArrayWithLongCoding(int length, T defaultValue, LongCoding<T> coding, File file, boolean fill) {
         super(coding.getType(), ArrayStyle.MAPPED, false);
         try {
             this.file = file;
@@ -74,13 +87,42 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
             this.defaultValue = defaultValue;
             this.defaultCode = coding.getCode(defaultValue);
             this.channel = new RandomAccessFile(file, "rw").getChannel();
-            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asLongBuffer();
-            this.fill(defaultValue);
+            this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
         } catch (Exception ex) {
             throw new ArrayException("Failed to initialise memory mapped array on file: " + file.getAbsolutePath(), ex);
         }
     }
 
+
+    /**
+     * Constructor to map an existing region of a file as is, without initializing its contents
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param file          the memory mapped file reference
+     * @param offset        the byte offset of the first element in the file
+     * @param mode          the map mode, where PRIVATE yields a copy-on-write view that never updates the file
+     * @param header        true if a MappedHeader precedes the region, in which case a READ_WRITE array expands in place
+     */
+    MappedArrayWithLongCoding(int length, T defaultValue, LongCoding<T> coding, File file, long offset, FileChannel.MapMode mode, boolean header) {
+        super(coding.getType(), ArrayStyle.MAPPED, false);
+        try {
+            this.file = file;
+            this.length = length;
+            this.region = !header || mode != FileChannel.MapMode.READ_WRITE;
+            this.coding = coding;
+            this.defaultValue = defaultValue;
+            this.defaultCode = coding.getCode(defaultValue);
+            this.channel = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw").getChannel();
+            this.buffer = new MappedBuffer(channel, mode, offset, BYTE_COUNT, length, header);
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to map region of memory mapped array file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
     /**
      * Constructor
      * @param source    the source array to shallow copy
@@ -94,6 +136,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         this.defaultValue = source.defaultValue;
         this.defaultCode = source.defaultCode;
         this.channel = source.channel;
+        this.region = source.region;
         this.buffer = source.buffer;
     }
 
@@ -133,11 +176,8 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     public final Array<T> copy() {
         try {
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayWithLongCoding<T> copy = new MappedArrayWithLongCoding<>(length, defaultValue, coding, newFile);
-            for (int i=0; i<length; ++i) {
-                final long v = buffer.get(i);
-                copy.buffer.put(i, v);
-            }
+            final MappedArrayWithLongCoding<T> copy = new MappedArrayWithLongCoding<>(length, defaultValue, coding, newFile, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed to copy Array: " + this, ex);
@@ -151,9 +191,9 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
             final File newFile = MappedArrayConstructor.randomFile(true);
             final MappedArrayWithLongCoding<T> copy = new MappedArrayWithLongCoding<>(indexes.length, defaultValue, coding, newFile);
             for (int i=0; i<indexes.length; ++i) {
-                final long value = buffer.get(indexes[i]);
+                final long value = buffer.getLong(indexes[i]);
                 if (Long.compare(value, defaultCode) != 0) {
-                    copy.buffer.put(i, value);
+                    copy.buffer.putLong(i, value);
                 }
             }
             return copy;
@@ -168,13 +208,8 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         try {
             final int newLength = end - start;
             final File newFile = MappedArrayConstructor.randomFile(true);
-            final MappedArrayWithLongCoding<T> copy = new MappedArrayWithLongCoding<>(newLength, defaultValue, coding, newFile);
-            for (int i=0; i<newLength; ++i) {
-                final long value = buffer.get(start + i);
-                if (Long.compare(value, defaultCode) != 0) {
-                    copy.buffer.put(i, value);
-                }
-            }
+            final MappedArrayWithLongCoding<T> copy = new MappedArrayWithLongCoding<>(newLength, defaultValue, coding, newFile, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
             return copy;
         } catch (Exception ex) {
             throw new ArrayException("Failed top copy subset of Array", ex);
@@ -184,18 +219,18 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
 
     @Override
     public final int compare(int i, int j) {
-        final long v1 = buffer.get(i);
-        final long v2 = buffer.get(j);
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
         return Long.compare(v1, v2);
     }
 
 
     @Override
     public final Array<T> swap(int i, int j) {
-        final long v1 = buffer.get(i);
-        final long v2 = buffer.get(j);
-        this.buffer.put(i, v2);
-        this.buffer.put(j, v1);
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
+        this.buffer.putLong(i, v2);
+        this.buffer.putLong(j, v1);
         return this;
     }
 
@@ -236,7 +271,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         if (from instanceof MappedArrayWithLongCoding) {
             final MappedArrayWithLongCoding other = (MappedArrayWithLongCoding) from;
             for (int i = 0; i < length; ++i) {
-                this.buffer.put(toIndex + i, other.buffer.get(fromIndex + i));
+                this.buffer.putLong(toIndex + i, other.buffer.getLong(fromIndex + i));
             }
         } else {
             for (int i=0; i<length; ++i) {
@@ -252,7 +287,18 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     public final Array<T> expand(int newLength) {
         try {
             if (newLength > length) {
-                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * newLength).asLongBuffer();
+                if (region) {
+                    final File newFile = MappedArrayConstructor.randomFile(true);
+                    final FileChannel newChannel = new RandomAccessFile(newFile, "rw").getChannel();
+                    final MappedBuffer newBuffer = new MappedBuffer(newChannel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, newLength);
+                    this.buffer.copyTo(0, newBuffer, 0, length);
+                    this.file = newFile;
+                    this.channel = newChannel;
+                    this.buffer = newBuffer;
+                    this.region = false;
+                } else {
+                    this.buffer.expand(newLength);
+                }
                 this.fill(defaultValue, length, newLength);
                 this.length = newLength;
             }
@@ -267,7 +313,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     public Array<T> fill(T value, int start, int end) {
         final long code = coding.getCode(value);
         for (int i=start; i<end; ++i) {
-            this.buffer.put(i, code);
+            this.buffer.putLong(i, code);
         }
         return this;
     }
@@ -275,7 +321,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
 
     @Override
     public final boolean isNull(int index) {
-        return buffer.get(index) == coding.getCode(null);
+        return buffer.getLong(index) == coding.getCode(null);
     }
 
 
@@ -285,7 +331,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
             return isNull(index);
         } else {
             final long code = coding.getCode(value);
-            return code == buffer.get(index);
+            return code == buffer.getLong(index);
         }
     }
 
@@ -293,14 +339,14 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     @Override
     public final long getLong(int index) {
         this.checkBounds(index, length);
-        return buffer.get(index);
+        return buffer.getLong(index);
     }
 
 
     @Override
     public final T getValue(int index) {
         this.checkBounds(index, length);
-        final long code = buffer.get(index);
+        final long code = buffer.getLong(index);
         return coding.getValue(code);
     }
 
@@ -308,8 +354,8 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     @Override
     public final long setLong(int index, long value) {
         this.checkBounds(index, length);
-        final long oldCode = buffer.get(index);
-        this.buffer.put(index, value);
+        final long oldCode = buffer.getLong(index);
+        this.buffer.putLong(index, value);
         return oldCode;
     }
 
@@ -319,7 +365,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         this.checkBounds(index, length);
         final T oldValue = getValue(index);
         final long code = coding.getCode(value);
-        this.buffer.put(index, code);
+        this.buffer.putLong(index, code);
         return oldValue;
     }
 
@@ -347,7 +393,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
             final long value = is.readLong();
-            this.buffer.put(i, value);
+            this.buffer.putLong(i, value);
         }
     }
 
@@ -368,7 +414,7 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         os.writeObject(defaultValue);
         os.writeObject(coding);
         for (int i=0; i<length; ++i) {
-            final long value = buffer.get(i);
+            final long value = buffer.getLong(i);
             os.writeLong(value);
         }
     }
@@ -383,10 +429,10 @@ class MappedArrayWithLongCoding<T> extends ArrayBase<T> {
         this.defaultValue = (T)is.readObject();
         this.coding = (LongCoding<T>)is.readObject();
         this.channel = new RandomAccessFile(file, "rw").getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTE_COUNT * length).asLongBuffer();
+        this.buffer = new MappedBuffer(channel, FileChannel.MapMode.READ_WRITE, 0L, BYTE_COUNT, length);
         for (int i=0; i<length; ++i) {
             final long value = is.readLong();
-            this.buffer.put(i, value);
+            this.buffer.putLong(i, value);
         }
     }
 
@@ -0,0 +1,300 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A buffer of fixed width elements mapped from a file as a sequence of segments, which lifts the 2GB limit of a single mapping.
+ *
+ * <p>Each segment holds a power of two number of elements, so that an element index resolves to a segment with a shift
+ * and to a byte position within that segment with a mask, and no element ever straddles two segments. Segments are
+ * mapped at long file offsets, so an array of up to Integer.MAX_VALUE elements of any width can be addressed. The
+ * maximum segment size defaults to 1GB and can be configured via the <code>morpheus.array.segmentBytes</code> system
+ * property, which is read each time a buffer is created.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedBuffer {
+
+    private static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    private int shift;
+    private int mask;
+    private int length;
+    private long offset;
+    private int elementBytes;
+    private boolean header;
+    private FileChannel channel;
+    private FileChannel.MapMode mode;
+    private MappedByteBuffer[] segments;
+
+    /**
+     * Constructor
+     * @param channel       the file channel to map
+     * @param mode          the map mode
+     * @param offset        the byte offset of the first element in the file
+     * @param elementBytes  the number of bytes per element
+     * @param length        the number of elements to map
+     * @throws IOException  if the file fails to map
+     */
+    MappedBuffer(FileChannel channel, FileChannel.MapMode mode, long offset, long elementBytes, int length) throws IOException {
+        this(channel, mode, offset, elementBytes, length, false);
+    }
+
+    /**
+     * Constructor
+     * @param channel       the file channel to map
+     * @param mode          the map mode
+     * @param offset        the byte offset of the first element in the file
+     * @param elementBytes  the number of bytes per element
+     * @param length        the number of elements to map
+     * @param header        true if a MappedHeader precedes the elements, in which case its length is updated on expand
+     * @throws IOException  if the file fails to map
+     */
+    MappedBuffer(FileChannel channel, FileChannel.MapMode mode, long offset, long elementBytes, int length, boolean header) throws IOException {
+        this.channel = channel;
+        this.header = header;
+        this.mode = mode;
+        this.offset = offset;
+        this.elementBytes = (int)elementBytes;
+        this.shift = segmentShift(elementBytes);
+        this.mask = (1 << shift) - 1;
+        this.segments = new MappedByteBuffer[0];
+        this.map(length);
+    }
+
+    /**
+     * Returns the base 2 log of the number of elements per segment
+     * @param elementBytes  the number of bytes per element
+     * @return              the segment shift
+     */
+    private static int segmentShift(long elementBytes) {
+        final String value = System.getProperty("morpheus.array.segmentBytes");
+        final long segmentBytes = value != null ? Long.parseLong(value) : DEFAULT_SEGMENT_BYTES;
+        final long maxElements = Math.max(1L, Math.min(segmentBytes, Integer.MAX_VALUE) / elementBytes);
+        return 63 - Long.numberOfLeadingZeros(maxElements);
+    }
+
+    /**
+     * Maps the segments required to hold the number of elements specified
+     * @param newLength     the new number of elements
+     * @throws IOException  if the file fails to map
+     */
+    private void map(int newLength) throws IOException {
+        final int count = newLength == 0 ? 0 : ((newLength - 1) >>> shift) + 1;
+        final int first = length == 0 ? 0 : (length - 1) >>> shift;
+        final int segmentLength = 1 << shift;
+        this.segments = Arrays.copyOf(segments, count);
+        for (int i=first; i<count; ++i) {
+            final long start = (long)i << shift;
+            final long elements = Math.min(segmentLength, newLength - start);
+            this.segments[i] = channel.map(mode, offset + start * elementBytes, elements * elementBytes);
+        }
+        this.length = newLength;
+    }
+
+    /**
+     * Returns the number of elements mapped by this buffer
+     * @return  the number of elements
+     */
+    final int length() {
+        return length;
+    }
+
+    /**
+     * Returns the file channel for this buffer
+     * @return  the file channel
+     */
+    final FileChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Maps additional elements at the end of this buffer, retaining the existing contents
+     * <p>This should only be used with READ_WRITE buffers, since remapping a PRIVATE segment discards its changes.</p>
+     * @param newLength     the new number of elements
+     * @throws IOException  if the file fails to map
+     */
+    final void expand(int newLength) throws IOException {
+        if (newLength > length) {
+            this.map(newLength);
+            if (header) {
+                MappedHeader.writeLength(channel, offset, newLength);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements from this buffer to another buffer of the same element width using bulk transfers
+     * @param fromIndex the index of the first element to copy from this buffer
+     * @param target    the target buffer
+     * @param toIndex   the index of the first element to copy to in the target buffer
+     * @param count     the number of elements to copy
+     */
+    final void copyTo(int fromIndex, MappedBuffer target, int toIndex, int count) {
+        while (count > 0) {
+            final int fromPosition = fromIndex & mask;
+            final int toPosition = toIndex & target.mask;
+            final int fromAvailable = (mask + 1) - fromPosition;
+            final int toAvailable = (target.mask + 1) - toPosition;
+            final int n = Math.min(count, Math.min(fromAvailable, toAvailable));
+            final ByteBuffer source = segments[fromIndex >>> shift].duplicate();
+            final ByteBuffer destination = target.segments[toIndex >>> target.shift].duplicate();
+            source.position(fromPosition * elementBytes);
+            source.limit((fromPosition + n) * elementBytes);
+            destination.position(toPosition * target.elementBytes);
+            destination.put(source);
+            fromIndex += n;
+            toIndex += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Returns the byte value at the element index
+     * @param index     the element index
+     * @return          the byte value
+     */
+    final byte getByte(int index) {
+        return segments[index >>> shift].get((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the short value at the element index
+     * @param index     the element index
+     * @return          the short value
+     */
+    final short getShort(int index) {
+        return segments[index >>> shift].getShort((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the short value at a byte offset within the element
+     * @param index     the element index
+     * @param delta     the byte offset within the element
+     * @return          the short value
+     */
+    final short getShort(int index, int delta) {
+        return segments[index >>> shift].getShort((index & mask) * elementBytes + delta);
+    }
+
+    /**
+     * Returns the int value at the element index
+     * @param index     the element index
+     * @return          the int value
+     */
+    final int getInt(int index) {
+        return segments[index >>> shift].getInt((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the long value at the element index
+     * @param index     the element index
+     * @return          the long value
+     */
+    final long getLong(int index) {
+        return segments[index >>> shift].getLong((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the float value at the element index
+     * @param index     the element index
+     * @return          the float value
+     */
+    final float getFloat(int index) {
+        return segments[index >>> shift].getFloat((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the double value at the element index
+     * @param index     the element index
+     * @return          the double value
+     */
+    final double getDouble(int index) {
+        return segments[index >>> shift].getDouble((index & mask) * elementBytes);
+    }
+
+    /**
+     * Sets the byte value at the element index
+     * @param index     the element index
+     * @param value     the byte value
+     */
+    final void putByte(int index, byte value) {
+        this.segments[index >>> shift].put((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the short value at the element index
+     * @param index     the element index
+     * @param value     the short value
+     */
+    final void putShort(int index, short value) {
+        this.segments[index >>> shift].putShort((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the short value at a byte offset within the element
+     * @param index     the element index
+     * @param delta     the byte offset within the element
+     * @param value     the short value
+     */
+    final void putShort(int index, int delta, short value) {
+        this.segments[index >>> shift].putShort((index & mask) * elementBytes + delta, value);
+    }
+
+    /**
+     * Sets the int value at the element index
+     * @param index     the element index
+     * @param value     the int value
+     */
+    final void putInt(int index, int value) {
+        this.segments[index >>> shift].putInt((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the long value at the element index
+     * @param index     the element index
+     * @param value     the long value
+     */
+    final void putLong(int index, long value) {
+        this.segments[index >>> shift].putLong((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the float value at the element index
+     * @param index     the element index
+     * @param value     the float value
+     */
+    final void putFloat(int index, float value) {
+        this.segments[index >>> shift].putFloat((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the double value at the element index
+     * @param index     the element index
+     * @param value     the double value
+     */
+    final void putDouble(int index, double value) {
+        this.segments[index >>> shift].putDouble((index & mask) * elementBytes, value);
+    }
+}
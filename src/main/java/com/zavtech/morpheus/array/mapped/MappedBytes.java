@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * An append only heap of variable length byte records mapped from a file as a sequence of segments.
+ *
+ * <p>Each record is stored as a 4 byte length followed by its bytes, and is addressed by the long file position
+ * returned when it is appended, so records may straddle segments and the heap is not limited to 2GB. The last
+ * segment is mapped with a capacity that doubles as records are appended, so small heaps only occupy a small
+ * file, and the maximum segment size follows the <code>morpheus.array.segmentBytes</code> system property.
+ * Records are never overwritten, so the space used by a record that is no longer referenced is only
+ * reclaimed when the owning array is copied.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedBytes {
+
+    private static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+    private static final int MIN_CAPACITY = 4096;
+
+    private int shift;
+    private long mask;
+    private long size;
+    private FileChannel channel;
+    private volatile MappedByteBuffer[] segments;
+
+    /**
+     * Constructor
+     * @param channel   the read/write file channel for the heap
+     */
+    MappedBytes(FileChannel channel) {
+        final String value = System.getProperty("morpheus.array.segmentBytes");
+        final long segmentBytes = value != null ? Long.parseLong(value) : DEFAULT_SEGMENT_BYTES;
+        this.shift = 63 - Long.numberOfLeadingZeros(Math.max(8L, Math.min(segmentBytes, DEFAULT_SEGMENT_BYTES)));
+        this.mask = (1L << shift) - 1L;
+        this.channel = channel;
+        this.segments = new MappedByteBuffer[0];
+    }
+
+    /**
+     * Returns the number of bytes appended to this heap
+     * @return  the number of bytes in use
+     */
+    final synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns the file channel for this heap
+     * @return  the file channel
+     */
+    final FileChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Appends a record to this heap
+     * @param bytes     the record bytes
+     * @return          the position of the record
+     * @throws IOException  if the file fails to map
+     */
+    final synchronized long append(byte[] bytes) throws IOException {
+        final long position = size;
+        final int length = bytes.length;
+        this.ensureCapacity(position + 4 + length);
+        this.put(position, new byte[] {(byte)(length >>> 24), (byte)(length >>> 16), (byte)(length >>> 8), (byte)length}, 4);
+        this.put(position + 4, bytes, length);
+        this.size = position + 4 + length;
+        return position;
+    }
+
+    /**
+     * Returns the bytes of the record at the position specified
+     * @param position  the record position returned by append()
+     * @return          the record bytes
+     */
+    final byte[] read(long position) {
+        final byte[] prefix = new byte[4];
+        this.get(position, prefix, 4);
+        final int length = ((prefix[0] & 0xFF) << 24) | ((prefix[1] & 0xFF) << 16) | ((prefix[2] & 0xFF) << 8) | (prefix[3] & 0xFF);
+        final byte[] bytes = new byte[length];
+        this.get(position + 4, bytes, length);
+        return bytes;
+    }
+
+    /**
+     * Copies all records in this heap to another heap, so the record positions remain valid in the target
+     * @param target    the empty target heap
+     * @throws IOException  if the file fails to map
+     */
+    final synchronized void copyTo(MappedBytes target) throws IOException {
+        synchronized (target) {
+            target.ensureCapacity(size);
+            final byte[] chunk = new byte[(int)Math.min(size, 1 << 16)];
+            for (long position = 0L; position < size; position += chunk.length) {
+                final int count = (int)Math.min(chunk.length, size - position);
+                this.get(position, chunk, count);
+                target.put(position, chunk, count);
+            }
+            target.size = size;
+        }
+    }
+
+    /**
+     * Maps the segments required to hold the number of bytes specified
+     * @param required  the required number of bytes
+     * @throws IOException  if the file fails to map
+     */
+    private void ensureCapacity(long required) throws IOException {
+        final int last = (int)((required - 1) >>> shift);
+        final long lastBytes = ((required - 1) & mask) + 1;
+        final MappedByteBuffer[] current = segments;
+        if (required > 0L && (last >= current.length || current[last].capacity() < lastBytes)) {
+            final MappedByteBuffer[] result = Arrays.copyOf(current, Math.max(current.length, last + 1));
+            for (int i=Math.max(0, current.length - 1); i<=last; ++i) {
+                final long capacity = i < last ? mask + 1 : Math.min(mask + 1, Math.max(MIN_CAPACITY, Long.highestOneBit(lastBytes) << 1));
+                if (result[i] == null || result[i].capacity() < capacity) {
+                    result[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long)i << shift, capacity);
+                }
+            }
+            this.segments = result;
+        }
+    }
+
+    /**
+     * Writes bytes starting at the position specified, across segment boundaries if required
+     * @param position  the file position
+     * @param bytes     the bytes to write
+     * @param count     the number of bytes to write
+     */
+    private void put(long position, byte[] bytes, int count) {
+        final MappedByteBuffer[] segments = this.segments;
+        int offset = 0;
+        while (offset < count) {
+            final ByteBuffer segment = segments[(int)(position >>> shift)].duplicate();
+            final int start = (int)(position & mask);
+            final int n = (int)Math.min(count - offset, (mask + 1) - start);
+            segment.position(start);
+            segment.put(bytes, offset, n);
+            position += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Reads bytes starting at the position specified, across segment boundaries if required
+     * @param position  the file position
+     * @param bytes     the array to read into
+     * @param count     the number of bytes to read
+     */
+    private void get(long position, byte[] bytes, int count) {
+        final MappedByteBuffer[] segments = this.segments;
+        int offset = 0;
+        while (offset < count) {
+            final ByteBuffer segment = segments[(int)(position >>> shift)].duplicate();
+            final int start = (int)(position & mask);
+            final int n = (int)Math.min(count - offset, (mask + 1) - start);
+            segment.position(start);
+            segment.get(bytes, offset, n);
+            position += n;
+            offset += n;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.mapped;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.zavtech.morpheus.array.ArrayException;
+
+/**
+ * A fixed size header at the start of a named memory mapped array file, which records what is needed to reopen the array.
+ *
+ * <p>The header holds a magic number, a version, the array length, the number of bytes per element, the default value
+ * encoded as a long, the element type name and, for zoned date times, the zone of the default value. The array
+ * elements start immediately after the header.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class MappedHeader {
+
+    /** The number of bytes reserved for the header, which keeps the elements 8 byte aligned */
+    static final int SIZE = 256;
+
+    private static final int MAGIC = 0x4D524141;
+    private static final int VERSION = 1;
+    private static final int LENGTH_POSITION = 8;
+
+    private String typeName;
+    private int length;
+    private int elementBytes;
+    private long defaultBits;
+    private String defaultZone;
+
+    /**
+     * Constructor
+     * @param typeName      the element type name
+     * @param length        the array length
+     * @param elementBytes  the number of bytes per element
+     * @param defaultBits   the default value encoded as a long
+     * @param defaultZone   the zone of the default value for zoned date times, otherwise empty
+     */
+    MappedHeader(String typeName, int length, int elementBytes, long defaultBits, String defaultZone) {
+        this.typeName = typeName;
+        this.length = length;
+        this.elementBytes = elementBytes;
+        this.defaultBits = defaultBits;
+        this.defaultZone = defaultZone != null ? defaultZone : "";
+    }
+
+    /**
+     * Returns the element type name
+     * @return  the element type name
+     */
+    String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Returns the array length
+     * @return  the array length
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of bytes per element
+     * @return  the bytes per element
+     */
+    int getElementBytes() {
+        return elementBytes;
+    }
+
+    /**
+     * Returns the default value encoded as a long
+     * @return  the encoded default value
+     */
+    long getDefaultBits() {
+        return defaultBits;
+    }
+
+    /**
+     * Returns the zone of the default value for zoned date times
+     * @return  the default zone, empty if not applicable
+     */
+    String getDefaultZone() {
+        return defaultZone;
+    }
+
+    /**
+     * Writes this header to the start of the file channel
+     * @param channel   the file channel
+     * @throws IOException  if there is an I/O exception
+     */
+    void write(FileChannel channel) throws IOException {
+        final byte[] typeBytes = typeName.getBytes(StandardCharsets.UTF_8);
+        final byte[] zoneBytes = defaultZone.getBytes(StandardCharsets.UTF_8);
+        if (28 + typeBytes.length + zoneBytes.length > SIZE) {
+            throw new ArrayException("The type name is too long for a memory mapped array header: " + typeName);
+        } else {
+            final ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(length);
+            buffer.putInt(elementBytes);
+            buffer.putLong(defaultBits);
+            buffer.putShort((short)typeBytes.length).put(typeBytes);
+            buffer.putShort((short)zoneBytes.length).put(zoneBytes);
+            buffer.clear();
+            channel.write(buffer, 0L);
+        }
+    }
+
+    /**
+     * Updates the length recorded in a header that precedes the elements at the offset specified
+     * @param channel   the file channel
+     * @param offset    the byte offset of the first element
+     * @param length    the new array length
+     * @throws IOException  if there is an I/O exception
+     */
+    static void writeLength(FileChannel channel, long offset, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.putInt(0, length);
+        channel.write(buffer, offset - SIZE + LENGTH_POSITION);
+    }
+
+    /**
+     * Reads the header from the start of the file specified
+     * @param file      the file to read
+     * @param channel   the file channel
+     * @return          the header
+     * @throws IOException  if there is an I/O exception
+     */
+    static MappedHeader read(File file, FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        if (channel.size() < SIZE || channel.read(buffer, 0L) < SIZE || buffer.getInt(0) != MAGIC) {
+            throw new ArrayException("The file is not a memory mapped array with a header: " + file.getAbsolutePath());
+        } else if (buffer.getInt(4) > VERSION) {
+            throw new ArrayException("Unsupported memory mapped array header version " + buffer.getInt(4) + " in " + file.getAbsolutePath());
+        } else {
+            buffer.position(8);
+            final int length = buffer.getInt();
+            final int elementBytes = buffer.getInt();
+            final long defaultBits = buffer.getLong();
+            final byte[] typeBytes = new byte[buffer.getShort()];
+            buffer.get(typeBytes);
+            final byte[] zoneBytes = new byte[buffer.getShort()];
+            buffer.get(zoneBytes);
+            final String typeName = new String(typeBytes, StandardCharsets.UTF_8);
+            final String defaultZone = new String(zoneBytes, StandardCharsets.UTF_8);
+            return new MappedHeader(typeName, length, elementBytes, defaultBits, defaultZone);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TShortSet;
+import gnu.trove.set.hash.TShortHashSet;
+
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to hold an off heap array of boolean values
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class OffHeapArrayOfBooleans extends ArrayBase<Boolean> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long BYTE_COUNT = 2L;
+
+    private int length;
+    private boolean defaultValue;
+    private OffHeapBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     */
+    OffHeapArrayOfBooleans(int length, Boolean defaultValue ) {
+        this(length, defaultValue, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private OffHeapArrayOfBooleans(int length, Boolean defaultValue , boolean fill) {
+        super(Boolean.class, ArrayStyle.OFF_HEAP, false);
+        try {
+            this.length = length;
+            this.defaultValue = defaultValue == null ? false : defaultValue;
+            this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to allocate off heap array of length " + length, ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private OffHeapArrayOfBooleans(OffHeapArrayOfBooleans source, boolean parallel) {
+        super(source.type(), ArrayStyle.OFF_HEAP, parallel);
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.buffer = source.buffer;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public final void release() {
+        this.buffer.release();
+        this.length = 0;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Boolean defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Boolean> parallel() {
+        return isParallel() ? this : new OffHeapArrayOfBooleans(this, true);
+    }
+
+
+    @Override
+    public final Array<Boolean> sequential() {
+        return isParallel() ? new OffHeapArrayOfBooleans(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy() {
+        try {
+            final OffHeapArrayOfBooleans copy = new OffHeapArrayOfBooleans(length, defaultValue, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy(int[] indexes) {
+        try {
+            final short defaultShort = defaultValue ? (short)1 : (short)0;
+            final OffHeapArrayOfBooleans copy = new OffHeapArrayOfBooleans(indexes.length, defaultValue);
+            for (int i=0; i<indexes.length; ++i) {
+                final short value = buffer.getShort(indexes[i]);
+                if (value != defaultShort) {
+                    copy.buffer.putShort(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Boolean> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final OffHeapArrayOfBooleans copy = new OffHeapArrayOfBooleans(newLength, defaultValue, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Boolean> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final boolean v1 = buffer.getShort(i) == 1;
+            final boolean v2 = buffer.getShort(j) == 1;
+            return multiplier * Boolean.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final boolean v1 = buffer.getShort(i) == 1;
+        final boolean v2 = buffer.getShort(j) == 1;
+        return Boolean.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<Boolean> swap(int i, int j) {
+        final short v1 = buffer.getShort(i);
+        final short v2 = buffer.getShort(j);
+        this.buffer.putShort(j, v1);
+        this.buffer.putShort(i, v2);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> filter(Predicate<ArrayValue<Boolean>> predicate) {
+        final ArrayCursor<Boolean> cursor = cursor();
+        final ArrayBuilder<Boolean> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addBoolean(cursor.getBoolean());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Boolean> update(Array<Boolean> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final boolean update = from.getBoolean(fromIndex);
+                this.setBoolean(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> update(int toIndex, Array<Boolean> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final boolean update = from.getBoolean(fromIndex + i);
+            this.setBoolean(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Boolean> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                final int oldLength = length;
+                this.buffer.expand(newLength);
+                this.length = newLength;
+                this.fill(defaultValue, oldLength, newLength);
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of off heap array to " + newLength, ex);
+        }
+    }
+
+
+    @Override
+    public Array<Boolean> fill(Boolean value, int start, int end) {
+        if (start > end) {
+            throw new IllegalArgumentException("The fill start index " + start + " is greater than the end index " + end);
+        } else if (start < 0 || end > length) {
+            throw new ArrayIndexOutOfBoundsException("Array fill range [" + start + ", " + end + ") out of bounds, length " + length);
+        } else {
+            final boolean fillValue = value == null ? defaultValue : value;
+            final short fillShort = fillValue ? (short)1 : (short)0;
+            for (int i=start; i<end; ++i) {
+                this.buffer.putShort(i, fillShort);
+            }
+            return this;
+        }
+    }
+
+
+    @Override
+    public boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Boolean value) {
+        return value != null && getBoolean(index) == value;
+    }
+
+
+    @Override
+    public final boolean getBoolean(int index) {
+        this.checkBounds(index, length);
+        return this.buffer.getShort(index) == 1;
+    }
+
+
+    @Override
+    public final Boolean getValue(int index) {
+        this.checkBounds(index, length);
+        return this.buffer.getShort(index) == 1 ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+
+    @Override
+    public final boolean setBoolean(int index, boolean value) {
+        this.checkBounds(index, length);
+        final boolean oldValue = getBoolean(index);
+        this.buffer.putShort(index, value ? (short)1 : (short)0);
+        return oldValue;
+    }
+
+
+    @Override
+    public final Boolean setValue(int index, Boolean value) {
+        final boolean oldValue = getBoolean(index);
+        if (value == null) {
+            this.buffer.putShort(index, defaultValue ? (short)1 : (short)0);
+            return oldValue;
+        } else {
+            this.buffer.putShort(index, value ? (short)1 : (short)0);
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public int binarySearch(int start, int end, Boolean value) {
+        int low = start;
+        int high = end - 1;
+        while (low <= high) {
+            final int midIndex = (low + high) >>> 1;
+            final boolean midValue = getBoolean(midIndex);
+            final int result = Boolean.compare(midValue, value);
+            if (result < 0) {
+                low = midIndex + 1;
+            } else if (result > 0) {
+                high = midIndex - 1;
+            } else {
+                return midIndex;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    @Override
+    public Array<Boolean> distinct(int limit) {
+        final TShortSet set = new TShortHashSet(limit);
+        final ArrayBuilder<Boolean> builder = ArrayBuilder.of(2, Boolean.class);
+        for (int i=0; i<length(); ++i) {
+            final boolean value = getBoolean(i);
+            if (set.add(value ? (short)1 : (short)0)) {
+                builder.addBoolean(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final boolean value = is.readBoolean();
+            this.setBoolean(i, value);
+        }
+    }
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final boolean value = getBoolean(index);
+            os.writeBoolean(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeBoolean(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final boolean value = getBoolean(i);
+            os.writeBoolean(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultValue = is.readBoolean();
+        this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final boolean value = is.readBoolean();
+            this.setBoolean(i, value);
+        }
+    }
+
+}
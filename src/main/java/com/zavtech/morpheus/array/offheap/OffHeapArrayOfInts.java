@@ -0,0 +1,419 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to represent a dense array of int values in off heap memory.
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class OffHeapArrayOfInts extends ArrayBase<Integer> {
+
+    private static final long BYTE_COUNT = 4L;
+
+    private int length;
+    private int defaultValue;
+    private OffHeapBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     */
+    OffHeapArrayOfInts(int length, Integer defaultValue) {
+        this(length, defaultValue, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private OffHeapArrayOfInts(int length, Integer defaultValue, boolean fill) {
+        super(Integer.class, ArrayStyle.OFF_HEAP, false);
+        try {
+            this.length = length;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to allocate off heap array of length " + length, ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private OffHeapArrayOfInts(OffHeapArrayOfInts source, boolean parallel) {
+        super(source.type(), ArrayStyle.OFF_HEAP, parallel);
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.buffer = source.buffer;
+    }
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public final void release() {
+        this.buffer.release();
+        this.length = 0;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Integer defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Integer> parallel() {
+        return isParallel() ? this : new OffHeapArrayOfInts(this, true);
+    }
+
+
+    @Override
+    public final Array<Integer> sequential() {
+        return isParallel() ? new OffHeapArrayOfInts(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Integer> copy() {
+        try {
+            final OffHeapArrayOfInts copy = new OffHeapArrayOfInts(length, defaultValue, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Integer> copy(int[] indexes) {
+        try {
+            final OffHeapArrayOfInts copy = new OffHeapArrayOfInts(indexes.length, defaultValue);
+            for (int i=0; i<indexes.length; ++i) {
+                final int value = getInt(indexes[i]);
+                if (Integer.compare(value, defaultValue) != 0) {
+                    copy.buffer.putInt(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Integer> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final OffHeapArrayOfInts copy = new OffHeapArrayOfInts(newLength, defaultValue, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Integer> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final int v1 = getInt(i);
+            final int v2 = getInt(j);
+            return multiplier * Integer.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final int v1 = getInt(i);
+        final int v2 = getInt(j);
+        return Integer.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<Integer> swap(int i, int j) {
+        final int v1 = getInt(i);
+        final int v2 = getInt(j);
+        this.setInt(i, v2);
+        this.setInt(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Integer> filter(Predicate<ArrayValue<Integer>> predicate) {
+        final ArrayCursor<Integer> cursor = cursor();
+        final ArrayBuilder<Integer> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addInt(cursor.getInt());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Integer> update(Array<Integer> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final int update = from.getInt(fromIndex);
+                this.setInt(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Integer> update(int toIndex, Array<Integer> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final int update = from.getInt(fromIndex + i);
+            this.setInt(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Integer> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                this.buffer.expand(newLength);
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of off heap array to " + newLength, ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Integer> fill(Integer value, int start, int end) {
+        final int fillValue = value == null ? defaultValue : value;
+        for (int i=start; i<end; ++i) {
+            this.buffer.putInt(i, fillValue);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Integer value) {
+        return value != null && value == buffer.getInt(index);
+    }
+
+
+    @Override
+    public final int getInt(int index) {
+        this.checkBounds(index, length);
+        return buffer.getInt(index);
+    }
+
+
+    @Override
+    public final long getLong(int index) {
+        this.checkBounds(index, length);
+        return buffer.getInt(index);
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return buffer.getInt(index);
+    }
+
+
+    @Override
+    public final Integer getValue(int index) {
+        this.checkBounds(index, length);
+        return buffer.getInt(index);
+    }
+
+
+    @Override
+    public final int setInt(int index, int value) {
+        this.checkBounds(index, length);
+        final int oldValue = buffer.getInt(index);
+        this.buffer.putInt(index, value);
+        return oldValue;
+    }
+
+
+    @Override
+    public final Integer setValue(int index, Integer value) {
+        final Integer oldValue = getValue(index);
+        this.buffer.putInt(index, value != null ? value : defaultValue);
+        return oldValue;
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Integer value) {
+        try {
+            int low = start;
+            int high = end - 1;
+            while (low <= high) {
+                final int midIndex = (low + high) >>> 1;
+                final int midValue = buffer.getInt(midIndex);
+                final int result = Integer.compare(midValue, value);
+                if (result < 0) {
+                    low = midIndex + 1;
+                } else if (result > 0) {
+                    high = midIndex - 1;
+                } else {
+                    return midIndex;
+                }
+            }
+            return -(low + 1);
+        } catch (Exception ex) {
+            throw new ArrayException("Binary search of array failed", ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Integer> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TIntSet set = new TIntHashSet(capacity);
+        final ArrayBuilder<Integer> builder = ArrayBuilder.of(capacity, Integer.class);
+        for (int i=0; i<length(); ++i) {
+            final int value = getInt(i);
+            if (set.add(value)) {
+                builder.addInt(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Integer> cumSum() {
+        final int length = length();
+        final Array<Integer> result = Array.of(Integer.class, length);
+        result.setInt(0, buffer.getInt(0));
+        for (int i=1; i<length; ++i) {
+            final int prior = result.getInt(i-1);
+            final int current = buffer.getInt(i);
+            result.setInt(i, prior + current);
+        }
+        return result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final int value = is.readInt();
+            this.setInt(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final int value = getInt(index);
+            os.writeInt(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeInt(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final int value = getInt(i);
+            os.writeInt(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultValue = is.readInt();
+        this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final int value = is.readInt();
+            this.setInt(i, value);
+        }
+    }
+
+
+}
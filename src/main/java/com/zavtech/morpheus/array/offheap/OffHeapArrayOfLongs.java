@@ -0,0 +1,413 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to represent a dense array of long values in off heap memory.
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class OffHeapArrayOfLongs extends ArrayBase<Long> {
+
+    private static final long BYTE_COUNT = 8L;
+
+    private int length;
+    private long defaultValue;
+    private OffHeapBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     */
+    OffHeapArrayOfLongs(int length, Long defaultValue) {
+        this(length, defaultValue, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length of the array
+     * @param defaultValue  the default value for array
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private OffHeapArrayOfLongs(int length, Long defaultValue, boolean fill) {
+        super(Long.class, ArrayStyle.OFF_HEAP, false);
+        try {
+            this.length = length;
+            this.defaultValue = defaultValue == null ? 0 : defaultValue;
+            this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to allocate off heap array of length " + length, ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for parallel version
+     */
+    private OffHeapArrayOfLongs(OffHeapArrayOfLongs source, boolean parallel) {
+        super(source.type(), ArrayStyle.OFF_HEAP, parallel);
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.buffer = source.buffer;
+    }
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public final void release() {
+        this.buffer.release();
+        this.length = 0;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final Long defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Long> parallel() {
+        return isParallel() ? this : new OffHeapArrayOfLongs(this, true);
+    }
+
+
+    @Override
+    public final Array<Long> sequential() {
+        return isParallel() ? new OffHeapArrayOfLongs(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Long> copy() {
+        try {
+            final OffHeapArrayOfLongs copy = new OffHeapArrayOfLongs(length, defaultValue, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Long> copy(int[] indexes) {
+        try {
+            final OffHeapArrayOfLongs copy = new OffHeapArrayOfLongs(indexes.length, defaultValue);
+            for (int i=0; i<indexes.length; ++i) {
+                final long value = getLong(indexes[i]);
+                if (Long.compare(value, defaultValue) != 0) {
+                    copy.buffer.putLong(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Long> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final OffHeapArrayOfLongs copy = new OffHeapArrayOfLongs(newLength, defaultValue, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<Long> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final long v1 = getLong(i);
+            final long v2 = getLong(j);
+            return multiplier * Long.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final long v1 = getLong(i);
+        final long v2 = getLong(j);
+        return Long.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<Long> swap(int i, int j) {
+        final long v1 = getLong(i);
+        final long v2 = getLong(j);
+        this.setLong(i, v2);
+        this.setLong(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Long> filter(Predicate<ArrayValue<Long>> predicate) {
+        final ArrayCursor<Long> cursor = cursor();
+        final ArrayBuilder<Long> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.addLong(cursor.getLong());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Long> update(Array<Long> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final long update = from.getLong(fromIndex);
+                this.setLong(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Long> update(int toIndex, Array<Long> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final long update = from.getLong(fromIndex + i);
+            this.setLong(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Long> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                this.buffer.expand(newLength);
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of off heap array to " + newLength, ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Long> fill(Long value, int start, int end) {
+        final long fillValue = value == null ? defaultValue : value;
+        for (int i=start; i<end; ++i) {
+            this.buffer.putLong(i, fillValue);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Long value) {
+        return value != null && value == buffer.getLong(index);
+    }
+
+
+    @Override
+    public final long getLong(int index) {
+        this.checkBounds(index, length);
+        return buffer.getLong(index);
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return buffer.getLong(index);
+    }
+
+
+    @Override
+    public final Long getValue(int index) {
+        this.checkBounds(index, length);
+        return buffer.getLong(index);
+    }
+
+
+    @Override
+    public final long setLong(int index, long value) {
+        this.checkBounds(index, length);
+        final long oldValue = buffer.getLong(index);
+        this.buffer.putLong(index, value);
+        return oldValue;
+    }
+
+
+    @Override
+    public final Long setValue(int index, Long value) {
+        this.checkBounds(index, length);
+        final Long oldValue = getValue(index);
+        this.buffer.putLong(index, value != null ? value : defaultValue);
+        return oldValue;
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Long value) {
+        try {
+            int low = start;
+            int high = end - 1;
+            while (low <= high) {
+                final int midIndex = (low + high) >>> 1;
+                final long midValue = buffer.getLong(midIndex);
+                final int result = Long.compare(midValue, value);
+                if (result < 0) {
+                    low = midIndex + 1;
+                } else if (result > 0) {
+                    high = midIndex - 1;
+                } else {
+                    return midIndex;
+                }
+            }
+            return -(low + 1);
+        } catch (Exception ex) {
+            throw new ArrayException("Binary search of array failed", ex);
+        }
+    }
+
+
+    @Override
+    public final Array<Long> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TLongSet set = new TLongHashSet(capacity);
+        final ArrayBuilder<Long> builder = ArrayBuilder.of(capacity, Long.class);
+        for (int i=0; i<length(); ++i) {
+            final long value = getLong(i);
+            if (set.add(value)) {
+                builder.addLong(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Long> cumSum() {
+        final int length = length();
+        final Array<Long> result = Array.of(Long.class, length);
+        result.setLong(0, buffer.getLong(0));
+        for (int i=1; i<length; ++i) {
+            final long prior = result.getLong(i-1);
+            final long current = buffer.getLong(i);
+            result.setLong(i, prior + current);
+        }
+        return result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final long value = is.readLong();
+            this.setLong(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final long value = getLong(index);
+            os.writeLong(value);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeLong(defaultValue);
+        for (int i=0; i<length; ++i) {
+            final long value = getLong(i);
+            os.writeLong(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultValue = is.readLong();
+        this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final long value = is.readLong();
+            this.setLong(i, value);
+        }
+    }
+
+
+}
@@ -0,0 +1,401 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+import com.zavtech.morpheus.array.coding.IntCoding;
+import com.zavtech.morpheus.array.coding.WithIntCoding;
+
+/**
+ * An off heap array implementation that maintains a primitive int array of codes that map to Object values exposed through the IntCoding interface.
+ *
+ * @author Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+class OffHeapArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long BYTE_COUNT = 4L;
+
+    private int length;
+    private T defaultValue;
+    private int defaultCode;
+    private IntCoding<T> coding;
+    private OffHeapBuffer buffer;
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     */
+    OffHeapArrayWithIntCoding(int length, T defaultValue, IntCoding<T> coding) {
+        this(length, defaultValue, coding, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private OffHeapArrayWithIntCoding(int length, T defaultValue, IntCoding<T> coding, boolean fill) {
+        super(coding.getType(), ArrayStyle.OFF_HEAP, false);
+        try {
+            this.length = length;
+            this.coding = coding;
+            this.defaultValue = defaultValue;
+            this.defaultCode = coding.getCode(defaultValue);
+            this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to allocate off heap array of length " + length, ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to copy
+     * @param parallel  true for the parallel version
+     */
+    private OffHeapArrayWithIntCoding(OffHeapArrayWithIntCoding<T> source, boolean parallel) {
+        super(source.type(), ArrayStyle.DENSE, parallel);
+        this.length = source.length;
+        this.coding = source.coding;
+        this.defaultValue = source.defaultValue;
+        this.defaultCode = source.defaultCode;
+        this.buffer = source.buffer;
+    }
+
+
+    @Override
+    public final IntCoding<T> getCoding() {
+        return coding;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public final void release() {
+        this.buffer.release();
+        this.length = 0;
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final T defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<T> parallel() {
+        return isParallel() ? this : new OffHeapArrayWithIntCoding<>(this, true);
+    }
+
+
+    @Override
+    public final Array<T> sequential() {
+        return isParallel() ? new OffHeapArrayWithIntCoding<>(this, false) : this;
+    }
+
+
+    @Override()
+    @SuppressWarnings("unchecked")
+    public final Array<T> copy() {
+        try {
+            final OffHeapArrayWithIntCoding<T> copy = new OffHeapArrayWithIntCoding<>(length, defaultValue, coding, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int[] indexes) {
+        try {
+            final OffHeapArrayWithIntCoding<T> copy = new OffHeapArrayWithIntCoding<>(indexes.length, defaultValue, coding);
+            for (int i=0; i<indexes.length; ++i) {
+                final int value = buffer.getInt(indexes[i]);
+                if (Integer.compare(value, defaultCode) != 0) {
+                    copy.buffer.putInt(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final OffHeapArrayWithIntCoding<T> copy = new OffHeapArrayWithIntCoding<>(newLength, defaultValue, coding, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    protected final Array<T> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final int v1 = buffer.getInt(i);
+            final int v2 = buffer.getInt(j);
+            return multiplier * coding.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final int v1 = buffer.getInt(i);
+        final int v2 = buffer.getInt(j);
+        return coding.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<T> swap(int i, int j) {
+        final int v1 = buffer.getInt(i);
+        final int v2 = buffer.getInt(j);
+        this.buffer.putInt(j, v1);
+        this.buffer.putInt(i, v2);
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> filter(Predicate<ArrayValue<T>> predicate) {
+        final ArrayCursor<T> cursor = cursor();
+        final ArrayBuilder<T> builder = ArrayBuilder.of(length(), type());
+        for (int i = 0; i< length(); ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) {
+                builder.add(cursor.getValue());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<T> update(Array<T> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final T update = from.getValue(fromIndex);
+                this.setValue(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
+        if (from instanceof OffHeapArrayWithIntCoding && ((OffHeapArrayWithIntCoding)from).coding == coding) {
+            final OffHeapArrayWithIntCoding other = (OffHeapArrayWithIntCoding) from;
+            for (int i = 0; i < length; ++i) {
+                this.buffer.putInt(toIndex + i, other.buffer.getInt(fromIndex + i));
+            }
+        } else {
+            for (int i=0; i<length; ++i) {
+                final T update = from.getValue(fromIndex + i);
+                this.setValue(toIndex + i, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                this.buffer.expand(newLength);
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of off heap array to " + newLength, ex);
+        }
+    }
+
+
+    @Override
+    public Array<T> fill(T value, int start, int end) {
+        final int code = coding.getCode(value);
+        for (int i=start; i<end; ++i) {
+            this.buffer.putInt(i, code);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return buffer.getInt(index) == coding.getCode(null);
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, T value) {
+        if (value == null) {
+            return isNull(index);
+        } else {
+            final int code = coding.findCode(value);
+            return code == buffer.getInt(index);
+        }
+    }
+
+
+    @Override
+    public int getInt(int index) {
+        if (coding instanceof IntCoding.OfDictionary) {
+            return super.getInt(index);
+        } else {
+            this.checkBounds(index, length);
+            return buffer.getInt(index);
+        }
+    }
+
+
+    @Override
+    public final T getValue(int index) {
+        this.checkBounds(index, length);
+        final int code = buffer.getInt(index);
+        return coding.getValue(code);
+    }
+
+
+    @Override
+    public final T setValue(int index, T value) {
+        this.checkBounds(index, length);
+        final T oldValue = getValue(index);
+        this.buffer.putInt(index, coding.getCode(value));
+        return oldValue;
+    }
+
+
+    @Override
+    public Array<T> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TIntSet set = new TIntHashSet(capacity);
+        final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
+        for (int i=0; i<length(); ++i) {
+            final int code = buffer.getInt(i);
+            if (set.add(code)) {
+                final T value = getValue(i);
+                builder.add(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final int code = coding.read(is);
+            this.buffer.putInt(i, code);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final int code = buffer.getInt(index);
+            coding.write(os, code);
+        }
+    }
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeInt(defaultCode);
+        os.writeObject(defaultValue);
+        os.writeObject(coding);
+        for (int i=0; i<length; ++i) {
+            final int value = buffer.getInt(i);
+            os.writeInt(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultCode = is.readInt();
+        this.defaultValue = (T)is.readObject();
+        this.coding = (IntCoding<T>)is.readObject();
+        this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final int value = is.readInt();
+            this.buffer.putInt(i, value);
+        }
+    }
+
+}
@@ -0,0 +1,392 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+import com.zavtech.morpheus.array.coding.LongCoding;
+
+/**
+ * An off heap array implementation that maintains a primitive long array of codes that apply to Object values exposed through the Coding interface.
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class OffHeapArrayWithLongCoding<T> extends ArrayBase<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long BYTE_COUNT = 8L;
+
+    private int length;
+    private T defaultValue;
+    private long defaultCode;
+    private LongCoding<T> coding;
+    private OffHeapBuffer buffer;
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     */
+    OffHeapArrayWithLongCoding(int length, T defaultValue, LongCoding<T> coding) {
+        this(length, defaultValue, coding, true);
+    }
+
+
+    /**
+     * Constructor
+     * @param length        the length for this array
+     * @param defaultValue  the default value for array
+     * @param coding        the coding for this array
+     * @param fill          true to initialize the array with the default value, false if the contents will be copied in
+     */
+    private OffHeapArrayWithLongCoding(int length, T defaultValue, LongCoding<T> coding, boolean fill) {
+        super(coding.getType(), ArrayStyle.OFF_HEAP, false);
+        try {
+            this.length = length;
+            this.coding = coding;
+            this.defaultValue = defaultValue;
+            this.defaultCode = coding.getCode(defaultValue);
+            this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+            if (fill) {
+                this.fill(defaultValue);
+            }
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to allocate off heap array of length " + length, ex);
+        }
+    }
+
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for the parallel version
+     */
+    private OffHeapArrayWithLongCoding(OffHeapArrayWithLongCoding<T> source, boolean parallel) {
+        super(source.type(), ArrayStyle.SPARSE, parallel);
+        this.length = source.length;
+        this.coding = source.coding;
+        this.defaultValue = source.defaultValue;
+        this.defaultCode = source.defaultCode;
+        this.buffer = source.buffer;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override
+    public final void release() {
+        this.buffer.release();
+        this.length = 0;
+    }
+
+
+    @Override()
+    public final float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final T defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<T> parallel() {
+        return isParallel() ? this : new OffHeapArrayWithLongCoding<>(this, true);
+    }
+
+
+    @Override
+    public final Array<T> sequential() {
+        return isParallel() ? new OffHeapArrayWithLongCoding<>(this, false) : this;
+    }
+
+
+    @Override()
+    @SuppressWarnings("unchecked")
+    public final Array<T> copy() {
+        try {
+            final OffHeapArrayWithLongCoding<T> copy = new OffHeapArrayWithLongCoding<>(length, defaultValue, coding, false);
+            this.buffer.copyTo(0, copy.buffer, 0, length);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int[] indexes) {
+        try {
+            final OffHeapArrayWithLongCoding<T> copy = new OffHeapArrayWithLongCoding<>(indexes.length, defaultValue, coding);
+            for (int i=0; i<indexes.length; ++i) {
+                final long value = buffer.getLong(indexes[i]);
+                if (Long.compare(value, defaultCode) != 0) {
+                    copy.buffer.putLong(i, value);
+                }
+            }
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<T> copy(int start, int end) {
+        try {
+            final int newLength = end - start;
+            final OffHeapArrayWithLongCoding<T> copy = new OffHeapArrayWithLongCoding<>(newLength, defaultValue, coding, false);
+            this.buffer.copyTo(start, copy.buffer, 0, newLength);
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed top copy subset of Array", ex);
+        }
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
+        return Long.compare(v1, v2);
+    }
+
+
+    @Override
+    public final Array<T> swap(int i, int j) {
+        final long v1 = buffer.getLong(i);
+        final long v2 = buffer.getLong(j);
+        this.buffer.putLong(i, v2);
+        this.buffer.putLong(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> filter(Predicate<ArrayValue<T>> predicate) {
+        int count = 0;
+        final ArrayCursor<T> cursor = cursor();
+        final int length = this.length();
+        final Array<T> matches = Array.of(type(), length, loadFactor());
+        for (int i=0; i<length; ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) matches.setValue(count++, cursor.getValue());
+        }
+        return count == length ? matches : matches.copy(0, count);
+    }
+
+
+    @Override
+    public final Array<T> update(Array<T> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final T update = from.getValue(fromIndex);
+                this.setValue(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
+        if (from instanceof OffHeapArrayWithLongCoding) {
+            final OffHeapArrayWithLongCoding other = (OffHeapArrayWithLongCoding) from;
+            for (int i = 0; i < length; ++i) {
+                this.buffer.putLong(toIndex + i, other.buffer.getLong(fromIndex + i));
+            }
+        } else {
+            for (int i=0; i<length; ++i) {
+                final T update = from.getValue(fromIndex + i);
+                this.setValue(toIndex + i, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> expand(int newLength) {
+        try {
+            if (newLength > length) {
+                this.buffer.expand(newLength);
+                this.fill(defaultValue, length, newLength);
+                this.length = newLength;
+            }
+            return this;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to expand size of off heap array to " + newLength, ex);
+        }
+    }
+
+
+    @Override
+    public Array<T> fill(T value, int start, int end) {
+        final long code = coding.getCode(value);
+        for (int i=start; i<end; ++i) {
+            this.buffer.putLong(i, code);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return buffer.getLong(index) == coding.getCode(null);
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, T value) {
+        if (value == null) {
+            return isNull(index);
+        } else {
+            final long code = coding.getCode(value);
+            return code == buffer.getLong(index);
+        }
+    }
+
+
+    @Override
+    public final long getLong(int index) {
+        this.checkBounds(index, length);
+        return buffer.getLong(index);
+    }
+
+
+    @Override
+    public final T getValue(int index) {
+        this.checkBounds(index, length);
+        final long code = buffer.getLong(index);
+        return coding.getValue(code);
+    }
+
+
+    @Override
+    public final long setLong(int index, long value) {
+        this.checkBounds(index, length);
+        final long oldCode = buffer.getLong(index);
+        this.buffer.putLong(index, value);
+        return oldCode;
+    }
+
+
+    @Override
+    public final T setValue(int index, T value) {
+        this.checkBounds(index, length);
+        final T oldValue = getValue(index);
+        final long code = coding.getCode(value);
+        this.buffer.putLong(index, code);
+        return oldValue;
+    }
+
+
+    @Override
+    public Array<T> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TLongSet set = new TLongHashSet(capacity);
+        final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
+        for (int i=0; i<length(); ++i) {
+            final long code = getLong(i);
+            if (set.add(code)) {
+                final T value = getValue(i);
+                builder.add(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final long value = is.readLong();
+            this.buffer.putLong(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final long value = getLong(index);
+            os.writeLong(value);
+        }
+    }
+
+
+    /** Custom serialization */
+    private void writeObject(ObjectOutputStream os) throws IOException {
+        os.writeInt(length);
+        os.writeLong(defaultCode);
+        os.writeObject(defaultValue);
+        os.writeObject(coding);
+        for (int i=0; i<length; ++i) {
+            final long value = buffer.getLong(i);
+            os.writeLong(value);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    /** Custom serialization */
+    private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+        this.length = is.readInt();
+        this.defaultCode = is.readLong();
+        this.defaultValue = (T)is.readObject();
+        this.coding = (LongCoding<T>)is.readObject();
+        this.buffer = new OffHeapBuffer(BYTE_COUNT, length);
+        for (int i=0; i<length; ++i) {
+            final long value = is.readLong();
+            this.buffer.putLong(i, value);
+        }
+    }
+
+
+}
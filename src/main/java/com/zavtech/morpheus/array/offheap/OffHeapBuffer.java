@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import com.zavtech.morpheus.array.ArrayException;
+
+/**
+ * A buffer of fixed width elements held in direct memory outside of the Java heap as a sequence of segments, which lifts the 2GB limit of a single ByteBuffer.
+ *
+ * <p>Each segment is a direct ByteBuffer holding a power of two number of elements, so that an element index resolves
+ * to a segment with a shift and to a byte position within that segment with a mask, and no element ever straddles two
+ * segments. The maximum segment size defaults to 1GB and can be configured via the <code>morpheus.array.segmentBytes</code>
+ * system property, which is read each time a buffer is created. Only the last segment is sized to fit, so expanding
+ * the buffer replaces at most that one segment and appends new ones.</p>
+ *
+ * <p>The segments are published through a volatile field, and are never freed explicitly. A parallel view that is reading
+ * while the buffer is expanded or released keeps the segments it has already resolved reachable, and the memory is
+ * reclaimed by the garbage collector once no view can reach it. Direct memory is bounded by the
+ * <code>-XX:MaxDirectMemorySize</code> JVM option, and an allocation beyond it fails with an ArrayException.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class OffHeapBuffer {
+
+    private static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+    private static final ByteBuffer[] RELEASED = new ByteBuffer[0];
+
+    private int shift;
+    private int mask;
+    private int elementBytes;
+    private volatile int length;
+    private volatile ByteBuffer[] segments;
+
+    /**
+     * Constructor
+     * @param elementBytes  the number of bytes per element
+     * @param length        the number of elements
+     */
+    OffHeapBuffer(long elementBytes, int length) {
+        this.elementBytes = (int)elementBytes;
+        this.shift = segmentShift(elementBytes);
+        this.mask = (1 << shift) - 1;
+        this.segments = allocate(new ByteBuffer[0], 0, length);
+        this.length = length;
+    }
+
+    /**
+     * Returns the base 2 log of the number of elements per segment
+     * @param elementBytes  the number of bytes per element
+     * @return              the segment shift
+     */
+    private static int segmentShift(long elementBytes) {
+        final String value = System.getProperty("morpheus.array.segmentBytes");
+        final long segmentBytes = value != null ? Long.parseLong(value) : DEFAULT_SEGMENT_BYTES;
+        final long maxElements = Math.max(1L, Math.min(segmentBytes, Integer.MAX_VALUE) / elementBytes);
+        return 63 - Long.numberOfLeadingZeros(maxElements);
+    }
+
+    /**
+     * Returns a new segment array to hold the number of elements specified, retaining the contents of the existing segments
+     * @param current       the current segments
+     * @param oldLength     the current number of elements
+     * @param newLength     the new number of elements
+     * @return              the new segments, which share all full segments with the current segments
+     */
+    private ByteBuffer[] allocate(ByteBuffer[] current, int oldLength, int newLength) {
+        final int count = newLength == 0 ? 0 : ((newLength - 1) >>> shift) + 1;
+        final int first = oldLength == 0 ? 0 : (oldLength - 1) >>> shift;
+        final int segmentLength = 1 << shift;
+        final ByteBuffer[] result = Arrays.copyOf(current, count);
+        for (int i=first; i<count; ++i) {
+            final long start = (long)i << shift;
+            final long elements = Math.min(segmentLength, newLength - start);
+            final int bytes = (int)(elements * elementBytes);
+            try {
+                result[i] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+            } catch (OutOfMemoryError error) {
+                throw new ArrayException("Failed to allocate " + bytes + " bytes of off heap memory", error);
+            }
+            if (i < current.length) {
+                final ByteBuffer source = current[i].duplicate();
+                source.clear();
+                result[i].put(source);
+                result[i].clear();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements in this buffer
+     * @return  the number of elements
+     */
+    final int length() {
+        return length;
+    }
+
+    /**
+     * Releases the direct memory held by this buffer, which then has zero length
+     * <p>This method is idempotent. The memory is reclaimed by the garbage collector once no view of the buffer still reads it.</p>
+     */
+    final synchronized void release() {
+        this.length = 0;
+        this.segments = RELEASED;
+    }
+
+    /**
+     * Resizes this buffer to hold more elements, retaining the existing contents
+     * <p>The new segments are published only after the existing contents have been copied, and segments that are
+     * replaced remain valid for any concurrent reader until they become unreachable.</p>
+     * @param newLength     the new number of elements
+     */
+    final synchronized void expand(int newLength) {
+        if (segments == RELEASED) {
+            throw new ArrayException("The off heap memory for this array has been released");
+        } else if (newLength > length) {
+            this.segments = allocate(segments, length, newLength);
+            this.length = newLength;
+        }
+    }
+
+    /**
+     * Copies a range of elements from this buffer to another buffer of the same element width using bulk transfers
+     * @param fromIndex the index of the first element to copy from this buffer
+     * @param target    the target buffer
+     * @param toIndex   the index of the first element to copy to in the target buffer
+     * @param count     the number of elements to copy
+     */
+    final void copyTo(int fromIndex, OffHeapBuffer target, int toIndex, int count) {
+        if (count > 0) {
+            this.check(fromIndex);
+            this.check(fromIndex + count - 1);
+            target.check(toIndex);
+            target.check(toIndex + count - 1);
+            final ByteBuffer[] fromSegments = this.segments;
+            final ByteBuffer[] toSegments = target.segments;
+            while (count > 0) {
+                final int fromPosition = fromIndex & mask;
+                final int toPosition = toIndex & target.mask;
+                final int fromAvailable = (mask + 1) - fromPosition;
+                final int toAvailable = (target.mask + 1) - toPosition;
+                final int n = Math.min(count, Math.min(fromAvailable, toAvailable));
+                final ByteBuffer source = fromSegments[fromIndex >>> shift].duplicate();
+                final ByteBuffer destination = toSegments[toIndex >>> target.shift].duplicate();
+                source.position(fromPosition * elementBytes);
+                source.limit((fromPosition + n) * elementBytes);
+                destination.position(toPosition * target.elementBytes);
+                destination.put(source);
+                fromIndex += n;
+                toIndex += n;
+                count -= n;
+            }
+        }
+    }
+
+    /**
+     * Checks that the index is within the bounds of this buffer
+     * @param index     the element index
+     */
+    private void check(int index) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Array index out of bounds: " + index + ", length " + length);
+        }
+    }
+
+    /**
+     * Returns the short value at the element index
+     * @param index     the element index
+     * @return          the short value
+     */
+    final short getShort(int index) {
+        this.check(index);
+        return segments[index >>> shift].getShort((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the int value at the element index
+     * @param index     the element index
+     * @return          the int value
+     */
+    final int getInt(int index) {
+        this.check(index);
+        return segments[index >>> shift].getInt((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the long value at the element index
+     * @param index     the element index
+     * @return          the long value
+     */
+    final long getLong(int index) {
+        this.check(index);
+        return segments[index >>> shift].getLong((index & mask) * elementBytes);
+    }
+
+    /**
+     * Returns the double value at the element index
+     * @param index     the element index
+     * @return          the double value
+     */
+    final double getDouble(int index) {
+        this.check(index);
+        return segments[index >>> shift].getDouble((index & mask) * elementBytes);
+    }
+
+    /**
+     * Sets the short value at the element index
+     * @param index     the element index
+     * @param value     the short value
+     */
+    final void putShort(int index, short value) {
+        this.check(index);
+        this.segments[index >>> shift].putShort((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the int value at the element index
+     * @param index     the element index
+     * @param value     the int value
+     */
+    final void putInt(int index, int value) {
+        this.check(index);
+        this.segments[index >>> shift].putInt((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the long value at the element index
+     * @param index     the element index
+     * @param value     the long value
+     */
+    final void putLong(int index, long value) {
+        this.check(index);
+        this.segments[index >>> shift].putLong((index & mask) * elementBytes, value);
+    }
+
+    /**
+     * Sets the double value at the element index
+     * @param index     the element index
+     * @param value     the double value
+     */
+    final void putDouble(int index, double value) {
+        this.check(index);
+        this.segments[index >>> shift].putDouble((index & mask) * elementBytes, value);
+    }
+}
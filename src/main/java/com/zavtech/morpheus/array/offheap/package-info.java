@@ -0,0 +1,4 @@
+/**
+ * Contains off-heap implementations of the Morpheus Array interface backed by direct ByteBuffers.
+ */
+package com.zavtech.morpheus.array.offheap;
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+/**
+ * A delta encoding that stores the first value and smallest delta of each block, and each value as a bit packed offset
+ * from the first value of its block advanced by that smallest delta once per position.
+ *
+ * <p>This suits sorted or regularly spaced values such as timestamps, where the deltas vary far less than the values
+ * themselves, and a perfectly regular block needs no bits at all beyond its first value and delta. Since the offsets
+ * are taken against the running minimum delta rather than the previous value, random access takes constant time and
+ * does not need to sum the deltas that precede a value within its block.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class DeltaPacking extends LongPacking {
+
+    private static final long serialVersionUID = 1L;
+
+    private long[] firsts;
+    private long[] deltas;
+    private byte[] widths;
+    private long[] positions;
+    private long[] words;
+
+    /**
+     * Constructor
+     * @param values    the values to encode
+     */
+    DeltaPacking(long[] values) {
+        super(values.length);
+        final int blocks = blockCount(values.length);
+        this.firsts = new long[blocks];
+        this.deltas = new long[blocks];
+        this.widths = new byte[blocks];
+        this.positions = new long[blocks];
+        long position = 0L;
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            final long delta = minDelta(values, start, end);
+            this.firsts[block] = values[start];
+            this.deltas[block] = delta;
+            this.widths[block] = (byte)width(maxOffset(values, start, end, delta));
+            this.positions[block] = position;
+            position += (long)(end - start) * widths[block];
+        }
+        this.words = new long[(int)((position + 63L) >>> 6)];
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            final int width = widths[block];
+            for (int i=start; i<end; ++i) {
+                final long offset = values[i] - values[start] - (i - start) * deltas[block];
+                write(words, positions[block] + (long)(i - start) * width, width, offset);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes this encoding would use for the values specified, without encoding them
+     * @param values    the values to encode
+     * @return          the approximate size in bytes
+     */
+    static long bytes(long[] values) {
+        final int blocks = blockCount(values.length);
+        long bits = 0L;
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            final long delta = minDelta(values, start, end);
+            bits += (long)(end - start) * width(maxOffset(values, start, end, delta));
+        }
+        return blocks * 25L + ((bits + 63L) >>> 6) * 8L;
+    }
+
+
+    /**
+     * Returns the smallest difference between consecutive values in the range specified
+     * @param values    the values
+     * @param start     the start index, inclusive
+     * @param end       the end index, exclusive
+     * @return          the smallest delta, zero for a single value
+     */
+    private static long minDelta(long[] values, int start, int end) {
+        long min = end - start > 1 ? values[start + 1] - values[start] : 0L;
+        for (int i=start+2; i<end; ++i) {
+            min = Math.min(min, values[i] - values[i-1]);
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the largest unsigned offset of a value from the first value in range advanced by the delta per position
+     * @param values    the values
+     * @param start     the start index, inclusive
+     * @param end       the end index, exclusive
+     * @param delta     the delta per position
+     * @return          the largest unsigned offset
+     */
+    private static long maxOffset(long[] values, int start, int end, long delta) {
+        long max = 0L;
+        for (int i=start+1; i<end; ++i) {
+            final long offset = values[i] - values[start] - (i - start) * delta;
+            if (Long.compareUnsigned(offset, max) > 0) {
+                max = offset;
+            }
+        }
+        return max;
+    }
+
+
+    @Override
+    final long get(int index) {
+        final int block = index >>> BLOCK_SHIFT;
+        final int position = index & (BLOCK_SIZE - 1);
+        final int width = widths[block];
+        return firsts[block] + position * deltas[block] + read(words, positions[block] + (long)position * width, width);
+    }
+
+
+    @Override
+    final long bytes() {
+        return firsts.length * 25L + words.length * 8L;
+    }
+
+
+    @Override
+    final String name() {
+        return "Delta";
+    }
+}
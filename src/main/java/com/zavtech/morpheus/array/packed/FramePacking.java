@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+/**
+ * A frame of reference encoding that stores each value as a bit packed offset from the minimum value of its block.
+ *
+ * <p>This suits small range values such as codes, counts or flags, and offers constant time random access, since the
+ * bit position of any value follows directly from the start of its block and the bit width of that block.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class FramePacking extends LongPacking {
+
+    private static final long serialVersionUID = 1L;
+
+    private long[] mins;
+    private byte[] widths;
+    private long[] positions;
+    private long[] words;
+
+    /**
+     * Constructor
+     * @param values    the values to encode
+     */
+    FramePacking(long[] values) {
+        super(values.length);
+        final int blocks = blockCount(values.length);
+        this.mins = new long[blocks];
+        this.widths = new byte[blocks];
+        this.positions = new long[blocks];
+        long position = 0L;
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            final long min = min(values, start, end);
+            this.mins[block] = min;
+            this.widths[block] = (byte)width(max(values, start, end) - min);
+            this.positions[block] = position;
+            position += (long)(end - start) * widths[block];
+        }
+        this.words = new long[(int)((position + 63L) >>> 6)];
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            final int width = widths[block];
+            for (int i=start; i<end; ++i) {
+                write(words, positions[block] + (long)(i - start) * width, width, values[i] - mins[block]);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes this encoding would use for the values specified, without encoding them
+     * @param values    the values to encode
+     * @return          the approximate size in bytes
+     */
+    static long bytes(long[] values) {
+        final int blocks = blockCount(values.length);
+        long bits = 0L;
+        for (int block=0; block<blocks; ++block) {
+            final int start = block << BLOCK_SHIFT;
+            final int end = Math.min(values.length, start + BLOCK_SIZE);
+            bits += (long)(end - start) * width(max(values, start, end) - min(values, start, end));
+        }
+        return blocks * 17L + ((bits + 63L) >>> 6) * 8L;
+    }
+
+
+    /**
+     * Returns the minimum value in the range specified
+     * @param values    the values
+     * @param start     the start index, inclusive
+     * @param end       the end index, exclusive
+     * @return          the minimum value
+     */
+    private static long min(long[] values, int start, int end) {
+        long min = values[start];
+        for (int i=start+1; i<end; ++i) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the maximum value in the range specified
+     * @param values    the values
+     * @param start     the start index, inclusive
+     * @param end       the end index, exclusive
+     * @return          the maximum value
+     */
+    private static long max(long[] values, int start, int end) {
+        long max = values[start];
+        for (int i=start+1; i<end; ++i) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+
+    @Override
+    final long get(int index) {
+        final int block = index >>> BLOCK_SHIFT;
+        final int width = widths[block];
+        return mins[block] + read(words, positions[block] + (long)(index & (BLOCK_SIZE - 1)) * width, width);
+    }
+
+
+    @Override
+    final long bytes() {
+        return mins.length * 17L + words.length * 8L;
+    }
+
+
+    @Override
+    final String name() {
+        return "FrameOfReference";
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+import java.io.Serializable;
+
+/**
+ * A base class for an immutable compressed encoding of a sequence of long values, which supports random access by index.
+ *
+ * <p>The bit packed encodings split the sequence into blocks of 128 values, and store each value as an unsigned offset
+ * from a per block prediction using the minimum number of bits needed for the largest offset in that block. The offsets
+ * are computed with wrapping long arithmetic, so any sequence of longs is encoded exactly.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+abstract class LongPacking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int BLOCK_SHIFT = 7;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private int length;
+
+    /**
+     * Constructor
+     * @param length    the number of values encoded
+     */
+    LongPacking(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Returns the number of values encoded
+     * @return  the number of values
+     */
+    final int length() {
+        return length;
+    }
+
+    /**
+     * Returns the value at the index specified
+     * @param index     the index of the value
+     * @return          the decoded value
+     */
+    abstract long get(int index);
+
+    /**
+     * Returns the approximate number of bytes used by this encoding
+     * @return  the approximate size in bytes
+     */
+    abstract long bytes();
+
+    /**
+     * Returns the name of this encoding
+     * @return  the encoding name
+     */
+    abstract String name();
+
+
+    /**
+     * Returns the number of blocks required to hold the number of values specified
+     * @param length    the number of values
+     * @return          the number of blocks
+     */
+    static int blockCount(int length) {
+        return (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+    }
+
+
+    /**
+     * Returns the number of bits required to represent the unsigned value specified
+     * @param value     the unsigned value
+     * @return          the number of bits, zero for a zero value
+     */
+    static int width(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+
+    /**
+     * Writes the low order bits of a value into an array of words at the bit position specified
+     * @param words     the words to write into
+     * @param position  the bit position of the first bit
+     * @param width     the number of bits to write
+     * @param value     the value to write
+     */
+    static void write(long[] words, long position, int width, long value) {
+        if (width > 0) {
+            final int word = (int)(position >>> 6);
+            final int shift = (int)(position & 63);
+            words[word] |= value << shift;
+            if (shift + width > 64) {
+                words[word + 1] |= value >>> (64 - shift);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the value of the bits in an array of words at the bit position specified
+     * @param words     the words to read from
+     * @param position  the bit position of the first bit
+     * @param width     the number of bits to read
+     * @return          the value read
+     */
+    static long read(long[] words, long position, int width) {
+        if (width == 0) {
+            return 0L;
+        } else {
+            final int word = (int)(position >>> 6);
+            final int shift = (int)(position & 63);
+            final long value = shift + width > 64 ? (words[word] >>> shift) | (words[word + 1] << (64 - shift)) : words[word] >>> shift;
+            return width == 64 ? value : value & ((1L << width) - 1L);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.array.ArrayValue;
+import com.zavtech.morpheus.array.coding.LongCoding;
+
+/**
+ * A read only Array implementation that holds boolean, int, long or long coded values in a compressed LongPacking.
+ *
+ * <p>Unlike the read only view returned for other arrays, a packed array is a snapshot of the array it was created from,
+ * and does not reflect subsequent changes to that array.</p>
+ *
+ * @param <T>   the array element type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class PackedArray<T> extends ArrayBase<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private T defaultValue;
+    private LongPacking packing;
+    private LongCoding<T> coding;
+
+    /**
+     * Constructor
+     * @param source    the source array that was packed
+     * @param packing   the packed values of the source array
+     * @param coding    the coding of the source array, null for boolean, int and long arrays
+     */
+    PackedArray(Array<T> source, LongPacking packing, LongCoding<T> coding) {
+        super(source.type(), source.style(), source.isParallel());
+        this.packing = packing;
+        this.coding = coding;
+        this.defaultValue = source.defaultValue();
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for the parallel version
+     */
+    private PackedArray(PackedArray<T> source, boolean parallel) {
+        super(source.type(), source.style(), parallel);
+        this.packing = source.packing;
+        this.coding = source.coding;
+        this.defaultValue = source.defaultValue;
+    }
+
+
+    /**
+     * Returns the name of the encoding used by this array
+     * @return  the encoding name
+     */
+    final String encoding() {
+        return packing.name();
+    }
+
+
+    /**
+     * Returns the approximate number of bytes used by the encoded values of this array
+     * @return  the approximate size in bytes
+     */
+    final long bytes() {
+        return packing.bytes();
+    }
+
+
+    /**
+     * Returns the encoded value at the index, checking that the index is within bounds
+     * @param index     the array index
+     * @return          the encoded value
+     */
+    private long get(int index) {
+        if (index < 0 || index >= packing.length()) {
+            throw new ArrayIndexOutOfBoundsException("Array index out of bounds: " + index + ", length " + packing.length());
+        } else {
+            return packing.get(index);
+        }
+    }
+
+
+    /**
+     * Returns a newly created writable array that holds the values at the indexes specified
+     * @param indexes   the indexes of values to include, null for all values
+     * @return          the newly created array
+     */
+    private Array<T> unpack(int[] indexes) {
+        final int length = indexes != null ? indexes.length : length();
+        final Array<T> result = Array.of(type(), length, defaultValue);
+        for (int i=0; i<length; ++i) {
+            final int index = indexes != null ? indexes[i] : i;
+            switch (typeCode()) {
+                case BOOLEAN:   result.setBoolean(i, get(index) != 0L);   break;
+                case INTEGER:   result.setInt(i, (int)get(index));        break;
+                case LONG:      result.setLong(i, get(index));            break;
+                default:        result.setValue(i, getValue(index));      break;
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public final int length() {
+        return packing.length();
+    }
+
+
+    @Override
+    public float loadFactor() {
+        return 1F;
+    }
+
+
+    @Override
+    public final T defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final boolean isReadOnly() {
+        return true;
+    }
+
+
+    @Override
+    public final Array<T> parallel() {
+        return isParallel() ? this : new PackedArray<>(this, true);
+    }
+
+
+    @Override
+    public final Array<T> sequential() {
+        return isParallel() ? new PackedArray<>(this, false) : this;
+    }
+
+
+    @Override
+    public final Array<T> readOnly() {
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> copy() {
+        return this;
+    }
+
+
+    @Override
+    public final Array<T> copy(int[] indexes) {
+        return unpack(indexes).readOnly();
+    }
+
+
+    @Override
+    public final Array<T> copy(int start, int end) {
+        final int[] indexes = new int[end - start];
+        for (int i=0; i<indexes.length; ++i) {
+            indexes[i] = start + i;
+        }
+        return unpack(indexes).readOnly();
+    }
+
+
+    @Override
+    public final Array<T> fill(T value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> fill(T value, int start, int end) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> shuffle(int count) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        return Long.compare(get(i), get(j));
+    }
+
+
+    @Override
+    public final Array<T> swap(int i, int j) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> sort(boolean ascending) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> sort(int start, int end, boolean ascending) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> sort(int start, int end, Comparator<ArrayValue<T>> comparator) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> filter(Predicate<ArrayValue<T>> predicate) {
+        final ArrayCursor<T> cursor = cursor();
+        final ArrayBuilder<T> builder = ArrayBuilder.of(length(), type());
+        for (int i=0; i<length(); ++i) {
+            cursor.moveTo(i);
+            if (predicate.test(cursor)) {
+                builder.add(cursor.getValue());
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<T> expand(int newLength) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> update(Array<T> from, int[] fromIndexes, int[] toIndexes) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final Array<T> cumSum() {
+        switch (typeCode()) {
+            case INTEGER:   return unpack(null).cumSum();
+            case LONG:      return unpack(null).cumSum();
+            default:        return super.cumSum();
+        }
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return coding != null && get(index) == coding.getCode(null);
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, T value) {
+        if (value == null) {
+            return isNull(index);
+        } else if (coding != null) {
+            return get(index) == coding.getCode(value);
+        } else {
+            return value.equals(getValue(index));
+        }
+    }
+
+
+    @Override
+    public final boolean getBoolean(int index) {
+        if (typeCode() == ArrayType.BOOLEAN) {
+            return get(index) != 0L;
+        } else {
+            return super.getBoolean(index);
+        }
+    }
+
+
+    @Override
+    public final int getInt(int index) {
+        if (typeCode() == ArrayType.INTEGER) {
+            return (int)get(index);
+        } else {
+            return super.getInt(index);
+        }
+    }
+
+
+    @Override
+    public final long getLong(int index) {
+        if (typeCode() == ArrayType.LONG || coding != null) {
+            return get(index);
+        } else {
+            return super.getLong(index);
+        }
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        switch (typeCode()) {
+            case INTEGER:   return get(index);
+            case LONG:      return get(index);
+            default:        return super.getDouble(index);
+        }
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final T getValue(int index) {
+        if (coding != null) {
+            return coding.getValue(get(index));
+        } else {
+            switch (typeCode()) {
+                case BOOLEAN:   return (T)Boolean.valueOf(get(index) != 0L);
+                case INTEGER:   return (T)Integer.valueOf((int)get(index));
+                case LONG:      return (T)Long.valueOf(get(index));
+                default:        throw new ArrayException("Unsupported type for packed array: " + type());
+            }
+        }
+    }
+
+
+    @Override
+    public final boolean setBoolean(int index, boolean value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final int setInt(int index, int value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final long setLong(int index, long value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final double setDouble(int index, double value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final T setValue(int index, T value) {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        throw new ArrayException("This is a ready only Morpheus Array");
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            switch (typeCode()) {
+                case BOOLEAN:   os.writeBoolean(get(index) != 0L);  break;
+                case INTEGER:   os.writeInt((int)get(index));       break;
+                default:        os.writeLong(get(index));           break;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+import java.util.Optional;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.array.coding.LongCoding;
+import com.zavtech.morpheus.array.coding.WithLongCoding;
+
+/**
+ * A class that packs dense boolean, int, long and long coded arrays into a compressed, read only representation.
+ *
+ * <p>Three encodings are considered, namely a run length encoding for slowly changing values, a frame of reference
+ * encoding for small range values and a delta encoding for sorted or regularly spaced values such as timestamps. The
+ * size of each is computed in a single pass without encoding, and the smallest is used provided it is at most half the
+ * size of the source array, otherwise the array is not worth packing. This is applied automatically by
+ * <code>Array.readOnly()</code>, so arrays frozen once populated are held compressed.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class PackedArrays {
+
+    private static final int MIN_LENGTH = 256;
+
+    /**
+     * Private constructor
+     */
+    private PackedArrays() {
+        super();
+    }
+
+
+    /**
+     * Returns a compressed read only snapshot of the array specified, if it supports packing and compresses well
+     * @param source    the array to pack, which should be dense
+     * @param <T>       the array element type
+     * @return          the packed array, empty if the array is not supported or would not shrink by at least half
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<Array<T>> pack(Array<T> source) {
+        final int bits = elementBits(source);
+        final int length = source.length();
+        if (bits == 0 || length < MIN_LENGTH || !source.style().isDense() || source.isReadOnly()) {
+            return Optional.empty();
+        } else {
+            final long[] values = new long[length];
+            final ArrayType type = source.typeCode();
+            for (int i=0; i<length; ++i) {
+                switch (type) {
+                    case BOOLEAN:   values[i] = source.getBoolean(i) ? 1L : 0L;    break;
+                    case INTEGER:   values[i] = source.getInt(i);                  break;
+                    default:        values[i] = source.getLong(i);                 break;
+                }
+            }
+            final long runLength = RunLengthPacking.bytes(values);
+            final long frame = FramePacking.bytes(values);
+            final long delta = DeltaPacking.bytes(values);
+            final long bytes = Math.min(runLength, Math.min(frame, delta));
+            if (bytes * 16L > (long)length * bits) {
+                return Optional.empty();
+            } else {
+                final LongCoding<T> coding = source instanceof WithLongCoding ? ((WithLongCoding<T>)source).getCoding() : null;
+                final LongPacking packing = bytes == runLength ? new RunLengthPacking(values) : bytes == frame ? new FramePacking(values) : new DeltaPacking(values);
+                return Optional.of(new PackedArray<>(source, packing, coding));
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of bits per element used by the source array, or zero if it is not supported for packing
+     * @param source    the source array
+     * @return          the bits per element, zero if not supported
+     */
+    private static int elementBits(Array<?> source) {
+        switch (source.typeCode()) {
+            case BOOLEAN:   return 1;
+            case INTEGER:   return 32;
+            case LONG:      return 64;
+            default:        return source instanceof WithLongCoding ? 64 : 0;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.packed;
+
+import java.util.Arrays;
+
+/**
+ * A run length encoding that stores each run of equal values once, along with the index at which the run ends.
+ *
+ * <p>This suits slowly changing values such as flags or states. Random access uses a binary search over the run ends,
+ * but the run found by the last lookup is remembered, so a sequential scan resolves each index in constant time.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class RunLengthPacking extends LongPacking {
+
+    private static final long serialVersionUID = 1L;
+
+    private long[] values;
+    private int[] ends;
+    private transient int run;
+
+    /**
+     * Constructor
+     * @param values    the values to encode
+     */
+    RunLengthPacking(long[] values) {
+        super(values.length);
+        final int count = runCount(values);
+        this.values = new long[count];
+        this.ends = new int[count];
+        int run = -1;
+        for (int i=0; i<values.length; ++i) {
+            if (i == 0 || values[i] != values[i-1]) {
+                run++;
+                this.values[run] = values[i];
+            }
+            this.ends[run] = i + 1;
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes this encoding would use for the values specified, without encoding them
+     * @param values    the values to encode
+     * @return          the approximate size in bytes
+     */
+    static long bytes(long[] values) {
+        return runCount(values) * 12L;
+    }
+
+
+    /**
+     * Returns the number of runs of equal values
+     * @param values    the values
+     * @return          the number of runs
+     */
+    private static int runCount(long[] values) {
+        int count = values.length > 0 ? 1 : 0;
+        for (int i=1; i<values.length; ++i) {
+            if (values[i] != values[i-1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    @Override
+    final long get(int index) {
+        int run = this.run;
+        if (run >= ends.length || index >= ends[run] || (run > 0 && index < ends[run-1])) {
+            if (run + 1 < ends.length && index >= ends[run] && index < ends[run+1]) {
+                run = run + 1;
+            } else {
+                final int result = Arrays.binarySearch(ends, index);
+                run = result >= 0 ? result + 1 : -result - 1;
+            }
+            this.run = run;
+        }
+        return values[run];
+    }
+
+
+    @Override
+    final long bytes() {
+        return values.length * 12L;
+    }
+
+
+    @Override
+    final String name() {
+        return "RunLength";
+    }
+}
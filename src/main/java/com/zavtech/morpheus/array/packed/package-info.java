@@ -0,0 +1,4 @@
+/**
+ * Contains read optimized Array implementations that hold values in a compressed encoding.
+ */
+package com.zavtech.morpheus.array.packed;
\ No newline at end of file
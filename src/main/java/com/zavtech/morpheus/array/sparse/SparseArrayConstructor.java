@@ -33,7 +33,7 @@ import com.zavtech.morpheus.array.coding.IntCoding;
 import com.zavtech.morpheus.array.coding.LongCoding;
 
 /**
- * An ArrayFactory.Constructor implementation designed to manufacture sparse Morpheus Arrays based on Trove Collections.
+ * An ArrayFactory.Constructor implementation designed to manufacture sparse Morpheus Arrays, where int, long and double arrays use a compressed sparse layout and other types are based on Trove Collections.
  *
  * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
  *
@@ -77,6 +77,9 @@ public class SparseArrayConstructor implements ArrayFactory.Constructor {
                 case INTEGER:           return (Array<T>)new SparseArrayOfInts(length, (Integer)defaultValue);
                 case LONG:              return (Array<T>)new SparseArrayOfLongs(length, (Long)defaultValue);
                 case DOUBLE:            return (Array<T>)new SparseArrayOfDoubles(length, (Double)defaultValue);
+                case FLOAT:             return (Array<T>)new SparseArrayOfFloats(length, (Float)defaultValue);
+                case SHORT:             return (Array<T>)new SparseArrayOfShorts(length, (Short)defaultValue);
+                case BYTE:              return (Array<T>)new SparseArrayOfBytes(length, (Byte)defaultValue);
                 case OBJECT:            return (Array<T>)new SparseArrayOfObjects(type, length, defaultValue);
                 case STRING:            return (Array<T>)new SparseArrayOfObjects(type, length, defaultValue);
                 case LOCAL_DATE:        return (Array<T>)new SparseArrayWithLongCoding<>(length, (LocalDate)defaultValue, localDateCoding);
@@ -93,4 +96,10 @@ public class SparseArrayConstructor implements ArrayFactory.Constructor {
             }
         }
     }
+
+
+    @Override()
+    public final <T> Array<T> applyDictionary(Class<T> type, int length, T defaultValue) {
+        return new SparseArrayWithIntCoding<>(length, defaultValue, IntCoding.ofDictionary(type));
+    }
 }
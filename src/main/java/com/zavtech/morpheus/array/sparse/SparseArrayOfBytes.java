@@ -0,0 +1,367 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.sparse;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayUtils;
+import com.zavtech.morpheus.array.ArrayValue;
+
+import gnu.trove.map.TIntByteMap;
+import gnu.trove.map.hash.TIntByteHashMap;
+import gnu.trove.set.TByteSet;
+import gnu.trove.set.hash.TByteHashSet;
+
+/**
+ * An Array implementation designed to hold a sparse array of byte values
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class SparseArrayOfBytes extends ArrayBase<Byte> {
+
+    private static final long serialVersionUID = 1L;
+
+    private int length;
+    private TIntByteMap values;
+    private byte defaultValue;
+
+    /**
+     * Constructor
+     * @param length    the length for this array
+     * @param defaultValue  the default value for array
+     */
+    SparseArrayOfBytes(int length, Byte defaultValue) {
+        super(Byte.class, ArrayStyle.SPARSE, false);
+        this.length = length;
+        this.defaultValue = defaultValue != null ? defaultValue : 0;
+        this.values = new TIntByteHashMap((int)Math.max(length * 0.5, 10d), 0.8f, -1, this.defaultValue);
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for the parallel version
+     */
+    private SparseArrayOfBytes(SparseArrayOfBytes source, boolean parallel) {
+        super(source.type(), ArrayStyle.SPARSE, parallel);
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.values = source.values;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override()
+    public final float loadFactor() {
+        return (float)values.size() / (float)length();
+    }
+
+
+    @Override
+    public final Byte defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Byte> parallel() {
+        return isParallel() ? this : new SparseArrayOfBytes(this, true);
+    }
+
+
+    @Override
+    public final Array<Byte> sequential() {
+        return isParallel() ? new SparseArrayOfBytes(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Byte> copy() {
+        try {
+            final SparseArrayOfBytes copy = (SparseArrayOfBytes)super.clone();
+            copy.values = new TIntByteHashMap(values);
+            copy.defaultValue = this.defaultValue;
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int[] indexes) {
+        final SparseArrayOfBytes clone = new SparseArrayOfBytes(indexes.length, defaultValue);
+        for (int i = 0; i < indexes.length; ++i) {
+            final int value = getInt(indexes[i]);
+            clone.setInt(i, value);
+        }
+        return clone;
+    }
+
+
+    @Override()
+    public final Array<Byte> copy(int start, int end) {
+        final int length = end - start;
+        final SparseArrayOfBytes clone = new SparseArrayOfBytes(length, defaultValue);
+        for (int i=0; i<length; ++i) {
+            final int value = getInt(start+i);
+            if (value != defaultValue) {
+                clone.setInt(i, value);
+            }
+        }
+        return clone;
+    }
+
+
+    @Override
+    protected final Array<Byte> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final int v1 = values.get(i);
+            final int v2 = values.get(j);
+            return multiplier * Integer.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        return Integer.compare(values.get(i), values.get(j));
+    }
+
+
+    @Override
+    public final Array<Byte> swap(int i, int j) {
+        final int v1 = getInt(i);
+        final int v2 = getInt(j);
+        this.setInt(i, v2);
+        this.setInt(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> filter(Predicate<ArrayValue<Byte>> predicate) {
+        int count = 0;
+        final int length = this.length();
+        final ArrayCursor<Byte> cursor = cursor();
+        final Array<Byte> matches = Array.of(type(), length, loadFactor());  //todo: fix the length of this filter
+        for (int i=0; i<length; ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) matches.setInt(count++, cursor.getInt());
+        }
+        return count == length ? matches : matches.copy(0, count);
+    }
+
+
+    @Override
+    public final Array<Byte> update(Array<Byte> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final int update = from.getInt(fromIndex);
+                this.setInt(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> update(int toIndex, Array<Byte> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final int update = from.getInt(fromIndex + i);
+            this.setInt(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Byte> expand(int newLength) {
+        this.length = newLength > length ? newLength : length;
+        return this;
+    }
+
+
+    @Override
+    public Array<Byte> fill(Byte value, int start, int end) {
+        final byte fillValue = value == null ? defaultValue : value;
+        if (fillValue == defaultValue) {
+            this.values.clear();
+        } else {
+            for (int i=start; i<end; ++i) {
+                this.values.put(i, fillValue);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return false;
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Byte value) {
+        return value == null ? isNull(index) : value == values.get(index);
+    }
+
+
+    @Override
+    public final int getInt(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+    @Override
+    public final long getLong(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+    @Override
+    public final Byte getValue(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+
+    @Override
+    public final int setInt(int index, int value) {
+        this.checkBounds(index, length);
+        final int oldValue = getInt(index);
+        if (value == defaultValue) {
+            this.values.remove(index);
+            return oldValue;
+        } else {
+            this.values.put(index, ArrayUtils.toByte(value));
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public final Byte setValue(int index, Byte value) {
+        this.checkBounds(index, length);
+        final Byte oldValue = getValue(index);
+        if (value == null) {
+            this.values.remove(index);
+            return oldValue;
+        } else {
+            this.values.put(index, value);
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Byte value) {
+        int low = start;
+        int high = end - 1;
+        while (low <= high) {
+            final int midIndex = (low + high) >>> 1;
+            final int midValue = getInt(midIndex);
+            final int result = Integer.compare(midValue, value);
+            if (result < 0) {
+                low = midIndex + 1;
+            } else if (result > 0) {
+                high = midIndex - 1;
+            } else {
+                return midIndex;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    @Override
+    public final Array<Byte> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TByteSet set = new TByteHashSet(capacity);
+        final ArrayBuilder<Byte> builder = ArrayBuilder.of(capacity, Byte.class);
+        for (int i=0; i<length(); ++i) {
+            final byte value = values.get(i);
+            if (set.add(value)) {
+                builder.addInt(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final Array<Byte> cumSum() {
+        final int length = length();
+        final Array<Integer> result = Array.of(Integer.class, length);
+        int sum = 0;
+        for (int i=0; i<length; ++i) {
+            sum += values.get(i);
+            result.setInt(i, sum);
+        }
+        return (Array<Byte>)(Array<?>)result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final byte value = is.readByte();
+            this.setInt(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final int value = getInt(index);
+            os.writeByte(value);
+        }
+    }
+
+}
@@ -18,10 +18,11 @@ package com.zavtech.morpheus.array.sparse;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.Predicate;
 
-import gnu.trove.map.TIntDoubleMap;
-import gnu.trove.map.hash.TIntDoubleHashMap;
 import gnu.trove.set.TDoubleSet;
 import gnu.trove.set.hash.TDoubleHashSet;
 
@@ -32,10 +33,16 @@ import com.zavtech.morpheus.array.ArrayCursor;
 import com.zavtech.morpheus.array.ArrayException;
 import com.zavtech.morpheus.array.ArrayStyle;
 import com.zavtech.morpheus.array.ArrayValue;
+import com.zavtech.morpheus.stats.Stats;
+import com.zavtech.morpheus.util.functions.IntDoubleConsumer;
 
 /**
  * An Array implementation designed to hold a sparse array of double values
  *
+ * <p>The non-default values are held in compressed sparse form, as parallel arrays of ascending indexes and values,
+ * so that appending in index order is constant time, and scans, statistics and cumulative sums only visit the
+ * stored entries.</p>
+ *
  * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
  *
  * @author  Xavier Witdouck
@@ -45,7 +52,7 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
     private static final long serialVersionUID = 1L;
 
     private int length;
-    private TIntDoubleMap values;
+    private Store store;
     private double defaultValue;
 
     /**
@@ -57,7 +64,7 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
         super(Double.class, ArrayStyle.SPARSE, false);
         this.length = length;
         this.defaultValue = defaultValue != null ? defaultValue : Double.NaN;
-        this.values = new TIntDoubleHashMap((int)Math.max(length * 0.5, 10d), 0.8f, -1, this.defaultValue);
+        this.store = new Store();
     }
 
     /**
@@ -69,7 +76,7 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
         super(source.type(), ArrayStyle.SPARSE, parallel);
         this.length = source.length;
         this.defaultValue = source.defaultValue;
-        this.values = source.values;
+        this.store = source.store;
     }
 
 
@@ -81,7 +88,7 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
 
     @Override()
     public final float loadFactor() {
-        return (float)values.size() / (float)length();
+        return (float)store.size() / (float)length();
     }
 
 
@@ -107,7 +114,7 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
     public final Array<Double> copy() {
         try {
             final SparseArrayOfDoubles copy = (SparseArrayOfDoubles)super.clone();
-            copy.values = new TIntDoubleHashMap(values);
+            copy.store = (Store)store.copy();
             copy.defaultValue = this.defaultValue;
             return copy;
         } catch (Exception ex) {
@@ -129,13 +136,11 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
 
     @Override()
     public final Array<Double> copy(int start, int end) {
-        final int length = end - start;
-        final SparseArrayOfDoubles clone = new SparseArrayOfDoubles(length, defaultValue);
-        for (int i=0; i<length; ++i) {
-            final double value = getDouble(start+i);
-            if (Double.compare(value, defaultValue) != 0) {
-                clone.setValue(i, value);
-            }
+        final SparseArrayOfDoubles clone = new SparseArrayOfDoubles(end - start, defaultValue);
+        final int from = store.lowerBound(start);
+        final int to = store.lowerBound(end);
+        for (int i=from; i<to; ++i) {
+            clone.store.append(store.indexes[i] - start, store.values[i]);
         }
         return clone;
     }
@@ -143,17 +148,34 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
 
     @Override
     protected final Array<Double> sort(int start, int end, int multiplier) {
-        return doSort(start, end, (i, j) -> {
-            final double v1 = values.get(i);
-            final double v2 = values.get(j);
-            return multiplier * Double.compare(v1, v2);
-        });
+        synchronized (store) {
+            final int from = store.lowerBound(start);
+            final int to = store.lowerBound(end);
+            final int count = to - from;
+            final double[] sorted = Arrays.copyOfRange(store.values, from, to);
+            Arrays.sort(sorted);
+            if (multiplier < 0) {
+                for (int i=0, j=count-1; i<j; ++i, --j) {
+                    final double value = sorted[i];
+                    sorted[i] = sorted[j];
+                    sorted[j] = value;
+                }
+            }
+            int before = 0;
+            while (before < count && multiplier * Double.compare(sorted[before], defaultValue) < 0) before++;
+            final int defaults = (end - start) - count;
+            for (int i=0; i<count; ++i) {
+                store.indexes[from + i] = i < before ? start + i : start + defaults + i;
+                store.values[from + i] = sorted[i];
+            }
+            return this;
+        }
     }
 
 
     @Override
     public final int compare(int i, int j) {
-        return Double.compare(values.get(i), values.get(j));
+        return Double.compare(getDouble(i), getDouble(j));
     }
 
 
@@ -218,11 +240,13 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
     @Override
     public Array<Double> fill(Double value, int start, int end) {
         final double fillValue = value == null ? defaultValue : value;
-        if (fillValue == defaultValue) {
-            this.values.clear();
+        if (Double.compare(fillValue, defaultValue) == 0) {
+            synchronized (store) {
+                this.store.remove(store.lowerBound(start), store.lowerBound(end));
+            }
         } else {
             for (int i=start; i<end; ++i) {
-                this.values.put(i, fillValue);
+                this.setDouble(i, fillValue);
             }
         }
         return this;
@@ -231,55 +255,56 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
 
     @Override
     public final boolean isNull(int index) {
-        return Double.isNaN(values.get(index));
+        return Double.isNaN(getDouble(index));
     }
 
 
     @Override
     public final boolean isEqualTo(int index, Double value) {
-        return value == null || Double.isNaN(value) ? isNull(index) : value == values.get(index);
+        return value == null || Double.isNaN(value) ? isNull(index) : value == getDouble(index);
     }
 
 
     @Override
     public final double getDouble(int index) {
         this.checkBounds(index, length);
-        return values.get(index);
+        final int position = store.find(index);
+        return position >= 0 ? store.values[position] : defaultValue;
     }
 
 
     @Override
     public final Double getValue(int index) {
-        this.checkBounds(index, length);
-        return values.get(index);
+        return getDouble(index);
     }
 
 
     @Override
     public final double setDouble(int index, double value) {
         this.checkBounds(index, length);
-        final double oldValue = getDouble(index);
-        if (value == defaultValue) {
-            this.values.remove(index);
-            return oldValue;
-        } else {
-            this.values.put(index, value);
-            return oldValue;
+        synchronized (store) {
+            final int position = store.find(index);
+            if (position >= 0) {
+                final double oldValue = store.values[position];
+                if (Double.compare(value, defaultValue) == 0) {
+                    this.store.remove(position, position + 1);
+                } else {
+                    this.store.values[position] = value;
+                }
+                return oldValue;
+            } else if (Double.compare(value, defaultValue) != 0) {
+                final int insert = -position - 1;
+                this.store.insert(insert, index);
+                this.store.values[insert] = value;
+            }
+            return defaultValue;
         }
     }
 
 
     @Override
     public final Double setValue(int index, Double value) {
-        this.checkBounds(index, length);
-        final Double oldValue = getValue(index);
-        if (value == null || Double.compare(value, defaultValue) == 0) {
-            this.values.remove(index);
-            return oldValue;
-        } else {
-            this.values.put(index, value);
-            return oldValue;
-        }
+        return setDouble(index, value == null ? defaultValue : value);
     }
 
 
@@ -321,26 +346,78 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
     }
 
 
+    @Override
+    public final void forEach(Consumer<? super Double> consumer) {
+        if (isParallel()) {
+            super.forEach(consumer);
+        } else {
+            this.forEachDouble(consumer::accept);
+        }
+    }
+
+
+    @Override
+    public final Array<Double> forEachDouble(DoubleConsumer consumer) {
+        if (isParallel()) {
+            return super.forEachDouble(consumer);
+        } else {
+            final int size = store.size();
+            for (int i=0, position=0; i<length; ++i) {
+                if (position < size && store.indexes[position] == i) {
+                    consumer.accept(store.values[position++]);
+                } else {
+                    consumer.accept(defaultValue);
+                }
+            }
+            return this;
+        }
+    }
+
+
+    @Override
+    public final Array<Double> forEachStored(IntDoubleConsumer consumer) {
+        this.store.forEachStored(0, length, consumer);
+        return this;
+    }
+
+
     @Override
     public final Array<Double> cumSum() {
         final int length = length();
         final Array<Double> result = Array.of(Double.class, length);
-        result.setDouble(0, getDouble(0));
-        for (int i=1; i<length; ++i) {
-            final double prior = result.getDouble(i-1);
-            final double current = values.get(i);
-            if (Double.isNaN(prior)) {
-                result.setDouble(i, current);
-            } else if (Double.isNaN(current)) {
-                result.setDouble(i, prior);
+        final int size = store.lowerBound(length);
+        double total = Double.NaN;
+        for (int i=0, position=0; i<length; ++i) {
+            final boolean stored = position < size && store.indexes[position] == i;
+            if (stored) {
+                final double current = store.values[position++];
+                total = Double.isNaN(total) ? current : Double.isNaN(current) ? total : total + current;
+                result.setDouble(i, total);
+            } else if (Double.isNaN(defaultValue) || defaultValue == 0d && !Double.isNaN(total)) {
+                final int next = position < size ? store.indexes[position] : length;
+                result.fill(total, i, next);
+                i = next - 1;
             } else {
-                result.setDouble(i, prior + current);
+                total = Double.isNaN(total) ? defaultValue : total + defaultValue;
+                result.setDouble(i, total);
             }
         }
         return result;
     }
 
 
+    @Override()
+    public final Stats<Number> stats() {
+        return new SparseArrayStats(this, store, defaultValue, 0, length);
+    }
+
+
+    @Override()
+    public final Stats<Number> stats(int offset, int length) {
+        return new SparseArrayStats(this, store, defaultValue, offset, length);
+    }
+
+
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
@@ -358,4 +435,47 @@ class SparseArrayOfDoubles extends ArrayBase<Double> {
         }
     }
 
+
+    /**
+     * The compressed sparse storage of double values
+     */
+    private static final class Store extends SparseStore {
+
+        private static final long serialVersionUID = 1L;
+
+        private double[] values = new double[indexes.length];
+
+        /**
+         * Appends an entry whose index is greater than that of all current entries
+         * @param index     the array index
+         * @param value     the value for entry
+         */
+        void append(int index, double value) {
+            this.insert(size, index);
+            this.values[size - 1] = value;
+        }
+
+        @Override
+        final SparseStore copy() {
+            final Store copy = (Store)super.copy();
+            copy.values = values.clone();
+            return copy;
+        }
+
+        @Override
+        final double doubleAt(int position) {
+            return values[position];
+        }
+
+        @Override
+        final void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        final void move(int from, int to, int count) {
+            System.arraycopy(values, from, values, to, count);
+        }
+    }
+
 }
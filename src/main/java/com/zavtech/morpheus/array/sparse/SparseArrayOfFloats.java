@@ -0,0 +1,362 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.sparse;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Predicate;
+
+import gnu.trove.map.TIntFloatMap;
+import gnu.trove.map.hash.TIntFloatHashMap;
+import gnu.trove.set.TFloatSet;
+import gnu.trove.set.hash.TFloatHashSet;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayCursor;
+import com.zavtech.morpheus.array.ArrayException;
+import com.zavtech.morpheus.array.ArrayStyle;
+import com.zavtech.morpheus.array.ArrayValue;
+
+/**
+ * An Array implementation designed to hold a sparse array of float values
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class SparseArrayOfFloats extends ArrayBase<Float> {
+
+    private static final long serialVersionUID = 1L;
+
+    private int length;
+    private TIntFloatMap values;
+    private float defaultValue;
+
+    /**
+     * Constructor
+     * @param length    the length for this array
+     * @param defaultValue  the default value for array
+     */
+    SparseArrayOfFloats(int length, Float defaultValue) {
+        super(Float.class, ArrayStyle.SPARSE, false);
+        this.length = length;
+        this.defaultValue = defaultValue != null ? defaultValue : Float.NaN;
+        this.values = new TIntFloatHashMap((int)Math.max(length * 0.5, 10d), 0.8f, -1, this.defaultValue);
+    }
+
+    /**
+     * Constructor
+     * @param source    the source array to shallow copy
+     * @param parallel  true for the parallel version
+     */
+    private SparseArrayOfFloats(SparseArrayOfFloats source, boolean parallel) {
+        super(source.type(), ArrayStyle.SPARSE, parallel);
+        this.length = source.length;
+        this.defaultValue = source.defaultValue;
+        this.values = source.values;
+    }
+
+
+    @Override
+    public final int length() {
+        return length;
+    }
+
+
+    @Override()
+    public final float loadFactor() {
+        return (float)values.size() / (float)length();
+    }
+
+
+    @Override
+    public final Float defaultValue() {
+        return defaultValue;
+    }
+
+
+    @Override
+    public final Array<Float> parallel() {
+        return isParallel() ? this : new SparseArrayOfFloats(this, true);
+    }
+
+
+    @Override
+    public final Array<Float> sequential() {
+        return isParallel() ? new SparseArrayOfFloats(this, false) : this;
+    }
+
+
+    @Override()
+    public final Array<Float> copy() {
+        try {
+            final SparseArrayOfFloats copy = (SparseArrayOfFloats)super.clone();
+            copy.values = new TIntFloatHashMap(values);
+            copy.defaultValue = this.defaultValue;
+            return copy;
+        } catch (Exception ex) {
+            throw new ArrayException("Failed to copy Array: " + this, ex);
+        }
+    }
+
+
+    @Override()
+    public final Array<Float> copy(int[] indexes) {
+        final SparseArrayOfFloats clone = new SparseArrayOfFloats(indexes.length, defaultValue);
+        for (int i = 0; i < indexes.length; ++i) {
+            final double value = getDouble(indexes[i]);
+            clone.setDouble(i, value);
+        }
+        return clone;
+    }
+
+
+    @Override()
+    public final Array<Float> copy(int start, int end) {
+        final int length = end - start;
+        final SparseArrayOfFloats clone = new SparseArrayOfFloats(length, defaultValue);
+        for (int i=0; i<length; ++i) {
+            final float value = (float)getDouble(start+i);
+            if (Float.compare(value, defaultValue) != 0) {
+                clone.setValue(i, value);
+            }
+        }
+        return clone;
+    }
+
+
+    @Override
+    protected final Array<Float> sort(int start, int end, int multiplier) {
+        return doSort(start, end, (i, j) -> {
+            final float v1 = values.get(i);
+            final float v2 = values.get(j);
+            return multiplier * Float.compare(v1, v2);
+        });
+    }
+
+
+    @Override
+    public final int compare(int i, int j) {
+        return Float.compare(values.get(i), values.get(j));
+    }
+
+
+    @Override
+    public final Array<Float> swap(int i, int j) {
+        final double v1 = getDouble(i);
+        final double v2 = getDouble(j);
+        this.setDouble(i, v2);
+        this.setDouble(j, v1);
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> filter(Predicate<ArrayValue<Float>> predicate) {
+        int count = 0;
+        final int length = this.length();
+        final ArrayCursor<Float> cursor = cursor();
+        final Array<Float> matches = Array.of(type(), length, loadFactor());  //todo: fix the length of this filter
+        for (int i=0; i<length; ++i) {
+            cursor.moveTo(i);
+            final boolean match = predicate.test(cursor);
+            if (match) matches.setDouble(count++, cursor.getDouble());
+        }
+        return count == length ? matches : matches.copy(0, count);
+    }
+
+
+    @Override
+    public final Array<Float> update(Array<Float> from, int[] fromIndexes, int[] toIndexes) {
+        if (fromIndexes.length != toIndexes.length) {
+            throw new ArrayException("The from index array must have the same length as the to index array");
+        } else {
+            for (int i=0; i<fromIndexes.length; ++i) {
+                final int toIndex = toIndexes[i];
+                final int fromIndex = fromIndexes[i];
+                final double update = from.getDouble(fromIndex);
+                this.setDouble(toIndex, update);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> update(int toIndex, Array<Float> from, int fromIndex, int length) {
+        for (int i=0; i<length; ++i) {
+            final double update = from.getDouble(fromIndex + i);
+            this.setDouble(toIndex + i, update);
+        }
+        return this;
+    }
+
+
+    @Override
+    public final Array<Float> expand(int newLength) {
+        this.length = newLength > length ? newLength : length;
+        return this;
+    }
+
+
+    @Override
+    public Array<Float> fill(Float value, int start, int end) {
+        final float fillValue = value == null ? defaultValue : value;
+        if (fillValue == defaultValue) {
+            this.values.clear();
+        } else {
+            for (int i=start; i<end; ++i) {
+                this.values.put(i, fillValue);
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public final boolean isNull(int index) {
+        return Float.isNaN(values.get(index));
+    }
+
+
+    @Override
+    public final boolean isEqualTo(int index, Float value) {
+        return value == null || Float.isNaN(value) ? isNull(index) : value == values.get(index);
+    }
+
+
+    @Override
+    public final double getDouble(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+
+    @Override
+    public final Float getValue(int index) {
+        this.checkBounds(index, length);
+        return values.get(index);
+    }
+
+
+    @Override
+    public final double setDouble(int index, double value) {
+        this.checkBounds(index, length);
+        final double oldValue = getDouble(index);
+        final float floatValue = (float)value;
+        if (floatValue == defaultValue) {
+            this.values.remove(index);
+            return oldValue;
+        } else {
+            this.values.put(index, floatValue);
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public final Float setValue(int index, Float value) {
+        this.checkBounds(index, length);
+        final Float oldValue = getValue(index);
+        if (value == null || Float.compare(value, defaultValue) == 0) {
+            this.values.remove(index);
+            return oldValue;
+        } else {
+            this.values.put(index, value);
+            return oldValue;
+        }
+    }
+
+
+    @Override
+    public final int binarySearch(int start, int end, Float value) {
+        int low = start;
+        int high = end - 1;
+        while (low <= high) {
+            final int midIndex = (low + high) >>> 1;
+            final double midValue = getDouble(midIndex);
+            final int result = Double.compare(midValue, value);
+            if (result < 0) {
+                low = midIndex + 1;
+            } else if (result > 0) {
+                high = midIndex - 1;
+            } else {
+                return midIndex;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    @Override
+    public final Array<Float> distinct(int limit) {
+        final int capacity = limit < Integer.MAX_VALUE ? limit : 100;
+        final TFloatSet set = new TFloatHashSet(capacity);
+        final ArrayBuilder<Float> builder = ArrayBuilder.of(capacity, Float.class);
+        for (int i=0; i<length(); ++i) {
+            final float value = values.get(i);
+            if (set.add(value)) {
+                builder.addDouble(value);
+                if (set.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+
+    @Override
+    public final Array<Float> cumSum() {
+        final int length = length();
+        final Array<Float> result = Array.of(Float.class, length);
+        result.setDouble(0, getDouble(0));
+        for (int i=1; i<length; ++i) {
+            final double prior = result.getDouble(i-1);
+            final double current = values.get(i);
+            if (Double.isNaN(prior)) {
+                result.setDouble(i, current);
+            } else if (Double.isNaN(current)) {
+                result.setDouble(i, prior);
+            } else {
+                result.setDouble(i, prior + current);
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public final void read(ObjectInputStream is, int count) throws IOException {
+        for (int i=0; i<count; ++i) {
+            final float value = is.readFloat();
+            this.setDouble(i, value);
+        }
+    }
+
+
+    @Override
+    public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
+        for (int index : indexes) {
+            final float value = values.get(index);
+            os.writeFloat(value);
+        }
+    }
+
+}
@@ -18,24 +18,31 @@ package com.zavtech.morpheus.array.sparse;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBase;
 import com.zavtech.morpheus.array.ArrayBuilder;
 import com.zavtech.morpheus.array.ArrayCursor;
 import com.zavtech.morpheus.array.ArrayException;
-import com.zavtech.morpheus.array.Array;
-import com.zavtech.morpheus.array.ArrayBase;
 import com.zavtech.morpheus.array.ArrayStyle;
 import com.zavtech.morpheus.array.ArrayValue;
+import com.zavtech.morpheus.stats.Stats;
+import com.zavtech.morpheus.util.functions.IntDoubleConsumer;
 
-import gnu.trove.map.TIntIntMap;
-import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
 
 /**
  * An Array implementation designed to hold a sparse array of int values
  *
+ * <p>The non-default values are held in compressed sparse form, as parallel arrays of ascending indexes and values,
+ * so that appending in index order is constant time, and scans, statistics and cumulative sums only visit the
+ * stored entries.</p>
+ *
  * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
  *
  * @author  Xavier Witdouck
@@ -45,7 +52,7 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
     private static final long serialVersionUID = 1L;
 
     private int length;
-    private TIntIntMap values;
+    private Store store;
     private int defaultValue;
 
     /**
@@ -57,7 +64,7 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
         super(Integer.class, ArrayStyle.SPARSE, false);
         this.length = length;
         this.defaultValue = defaultValue != null ? defaultValue : 0;
-        this.values = new TIntIntHashMap((int)Math.max(length * 0.5, 10d), 0.8f, -1, this.defaultValue);
+        this.store = new Store();
     }
 
     /**
@@ -69,7 +76,7 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
         super(source.type(), ArrayStyle.SPARSE, parallel);
         this.length = source.length;
         this.defaultValue = source.defaultValue;
-        this.values = source.values;
+        this.store = source.store;
     }
 
 
@@ -81,7 +88,7 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
 
     @Override()
     public final float loadFactor() {
-        return (float)values.size() / (float)length();
+        return (float)store.size() / (float)length();
     }
 
 
@@ -107,7 +114,7 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
     public final Array<Integer> copy() {
         try {
             final SparseArrayOfInts copy = (SparseArrayOfInts)super.clone();
-            copy.values = new TIntIntHashMap(values);
+            copy.store = (Store)store.copy();
             copy.defaultValue = this.defaultValue;
             return copy;
         } catch (Exception ex) {
@@ -129,13 +136,11 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
 
     @Override()
     public final Array<Integer> copy(int start, int end) {
-        final int length = end - start;
-        final SparseArrayOfInts clone = new SparseArrayOfInts(length, defaultValue);
-        for (int i=0; i<length; ++i) {
-            final int value = getInt(start+i);
-            if (value != defaultValue) {
-                clone.setValue(i, value);
-            }
+        final SparseArrayOfInts clone = new SparseArrayOfInts(end - start, defaultValue);
+        final int from = store.lowerBound(start);
+        final int to = store.lowerBound(end);
+        for (int i=from; i<to; ++i) {
+            clone.store.append(store.indexes[i] - start, store.values[i]);
         }
         return clone;
     }
@@ -143,17 +148,34 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
 
     @Override
     protected final Array<Integer> sort(int start, int end, int multiplier) {
-        return doSort(start, end, (i, j) -> {
-            final int v1 = values.get(i);
-            final int v2 = values.get(j);
-            return multiplier * Integer.compare(v1, v2);
-        });
+        synchronized (store) {
+            final int from = store.lowerBound(start);
+            final int to = store.lowerBound(end);
+            final int count = to - from;
+            final int[] sorted = Arrays.copyOfRange(store.values, from, to);
+            Arrays.sort(sorted);
+            if (multiplier < 0) {
+                for (int i=0, j=count-1; i<j; ++i, --j) {
+                    final int value = sorted[i];
+                    sorted[i] = sorted[j];
+                    sorted[j] = value;
+                }
+            }
+            int before = 0;
+            while (before < count && multiplier * Integer.compare(sorted[before], defaultValue) < 0) before++;
+            final int defaults = (end - start) - count;
+            for (int i=0; i<count; ++i) {
+                store.indexes[from + i] = i < before ? start + i : start + defaults + i;
+                store.values[from + i] = sorted[i];
+            }
+            return this;
+        }
     }
 
 
     @Override
     public final int compare(int i, int j) {
-        return Integer.compare(values.get(i), values.get(j));
+        return Integer.compare(getInt(i), getInt(j));
     }
 
 
@@ -219,10 +241,12 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
     public Array<Integer> fill(Integer value, int start, int end) {
         final int fillValue = value == null ? defaultValue : value;
         if (fillValue == defaultValue) {
-            this.values.clear();
+            synchronized (store) {
+                this.store.remove(store.lowerBound(start), store.lowerBound(end));
+            }
         } else {
             for (int i=start; i<end; ++i) {
-                this.values.put(i, fillValue);
+                this.setInt(i, fillValue);
             }
         }
         return this;
@@ -237,60 +261,62 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
 
     @Override
     public final boolean isEqualTo(int index, Integer value) {
-        return value == null ? isNull(index) : value == values.get(index);
+        return value == null ? isNull(index) : value == getInt(index);
     }
 
 
     @Override
     public final int getInt(int index) {
         this.checkBounds(index, length);
-        return values.get(index);
+        final int position = store.find(index);
+        return position >= 0 ? store.values[position] : defaultValue;
     }
 
+
     @Override
     public final long getLong(int index) {
-        this.checkBounds(index, length);
-        return values.get(index);
+        return getInt(index);
     }
 
+
     @Override
     public final double getDouble(int index) {
-        this.checkBounds(index, length);
-        return values.get(index);
+        return getInt(index);
     }
 
+
     @Override
     public final Integer getValue(int index) {
-        this.checkBounds(index, length);
-        return values.get(index);
+        return getInt(index);
     }
 
 
     @Override
     public final int setInt(int index, int value) {
         this.checkBounds(index, length);
-        final int oldValue = getInt(index);
-        if (value == defaultValue) {
-            this.values.remove(index);
-            return oldValue;
-        } else {
-            this.values.put(index, value);
-            return oldValue;
+        synchronized (store) {
+            final int position = store.find(index);
+            if (position >= 0) {
+                final int oldValue = store.values[position];
+                if (value == defaultValue) {
+                    this.store.remove(position, position + 1);
+                } else {
+                    this.store.values[position] = value;
+                }
+                return oldValue;
+            } else if (value != defaultValue) {
+                final int insert = -position - 1;
+                this.store.insert(insert, index);
+                this.store.values[insert] = value;
+            }
+            return defaultValue;
         }
     }
 
 
     @Override
     public final Integer setValue(int index, Integer value) {
-        this.checkBounds(index, length);
-        final Integer oldValue = getValue(index);
-        if (value == null) {
-            this.values.remove(index);
-            return oldValue;
-        } else {
-            this.values.put(index, value);
-            return oldValue;
-        }
+        return setInt(index, value == null ? defaultValue : value);
     }
 
 
@@ -332,20 +358,77 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
     }
 
 
+    @Override
+    public final void forEach(Consumer<? super Integer> consumer) {
+        if (isParallel()) {
+            super.forEach(consumer);
+        } else {
+            this.forEachInt(consumer::accept);
+        }
+    }
+
+
+    @Override
+    public final Array<Integer> forEachInt(IntConsumer consumer) {
+        if (isParallel()) {
+            return super.forEachInt(consumer);
+        } else {
+            final int size = store.size();
+            for (int i=0, position=0; i<length; ++i) {
+                if (position < size && store.indexes[position] == i) {
+                    consumer.accept(store.values[position++]);
+                } else {
+                    consumer.accept(defaultValue);
+                }
+            }
+            return this;
+        }
+    }
+
+
+    @Override
+    public final Array<Integer> forEachStored(IntDoubleConsumer consumer) {
+        this.store.forEachStored(0, length, consumer);
+        return this;
+    }
+
+
     @Override
     public final Array<Integer> cumSum() {
         final int length = length();
         final Array<Integer> result = Array.of(Integer.class, length);
-        result.setInt(0, values.get(0));
-        for (int i=1; i<length; ++i) {
-            final int prior = result.getInt(i-1);
-            final int current = values.get(i);
-            result.setInt(i, prior + current);
+        final int size = store.lowerBound(length);
+        int total = 0;
+        for (int i=0, position=0; i<length; ++i) {
+            final boolean stored = position < size && store.indexes[position] == i;
+            if (stored) {
+                total += store.values[position++];
+                result.setInt(i, total);
+            } else if (defaultValue == 0) {
+                final int next = position < size ? store.indexes[position] : length;
+                result.fill(total, i, next);
+                i = next - 1;
+            } else {
+                total += defaultValue;
+                result.setInt(i, total);
+            }
         }
         return result;
     }
 
 
+    @Override()
+    public final Stats<Number> stats() {
+        return new SparseArrayStats(this, store, defaultValue, 0, length);
+    }
+
+
+    @Override()
+    public final Stats<Number> stats(int offset, int length) {
+        return new SparseArrayStats(this, store, defaultValue, offset, length);
+    }
+
+
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
@@ -363,4 +446,47 @@ class SparseArrayOfInts extends ArrayBase<Integer> {
         }
     }
 
+
+    /**
+     * The compressed sparse storage of int values
+     */
+    private static final class Store extends SparseStore {
+
+        private static final long serialVersionUID = 1L;
+
+        private int[] values = new int[indexes.length];
+
+        /**
+         * Appends an entry whose index is greater than that of all current entries
+         * @param index     the array index
+         * @param value     the value for entry
+         */
+        void append(int index, int value) {
+            this.insert(size, index);
+            this.values[size - 1] = value;
+        }
+
+        @Override
+        final SparseStore copy() {
+            final Store copy = (Store)super.copy();
+            copy.values = values.clone();
+            return copy;
+        }
+
+        @Override
+        final double doubleAt(int position) {
+            return values[position];
+        }
+
+        @Override
+        final void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        final void move(int from, int to, int count) {
+            System.arraycopy(values, from, values, to, count);
+        }
+    }
+
 }
@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.sparse;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.stats.AutoCorrelation;
+import com.zavtech.morpheus.stats.GeoMean;
+import com.zavtech.morpheus.stats.Kurtosis;
+import com.zavtech.morpheus.stats.Max;
+import com.zavtech.morpheus.stats.Mean;
+import com.zavtech.morpheus.stats.MeanAbsDev;
+import com.zavtech.morpheus.stats.Median;
+import com.zavtech.morpheus.stats.Min;
+import com.zavtech.morpheus.stats.Percentile;
+import com.zavtech.morpheus.stats.Product;
+import com.zavtech.morpheus.stats.Skew;
+import com.zavtech.morpheus.stats.Statistic1;
+import com.zavtech.morpheus.stats.Stats;
+import com.zavtech.morpheus.stats.StdErrorMean;
+import com.zavtech.morpheus.stats.SumLogs;
+import com.zavtech.morpheus.stats.Variance;
+
+/**
+ * A Stats implementation for compressed sparse arrays that visits only the stored entries in a range
+ *
+ * <p>The default values in the range are accounted for analytically: they contribute their count, sum, sum of squares
+ * and sum of logs in closed form, and are merged into the central moments of the stored entries as a single block of
+ * identical values. A NaN default contributes nothing, consistent with the way the dense statistics skip NaN values.
+ * The median and percentiles, which sort their values, are fed the stored entries followed by the default values.
+ * The mean absolute deviation and auto correlation depend on the order of values, so they are computed by a full
+ * scan of the range.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class SparseArrayStats implements Stats<Number> {
+
+    private Array<?> array;
+    private SparseStore store;
+    private double defaultValue;
+    private int offset;
+    private int length;
+
+    /**
+     * Constructor
+     * @param array         the sparse array to operate on
+     * @param store         the store for the sparse array
+     * @param defaultValue  the default value of the array as a double
+     * @param offset        the offset from start
+     * @param length        the number of items to include
+     */
+    SparseArrayStats(Array<?> array, SparseStore store, double defaultValue, int offset, int length) {
+        this.array = array;
+        this.store = store;
+        this.defaultValue = defaultValue;
+        this.offset = offset;
+        this.length = length;
+    }
+
+
+    /**
+     * Computes the univariate statistic by a full scan of the range, for statistics that cannot be decomposed
+     * @param stat  the statistic to compute
+     * @return      the resulting value
+     */
+    private Number scan(Statistic1 stat) {
+        for (int i=0; i<length; ++i) {
+            final double value = array.getDouble(offset + i);
+            if (!Double.isNaN(value)) {
+                stat.add(value);
+            }
+        }
+        return stat.getValue();
+    }
+
+
+    /**
+     * Computes an order independent univariate statistic from the stored entries in the range, followed by the default values
+     * @param stat  the statistic to compute
+     * @return      the resulting value
+     */
+    private Number collect(Statistic1 stat) {
+        final int stored = store.forEachStored(offset, offset + length, (index, value) -> stat.add(value));
+        final int defaults = length - stored;
+        if (!Double.isNaN(defaultValue)) {
+            for (int i=0; i<defaults; ++i) {
+                stat.add(defaultValue);
+            }
+        }
+        return stat.getValue();
+    }
+
+
+    /**
+     * Returns the moments of the non-NaN values in the range, merging the default values in closed form
+     * @return  the moments for the range
+     */
+    private Moments moments() {
+        final Moments moments = new Moments();
+        final int stored = store.forEachStored(offset, offset + length, (index, value) -> {
+            if (!Double.isNaN(value)) {
+                moments.add(value);
+            }
+        });
+        final int defaults = length - stored;
+        if (defaults > 0 && !Double.isNaN(defaultValue)) {
+            moments.merge(defaults, defaultValue);
+        }
+        return moments;
+    }
+
+
+    @Override
+    public final Number count() {
+        return (double)moments().n;
+    }
+
+    @Override
+    public final Number min() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new Min().getValue() : moments.min;
+    }
+
+    @Override
+    public final Number max() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new Max().getValue() : moments.max;
+    }
+
+    @Override
+    public final Number mean() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new Mean().getValue() : moments.m1;
+    }
+
+    @Override
+    public final Number median() {
+        return collect(new Median());
+    }
+
+    @Override
+    public final Number mad() {
+        return scan(new MeanAbsDev(array.length()));
+    }
+
+    @Override
+    public final Number stdDev() {
+        return Math.sqrt(variance().doubleValue());
+    }
+
+    @Override
+    public final Number sem() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new StdErrorMean().getValue() : Math.sqrt(moments.variance()) / Math.sqrt(moments.n);
+    }
+
+    @Override
+    public final Number sum() {
+        return moments().sum;
+    }
+
+    @Override
+    public final Number sumLogs() {
+        return moments().sumLogs;
+    }
+
+    @Override
+    public final Number sumSquares() {
+        return moments().sumSquares;
+    }
+
+    @Override
+    public final Number variance() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new Variance(true).getValue() : moments.variance();
+    }
+
+    @Override
+    public final Number kurtosis() {
+        final Moments moments = moments();
+        if (moments.n < 4) {
+            return moments.n < 3 ? new Kurtosis().getValue() : 0d;
+        } else {
+            final double n = moments.n;
+            final double variance = moments.variance();
+            if (variance < 10E-20) {
+                return 0d;
+            } else {
+                final double numerator = (n * (n + 1d) * moments.m4 - 3d * moments.m2 * moments.m2 * (n - 1d));
+                final double denominator = ((n - 1d) * (n - 2d) * (n - 3d) * variance * variance);
+                return numerator / denominator;
+            }
+        }
+    }
+
+    @Override
+    public final Number skew() {
+        final Moments moments = moments();
+        if (moments.n < 3) {
+            return new Skew().getValue();
+        } else {
+            final double n = moments.n;
+            final double variance = moments.variance();
+            if (variance < 10E-20) {
+                return 0d;
+            } else {
+                return (n * moments.m3) / ((n - 1d) * (n -2d) * Math.sqrt(variance) * variance);
+            }
+        }
+    }
+
+    @Override
+    public final Number geoMean() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new GeoMean().getValue() : Math.exp(moments.sumLogs / moments.n);
+    }
+
+    @Override
+    public final Number product() {
+        final Moments moments = moments();
+        return moments.n == 0 ? new Product().getValue() : moments.product;
+    }
+
+    @Override
+    public final Number autocorr(int lag) {
+        return scan(new AutoCorrelation(lag));
+    }
+
+    @Override
+    public final Number percentile(double nth) {
+        return collect(new Percentile(nth));
+    }
+
+
+    /**
+     * A single pass accumulator of the count, extremes, sums and central moments of a set of values
+     */
+    private static class Moments {
+
+        private long n;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private double sum;
+        private double sumSquares;
+        private double sumLogs;
+        private double product;
+        private double m1;
+        private double m2;
+        private double m3;
+        private double m4;
+
+        /**
+         * Adds a single non-NaN value to this accumulator, using the same updates as the Kurtosis statistic
+         * @param value the value to add
+         */
+        void add(double value) {
+            final double prevM2 = m2;
+            final double prevM3 = m3;
+            final double dev = value - m1;
+            final double nDev = dev / ++n;
+            final double nDevSq = nDev * nDev;
+            this.m1 += nDev;
+            this.m2 += (n - 1d) * dev * nDev;
+            this.m3 = m3 - 3d * nDev * prevM2 + (n - 1d) * (n - 2d) * nDevSq * dev;
+            this.m4 = m4 - 4d * nDev * prevM3 + 6d * nDevSq * prevM2 + ((n * n) - 3d * (n -1d)) * (nDevSq * nDevSq * (n - 1d) * n);
+            this.min = value < min ? value : min;
+            this.max = value > max ? value : max;
+            this.sum += value;
+            this.sumSquares += value * value;
+            this.sumLogs += Math.log(value);
+            this.product = n == 1 ? value : product * value;
+        }
+
+        /**
+         * Merges a block of identical values into this accumulator using the pairwise update for central moments
+         * @param count the number of values in the block
+         * @param value the value repeated in the block
+         */
+        void merge(long count, double value) {
+            final double na = n;
+            final double nb = count;
+            final double total = na + nb;
+            final double delta = value - m1;
+            final double delta2 = delta * delta;
+            final double prevM2 = m2;
+            final double prevM3 = m3;
+            this.m1 += delta * nb / total;
+            this.m2 = prevM2 + delta2 * na * nb / total;
+            this.m3 = prevM3 + delta2 * delta * na * nb * (na - nb) / (total * total) - 3d * delta * nb * prevM2 / total;
+            this.m4 = m4 + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (total * total * total) + 6d * delta2 * nb * nb * prevM2 / (total * total) - 4d * delta * nb * prevM3 / total;
+            this.product = n == 0 ? Math.pow(value, count) : product * Math.pow(value, count);
+            this.min = value < min ? value : min;
+            this.max = value > max ? value : max;
+            this.sum += value * count;
+            this.sumSquares += value * value * count;
+            this.sumLogs += Math.log(value) * count;
+            this.n += count;
+        }
+
+        /**
+         * Returns the bias corrected variance, given at least one value
+         * @return  the sample variance
+         */
+        double variance() {
+            return n == 1 ? 0d : m2 / (n - 1d);
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ import com.zavtech.morpheus.array.ArrayException;
 import com.zavtech.morpheus.array.ArrayStyle;
 import com.zavtech.morpheus.array.ArrayValue;
 import com.zavtech.morpheus.array.coding.IntCoding;
+import com.zavtech.morpheus.array.coding.WithIntCoding;
 
 /**
  * A sparse array implementation that maintains a primitive int array of codes that apply to Object values exposed through the Coding interface.
@@ -41,7 +42,7 @@ import com.zavtech.morpheus.array.coding.IntCoding;
  *
  * @author  Xavier Witdouck
  */
-class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
+class SparseArrayWithIntCoding<T> extends ArrayBase<T> implements WithIntCoding<T> {
 
     private static final long serialVersionUID = 1L;
 
@@ -81,6 +82,12 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
         this.codes = source.codes;
     }
 
+    @Override
+    public final IntCoding<T> getCoding() {
+        return coding;
+    }
+
+
     @Override
     public final int length() {
         return length;
@@ -131,7 +138,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
     public final Array<T> copy(int[] indexes) {
         final SparseArrayWithIntCoding<T> clone = new SparseArrayWithIntCoding<>(indexes.length, defaultValue, coding);
         for (int i = 0; i < indexes.length; ++i) {
-            final int code = getInt(indexes[i]);
+            final int code = getCode(indexes[i]);
             clone.codes.put(i, code);
         }
         return clone;
@@ -143,7 +150,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
         final int length = end - start;
         final SparseArrayWithIntCoding<T> clone = new SparseArrayWithIntCoding<>(length, defaultValue, coding);
         for (int i=0; i<length; ++i) {
-            final int code = getInt(start+i);
+            final int code = getCode(start+i);
             if (code != defaultCode) {
                 clone.codes.put(i, code);
             }
@@ -154,14 +161,14 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
 
     @Override
     public final int compare(int i, int j) {
-        return Integer.compare(codes.get(i), codes.get(j));
+        return coding.compare(codes.get(i), codes.get(j));
     }
 
 
     @Override
     public final Array<T> swap(int i, int j) {
-        final int v1 = getInt(i);
-        final int v2 = getInt(j);
+        final int v1 = getCode(i);
+        final int v2 = getCode(j);
         this.codes.put(i, v2);
         this.codes.put(j, v1);
         return this;
@@ -201,7 +208,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
 
     @Override
     public final Array<T> update(int toIndex, Array<T> from, int fromIndex, int length) {
-        if (from instanceof SparseArrayWithIntCoding) {
+        if (from instanceof SparseArrayWithIntCoding && ((SparseArrayWithIntCoding)from).coding == coding) {
             final SparseArrayWithIntCoding other = (SparseArrayWithIntCoding)from;
             for (int i = 0; i < length; ++i) {
                 this.codes.put(toIndex + i, other.codes.get(fromIndex + i));
@@ -248,7 +255,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
         if (value == null) {
             return isNull(index);
         } else {
-            final int code = coding.getCode(value);
+            final int code = coding.findCode(value);
             return code == codes.get(index);
         }
     }
@@ -256,6 +263,20 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
 
     @Override
     public final int getInt(int index) {
+        if (coding instanceof IntCoding.OfDictionary) {
+            return super.getInt(index);
+        } else {
+            return getCode(index);
+        }
+    }
+
+
+    /**
+     * Returns the code at the index specified
+     * @param index     the array index
+     * @return          the code at index
+     */
+    private int getCode(int index) {
         this.checkBounds(index, length);
         return codes.get(index);
     }
@@ -290,7 +311,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
         final TIntSet set = new TIntHashSet(capacity);
         final ArrayBuilder<T> builder = ArrayBuilder.of(capacity, type());
         for (int i=0; i<length(); ++i) {
-            final int code = getInt(i);
+            final int code = getCode(i);
             if (set.add(code)) {
                 final T value = getValue(i);
                 builder.add(value);
@@ -306,7 +327,7 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
     @Override
     public final void read(ObjectInputStream is, int count) throws IOException {
         for (int i=0; i<count; ++i) {
-            final int value = is.readInt();
+            final int value = coding.read(is);
             this.codes.put(i, value);
         }
     }
@@ -315,8 +336,8 @@ class SparseArrayWithIntCoding<T> extends ArrayBase<T> {
     @Override
     public final void write(ObjectOutputStream os, int[] indexes) throws IOException {
         for (int index : indexes) {
-            final int value = getInt(index);
-            os.writeInt(value);
+            final int value = getCode(index);
+            coding.write(os, value);
         }
     }
 
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array.sparse;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import com.zavtech.morpheus.util.functions.IntDoubleConsumer;
+
+/**
+ * The storage for a compressed sparse array, which holds the indexes of non-default entries in ascending order alongside their values
+ *
+ * <p>Lookups are resolved by binary search over the sorted indexes, with a constant time check against the last entry so that
+ * appending in index order, which is the common pattern when building an array, never shifts or searches. Subclasses hold the
+ * values in a primitive array that is kept parallel to the indexes, and expose each value as a double so that statistics
+ * can be computed over the stored entries without visiting the default values.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+abstract class SparseStore implements Serializable, Cloneable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    int size;
+    int[] indexes;
+
+    /**
+     * Constructor
+     */
+    SparseStore() {
+        this.indexes = new int[INITIAL_CAPACITY];
+    }
+
+
+    /**
+     * Returns the number of entries held by this store
+     * @return  the number of stored entries
+     */
+    final int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the position of the entry for the array index specified
+     * @param index     the array index
+     * @return          the position of the entry if present, otherwise (-(insertion point) - 1)
+     */
+    final int find(int index) {
+        final int last = size - 1;
+        if (last < 0 || index > indexes[last]) {
+            return -(size + 1);
+        } else if (index == indexes[last]) {
+            return last;
+        } else {
+            return Arrays.binarySearch(indexes, 0, last, index);
+        }
+    }
+
+
+    /**
+     * Returns the position of the first entry whose array index is greater than or equal to the index specified
+     * @param index     the array index
+     * @return          the position of the first entry at or after index
+     */
+    final int lowerBound(int index) {
+        final int position = find(index);
+        return position >= 0 ? position : -position - 1;
+    }
+
+
+    /**
+     * Iterates over the stored entries whose array index lies in the range specified, in index order
+     * @param start     the start array index, inclusive
+     * @param end       the end array index, exclusive
+     * @param consumer  the consumer of the array index and value of each stored entry
+     * @return          the number of stored entries visited
+     */
+    final int forEachStored(int start, int end, IntDoubleConsumer consumer) {
+        final int from = lowerBound(start);
+        final int to = lowerBound(end);
+        for (int i=from; i<to; ++i) {
+            consumer.accept(indexes[i], doubleAt(i));
+        }
+        return to - from;
+    }
+
+
+    /**
+     * Opens a slot at the position specified for a new entry with the array index specified
+     * @param position  the position for the new entry, as returned by find()
+     * @param index     the array index for the new entry
+     */
+    final void insert(int position, int index) {
+        if (size == indexes.length) {
+            final int capacity = size + (size >> 1) + 1;
+            this.indexes = Arrays.copyOf(indexes, capacity);
+            this.resize(capacity);
+        }
+        if (position < size) {
+            System.arraycopy(indexes, position, indexes, position + 1, size - position);
+            this.move(position, position + 1, size - position);
+        }
+        this.indexes[position] = index;
+        this.size++;
+    }
+
+
+    /**
+     * Removes the entries in the range of positions specified
+     * @param from  the first position to remove, inclusive
+     * @param to    the last position to remove, exclusive
+     */
+    final void remove(int from, int to) {
+        final int count = to - from;
+        if (count > 0) {
+            System.arraycopy(indexes, to, indexes, from, size - to);
+            this.move(to, from, size - to);
+            this.size -= count;
+        }
+    }
+
+
+    /**
+     * Returns a deep copy of this store
+     * @return  the deep copy of this store
+     */
+    SparseStore copy() {
+        try {
+            final SparseStore copy = (SparseStore)super.clone();
+            copy.indexes = indexes.clone();
+            return copy;
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException("Failed to clone sparse store", ex);
+        }
+    }
+
+
+    /**
+     * Returns the value of the entry at the position specified as a double
+     * @param position  the entry position
+     * @return          the entry value as a double
+     */
+    abstract double doubleAt(int position);
+
+
+    /**
+     * Resizes the value storage to the capacity specified
+     * @param capacity  the new capacity
+     */
+    abstract void resize(int capacity);
+
+
+    /**
+     * Moves a block of values within the value storage
+     * @param from      the source position
+     * @param to        the target position
+     * @param count     the number of values to move
+     */
+    abstract void move(int from, int to, int count);
+
+}
@@ -32,6 +32,7 @@ import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 
 import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.join.JoinType;
 import com.zavtech.morpheus.range.Range;
 import com.zavtech.morpheus.stats.Stats;
 import com.zavtech.morpheus.util.text.Formats;
@@ -402,6 +403,33 @@ public interface DataFrame<R,C> extends DataFrameActions<R,C,DataFrame<R,C>>, Da
      */
     <T> DataFrame<R,C> mapToObjects(C colKey, Class<T> type, Function<DataFrameValue<R,C>,T> mapper);
 
+    /**
+     * Returns a newly created frame by joining this frame with the right frame on a column common to both
+     * The resulting frame includes all columns of this frame followed by the columns of the right frame,
+     * where the join column appears only once, and rows are keyed by ordinal from 0 to N-1
+     * @param right     the right hand frame to join with
+     * @param type      the join type, for CROSS joins the column key is ignored and may be null
+     * @param colKey    the key of the column present in both frames to join on
+     * @param <X>       the row key type of the right hand frame
+     * @return          the newly created joined frame
+     * @throws DataFrameException   if the join column does not exist, or other column keys collide
+     */
+    <X> DataFrame<Integer,C> join(DataFrame<X,C> right, JoinType type, C colKey);
+
+    /**
+     * Returns a newly created frame by joining this frame with the right frame on the columns specified
+     * The resulting frame includes all columns of this frame followed by the columns of the right frame,
+     * and rows are keyed by ordinal from 0 to N-1
+     * @param right         the right hand frame to join with
+     * @param type          the join type, for CROSS joins the column keys are ignored and may be null
+     * @param leftColKey    the key of the column in this frame to join on
+     * @param rightColKey   the key of the column in the right frame to join on
+     * @param <X>           the row key type of the right hand frame
+     * @return              the newly created joined frame
+     * @throws DataFrameException   if a join column does not exist, or other column keys collide
+     */
+    <X> DataFrame<Integer,C> join(DataFrame<X,C> right, JoinType type, C leftColKey, C rightColKey);
+
     /**
      * Returns a reference to the factory that creates new DataFrames
      * @return      the DataFrame factory
@@ -41,6 +41,20 @@ public interface DataFrameAxisStats<K,R,C,X,Y> extends Stats<DataFrame<X,Y>> {
      */
     DataFrame<K,K> correlation();
 
+    /**
+     * Returns the covariance matrix for all vectors in this axis, optionally ignoring NaN values pairwise
+     * @param pairwise  if true, entries involving NaN values are computed over observations where neither vector is NaN
+     * @return          the covariance matrix between all vectors in this axis
+     */
+    DataFrame<K,K> covariance(boolean pairwise);
+
+    /**
+     * Returns the correlation matrix for all vectors in this axis, optionally ignoring NaN values pairwise
+     * @param pairwise  if true, entries involving NaN values are computed over observations where neither vector is NaN
+     * @return          the correlation matrix between all vectors in this axis
+     */
+    DataFrame<K,K> correlation(boolean pairwise);
+
     /**
      * Returns the covariance between two vectors on this axis
      * @param key1  the key to first vector
@@ -65,19 +79,38 @@ public interface DataFrameAxisStats<K,R,C,X,Y> extends Stats<DataFrame<X,Y>> {
     DataFrame<R,C> ewma(int halfLife);
 
     /**
-     * Returns the Exponential-Weighted Moving Standard Deviation of values in this dimension
+     * Returns the bias corrected Exponential-Weighted Moving Standard Deviation of values in this dimension
      * @param halfLife  the half-life such that the EWM weight, alpha = 1 - exp(log(0.5)/halfLife)
      * @return          the DataFrame with the EWM filtered data
+     * @see #ewmvar(int)
      */
     DataFrame<R,C> ewmstd(int halfLife);
 
     /**
-     * Returns the Exponential-Weighted Moving Variance of values in this dimension
+     * Returns the bias corrected Exponential-Weighted Moving Variance of values in this dimension
+     * <p>The weights are consistent with ewma(), and the first value is NaN as the variance of one observation is undefined.
+     * NaN values are skipped, so they leave the moving variance unchanged other than by the decay of prior weights.</p>
      * @param halfLife  the half-life such that the EWM weight, alpha = 1 - exp(log(0.5)/halfLife)
      * @return          the DataFrame with the EWM filtered data
      */
     DataFrame<R,C> ewmvar(int halfLife);
 
+    /**
+     * Returns the bias corrected Exponential-Weighted covariance matrix for all vectors in this axis, as at the last observation
+     * <p>Vectors that contain NaN values are computed over pairwise complete observations.</p>
+     * @param halfLife  the half-life such that the EWM weight, alpha = 1 - exp(log(0.5)/halfLife)
+     * @return          the EWM covariance matrix between all vectors in this axis
+     */
+    DataFrame<K,K> ewmcov(int halfLife);
+
+    /**
+     * Returns the Exponential-Weighted correlation matrix for all vectors in this axis, as at the last observation
+     * <p>Vectors that contain NaN values are computed over pairwise complete observations.</p>
+     * @param halfLife  the half-life such that the EWM weight, alpha = 1 - exp(log(0.5)/halfLife)
+     * @return          the EWM correlation matrix between all vectors in this axis
+     */
+    DataFrame<K,K> ewmcorr(int halfLife);
+
     /**
      * Returns the interface to rolling window statistics in this dimension
      * @param windowSize    the window size for rolling period
@@ -15,6 +15,8 @@
  */
 package com.zavtech.morpheus.frame;
 
+import java.util.Optional;
+
 /**
  * An interface that provides a random access API to read/write individual elements of a DataFrame.
  *
@@ -41,6 +43,35 @@ public interface DataFrameContent<R,C> {
      */
     Vector<C,R> colCursor();
 
+    /**
+     * Returns the fraction of values in the column specified that differ from the column default value
+     * @param column    the column key
+     * @return          the density of the column, between 0 and 1
+     */
+    double density(C column);
+
+    /**
+     * Returns the density policy installed on this content, if any
+     * @return      the optional density policy
+     */
+    Optional<DataFrameDensity> densityPolicy();
+
+    /**
+     * Installs a density policy on this content and immediately applies it to all columns
+     * The policy is subsequently re-applied to columns as they are added, and on demand via applyDensityPolicy().
+     * Converting a column replaces its storage, so cursors created before a conversion should not be used to write.
+     * @param policy    the density policy, null to remove the current policy
+     * @return          the number of columns converted
+     */
+    int densityPolicy(DataFrameDensity policy);
+
+    /**
+     * Measures the density of every column and converts columns between dense and sparse storage according to the installed policy
+     * This has no effect if no policy is installed, or if the content is a row store or a filter of another frame.
+     * @return      the number of columns converted
+     */
+    int applyDensityPolicy();
+
     /**
      * Returns the value for the coordinates specified
      * @param rowIndex  the row index coordinate
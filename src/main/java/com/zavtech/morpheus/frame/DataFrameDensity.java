@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.frame;
+
+import java.io.Serializable;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayStyle;
+
+/**
+ * A policy that decides when the columns of a DataFrame should be converted between dense and sparse storage based on their density
+ *
+ * <p>
+ * The density of a column is the fraction of its values that differ from the column default value. A dense column whose
+ * density falls below the sparse threshold is converted to sparse storage, and a sparse column whose density rises above
+ * the dense threshold is converted back to dense storage. The gap between the two thresholds provides hysteresis so that
+ * columns hovering around a single threshold are not converted back and forth. Only int, long and double columns at least
+ * as long as the minimum length are considered, as these are the types with a compressed sparse representation.
+ * </p>
+ *
+ * <p>
+ * A policy is opt-in and is installed on the content of a frame as follows:
+ * <pre>
+ *      DataFrame&lt;LocalDate,String&gt; exposures = DataFrame.ofDoubles(dates, assets);
+ *      exposures.data().densityPolicy(DataFrameDensity.of(0.1d, 0.3d));
+ * </pre>
+ * </p>
+ *
+ * <p>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class DataFrameDensity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double sparseBelow;
+    private double denseAbove;
+    private int minLength;
+
+    /**
+     * Constructor
+     * @param sparseBelow   the density below which dense columns are converted to sparse
+     * @param denseAbove    the density above which sparse columns are converted to dense
+     * @param minLength     the minimum column length for conversion to be considered
+     */
+    private DataFrameDensity(double sparseBelow, double denseAbove, int minLength) {
+        this.sparseBelow = sparseBelow;
+        this.denseAbove = denseAbove;
+        this.minLength = minLength;
+    }
+
+
+    /**
+     * Returns a newly created density policy with the thresholds specified, for columns of at least 1000 elements
+     * @param sparseBelow   the density below which dense columns are converted to sparse
+     * @param denseAbove    the density above which sparse columns are converted to dense
+     * @return              the newly created policy
+     */
+    public static DataFrameDensity of(double sparseBelow, double denseAbove) {
+        return of(sparseBelow, denseAbove, 1000);
+    }
+
+
+    /**
+     * Returns a newly created density policy with the thresholds specified
+     * @param sparseBelow   the density below which dense columns are converted to sparse
+     * @param denseAbove    the density above which sparse columns are converted to dense
+     * @param minLength     the minimum column length for conversion to be considered
+     * @return              the newly created policy
+     * @throws DataFrameException   if the thresholds are not such that 0 &lt;= sparseBelow &lt;= denseAbove &lt;= 1
+     */
+    public static DataFrameDensity of(double sparseBelow, double denseAbove, int minLength) {
+        if (!(sparseBelow >= 0d && sparseBelow <= denseAbove && denseAbove <= 1d)) {
+            throw new DataFrameException("Density thresholds must satisfy 0 <= sparseBelow <= denseAbove <= 1, not " + sparseBelow + " and " + denseAbove);
+        } else {
+            return new DataFrameDensity(sparseBelow, denseAbove, Math.max(0, minLength));
+        }
+    }
+
+
+    /**
+     * Returns the density below which dense columns are converted to sparse
+     * @return  the sparse threshold
+     */
+    public double getSparseBelow() {
+        return sparseBelow;
+    }
+
+
+    /**
+     * Returns the density above which sparse columns are converted to dense
+     * @return  the dense threshold
+     */
+    public double getDenseAbove() {
+        return denseAbove;
+    }
+
+
+    /**
+     * Returns the minimum column length for conversion to be considered
+     * @return  the minimum column length
+     */
+    public int getMinLength() {
+        return minLength;
+    }
+
+
+    /**
+     * Returns the fraction of values in the array that differ from the array default value
+     * <p>This is constant time for sparse arrays, and a single scan for other styles.</p>
+     * @param array     the array to measure
+     * @return          the density of the array, between 0 and 1
+     */
+    public static double measure(Array<?> array) {
+        return measure(array, array.length());
+    }
+
+
+    /**
+     * Returns the fraction of values in the leading portion of the array that differ from the array default value
+     * <p>A DataFrame column is usually longer than the row count, as its capacity grows ahead of rows being added,
+     * so columns are measured over the row count to avoid counting the unused capacity as default values.
+     * This visits only the stored entries of sparse arrays, and is a single scan for other styles.</p>
+     * @param array     the array to measure
+     * @param length    the number of leading entries to measure, capped at the array length
+     * @return          the density of the leading entries, between 0 and 1
+     */
+    public static double measure(Array<?> array, int length) {
+        final int arrayLength = array.length();
+        if (length > arrayLength) {
+            return measure(array, arrayLength);
+        } else if (length <= 0) {
+            return 0d;
+        } else if (array.style() == ArrayStyle.SPARSE && length == arrayLength) {
+            return Math.min(1d, array.loadFactor());
+        } else if (array.style() == ArrayStyle.SPARSE) {
+            final int[] count = new int[1];
+            array.forEachStored((index, value) -> {
+                if (index < length) count[0]++;
+            });
+            return (double)count[0] / length;
+        } else {
+            int count = 0;
+            switch (array.typeCode()) {
+                case INTEGER:
+                    final int intDefault = ((Number)array.defaultValue()).intValue();
+                    for (int i=0; i<length; ++i) {
+                        if (array.getInt(i) != intDefault) count++;
+                    }
+                    break;
+                case LONG:
+                    final long longDefault = ((Number)array.defaultValue()).longValue();
+                    for (int i=0; i<length; ++i) {
+                        if (array.getLong(i) != longDefault) count++;
+                    }
+                    break;
+                case DOUBLE:
+                    final double doubleDefault = ((Number)array.defaultValue()).doubleValue();
+                    for (int i=0; i<length; ++i) {
+                        if (Double.compare(array.getDouble(i), doubleDefault) != 0) count++;
+                    }
+                    break;
+                default:
+                    count = countNonDefault(array);
+                    break;
+            }
+            return (double)count / length;
+        }
+    }
+
+
+    /**
+     * Returns the count of values in the array that differ from the array default value
+     * @param array     the array to scan
+     * @param <T>       the array element type
+     * @return          the count of non-default values
+     */
+    private static <T> int countNonDefault(Array<T> array) {
+        final T defaultValue = array.defaultValue();
+        return array.count(v -> !v.isEqualTo(defaultValue));
+    }
+
+
+    /**
+     * Returns the array converted to the storage style implied by this policy, or the array itself if no conversion applies
+     * @param array     the array to apply this policy to
+     * @param <T>       the array element type
+     * @return          the converted array, or the same array if it is left as is
+     */
+    public <T> Array<T> apply(Array<T> array) {
+        return apply(array, array.length());
+    }
+
+
+    /**
+     * Returns the array converted to the storage style implied by this policy, measuring only its leading entries
+     * @param array     the array to apply this policy to
+     * @param length    the number of leading entries in use, such as the row count of the owning DataFrame
+     * @param <T>       the array element type
+     * @return          the converted array, or the same array if it is left as is
+     */
+    public <T> Array<T> apply(Array<T> array, int length) {
+        if (length < minLength || array.isReadOnly()) {
+            return array;
+        } else {
+            switch (array.typeCode()) {
+                case INTEGER:
+                case LONG:
+                case DOUBLE:
+                    if (array.style() == ArrayStyle.DENSE) {
+                        return measure(array, length) < sparseBelow ? Array.sparse(array) : array;
+                    } else if (array.style() == ArrayStyle.SPARSE) {
+                        return measure(array, length) > denseAbove ? Array.dense(array) : array;
+                    } else {
+                        return array;
+                    }
+                default:
+                    return array;
+            }
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return "DataFrameDensity{sparseBelow=" + sparseBelow + ", denseAbove=" + denseAbove + ", minLength=" + minLength + "}";
+    }
+}
@@ -17,8 +17,10 @@ package com.zavtech.morpheus.frame;
 
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import com.zavtech.morpheus.stats.StatType;
 import com.zavtech.morpheus.stats.Stats;
 import com.zavtech.morpheus.util.Tuple;
 
@@ -37,7 +39,18 @@ public interface DataFrameGrouping<R,C,S> {
      * @param <R>       the row key type
      * @param <C>       the column key type
      */
-    interface Rows<R,C> extends DataFrameGrouping<R,C,DataFrame<Tuple,C>> {}
+    interface Rows<R,C> extends DataFrameGrouping<R,C,DataFrame<Tuple,C>> {
+
+        /**
+         * Returns a frame of statistics per group, computed in a single pass over the rows without creating a frame per group
+         * The result has one row per group at the deepest level, and one column for each column that the aggregator maps
+         * to a statistic, excluding any columns grouped by. Supported statistics are COUNT, SUM, SUM_SQUARES, MEAN,
+         * MIN, MAX, VARIANCE and STD_DEV, where only COUNT can be applied to non-numeric columns.
+         * @param aggregator    the function that selects the statistic for a column key, null to exclude the column
+         * @return              the frame of aggregated values keyed by group
+         */
+        DataFrame<Tuple,C> aggregate(Function<C,StatType> aggregator);
+    }
 
     /**
      * A grouping interface specialization that represents a grouping of columns
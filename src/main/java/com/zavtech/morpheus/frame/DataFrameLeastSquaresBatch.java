@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.frame;
+
+import java.util.List;
+
+/**
+ * An interface to a batch of Linear Regression models that regress many regressands on the same regressors in a DataFrame.
+ *
+ * <p>All models in the batch share one design matrix, which is factorized once, so the cost per additional regressand
+ * is a single back substitution rather than a full model fit. Results are exposed as frames keyed by regressand.</p>
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public interface DataFrameLeastSquaresBatch<R,C> {
+
+    enum Diagnostic { R_SQUARED, R_SQUARED_ADJ, STD_ERROR, F_VALUE, F_VALUE_PROBABILITY, TSS, RSS, ESS }
+
+    /**
+     * Triggers this batch of models to (re)compute parameters
+     * @throws DataFrameException   if there is an error running regression
+     */
+    void fit();
+
+    /**
+     * Returns the sample size for the models in this batch
+     * @return  the sample size for the regression models
+     */
+    int getN();
+
+    /**
+     * Returns the list of regressands for this batch, one per model
+     * @return  the list of regressands for this batch
+     */
+    List<C> getRegressands();
+
+    /**
+     * Returns the list of regressors shared by all models in this batch
+     * @return  the list of regressors for this batch
+     */
+    List<C> getRegressors();
+
+    /**
+     * Returns true if the models in this batch include an intercept term
+     * @return      true if the models include an intercept term
+     */
+    boolean hasIntercept();
+
+    /**
+     * Returns the significance level used to compute coefficient confidence intervals
+     * @return      the significance level for confidence intervals
+     */
+    double getAlpha();
+
+    /**
+     * Sets the significance level used to compute coefficient confidence intervals
+     * @param alpha     the significance level, such as 0.05
+     * @return          this batch
+     */
+    DataFrameLeastSquaresBatch<R,C> withAlpha(double alpha);
+
+    /**
+     * Returns a frame of one coefficient field, with a row per regressand and a column per regressor
+     * @param field     the coefficient field, such as the parameter value or its standard error
+     * @return          the frame of coefficient values keyed by regressand and regressor
+     */
+    DataFrame<C,C> getBetas(DataFrameLeastSquares.Field field);
+
+    /**
+     * Returns a frame of intercept fields, with a row per regressand, which is all NaN if there is no intercept
+     * @return      the frame of intercept values keyed by regressand
+     */
+    DataFrame<C,DataFrameLeastSquares.Field> getIntercept();
+
+    /**
+     * Returns a frame of model diagnostics, with a row per regressand
+     * @return      the frame of model diagnostics keyed by regressand
+     */
+    DataFrame<C,Diagnostic> getDiagnostics();
+
+    /**
+     * Returns a frame of residuals, with a row per observation and a column per regressand
+     * @return      the frame of residuals for all models
+     */
+    DataFrame<R,C> getResiduals();
+
+}
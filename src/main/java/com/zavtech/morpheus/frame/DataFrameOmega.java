@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.frame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.zavtech.morpheus.array.Array;
+
+/**
+ * A specification of the covariance matrix of the error terms, or omega, for a Generalized Least Squares regression
+ *
+ * <p>
+ * A dense omega requires an n x n matrix for n observations, which quickly becomes infeasible as n grows. When the
+ * covariance has a known structure, it can be described more compactly, and the regression can whiten the data using
+ * that structure directly. The structures supported are as follows:
+ * </p>
+ *
+ * <ul>
+ *     <li>DENSE: a full n x n covariance matrix</li>
+ *     <li>DIAGONAL: independent errors with a variance per observation</li>
+ *     <li>BLOCK_DIAGONAL: errors correlated only within consecutive blocks of observations, such as clusters</li>
+ *     <li>BANDED: errors correlated only between observations at most some bandwidth apart, such as MA(q) errors</li>
+ *     <li>AR1: errors following a stationary AR(1) process, where the correlation between observations i and j is rho^|i-j|</li>
+ * </ul>
+ *
+ * <p>
+ * For example, a GLS regression with AR(1) errors can be run as follows:
+ * <pre>
+ *      frame.regress().gls("Y", Array.of("X1", "X2"), DataFrameOmega.ar1(0.4d), true, model -> {
+ *          System.out.println(model);
+ *          return Optional.empty();
+ *      });
+ * </pre>
+ * </p>
+ *
+ * <p>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class DataFrameOmega {
+
+    public enum Type { DENSE, DIAGONAL, BLOCK_DIAGONAL, BANDED, AR1 }
+
+    private Type type;
+    private double rho;
+    private Array<Double> variances;
+    private DataFrame<?,?> bands;
+    private List<DataFrame<?,?>> blocks;
+
+    /**
+     * Constructor
+     * @param type      the structure type of omega
+     */
+    private DataFrameOmega(Type type) {
+        this.type = type;
+        this.rho = Double.NaN;
+        this.blocks = Collections.emptyList();
+    }
+
+
+    /**
+     * Returns an omega specification based on a full n x n covariance matrix
+     * @param omega     the full covariance matrix of the error terms
+     * @return          the omega specification
+     * @throws DataFrameException   if the matrix is not square
+     */
+    public static DataFrameOmega dense(DataFrame<?,?> omega) {
+        if (omega.rowCount() != omega.colCount()) {
+            throw new DataFrameException("The omega matrix must be square, not " + omega.rowCount() + "x" + omega.colCount());
+        } else {
+            final DataFrameOmega result = new DataFrameOmega(Type.DENSE);
+            result.blocks = Collections.singletonList(omega);
+            return result;
+        }
+    }
+
+
+    /**
+     * Returns an omega specification for independent errors with a variance per observation
+     * @param variances the variance of the error term for each observation
+     * @return          the omega specification
+     */
+    public static DataFrameOmega diagonal(Array<Double> variances) {
+        final DataFrameOmega result = new DataFrameOmega(Type.DIAGONAL);
+        result.variances = variances;
+        return result;
+    }
+
+
+    /**
+     * Returns an omega specification for errors that are only correlated within consecutive blocks of observations
+     * @param blocks    the square covariance matrices for each block, in observation order
+     * @return          the omega specification
+     * @throws DataFrameException   if any of the blocks are not square
+     */
+    public static DataFrameOmega blockDiagonal(Iterable<? extends DataFrame<?,?>> blocks) {
+        final DataFrameOmega result = new DataFrameOmega(Type.BLOCK_DIAGONAL);
+        result.blocks = new ArrayList<>();
+        for (DataFrame<?,?> block : blocks) {
+            if (block.rowCount() != block.colCount()) {
+                throw new DataFrameException("The omega blocks must be square, not " + block.rowCount() + "x" + block.colCount());
+            } else {
+                result.blocks.add(block);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns an omega specification for errors that are only correlated between observations at most some bandwidth apart
+     * <p>The bands frame has a row per observation, and a column per band, where the value in row i and column k is the
+     * covariance between observations i and i+k. The first column is therefore the variance, and the bandwidth is one
+     * less than the number of columns. Values beyond the last observation are ignored.</p>
+     * @param bands     the frame of bands for the upper triangle of omega
+     * @return          the omega specification
+     * @throws DataFrameException   if the bands frame has no columns
+     */
+    public static DataFrameOmega banded(DataFrame<?,?> bands) {
+        if (bands.colCount() == 0) {
+            throw new DataFrameException("The omega bands frame must have at least one column");
+        } else {
+            final DataFrameOmega result = new DataFrameOmega(Type.BANDED);
+            result.bands = bands;
+            return result;
+        }
+    }
+
+
+    /**
+     * Returns an omega specification for errors following a stationary AR(1) process
+     * @param rho       the first order autocorrelation of the errors, which must be in (-1, 1)
+     * @return          the omega specification
+     * @throws DataFrameException   if rho is not in (-1, 1)
+     */
+    public static DataFrameOmega ar1(double rho) {
+        if (!(rho > -1d && rho < 1d)) {
+            throw new DataFrameException("The AR(1) coefficient must be in (-1, 1), not " + rho);
+        } else {
+            final DataFrameOmega result = new DataFrameOmega(Type.AR1);
+            result.rho = rho;
+            return result;
+        }
+    }
+
+
+    /**
+     * Returns the structure type of this omega
+     * @return  the structure type
+     */
+    public Type getType() {
+        return type;
+    }
+
+
+    /**
+     * Returns the AR(1) coefficient, which is NaN unless the type is AR1
+     * @return  the AR(1) coefficient
+     */
+    public double getRho() {
+        return rho;
+    }
+
+
+    /**
+     * Returns the variance per observation, which is null unless the type is DIAGONAL
+     * @return  the variance per observation
+     */
+    public Array<Double> getVariances() {
+        return variances;
+    }
+
+
+    /**
+     * Returns the frame of bands, which is null unless the type is BANDED
+     * @return  the frame of bands
+     */
+    public DataFrame<?,?> getBands() {
+        return bands;
+    }
+
+
+    /**
+     * Returns the covariance matrices along the diagonal, which is a single matrix for DENSE, and empty unless BLOCK_DIAGONAL
+     * @return  the list of covariance matrices along the diagonal
+     */
+    public List<DataFrame<?,?>> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+}
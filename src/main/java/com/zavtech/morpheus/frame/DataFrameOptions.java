@@ -155,6 +155,22 @@ public enum DataFrameOptions {
         }
     }
 
+    /**
+     * Returns the function that defines the default splitting threshold in row dimension
+     * @return  the default function
+     */
+    public static ToIntFunction<DataFrame<?,?>> getDefaultRowSplitThreshold() {
+        return defaultRowSplitThreshold;
+    }
+
+    /**
+     * Returns the function that defines the default splitting threshold in column dimension
+     * @return  the default function
+     */
+    public static ToIntFunction<DataFrame<?,?>> getDefaultColSplitThreshold() {
+        return defaultColSplitThreshold;
+    }
+
     /**
      * Sets the function that defines the default splitting threshold in row dimension
      * @param defaultRowSplitThreshold  the default function
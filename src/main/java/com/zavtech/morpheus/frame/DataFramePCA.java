@@ -30,10 +30,17 @@ import java.util.function.Function;
  */
 public interface DataFramePCA<R,C> {
 
+    /**
+     * The solvers available to perform PCA, where SVD and EVD decompose the full spectrum of the dense data or covariance
+     * matrix, RANDOMIZED uses a randomized truncated SVD to approximate the top components, and INCREMENTAL updates a
+     * truncated SVD one batch of rows at a time. The latter two never copy the frame into a dense matrix.
+     */
     enum Solver {
         SVD,
         EVD_COV,
-        EVD_COR
+        EVD_COR,
+        RANDOMIZED,
+        INCREMENTAL
     }
 
     enum Field  {
@@ -63,6 +70,20 @@ public interface DataFramePCA<R,C> {
      */
     <T> Optional<T> apply(boolean demean, Solver solver, Function<Model<R,C>,Optional<T>> handler);
 
+    /**
+     * Performs Principal Component Analysis on a DataFrame retaining only the top components
+     * <p>The RANDOMIZED and INCREMENTAL solvers only ever compute the number of components requested, which makes them
+     * suitable for tall frames with many columns. Other solvers decompose the full spectrum and then truncate it. The
+     * variance percentages are always expressed relative to the total variance of the data.</p>
+     * @param demean        true if the columns should be demeaned before apply PCA
+     * @param solver        the solver type to use when performing PCA
+     * @param numComponents the number of principal components to retain
+     * @param handler       the function to consume the resulting model
+     * @param <T>           the type of the object returned by the handler
+     * @return              the optional result generated by the handler
+     */
+    <T> Optional<T> apply(boolean demean, Solver solver, int numComponents, Function<Model<R,C>,Optional<T>> handler);
+
 
     /**
      * An interface to a Principal Component Analysis model generated from a DataFrame dataset
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.util.function.Consumer;
 
+import com.zavtech.morpheus.source.BinarySourceOptions;
 import com.zavtech.morpheus.source.CsvSourceOptions;
 import com.zavtech.morpheus.source.DbSourceOptions;
 import com.zavtech.morpheus.source.JsonSourceOptions;
@@ -126,4 +127,22 @@ public interface DataFrameRead {
      */
     <R> DataFrame<R,String> db(Consumer<DbSourceOptions<R>> configurator);
 
+    /**
+     * Reads a DataFrame from a file in Morpheus binary format, mapping the file rather than loading it
+     * @param file      the input file
+     * @param <R>       the row key type
+     * @param <C>       the column key type
+     * @return          the resulting DataFrame
+     */
+    <R,C> DataFrame<R,C> binary(File file);
+
+    /**
+     * Reads a DataFrame from a file in Morpheus binary format based on the options configurator
+     * @param configurator  the configurator for binary options
+     * @param <R>           the row key type
+     * @param <C>           the column key type
+     * @return              the resulting DataFrame
+     */
+    <R,C> DataFrame<R,C> binary(Consumer<BinarySourceOptions<R,C>> configurator);
+
 }
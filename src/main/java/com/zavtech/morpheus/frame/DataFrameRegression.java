@@ -98,4 +98,90 @@ public interface DataFrameRegression<R,C> {
      */
     <T> Optional<T> gls(C regressand, Iterable<C> regressors, DataFrame<?,?> omega, boolean intercept, Function<DataFrameLeastSquares<R,C>,Optional<T>> handler);
 
+    /**
+     * Executes a single variable linear regression model using Generalized Least Squares (GLS) with a structured omega
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressor     the column key of the regressor or X variable
+     * @param omega         the structured covariance matrix of the error terms
+     * @param intercept     true to include an intercept / constant term in the model
+     * @param handler       the regression result handler
+     * @param <T>           the type of return object
+     * @return              the optional user created return object
+     * @see DataFrameOmega
+     */
+    <T> Optional<T> gls(C regressand, C regressor, DataFrameOmega omega, boolean intercept, Function<DataFrameLeastSquares<R,C>,Optional<T>> handler);
+
+    /**
+     * Executes a multiple variable linear regression model using Generalized Least Squares (GLS) with a structured omega
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param omega         the structured covariance matrix of the error terms
+     * @param intercept     true to include an intercept / constant term in the model
+     * @param handler       the regression result handler
+     * @param <T>           the type of return object
+     * @return              the optional user created return object
+     * @see DataFrameOmega
+     */
+    <T> Optional<T> gls(C regressand, Iterable<C> regressors, DataFrameOmega omega, boolean intercept, Function<DataFrameLeastSquares<R,C>,Optional<T>> handler);
+
+    /**
+     * Executes a batch of multiple variable linear regression models using Ordinary Least Squares (OLS), one per regressand
+     * <p>All models share the same regressors, so the design matrix is only factorized once for the whole batch</p>
+     * @param regressands   the columns that define the regressands or Y variables, one per model
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param intercept     true to include an intercept / constant term in the models
+     * @param handler       the regression result handler
+     * @param <T>           the type of return object
+     * @return              the optional user created return object
+     */
+    <T> Optional<T> olsBatch(Iterable<C> regressands, Iterable<C> regressors, boolean intercept, Function<DataFrameLeastSquaresBatch<R,C>,Optional<T>> handler);
+
+    /**
+     * Returns the results of a linear regression fitted using Ordinary Least Squares (OLS) over a rolling window of rows
+     * <p>The result is keyed by the row at the end of each window, with columns for the intercept (if included) and regressor
+     * coefficients, their standard errors with a "(StdError)" suffix, and the R-Squared. Rows with a NaN value are excluded from
+     * the fit, and windows with fewer valid rows than the window size, or that are singular, are NaN.</p>
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param windowSize    the number of rows in each window
+     * @param intercept     true to include an intercept / constant term in the model
+     * @return              the frame of coefficients, standard errors and R-Squared for each window
+     */
+    DataFrame<R,String> rollingOls(C regressand, Iterable<C> regressors, int windowSize, boolean intercept);
+
+    /**
+     * Returns the results of a linear regression fitted using Weighted Least Squares (WLS) over a rolling window of rows
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param weights       the weights for each row of the frame
+     * @param windowSize    the number of rows in each window
+     * @param intercept     true to include an intercept / constant term in the model
+     * @return              the frame of coefficients, standard errors and R-Squared for each window
+     * @see #rollingOls(Object, Iterable, int, boolean)
+     */
+    DataFrame<R,String> rollingWls(C regressand, Iterable<C> regressors, Array<Double> weights, int windowSize, boolean intercept);
+
+    /**
+     * Returns the results of a linear regression fitted using Ordinary Least Squares (OLS) over an expanding window of rows
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param minPeriods    the minimum number of rows without NaN values before results are produced
+     * @param intercept     true to include an intercept / constant term in the model
+     * @return              the frame of coefficients, standard errors and R-Squared for each window
+     * @see #rollingOls(Object, Iterable, int, boolean)
+     */
+    DataFrame<R,String> expandingOls(C regressand, Iterable<C> regressors, int minPeriods, boolean intercept);
+
+    /**
+     * Returns the results of a linear regression fitted using Weighted Least Squares (WLS) over an expanding window of rows
+     * @param regressand    the column that defines the regressand or Y variable
+     * @param regressors    the column(s) that define the regressors or X variables
+     * @param weights       the weights for each row of the frame
+     * @param minPeriods    the minimum number of rows without NaN values before results are produced
+     * @param intercept     true to include an intercept / constant term in the model
+     * @return              the frame of coefficients, standard errors and R-Squared for each window
+     * @see #rollingOls(Object, Iterable, int, boolean)
+     */
+    DataFrame<R,String> expandingWls(C regressand, Iterable<C> regressors, Array<Double> weights, int minPeriods, boolean intercept);
+
 }
@@ -17,6 +17,7 @@ package com.zavtech.morpheus.frame;
 
 import java.util.function.Consumer;
 
+import com.zavtech.morpheus.sink.BinarySinkOptions;
 import com.zavtech.morpheus.sink.CsvSinkOptions;
 import com.zavtech.morpheus.sink.DbSinkOptions;
 import com.zavtech.morpheus.sink.JsonSinkOptions;
@@ -48,6 +49,12 @@ public interface DataFrameWrite<R,C> {
      */
     void json(Consumer<JsonSinkOptions> configurator);
 
+    /**
+     * Writes the DataFrame associated with this function to Morpheus binary columnar output
+     * @param configurator  the configurator to apply binary options
+     */
+    void binary(Consumer<BinarySinkOptions> configurator);
+
     /**
      * Writes the DataFrame associated with this function to an output device
      * @param sink          the sink instance to write to
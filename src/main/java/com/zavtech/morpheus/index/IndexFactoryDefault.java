@@ -39,6 +39,8 @@ import com.zavtech.morpheus.array.coding.LongCoding;
 class IndexFactoryDefault extends IndexFactory {
 
     private static final IntCoding<Year> yearCoding = IntCoding.ofYear();
+    private static final IntCoding<Short> shortCoding = IntCoding.ofShort();
+    private static final IntCoding<Byte> byteCoding = IntCoding.ofByte();
     private static final LongCoding<Date> dateCoding = LongCoding.ofDate();
     private static final LongCoding<Instant> instantCoding = LongCoding.ofInstant();
     private static final LongCoding<LocalDate> localDateCoding = LongCoding.ofLocalDate();
@@ -56,6 +58,8 @@ class IndexFactoryDefault extends IndexFactory {
             case LONG:              return (Index<K>)new IndexOfLongs((Iterable<Long>)keys);
             case DOUBLE:            return (Index<K>)new IndexOfDoubles((Iterable<Double>)keys);
             case STRING:            return (Index<K>)new IndexOfStrings((Iterable<String>)keys);
+            case SHORT:             return (Index<K>)new IndexWithIntCoding<>((Iterable<Short>)keys, shortCoding);
+            case BYTE:              return (Index<K>)new IndexWithIntCoding<>((Iterable<Byte>)keys, byteCoding);
             case YEAR:              return (Index<K>)new IndexWithIntCoding<>((Iterable<Year>)keys, yearCoding);
             case DATE:              return (Index<K>)new IndexWithLongCoding<>((Iterable<Date>)keys, dateCoding);
             case INSTANT:           return (Index<K>)new IndexWithLongCoding<>((Iterable<Instant>)keys, instantCoding);
@@ -76,6 +80,8 @@ class IndexFactoryDefault extends IndexFactory {
             case LONG:              return (Index<K>)new IndexOfLongs(initialSize);
             case DOUBLE:            return (Index<K>)new IndexOfDoubles(initialSize);
             case STRING:            return (Index<K>)new IndexOfStrings(initialSize);
+            case SHORT:             return (Index<K>)new IndexWithIntCoding<>((Class<Short>)keyType, shortCoding, initialSize);
+            case BYTE:              return (Index<K>)new IndexWithIntCoding<>((Class<Byte>)keyType, byteCoding, initialSize);
             case YEAR:              return (Index<K>)new IndexWithIntCoding<>((Class<Year>)keyType, yearCoding, initialSize);
             case DATE:              return (Index<K>)new IndexWithLongCoding<>((Class<Date>)keyType, dateCoding, initialSize);
             case INSTANT:           return (Index<K>)new IndexWithLongCoding<>((Class<Instant>)keyType, instantCoding, initialSize);
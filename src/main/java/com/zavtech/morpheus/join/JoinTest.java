@@ -370,8 +370,4 @@ public class JoinTest {
     public interface JoinPredicate<T> {
         boolean test(DataFrameRow<BigInteger, T> leftRow, DataFrameRow<BigInteger, T> rightRow);
     }
-
-    public enum JoinType {
-        INNER, LEFT_OUTER, RIGHT_OUTER, FULL_OUTER, CROSS
-    }
 }
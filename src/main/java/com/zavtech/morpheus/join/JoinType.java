@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.join;
+
+/**
+ * Defines the types of joins that can be performed between two DataFrames.
+ *
+ * <p>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public enum JoinType {
+
+    INNER,
+    LEFT_OUTER,
+    RIGHT_OUTER,
+    FULL_OUTER,
+    CROSS;
+
+    /**
+     * Returns true if unmatched rows from the left frame are included in the result
+     * @return  true if unmatched left rows are retained
+     */
+    public boolean isLeftPreserved() {
+        return this == LEFT_OUTER || this == FULL_OUTER;
+    }
+
+    /**
+     * Returns true if unmatched rows from the right frame are included in the result
+     * @return  true if unmatched right rows are retained
+     */
+    public boolean isRightPreserved() {
+        return this == RIGHT_OUTER || this == FULL_OUTER;
+    }
+
+    /**
+     * Returns true if this represents a CROSS join, which requires no join column
+     * @return  true if this is a CROSS join
+     */
+    public boolean isCross() {
+        return this == CROSS;
+    }
+
+}
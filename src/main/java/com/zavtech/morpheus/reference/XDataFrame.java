@@ -64,6 +64,7 @@ import com.zavtech.morpheus.frame.DataFrameWrite;
 import com.zavtech.morpheus.reference.algebra.XDataFrameAlgebra;
 import com.zavtech.morpheus.reference.regress.XDataFrameRegression;
 import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.join.JoinType;
 import com.zavtech.morpheus.stats.Sample;
 import com.zavtech.morpheus.stats.Stats;
 import com.zavtech.morpheus.util.Asserts;
@@ -892,6 +893,18 @@ class XDataFrame<R,C> implements DataFrame<R,C>, Serializable, Cloneable {
     }
 
 
+    @Override
+    public <X> DataFrame<Integer,C> join(DataFrame<X,C> right, JoinType type, C colKey) {
+        return join(right, type, colKey, colKey);
+    }
+
+
+    @Override
+    public <X> DataFrame<Integer,C> join(DataFrame<X,C> right, JoinType type, C leftColKey, C rightColKey) {
+        return new XDataFrameJoin<>(this, (XDataFrame<X,C>)right).apply(type, leftColKey, rightColKey);
+    }
+
+
     @Override()
     public Stream<DataFrameValue<R,C>> values() {
         final int valueCount = rowCount() * colCount();
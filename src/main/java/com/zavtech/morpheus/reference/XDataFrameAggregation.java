@@ -0,0 +1,662 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.frame.DataFrameOptions;
+import com.zavtech.morpheus.frame.DataFrameRow;
+import com.zavtech.morpheus.stats.StatType;
+import com.zavtech.morpheus.util.Tuple;
+
+/**
+ * A hash aggregation engine that computes per group statistics in a single pass over the rows of a DataFrame.
+ *
+ * <p>Rows are mapped to dense group ids via primitive hash tables, and values are accumulated into columnar
+ * per group accumulators, so no Tuple is created per row and no sub-frame is materialized per group. In parallel
+ * mode, the rows are split into partitions that are aggregated independently and merged pairwise, where groups
+ * from one partition are re-encoded against the other via the first row observed for each group.</p>
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class XDataFrameAggregation<R,C> {
+
+    private boolean parallel;
+    private XDataFrame<R,C> source;
+    private Array<C> groupColKeys;
+    private Function<DataFrameRow<R,C>,Tuple> function;
+
+    /**
+     * Constructor
+     * @param source        the source frame to aggregate
+     * @param parallel      true to aggregate partitions in parallel
+     * @param groupColKeys  the columns to group by, null if grouping by function
+     * @param function      the grouping function, null if grouping by columns
+     */
+    XDataFrameAggregation(XDataFrame<R,C> source, boolean parallel, Array<C> groupColKeys, Function<DataFrameRow<R,C>,Tuple> function) {
+        this.source = source;
+        this.parallel = parallel;
+        this.groupColKeys = groupColKeys;
+        this.function = function;
+    }
+
+
+    /**
+     * Returns a frame with one row per group, and one column per aggregated column of the source
+     * @param aggregator    the function that selects the statistic for each column, null to exclude the column
+     * @return              the frame of aggregated values keyed by group
+     */
+    final DataFrame<Tuple,C> apply(Function<C,StatType> aggregator) {
+        if (aggregator == null) {
+            throw new DataFrameException("The aggregator function cannot be null");
+        } else {
+            final List<C> colKeys = new ArrayList<>();
+            final List<StatType> statTypes = new ArrayList<>();
+            source.cols().keys().forEach(colKey -> {
+                if (groupColKeys == null || !contains(groupColKeys, colKey)) {
+                    final StatType statType = aggregator.apply(colKey);
+                    if (statType != null) {
+                        final ArrayType type = source.content().colArray(colKey).typeCode();
+                        if (!isSupported(statType)) {
+                            throw new DataFrameException("Unsupported aggregation statistic for column " + colKey + ": " + statType);
+                        } else if (!type.isNumeric() && statType != StatType.COUNT) {
+                            throw new DataFrameException("Only COUNT aggregation is supported for non-numeric column " + colKey);
+                        } else {
+                            colKeys.add(colKey);
+                            statTypes.add(statType);
+                        }
+                    }
+                }
+            });
+            final int rowCount = source.rowCount();
+            final Partition partition = aggregate(colKeys, statTypes, rowCount);
+            final int groupCount = partition.encoder.size();
+            final Array<Tuple> groupKeys = Array.of(Tuple.class, groupCount);
+            for (int i=0; i<groupCount; ++i) {
+                groupKeys.setValue(i, partition.encoder.getGroupKey(i));
+            }
+            return DataFrame.of(groupKeys, source.cols().keyType(), columns -> {
+                for (int i=0; i<colKeys.size(); ++i) {
+                    final Accumulator accumulator = partition.accumulators[i];
+                    final Array<Double> values = Array.of(Double.class, groupCount);
+                    for (int j=0; j<groupCount; ++j) {
+                        values.setDouble(j, accumulator.getValue(j));
+                    }
+                    columns.add(colKeys.get(i), values);
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Returns the aggregated partition over all rows of the source
+     * @param colKeys       the keys of columns to aggregate
+     * @param statTypes     the statistic for each column to aggregate
+     * @param rowCount      the row count of the source
+     * @return              the aggregated partition
+     */
+    private Partition aggregate(List<C> colKeys, List<StatType> statTypes, int rowCount) {
+        final int[] indexes = source.content().colArrayIndexes();
+        final List<Array<?>> arrays = new ArrayList<>(colKeys.size());
+        colKeys.forEach(colKey -> arrays.add(source.content().colArray(colKey)));
+        final AggregateTask task = new AggregateTask(0, rowCount - 1, indexes, arrays, statTypes);
+        if (rowCount == 0) {
+            return task.compute();
+        } else if (parallel) {
+            return ForkJoinPool.commonPool().invoke(task);
+        } else {
+            return task.compute();
+        }
+    }
+
+
+    /**
+     * Returns a newly created encoder to map rows to dense group ids
+     * @param indexes   the array index for each row ordinal
+     * @return          the newly created group encoder
+     */
+    private Encoder createEncoder(int[] indexes) {
+        if (groupColKeys != null) {
+            final KeyColumn[] keyColumns = new KeyColumn[groupColKeys.length()];
+            for (int i=0; i<keyColumns.length; ++i) {
+                final C colKey = groupColKeys.getValue(i);
+                if (!source.cols().contains(colKey)) {
+                    throw new DataFrameException("The group by column does not exist in frame: " + colKey);
+                } else {
+                    keyColumns[i] = new KeyColumn(source.content().colArray(colKey), indexes);
+                }
+            }
+            return new ColumnEncoder(keyColumns);
+        } else {
+            return new FunctionEncoder<>(new XDataFrameRow<>(source, false), function);
+        }
+    }
+
+
+    /**
+     * Returns true if the array contains the value specified
+     * @param array     the array to search
+     * @param value     the value to search for
+     * @return          true if the array contains value
+     */
+    private static <T> boolean contains(Array<T> array, T value) {
+        for (int i=0; i<array.length(); ++i) {
+            final T item = array.getValue(i);
+            if (item != null && item.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Returns true if the statistic type is supported by hash aggregation
+     * @param statType  the statistic type
+     * @return          true if supported
+     */
+    private static boolean isSupported(StatType statType) {
+        switch (statType) {
+            case COUNT:         return true;
+            case SUM:           return true;
+            case SUM_SQUARES:   return true;
+            case MEAN:          return true;
+            case MIN:           return true;
+            case MAX:           return true;
+            case VARIANCE:      return true;
+            case STD_DEV:       return true;
+            default:            return false;
+        }
+    }
+
+
+    /**
+     * The aggregated state for a contiguous range of rows
+     */
+    private class Partition {
+
+        private Encoder encoder;
+        private Accumulator[] accumulators;
+
+        /**
+         * Constructor
+         * @param encoder       the group encoder for partition
+         * @param accumulators  the accumulator for each aggregated column
+         */
+        Partition(Encoder encoder, Accumulator[] accumulators) {
+            this.encoder = encoder;
+            this.accumulators = accumulators;
+        }
+
+        /**
+         * Merges the groups of the other partition into this partition
+         * @param other the other partition to merge into this one
+         * @return      this partition
+         */
+        Partition merge(Partition other) {
+            final int count = other.encoder.size();
+            final int[] mapping = new int[count];
+            for (int i=0; i<count; ++i) {
+                final int ordinal = other.encoder.getFirstOrdinal(i);
+                mapping[i] = encoder.encode(ordinal);
+            }
+            for (int i=0; i<accumulators.length; ++i) {
+                this.accumulators[i].merge(other.accumulators[i], mapping, encoder.size());
+            }
+            return this;
+        }
+    }
+
+
+    /**
+     * A RecursiveTask that aggregates a range of rows, splitting into partitions in parallel mode
+     */
+    private class AggregateTask extends RecursiveTask<Partition> {
+
+        private int from;
+        private int to;
+        private int[] indexes;
+        private List<Array<?>> arrays;
+        private List<StatType> statTypes;
+
+        /**
+         * Constructor
+         * @param from      the from row ordinal, inclusive
+         * @param to        the to row ordinal, inclusive
+         * @param indexes   the array index for each row ordinal
+         * @param arrays    the arrays of columns to aggregate
+         * @param statTypes the statistic for each column to aggregate
+         */
+        AggregateTask(int from, int to, int[] indexes, List<Array<?>> arrays, List<StatType> statTypes) {
+            this.from = from;
+            this.to = to;
+            this.indexes = indexes;
+            this.arrays = arrays;
+            this.statTypes = statTypes;
+        }
+
+        @Override
+        protected Partition compute() {
+            final int count = to - from + 1;
+            final int threshold = parallel ? DataFrameOptions.getRowSplitThreshold(source) : Integer.MAX_VALUE;
+            if (count > threshold) {
+                final int splitCount = (to - from) / 2;
+                final int midPoint = from + splitCount;
+                final AggregateTask left = new AggregateTask(from, midPoint, indexes, arrays, statTypes);
+                final AggregateTask right = new AggregateTask(midPoint + 1, to, indexes, arrays, statTypes);
+                left.fork();
+                final Partition rightAns = right.compute();
+                final Partition leftAns = left.join();
+                return leftAns.merge(rightAns);
+            } else {
+                final Encoder encoder = createEncoder(indexes);
+                final Accumulator[] accumulators = new Accumulator[arrays.size()];
+                for (int i=0; i<accumulators.length; ++i) {
+                    accumulators[i] = new Accumulator(statTypes.get(i));
+                }
+                final int[] groupIds = new int[Math.max(0, count)];
+                for (int ordinal=from; ordinal<=to; ++ordinal) {
+                    groupIds[ordinal - from] = encoder.encode(ordinal);
+                }
+                final int groupCount = encoder.size();
+                for (int i=0; i<accumulators.length; ++i) {
+                    final Array<?> array = arrays.get(i);
+                    final Accumulator accumulator = accumulators[i];
+                    accumulator.ensureCapacity(groupCount);
+                    if (array.typeCode().isNumeric()) {
+                        for (int ordinal=from; ordinal<=to; ++ordinal) {
+                            final double value = array.getDouble(indexes[ordinal]);
+                            accumulator.add(groupIds[ordinal - from], value);
+                        }
+                    } else {
+                        for (int ordinal=from; ordinal<=to; ++ordinal) {
+                            final boolean isNull = array.isNull(indexes[ordinal]);
+                            accumulator.add(groupIds[ordinal - from], isNull ? Double.NaN : 1d);
+                        }
+                    }
+                }
+                return new Partition(encoder, accumulators);
+            }
+        }
+    }
+
+
+    /**
+     * An interface to a component that maps rows to dense group ids in order of first appearance
+     */
+    private interface Encoder {
+
+        /**
+         * Returns the number of distinct groups encoded so far
+         * @return  the number of groups
+         */
+        int size();
+
+        /**
+         * Returns the dense group id for the row ordinal, assigning a new id if the group is new
+         * @param ordinal   the row ordinal
+         * @return          the dense group id
+         */
+        int encode(int ordinal);
+
+        /**
+         * Returns the first row ordinal observed for the group
+         * @param groupId   the dense group id
+         * @return          the first row ordinal for group
+         */
+        int getFirstOrdinal(int groupId);
+
+        /**
+         * Returns the group key for the group id
+         * @param groupId   the dense group id
+         * @return          the group key
+         */
+        Tuple getGroupKey(int groupId);
+    }
+
+
+    /**
+     * A class that provides access to the values of a group by column and maps them to dense codes
+     */
+    private static class KeyColumn {
+
+        private Array<?> array;
+        private int[] indexes;
+        private boolean longs;
+        private boolean doubles;
+        private boolean ints;
+        private TLongIntHashMap longCodes;
+        private TObjectIntHashMap<Object> objectCodes;
+
+        /**
+         * Constructor
+         * @param array     the column array
+         * @param indexes   the array index for each row ordinal
+         */
+        KeyColumn(Array<?> array, int[] indexes) {
+            this.array = array;
+            this.indexes = indexes;
+            switch (array.typeCode()) {
+                case INTEGER:           this.longs = true; this.ints = true; break;
+                case LONG:              this.longs = true; break;
+                case DATE:              this.longs = true; break;
+                case INSTANT:           this.longs = true; break;
+                case LOCAL_DATE:        this.longs = true; break;
+                case LOCAL_TIME:        this.longs = true; break;
+                case LOCAL_DATETIME:    this.longs = true; break;
+                case DOUBLE:            this.doubles = true; break;
+                case FLOAT:             this.doubles = true; break;
+                case SHORT:             this.longs = true; this.ints = true; break;
+                case BYTE:              this.longs = true; this.ints = true; break;
+                default:                break;
+            }
+            if (longs || doubles) {
+                this.longCodes = new TLongIntHashMap(1000, 0.5f, -1L, -1);
+            } else {
+                this.objectCodes = new TObjectIntHashMap<>(1000, 0.5f, -1);
+            }
+        }
+
+        /**
+         * Returns the dense code for the value at the row ordinal, assigning a new code if the value is new
+         * @param ordinal   the row ordinal
+         * @return          the dense code for value
+         */
+        int code(int ordinal) {
+            final int index = indexes[ordinal];
+            if (longs || doubles) {
+                final long key = ints ? array.getInt(index) : longs ? array.getLong(index) : Double.doubleToLongBits(array.getDouble(index) + 0d);
+                final int code = longCodes.get(key);
+                if (code >= 0) {
+                    return code;
+                } else {
+                    final int newCode = longCodes.size();
+                    this.longCodes.put(key, newCode);
+                    return newCode;
+                }
+            } else {
+                final Object key = array.getValue(index);
+                final int code = objectCodes.get(key);
+                if (code >= 0) {
+                    return code;
+                } else {
+                    final int newCode = objectCodes.size();
+                    this.objectCodes.put(key, newCode);
+                    return newCode;
+                }
+            }
+        }
+
+        /**
+         * Returns the value at the row ordinal
+         * @param ordinal   the row ordinal
+         * @return          the value
+         */
+        Object getValue(int ordinal) {
+            return array.getValue(indexes[ordinal]);
+        }
+    }
+
+
+    /**
+     * An encoder that maps the values of one or more columns to dense group ids
+     */
+    private static class ColumnEncoder implements Encoder {
+
+        private KeyColumn[] columns;
+        private TLongIntHashMap[] levels;
+        private TIntArrayList firstOrdinals = new TIntArrayList();
+
+        /**
+         * Constructor
+         * @param columns   the group by columns
+         */
+        ColumnEncoder(KeyColumn[] columns) {
+            this.columns = columns;
+            this.levels = new TLongIntHashMap[columns.length];
+            for (int i=1; i<columns.length; ++i) {
+                this.levels[i] = new TLongIntHashMap(1000, 0.5f, -1L, -1);
+            }
+        }
+
+        @Override
+        public final int size() {
+            return firstOrdinals.size();
+        }
+
+        @Override
+        public final int encode(int ordinal) {
+            int id = columns[0].code(ordinal);
+            for (int i=1; i<columns.length; ++i) {
+                final long key = ((long)id << 32) | columns[i].code(ordinal);
+                final int code = levels[i].get(key);
+                if (code >= 0) {
+                    id = code;
+                } else {
+                    id = levels[i].size();
+                    this.levels[i].put(key, id);
+                }
+            }
+            if (id == firstOrdinals.size()) {
+                this.firstOrdinals.add(ordinal);
+            }
+            return id;
+        }
+
+        @Override
+        public final int getFirstOrdinal(int groupId) {
+            return firstOrdinals.get(groupId);
+        }
+
+        @Override
+        public final Tuple getGroupKey(int groupId) {
+            final int ordinal = firstOrdinals.get(groupId);
+            final Object[] values = new Object[columns.length];
+            for (int i=0; i<columns.length; ++i) {
+                values[i] = columns[i].getValue(ordinal);
+            }
+            return Tuple.of(values);
+        }
+    }
+
+
+    /**
+     * An encoder that maps the tuples generated by a user function to dense group ids
+     */
+    private static class FunctionEncoder<R,C> implements Encoder {
+
+        private XDataFrameRow<R,C> row;
+        private List<Tuple> groupKeys = new ArrayList<>();
+        private Function<DataFrameRow<R,C>,Tuple> function;
+        private TIntArrayList firstOrdinals = new TIntArrayList();
+        private TObjectIntHashMap<Tuple> codes = new TObjectIntHashMap<>(1000, 0.5f, -1);
+
+        /**
+         * Constructor
+         * @param row       the row cursor
+         * @param function  the grouping function
+         */
+        FunctionEncoder(XDataFrameRow<R,C> row, Function<DataFrameRow<R,C>,Tuple> function) {
+            this.row = row;
+            this.function = function;
+        }
+
+        @Override
+        public final int size() {
+            return firstOrdinals.size();
+        }
+
+        @Override
+        public final int encode(int ordinal) {
+            this.row.moveTo(ordinal);
+            final Tuple groupKey = function.apply(row);
+            final int code = codes.get(groupKey);
+            if (code >= 0) {
+                return code;
+            } else {
+                final int newCode = codes.size();
+                this.codes.put(groupKey, newCode);
+                this.groupKeys.add(groupKey);
+                this.firstOrdinals.add(ordinal);
+                return newCode;
+            }
+        }
+
+        @Override
+        public final int getFirstOrdinal(int groupId) {
+            return firstOrdinals.get(groupId);
+        }
+
+        @Override
+        public final Tuple getGroupKey(int groupId) {
+            return groupKeys.get(groupId);
+        }
+    }
+
+
+    /**
+     * A columnar accumulator that holds the running state of a statistic for each group id
+     */
+    private static class Accumulator {
+
+        private StatType type;
+        private long[] counts;
+        private double[] m1;
+        private double[] m2;
+
+        /**
+         * Constructor
+         * @param type  the statistic type
+         */
+        Accumulator(StatType type) {
+            this.type = type;
+            this.counts = new long[0];
+            this.m1 = new double[0];
+            this.m2 = new double[0];
+        }
+
+        /**
+         * Ensures this accumulator has state for at least the number of groups specified
+         * @param groupCount    the number of groups
+         */
+        void ensureCapacity(int groupCount) {
+            if (counts.length < groupCount) {
+                final int length = counts.length;
+                this.counts = Arrays.copyOf(counts, groupCount);
+                this.m1 = Arrays.copyOf(m1, groupCount);
+                this.m2 = Arrays.copyOf(m2, groupCount);
+                if (type == StatType.MIN) {
+                    Arrays.fill(m1, length, groupCount, Double.POSITIVE_INFINITY);
+                } else if (type == StatType.MAX) {
+                    Arrays.fill(m1, length, groupCount, Double.NEGATIVE_INFINITY);
+                }
+            }
+        }
+
+        /**
+         * Adds a value to the state of the group specified, ignoring NaN values
+         * @param groupId   the dense group id
+         * @param value     the value to add
+         */
+        void add(int groupId, double value) {
+            if (!Double.isNaN(value)) {
+                final long n = ++counts[groupId];
+                switch (type) {
+                    case COUNT:         break;
+                    case SUM:           m1[groupId] += value;                           break;
+                    case SUM_SQUARES:   m1[groupId] += value * value;                   break;
+                    case MIN:           m1[groupId] = Math.min(m1[groupId], value);     break;
+                    case MAX:           m1[groupId] = Math.max(m1[groupId], value);     break;
+                    default:
+                        final double dev = value - m1[groupId];
+                        final double nDev = dev / n;
+                        m1[groupId] += nDev;
+                        m2[groupId] += (n - 1d) * dev * nDev;
+                }
+            }
+        }
+
+        /**
+         * Merges the state of the other accumulator into this accumulator
+         * @param other         the other accumulator
+         * @param mapping       the group id in this accumulator for each group id in the other
+         * @param groupCount    the number of groups in this accumulator after the merge
+         */
+        void merge(Accumulator other, int[] mapping, int groupCount) {
+            this.ensureCapacity(groupCount);
+            for (int i=0; i<mapping.length; ++i) {
+                final int target = mapping[i];
+                final long n1 = counts[target];
+                final long n2 = other.counts[i];
+                if (n2 > 0) {
+                    final long n = n1 + n2;
+                    this.counts[target] = n;
+                    switch (type) {
+                        case COUNT:         break;
+                        case SUM:           m1[target] += other.m1[i];                          break;
+                        case SUM_SQUARES:   m1[target] += other.m1[i];                          break;
+                        case MIN:           m1[target] = Math.min(m1[target], other.m1[i]);     break;
+                        case MAX:           m1[target] = Math.max(m1[target], other.m1[i]);     break;
+                        default:
+                            final double delta = other.m1[i] - m1[target];
+                            m1[target] += delta * n2 / n;
+                            m2[target] += other.m2[i] + delta * delta * ((double)n1 * n2 / n);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the statistic value for the group specified
+         * @param groupId   the dense group id
+         * @return          the statistic value
+         */
+        double getValue(int groupId) {
+            final long n = counts[groupId];
+            switch (type) {
+                case COUNT:         return n;
+                case SUM:           return m1[groupId];
+                case SUM_SQUARES:   return m1[groupId];
+                case MEAN:          return n == 0 ? Double.NaN : m1[groupId];
+                case MIN:           return n == 0 ? Double.NaN : m1[groupId];
+                case MAX:           return n == 0 ? Double.NaN : m1[groupId];
+                case VARIANCE:      return n == 0 ? Double.NaN : n == 1 ? 0d : m2[groupId] / (n - 1d);
+                case STD_DEV:       return n == 0 ? Double.NaN : n == 1 ? 0d : Math.sqrt(m2[groupId] / (n - 1d));
+                default:    throw new DataFrameException("Unsupported aggregation statistic: " + type);
+            }
+        }
+    }
+
+}
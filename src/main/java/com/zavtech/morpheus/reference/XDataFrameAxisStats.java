@@ -18,6 +18,7 @@ package com.zavtech.morpheus.reference;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 
+import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAxisStats;
 import com.zavtech.morpheus.frame.DataFrameColumn;
@@ -121,23 +122,15 @@ class XDataFrameAxisStats<K,R,C,X,Y> extends XDataFrameStatsBase<X,Y> implements
 
 
     @Override
-    @SuppressWarnings("unchecked")
     public DataFrame<K,K> covariance() {
+        return covariance(false);
+    }
+
+
+    @Override
+    public DataFrame<K,K> covariance(boolean pairwise) {
         try {
-            final Statistic2 covariance = new Covariance();
-            if (isRow()) {
-                final Index<K> rowKeys = (Index<K>)Index.of(frame.rows().filter(DataFrameVector::isNumeric).keyArray());
-                final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(rowKeys, rowKeys);
-                final StatisticAction action = new BivariateRowStatistics(0, result.rows().count()-1, result, covariance);
-                if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
-                return result;
-            } else {
-                final Index<K> colKeys = (Index<K>)Index.of(frame.cols().filter(DataFrameVector::isNumeric).keyArray());
-                final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(colKeys, colKeys);
-                final StatisticAction action = new BivariateColumnStatistics(0, result.cols().count()-1, result, covariance);
-                if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
-                return result;
-            }
+            return gramMatrix(pairwise, false);
         } catch (Exception ex) {
             throw new DataFrameException("Failed to compute covariance matrix for DataFrame", ex);
         }
@@ -145,29 +138,166 @@ class XDataFrameAxisStats<K,R,C,X,Y> extends XDataFrameStatsBase<X,Y> implements
 
 
     @Override
-    @SuppressWarnings("unchecked")
     public DataFrame<K,K> correlation() {
+        return correlation(false);
+    }
+
+
+    @Override
+    public DataFrame<K,K> correlation(boolean pairwise) {
         try {
-            final Statistic2 correlation = new Correlation();
-            if (isRow()) {
-                final Index<K> rowKeys = (Index<K>)Index.of(frame.rows().filter(DataFrameVector::isNumeric).keyArray());
-                final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(rowKeys, rowKeys);
-                final StatisticAction action = new BivariateRowStatistics(0, result.rowCount()-1, result, correlation);
-                if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
-                return result;
-            } else {
-                final Index<K> colKeys = (Index<K>)Index.of(frame.cols().filter(DataFrameVector::isNumeric).keyArray());
-                final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(colKeys, colKeys);
-                final StatisticAction action = new BivariateColumnStatistics(0, result.colCount()-1, result, correlation);
-                if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
-                return result;
-            }
+            return gramMatrix(pairwise, true);
         } catch (Exception ex) {
             throw new DataFrameException("Failed to compute correlation matrix for DataFrame", ex);
         }
     }
 
 
+    /**
+     * Returns the covariance or correlation matrix of the numeric vectors in this axis
+     * <p>Each vector is copied and centered once, and the matrix of inner products between the centered
+     * vectors is computed in a single blocked pass. Vectors that contain NaN values are excluded from that
+     * pass, and their entries are either NaN, or computed over pairwise complete observations if requested.</p>
+     * @param pairwise      true to compute entries involving NaN values over pairwise complete observations
+     * @param normalize     true to normalize the covariances into correlations
+     * @return              the covariance or correlation matrix
+     */
+    @SuppressWarnings("unchecked")
+    private DataFrame<K,K> gramMatrix(boolean pairwise, boolean normalize) {
+        final Array<K> keys = isRow() ? (Array<K>)frame.rows().filter(DataFrameVector::isNumeric).keyArray() : (Array<K>)frame.cols().filter(DataFrameVector::isNumeric).keyArray();
+        final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(Index.of(keys), Index.of(keys));
+        final int count = keys.length();
+        final int length = isRow() ? frame.colCount() : frame.rowCount();
+        final double[][] vectors = new double[count][];
+        final boolean[] missing = new boolean[count];
+        final int[] complete = new int[count];
+        int completeCount = 0;
+        for (int i=0; i<count; ++i) {
+            vectors[i] = extract(keys.getValue(i), length);
+            missing[i] = !center(vectors[i]);
+            if (!missing[i]) {
+                complete[completeCount++] = i;
+            }
+        }
+        final double[][] blocks = new double[completeCount][];
+        final double[][] gram = new double[completeCount][completeCount];
+        for (int i=0; i<completeCount; ++i) {
+            blocks[i] = vectors[complete[i]];
+        }
+        final GramProduct action = new GramProduct(blocks, gram, 0, completeCount, isParallel() ? GramProduct.TILE : Integer.MAX_VALUE);
+        if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
+        for (int i=0; i<completeCount; ++i) {
+            for (int j=i; j<completeCount; ++j) {
+                final double value = normalize ? gram[i][j] / Math.sqrt(gram[i][i] * gram[j][j]) : gram[i][j] / (length - 1d);
+                result.data().setDouble(complete[i], complete[j], value);
+                result.data().setDouble(complete[j], complete[i], value);
+            }
+        }
+        for (int i=0; i<count; ++i) {
+            if (missing[i]) {
+                for (int j=0; j<count; ++j) {
+                    final double value = pairwise ? pairwise(vectors[i], vectors[j], normalize) : Double.NaN;
+                    result.data().setDouble(i, j, value);
+                    result.data().setDouble(j, i, value);
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns a copy of the values of the vector in this axis with the key specified
+     * @param key       the vector key
+     * @param length    the vector length
+     * @return          the copy of the vector values
+     */
+    @SuppressWarnings("unchecked")
+    private double[] extract(K key, int length) {
+        final double[] values = new double[length];
+        if (isRow()) {
+            final DataFrameRow<R,C> row = frame.rowAt((R)key);
+            for (int i=0; i<length; ++i) {
+                values[i] = row.getDouble(i);
+            }
+        } else {
+            final DataFrameColumn<R,C> column = frame.colAt((C)key);
+            for (int i=0; i<length; ++i) {
+                values[i] = column.getDouble(i);
+            }
+        }
+        return values;
+    }
+
+
+    /**
+     * Subtracts the mean from the values specified in place, unless any of the values are NaN
+     * @param values    the values to center
+     * @return          true if values were centered, false if they contain NaN and are left as is
+     */
+    private static boolean center(double[] values) {
+        final int length = values.length;
+        double sum = 0d;
+        for (double value : values) {
+            if (Double.isNaN(value)) {
+                return false;
+            } else {
+                sum += value;
+            }
+        }
+        final double mean = sum / length;
+        double correction = 0d;
+        for (double value : values) {
+            correction += value - mean;
+        }
+        final double adjusted = mean + correction / length;
+        for (int i=0; i<length; ++i) {
+            values[i] -= adjusted;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the covariance or correlation of two vectors over the observations where neither is NaN
+     * @param x             the first vector
+     * @param y             the second vector
+     * @param normalize     true to return correlation, false for covariance
+     * @return              the pairwise complete covariance or correlation
+     */
+    private static double pairwise(double[] x, double[] y, boolean normalize) {
+        int n = 0;
+        double sumX = 0d;
+        double sumY = 0d;
+        for (int i=0; i<x.length; ++i) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                sumX += x[i];
+                sumY += y[i];
+                n++;
+            }
+        }
+        if (n < 2) {
+            return Double.NaN;
+        } else {
+            final double meanX = sumX / n;
+            final double meanY = sumY / n;
+            double sxy = 0d;
+            double sxx = 0d;
+            double syy = 0d;
+            for (int i=0; i<x.length; ++i) {
+                if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                    final double dx = x[i] - meanX;
+                    final double dy = y[i] - meanY;
+                    sxy += dx * dy;
+                    sxx += dx * dx;
+                    syy += dy * dy;
+                }
+            }
+            return normalize ? sxy / Math.sqrt(sxx * syy) : sxy / (n - 1d);
+        }
+    }
+
+
     @Override
     @SuppressWarnings("unchecked")
     public double covariance(K key1, K key2) {
@@ -246,13 +376,221 @@ class XDataFrameAxisStats<K,R,C,X,Y> extends XDataFrameStatsBase<X,Y> implements
 
     @Override
     public DataFrame<R,C> ewmstd(int halfLife) {
-        return null;
+        return ewmVariance(halfLife, true);
     }
 
 
     @Override
     public DataFrame<R,C> ewmvar(int halfLife) {
-        return null;
+        return ewmVariance(halfLife, false);
+    }
+
+
+    @Override
+    public DataFrame<K,K> ewmcov(int halfLife) {
+        try {
+            return ewmMatrix(halfLife, false);
+        } catch (Exception ex) {
+            throw new DataFrameException("Failed to compute EWM covariance matrix for DataFrame", ex);
+        }
+    }
+
+
+    @Override
+    public DataFrame<K,K> ewmcorr(int halfLife) {
+        try {
+            return ewmMatrix(halfLife, true);
+        } catch (Exception ex) {
+            throw new DataFrameException("Failed to compute EWM correlation matrix for DataFrame", ex);
+        }
+    }
+
+
+    /**
+     * Returns the EWM variance or standard deviation of the numeric columns of the frame
+     * @param halfLife  the half-life for the EWM weights
+     * @param std       true for standard deviation, false for variance
+     * @return          the frame of EWM variance or standard deviation
+     */
+    private DataFrame<R,C> ewmVariance(int halfLife, boolean std) {
+        final Array<R> rowKeys = frame.rows().keyArray();
+        final Array<C> colKeys = frame.cols().filter(DataFrameVector::isNumeric).keyArray();
+        final XDataFrame<R,C> result = (XDataFrame<R,C>)DataFrame.ofDoubles(rowKeys, colKeys);
+        final int colCount = result.cols().count();
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new EwmVariance(result, 0, colCount-1, 2, halfLife, std));
+        } else {
+            new EwmVariance(result, 0, colCount-1, Integer.MAX_VALUE, halfLife, std).compute();
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the EWM covariance or correlation matrix of the numeric vectors in this axis, as at the last observation
+     * <p>With no missing values, every pair of vectors shares the same weights, and the EWM covariance between vectors i and j
+     * reduces to alpha.sum((1-alpha)^(n-t) d[t,i] d[t,j]), where d[t] is the deviation of observation t from the EWM mean at
+     * t-1. The deviations are computed in one forward pass per vector, scaled by the square root of their weight, and combined
+     * using the same blocked inner product kernel as covariance(). Vectors that contain NaN values are computed pairwise.</p>
+     * @param halfLife      the half-life for the EWM weights
+     * @param normalize     true to normalize the covariances into correlations
+     * @return              the EWM covariance or correlation matrix
+     */
+    @SuppressWarnings("unchecked")
+    private DataFrame<K,K> ewmMatrix(int halfLife, boolean normalize) {
+        final Array<K> keys = isRow() ? (Array<K>)frame.rows().filter(DataFrameVector::isNumeric).keyArray() : (Array<K>)frame.cols().filter(DataFrameVector::isNumeric).keyArray();
+        final XDataFrame<K,K> result = (XDataFrame<K,K>)DataFrame.ofDoubles(Index.of(keys), Index.of(keys));
+        final int count = keys.length();
+        final int length = isRow() ? frame.colCount() : frame.rowCount();
+        final double alpha = 1d - Math.exp(Math.log(0.5d) / halfLife);
+        final double decay = 1d - alpha;
+        final double[] scales = new double[length];
+        double sumOfSquaredWeights = 1d;
+        for (int t=length-1; t>=1; --t) {
+            scales[t] = t == length-1 ? Math.sqrt(alpha * decay) : scales[t+1] * Math.sqrt(decay);
+        }
+        for (int t=1; t<length; ++t) {
+            sumOfSquaredWeights = decay * decay * sumOfSquaredWeights + alpha * alpha;
+        }
+        final double factor = length > 1 ? 1d / (1d - sumOfSquaredWeights) : Double.NaN;
+        final double[][] vectors = new double[count][];
+        final double[][] deviations = new double[count][];
+        final boolean[] missing = new boolean[count];
+        final int[] complete = new int[count];
+        int completeCount = 0;
+        for (int i=0; i<count; ++i) {
+            vectors[i] = extract(keys.getValue(i), length);
+            deviations[i] = ewmDeviations(vectors[i], alpha, scales);
+            missing[i] = deviations[i] == null;
+            if (!missing[i]) {
+                complete[completeCount++] = i;
+            }
+        }
+        final double[][] blocks = new double[completeCount][];
+        final double[][] gram = new double[completeCount][completeCount];
+        for (int i=0; i<completeCount; ++i) {
+            blocks[i] = deviations[complete[i]];
+        }
+        final GramProduct action = new GramProduct(blocks, gram, 0, completeCount, isParallel() ? GramProduct.TILE : Integer.MAX_VALUE);
+        if (isParallel()) ForkJoinPool.commonPool().invoke(action); else action.compute();
+        for (int i=0; i<completeCount; ++i) {
+            for (int j=i; j<completeCount; ++j) {
+                final double value = normalize ? gram[i][j] / Math.sqrt(gram[i][i] * gram[j][j]) : gram[i][j] * factor;
+                result.data().setDouble(complete[i], complete[j], value);
+                result.data().setDouble(complete[j], complete[i], value);
+            }
+        }
+        for (int i=0; i<count; ++i) {
+            if (missing[i]) {
+                for (int j=0; j<count; ++j) {
+                    final double value = normalize ? ewmCorrelation(vectors[i], vectors[j], alpha) : ewmCovariance(vectors[i], vectors[j], alpha, null);
+                    result.data().setDouble(i, j, value);
+                    result.data().setDouble(j, i, value);
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the deviations of each observation from the EWM mean as at the prior observation, scaled by their weights
+     * @param values    the vector values
+     * @param alpha     the EWM weight
+     * @param scales    the square root of the weight of the deviation at each observation
+     * @return          the weighted deviations, or null if the values contain NaN
+     */
+    private static double[] ewmDeviations(double[] values, double alpha, double[] scales) {
+        final double[] result = new double[values.length];
+        double mean = values.length > 0 ? values[0] : Double.NaN;
+        for (int t=1; t<values.length; ++t) {
+            final double deviation = values[t] - mean;
+            if (Double.isNaN(deviation)) {
+                return null;
+            } else {
+                result[t] = deviation * scales[t];
+                mean += alpha * deviation;
+            }
+        }
+        return values.length > 0 && Double.isNaN(values[0]) ? null : result;
+    }
+
+
+    /**
+     * Returns the bias corrected EWM correlation between two vectors over the observations where neither is NaN
+     * @param x         the first vector
+     * @param y         the second vector
+     * @param alpha     the EWM weight
+     * @return          the EWM correlation as at the last observation
+     */
+    private static double ewmCorrelation(double[] x, double[] y, double alpha) {
+        final double[] maskedX = new double[x.length];
+        final double[] maskedY = new double[y.length];
+        for (int i=0; i<x.length; ++i) {
+            final boolean valid = !Double.isNaN(x[i]) && !Double.isNaN(y[i]);
+            maskedX[i] = valid ? x[i] : Double.NaN;
+            maskedY[i] = valid ? y[i] : Double.NaN;
+        }
+        final double covariance = ewmCovariance(maskedX, maskedY, alpha, null);
+        final double varianceX = ewmCovariance(maskedX, maskedX, alpha, null);
+        final double varianceY = ewmCovariance(maskedY, maskedY, alpha, null);
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+
+
+    /**
+     * Computes the bias corrected EWM covariance of two vectors in a single forward pass
+     * <p>The weights are consistent with ewma(), where each new observation has weight alpha and prior weights decay by
+     * 1 - alpha. Observations where either value is NaN are skipped, although prior weights still decay through them.
+     * The bias correction scales the weighted covariance by (sum w)^2 / ((sum w)^2 - sum w^2), so the first value is NaN.</p>
+     * @param x         the first vector
+     * @param y         the second vector
+     * @param alpha     the EWM weight
+     * @param output    the array to receive the covariance as at each observation, which may be null
+     * @return          the covariance as at the last observation
+     */
+    private static double ewmCovariance(double[] x, double[] y, double alpha, double[] output) {
+        final double decay = 1d - alpha;
+        boolean started = false;
+        double meanX = Double.NaN;
+        double meanY = Double.NaN;
+        double covariance = 0d;
+        double oldWeight = 1d;
+        double sumOfWeights = 1d;
+        double sumOfSquaredWeights = 1d;
+        double value = Double.NaN;
+        for (int i=0; i<x.length; ++i) {
+            final boolean valid = !Double.isNaN(x[i]) && !Double.isNaN(y[i]);
+            if (started) {
+                oldWeight *= decay;
+                sumOfWeights *= decay;
+                sumOfSquaredWeights *= decay * decay;
+                if (valid) {
+                    final double total = oldWeight + alpha;
+                    final double priorMeanX = meanX;
+                    final double priorMeanY = meanY;
+                    meanX = (oldWeight * priorMeanX + alpha * x[i]) / total;
+                    meanY = (oldWeight * priorMeanY + alpha * y[i]) / total;
+                    covariance = (oldWeight * (covariance + (priorMeanX - meanX) * (priorMeanY - meanY)) + alpha * (x[i] - meanX) * (y[i] - meanY)) / total;
+                    sumOfWeights = (sumOfWeights + alpha) / total;
+                    sumOfSquaredWeights = (sumOfSquaredWeights + alpha * alpha) / (total * total);
+                    oldWeight = 1d;
+                }
+            } else if (valid) {
+                started = true;
+                meanX = x[i];
+                meanY = y[i];
+            }
+            if (started) {
+                final double numerator = sumOfWeights * sumOfWeights;
+                final double denominator = numerator - sumOfSquaredWeights;
+                value = denominator > 0d ? covariance * numerator / denominator : Double.NaN;
+            }
+            if (output != null) {
+                output[i] = value;
+            }
+        }
+        return value;
     }
 
     @Override
@@ -421,122 +759,131 @@ class XDataFrameAxisStats<K,R,C,X,Y> extends XDataFrameStatsBase<X,Y> implements
 
 
     /**
-     * A Callable to compute a bi-variate statistic based on row vectors of a DataFrame
+     * RecursiveAction used to compute the EWM variance or standard deviation for columns in the DataFrame
      */
-    private class BivariateRowStatistics extends StatisticAction {
+    private class EwmVariance extends RecursiveAction {
 
         private int from;
         private int to;
-        private XDataFrame<K,K> result;
-        private Statistic2 statistic;
+        private int threshold;
+        private boolean std;
+        private double halfLife;
+        private XDataFrame<R,C> result;
 
         /**
          * Constructor
-         * @param from      the from column index
-         * @param to        the to column index
-         * @param result    the result frame to write to
-         * @param statistic the statistic
+         * @param result    the frame to apply results to
+         * @param from      the from index
+         * @param to        the to index
+         * @param threshold the threshold for split
+         * @param halfLife  the half-life for the EWM weights
+         * @param std       true for standard deviation, false for variance
          */
-        private BivariateRowStatistics(int from, int to, XDataFrame<K,K> result, Statistic2 statistic) {
+        EwmVariance(XDataFrame<R,C> result, int from, int to, int threshold, double halfLife, boolean std) {
+            this.result = result;
             this.from = from;
             this.to = to;
-            this.result = result;
-            this.statistic = statistic.copy();
+            this.threshold = threshold;
+            this.halfLife = halfLife;
+            this.std = std;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public void compute() {
-            final int count = to - from + 1;
-            final int threshold = isParallel() ? DataFrameOptions.getRowSplitThreshold(frame) : Integer.MAX_VALUE;
-            if (count <= threshold) {
-                final int rowCount = result.rowCount();
-                final int colCount = frame.colCount();
-                final XDataFrameRow<R,C> row1 = new XDataFrameRow<>(frame, false);
-                final XDataFrameRow<R,C> row2 = new XDataFrameRow<>(frame, false);
-                for (int rowIndex1 = from; rowIndex1 <= to; ++rowIndex1) {
-                    row1.moveTo((R)result.rows().key(rowIndex1));
-                    for (int rowIndex2 = 0; rowIndex2 < rowCount; ++rowIndex2) {
-                        row2.moveTo((R)result.rows().key(rowIndex2));
-                        if (row1.isNumeric() && row2.isNumeric()) {
-                            this.statistic.reset();
-                            for (int colIndex = 0; colIndex < colCount; ++colIndex) {
-                                final double v1 = row1.getDouble(colIndex);
-                                final double v2 = row2.getDouble(colIndex);
-                                this.statistic.add(v1, v2);
-                            }
-                            final double statValue = statistic.getValue();
-                            this.result.data().setDouble(rowIndex1, rowIndex2, statValue);
-                        }
+        protected void compute() {
+            final int remainder = to - from + 1;
+            if (remainder <= threshold) {
+                final int rowCount = result.rows().count();
+                final double alpha = 1d - Math.exp(Math.log(0.5d) / halfLife);
+                final double[] values = new double[rowCount];
+                final double[] output = new double[rowCount];
+                for (int colOrdinal=from; colOrdinal<=to; ++colOrdinal) {
+                    final DataFrameColumn<R,C> source = frame.colAt(result.cols().key(colOrdinal));
+                    for (int rowOrdinal=0; rowOrdinal<rowCount; ++rowOrdinal) {
+                        values[rowOrdinal] = source.getDouble(rowOrdinal);
+                    }
+                    ewmCovariance(values, values, alpha, output);
+                    final DataFrameCursor<R,C> target = result.cursor().moveTo(0, colOrdinal);
+                    for (int rowOrdinal=0; rowOrdinal<rowCount; ++rowOrdinal) {
+                        final double variance = output[rowOrdinal];
+                        target.moveToRow(rowOrdinal).setDouble(std ? Math.sqrt(variance) : variance);
                     }
                 }
             } else {
                 final int splitCount = (to - from) / 2;
                 final int midPoint = from + splitCount;
                 invokeAll(
-                    new BivariateRowStatistics(from, midPoint, result, statistic),
-                    new BivariateRowStatistics(midPoint+1, to, result, statistic)
+                    new EwmVariance(result, from, midPoint, threshold, halfLife, std),
+                    new EwmVariance(result, midPoint+1, to, threshold, halfLife, std)
                 );
             }
         }
     }
 
+
     /**
-     * A Callable to compute a bi-variate statistic based on column vectors of a DataFrame
+     * A RecursiveAction to compute the upper triangle of the matrix of inner products between vectors
+     * <p>The vectors are processed in square tiles, and the observations in blocks, so that the slices of the
+     * vectors being combined stay in cache. Each entry still accumulates its products in observation order.</p>
      */
-    private class BivariateColumnStatistics extends StatisticAction {
+    private static class GramProduct extends RecursiveAction {
+
+        private static final int TILE = 32;
+        private static final int ROW_BLOCK = 512;
 
         private int from;
         private int to;
-        private XDataFrame<K,K> result;
-        private Statistic2 statistic;
+        private int threshold;
+        private double[][] vectors;
+        private double[][] gram;
 
         /**
          * Constructor
-         * @param from      the from column index
-         * @param to        the to column index
-         * @param result    the result frame to write to
-         * @param statistic the statistic
+         * @param vectors   the vectors, all of the same length
+         * @param gram      the matrix to write the inner products to
+         * @param from      the first vector index, inclusive
+         * @param to        the last vector index, exclusive
+         * @param threshold the number of vectors below which to compute sequentially
          */
-        private BivariateColumnStatistics(int from, int to, XDataFrame<K, K> result, Statistic2 statistic) {
+        private GramProduct(double[][] vectors, double[][] gram, int from, int to, int threshold) {
+            this.vectors = vectors;
+            this.gram = gram;
             this.from = from;
             this.to = to;
-            this.result = result;
-            this.statistic = statistic.copy();
+            this.threshold = threshold;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public void compute() {
-            final int count = to - from + 1;
-            final int threshold = isParallel() ? DataFrameOptions.getColumnSplitThreshold(frame) : Integer.MAX_VALUE;
+        protected void compute() {
+            final int count = to - from;
             if (count <= threshold) {
-                final int rowCount = frame.rowCount();
-                final int colCount = result.colCount();
-                final XDataFrameColumn<R,C> column1 = new XDataFrameColumn<>(frame, false);
-                final XDataFrameColumn<R,C> column2 = new XDataFrameColumn<>(frame, false);
-                for (int colIndex1 = from; colIndex1 <= to; ++colIndex1) {
-                    column1.moveTo((C)result.cols().key(colIndex1));
-                    for (int colIndex2 = 0; colIndex2 < colCount; ++ colIndex2) {
-                        column2.moveTo((C)result.cols().key(colIndex2));
-                        if (column1.isNumeric() && column2.isNumeric()) {
-                            this.statistic.reset();
-                            for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
-                                final double v1 = column1.getDouble(rowIndex);
-                                final double v2 = column2.getDouble(rowIndex);
-                                this.statistic.add(v1, v2);
+                final int vectorCount = vectors.length;
+                final int length = vectorCount > 0 ? vectors[0].length : 0;
+                for (int i0 = from; i0 < to; i0 += TILE) {
+                    final int i1 = Math.min(i0 + TILE, to);
+                    for (int j0 = i0; j0 < vectorCount; j0 += TILE) {
+                        final int j1 = Math.min(j0 + TILE, vectorCount);
+                        for (int k0 = 0; k0 < length; k0 += ROW_BLOCK) {
+                            final int k1 = Math.min(k0 + ROW_BLOCK, length);
+                            for (int i = i0; i < i1; ++i) {
+                                final double[] x = vectors[i];
+                                final double[] row = gram[i];
+                                for (int j = Math.max(i, j0); j < j1; ++j) {
+                                    final double[] y = vectors[j];
+                                    double sum = row[j];
+                                    for (int k = k0; k < k1; ++k) {
+                                        sum += x[k] * y[k];
+                                    }
+                                    row[j] = sum;
+                                }
                             }
-                            final double statValue = statistic.getValue();
-                            this.result.data().setDouble(colIndex1, colIndex2, statValue);
                         }
                     }
                 }
             } else {
-                final int splitCount = (to - from) / 2;
-                final int midPoint = from + splitCount;
+                final int midPoint = from + count / 2;
                 invokeAll(
-                    new BivariateColumnStatistics(from, midPoint, result, statistic),
-                    new BivariateColumnStatistics(midPoint+1, to, result, statistic)
+                    new GramProduct(vectors, gram, from, midPoint, threshold),
+                    new GramProduct(vectors, gram, midPoint, to, threshold)
                 );
             }
         }
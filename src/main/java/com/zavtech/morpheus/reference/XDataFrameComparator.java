@@ -95,6 +95,9 @@ abstract class XDataFrameComparator implements IntComparator {
             case INTEGER:           return createIntegerComparator(array, multiplier);
             case LONG:              return createLongComparator(array, multiplier);
             case DOUBLE:            return createDoubleComparator(array, multiplier);
+            case FLOAT:             return createDoubleComparator(array, multiplier);
+            case SHORT:             return createIntegerComparator(array, multiplier);
+            case BYTE:              return createIntegerComparator(array, multiplier);
             case DATE:              return createLongComparator(array, multiplier);
             case INSTANT:           return createLongComparator(array, multiplier);
             case LOCAL_DATE:        return createLongComparator(array, multiplier);
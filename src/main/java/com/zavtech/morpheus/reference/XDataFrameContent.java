@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
@@ -40,6 +41,7 @@ import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameColumn;
 import com.zavtech.morpheus.frame.DataFrameContent;
 import com.zavtech.morpheus.frame.DataFrameCursor;
+import com.zavtech.morpheus.frame.DataFrameDensity;
 import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameOptions;
 import com.zavtech.morpheus.frame.DataFrameRow;
@@ -68,6 +70,7 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
     private Index<C> colKeys;
     private boolean columnStore;
     private List<Array<?>> data;
+    private transient DataFrameDensity densityPolicy;
 
 
     /**
@@ -126,7 +129,7 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
      * Returns true if data is stored in columns, false if row store
      * @return  true if data is stored as columns
      */
-    private boolean isColumnStore() {
+    final boolean isColumnStore() {
         return columnStore;
     }
 
@@ -358,7 +361,7 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
                 final Array<T> array = ArrayUtils.toArray(values);
                 final int rowCapacity = rowCapacity();
                 array.expand(rowCapacity);
-                this.data.add(array);
+                this.data.add(densityPolicy != null ? densityPolicy.apply(array, rowKeys.size()) : array);
             }
             return added;
         }
@@ -621,6 +624,25 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
     }
 
 
+    /**
+     * Returns the array index of each row ordinal for arrays returned by colArray(), for internal use only
+     * @return      the array indexes in row ordinal order
+     */
+    final int[] colArrayIndexes() {
+        return columnStore ? rowKeys.indexes().toArray() : IntStream.range(0, rowKeys.size()).toArray();
+    }
+
+
+    /**
+     * Returns column data as an array for internal use only, to be addressed via colArrayIndexes()
+     * @param colKey    the column key
+     * @return          the array of column data, which may be shared with this content
+     */
+    final Array<?> colArray(C colKey) {
+        return getColArray(colKey);
+    }
+
+
     /**
      * Returns column data as an array for internal use only
      * @param colKey    the column key
@@ -655,7 +677,11 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
      * @return  a deep copy of this contents
      */
     final XDataFrameContent<R,C> copy() {
-        return isColumnStore() ? copyColumnStore() : copyRowStore();
+        final XDataFrameContent<R,C> copy = isColumnStore() ? copyColumnStore() : copyRowStore();
+        if (densityPolicy != null) {
+            copy.densityPolicy(densityPolicy);
+        }
+        return copy;
     }
 
 
@@ -757,6 +783,55 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
     }
 
 
+    @Override
+    public final double density(C colKey) {
+        final int rowCount = rowKeys.size();
+        if (rowCount == 0) {
+            return 0d;
+        } else if (!isColumnStore()) {
+            return DataFrameDensity.measure(colArray(colKey));
+        } else if (rowKeys.isFilter()) {
+            final int[] indexes = rowKeys.indexes().toArray();
+            return DataFrameDensity.measure(colArray(colKey).copy(indexes));
+        } else {
+            return DataFrameDensity.measure(colArray(colKey), rowCount);
+        }
+    }
+
+
+    @Override
+    public final Optional<DataFrameDensity> densityPolicy() {
+        return Optional.ofNullable(densityPolicy);
+    }
+
+
+    @Override
+    public final int densityPolicy(DataFrameDensity policy) {
+        this.densityPolicy = policy;
+        return applyDensityPolicy();
+    }
+
+
+    @Override
+    public final int applyDensityPolicy() {
+        if (densityPolicy == null || !isColumnStore() || rowKeys.isFilter() || colKeys.isFilter()) {
+            return 0;
+        } else {
+            int count = 0;
+            final int rowCount = rowKeys.size();
+            for (int i=0; i<data.size(); ++i) {
+                final Array<?> array = data.get(i);
+                final Array<?> result = densityPolicy.apply(array, rowCount);
+                if (result != array) {
+                    this.data.set(i, result);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+
     @Override
     public final boolean getBoolean(R rowKey, int colOrdinal) {
         try {
@@ -1650,7 +1725,7 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
 
         @Override
         public final boolean isNumeric() {
-            return isInteger() || isLong() || isDouble();
+            return array.typeCode().isNumeric();
         }
 
         @Override
@@ -1672,10 +1747,16 @@ class XDataFrameContent<R,C> implements DataFrameContent<R,C>, Serializable, Clo
                 switch (array.typeCode()) {
                     case INTEGER:   return ((Number)value).intValue() == getInt();
                     case LONG:      return ((Number)value).longValue() == getLong();
+                    case SHORT:     return ((Number)value).intValue() == getInt();
+                    case BYTE:      return ((Number)value).intValue() == getInt();
                     case DOUBLE:
                         final double value1 = getDouble();
                         final double value2 = ((Number)value).doubleValue();
                         return Double.compare(value1, value2) == 0;
+                    case FLOAT:
+                        final float float1 = (float)getDouble();
+                        final float float2 = ((Number)value).floatValue();
+                        return Float.compare(float1, float2) == 0;
                 }
             }
             final Object thisValue = getValue();
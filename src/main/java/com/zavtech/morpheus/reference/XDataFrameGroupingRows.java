@@ -34,6 +34,7 @@ import com.zavtech.morpheus.frame.DataFrameOptions;
 import com.zavtech.morpheus.frame.DataFrameRow;
 import com.zavtech.morpheus.frame.DataFrameVector;
 import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.stats.StatType;
 import com.zavtech.morpheus.stats.Statistic1;
 import com.zavtech.morpheus.stats.Stats;
 import com.zavtech.morpheus.stats.StatsAssembler;
@@ -52,19 +53,25 @@ import com.zavtech.morpheus.util.Tuple;
 class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
 
     private int depth;
+    private boolean parallel;
+    private Array<C> colKeys;
     private XDataFrame<R,C> source;
     private Map<Tuple,Array<R>> groupKeysMap;
+    private Function<DataFrameRow<R,C>,Tuple> function;
 
     /**
      * Constructor
      * @param source        the source frame for groups
-     * @param depth         the grouping depth
-     * @param groupKeysMap  the apply of keys for each group
+     * @param parallel      true for parallel grouping
+     * @param colKeys       the column keys to group by, null if grouping by function only
+     * @param function      the grouping function
      */
-    private XDataFrameGroupingRows(XDataFrame<R,C> source, int depth, Map<Tuple,Array<R>> groupKeysMap) {
+    private XDataFrameGroupingRows(XDataFrame<R,C> source, boolean parallel, Array<C> colKeys, Function<DataFrameRow<R,C>,Tuple> function) {
         this.source = source;
-        this.depth = depth;
-        this.groupKeysMap = groupKeysMap;
+        this.parallel = parallel;
+        this.colKeys = colKeys;
+        this.function = function;
+        this.depth = source.rows().first().map(function).map(Tuple::size).orElse(0);
     }
 
 
@@ -81,10 +88,10 @@ class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
         if (colKeys.length() == 1) {
             final C colKey = colKeys.getValue(0);
             final int ordinal = source.colKeys().getOrdinalForKey(colKey);
-            return XDataFrameGroupingRows.of(source, parallel, row -> Tuple.of(row.<Object>getValue(ordinal)));
+            return new XDataFrameGroupingRows<>(source, parallel, colKeys, row -> Tuple.of(row.<Object>getValue(ordinal)));
         } else {
             final int[] ordinals = source.colKeys().ordinals(colKeys).toArray();
-            return XDataFrameGroupingRows.of(source, parallel, row -> {
+            return new XDataFrameGroupingRows<>(source, parallel, colKeys, row -> {
                 final Object[] values = new Object[colKeys.length()];
                 for (int i=0; i<ordinals.length; ++i) {
                     values[i] = row.getValue(ordinals[i]);
@@ -103,15 +110,26 @@ class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
      * @return          the newly create grouping engine
      */
     static <R,C> XDataFrameGroupingRows<R,C> of(XDataFrame<R,C> source, boolean parallel, Function<DataFrameRow<R,C>,Tuple> function) {
-        final int depth = source.rows().first().map(function).map(Tuple::size).orElse(0);
-        final GroupRowsTask<R,C> task = new GroupRowsTask<>(source, 0, source.rowCount()-1, depth, parallel, function);
-        if (parallel) {
-            final Map<Tuple,ArrayBuilder<R>> groupKeyMap = ForkJoinPool.commonPool().invoke(task);
-            return new XDataFrameGroupingRows<>(source, depth, crystallize(groupKeyMap));
-        } else {
-            final Map<Tuple,ArrayBuilder<R>> groupKeyMap = task.compute();
-            return new XDataFrameGroupingRows<>(source, depth, crystallize(groupKeyMap));
+        return new XDataFrameGroupingRows<>(source, parallel, null, function);
+    }
+
+
+    /**
+     * Returns the map of row keys for each group, which is computed on first access
+     * @return      the map of row keys for each group
+     */
+    private synchronized Map<Tuple,Array<R>> groupKeysMap() {
+        if (groupKeysMap == null) {
+            final GroupRowsTask<R,C> task = new GroupRowsTask<>(source, 0, source.rowCount()-1, depth, parallel, function);
+            if (parallel) {
+                final Map<Tuple,ArrayBuilder<R>> groupKeyMap = ForkJoinPool.commonPool().invoke(task);
+                this.groupKeysMap = crystallize(groupKeyMap);
+            } else {
+                final Map<Tuple,ArrayBuilder<R>> groupKeyMap = task.compute();
+                this.groupKeysMap = crystallize(groupKeyMap);
+            }
         }
+        return groupKeysMap;
     }
 
 
@@ -130,14 +148,19 @@ class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
         return new GroupedRowStats(level);
     }
 
+    @Override
+    public final DataFrame<Tuple,C> aggregate(Function<C,StatType> aggregator) {
+        return new XDataFrameAggregation<>(source, parallel, colKeys, function).apply(aggregator);
+    }
+
     @Override
     public final int getGroupCount(int level) {
-        return (int)groupKeysMap.keySet().stream().filter(g -> g.size() == level + 1).count();
+        return (int)groupKeysMap().keySet().stream().filter(g -> g.size() == level + 1).count();
     }
 
     @Override
     public final Stream<Tuple> getGroupKeys(int level) {
-        return groupKeysMap.keySet().stream().filter(g -> g.size() == level + 1);
+        return groupKeysMap().keySet().stream().filter(g -> g.size() == level + 1);
     }
 
     @Override
@@ -147,13 +170,13 @@ class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
 
     @Override
     public final Stream<Tuple> getChildren(Tuple groupKey) {
-        return groupKeysMap.keySet().stream().filter(g -> g.size() == groupKey.size() + 1 && g.filter(0, groupKey.size()).equals(groupKey));
+        return groupKeysMap().keySet().stream().filter(g -> g.size() == groupKey.size() + 1 && g.filter(0, groupKey.size()).equals(groupKey));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public final DataFrame<R,C> getGroup(Tuple groupKey) {
-        final Array<R> groupKeys = groupKeysMap.get(groupKey);
+        final Array<R> groupKeys = groupKeysMap().get(groupKey);
         if (groupKeys == null) {
             throw new DataFrameException("No DataFrame for group " + groupKey);
         } else {
@@ -165,7 +188,7 @@ class XDataFrameGroupingRows<R,C> implements DataFrameGrouping.Rows<R,C> {
 
     @Override
     public boolean hasGroup(Tuple groupKey) {
-        return groupKeysMap.containsKey(groupKey);
+        return groupKeysMap().containsKey(groupKey);
     }
 
     @Override
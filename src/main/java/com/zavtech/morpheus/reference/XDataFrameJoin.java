@@ -0,0 +1,485 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.join.JoinType;
+import com.zavtech.morpheus.range.Range;
+
+/**
+ * A class that joins two DataFrames using a hash join, where a hash table is built on the smaller of the two frames
+ * and probed with the rows of the larger frame. The join first resolves the matching row ordinal pairs, and then
+ * gathers each column of the result in bulk into arrays pre-sized to the final row count.
+ *
+ * @param <L>   the row key type of the left frame
+ * @param <R>   the row key type of the right frame
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class XDataFrameJoin<L,R,C> {
+
+    private XDataFrame<L,C> left;
+    private XDataFrame<R,C> right;
+
+    /**
+     * The modes in which join keys are compared
+     */
+    private enum KeyMode {
+        LONG,
+        DOUBLE,
+        OBJECT
+    }
+
+    /**
+     * Constructor
+     * @param left      the left frame
+     * @param right     the right frame
+     */
+    XDataFrameJoin(XDataFrame<L,C> left, XDataFrame<R,C> right) {
+        this.left = left;
+        this.right = right;
+    }
+
+
+    /**
+     * Returns the joined frame for the join type and columns specified
+     * @param type          the join type
+     * @param leftColKey    the join column key in the left frame, ignored for CROSS joins
+     * @param rightColKey   the join column key in the right frame, ignored for CROSS joins
+     * @return              the newly created joined frame
+     */
+    final DataFrame<Integer,C> apply(JoinType type, C leftColKey, C rightColKey) {
+        if (type == null) {
+            throw new DataFrameException("The join type cannot be null");
+        } else if (type.isCross()) {
+            final Pairs pairs = cross();
+            return combine(pairs, null, null);
+        } else if (!left.cols().contains(leftColKey)) {
+            throw new DataFrameException("The join column does not exist in left frame: " + leftColKey);
+        } else if (!right.cols().contains(rightColKey)) {
+            throw new DataFrameException("The join column does not exist in right frame: " + rightColKey);
+        } else {
+            final Pairs pairs = hash(type, leftColKey, rightColKey);
+            return combine(pairs, leftColKey, rightColKey);
+        }
+    }
+
+
+    /**
+     * Returns the row ordinal pairs for a CROSS join of the two frames
+     * @return  the row ordinal pairs
+     */
+    private Pairs cross() {
+        final int leftCount = left.rowCount();
+        final int rightCount = right.rowCount();
+        final long count = (long)leftCount * (long)rightCount;
+        if (count > Integer.MAX_VALUE) {
+            throw new DataFrameException("The CROSS join result is too large: " + leftCount + " x " + rightCount);
+        } else {
+            final Pairs pairs = new Pairs((int)count);
+            for (int i=0; i<leftCount; ++i) {
+                for (int j=0; j<rightCount; ++j) {
+                    pairs.add(i, j);
+                }
+            }
+            return pairs;
+        }
+    }
+
+
+    /**
+     * Returns the row ordinal pairs resolved by hash join on the columns specified
+     * @param type          the join type
+     * @param leftColKey    the join column key in the left frame
+     * @param rightColKey   the join column key in the right frame
+     * @return              the row ordinal pairs
+     */
+    private Pairs hash(JoinType type, C leftColKey, C rightColKey) {
+        final Array<?> leftArray = left.content().colArray(leftColKey);
+        final Array<?> rightArray = right.content().colArray(rightColKey);
+        final KeyMode mode = mode(leftArray.typeCode(), rightArray.typeCode());
+        final Keys leftKeys = new Keys(leftArray, left.content().colArrayIndexes(), mode);
+        final Keys rightKeys = new Keys(rightArray, right.content().colArrayIndexes(), mode);
+        final boolean buildLeft = left.rowCount() < right.rowCount();
+        final Keys buildKeys = buildLeft ? leftKeys : rightKeys;
+        final Keys probeKeys = buildLeft ? rightKeys : leftKeys;
+        final boolean buildPreserved = buildLeft ? type.isLeftPreserved() : type.isRightPreserved();
+        final boolean probePreserved = buildLeft ? type.isRightPreserved() : type.isLeftPreserved();
+        final HashTable table = new HashTable(buildKeys);
+        final boolean[] matched = buildPreserved ? new boolean[buildKeys.size()] : null;
+        final Pairs pairs = new Pairs(Math.max(leftKeys.size(), rightKeys.size()));
+        for (int probe=0; probe<probeKeys.size(); ++probe) {
+            int build = table.first(probeKeys, probe);
+            if (build < 0 && probePreserved) {
+                pairs.add(buildLeft ? -1 : probe, buildLeft ? probe : -1);
+            }
+            while (build >= 0) {
+                pairs.add(buildLeft ? build : probe, buildLeft ? probe : build);
+                if (matched != null) {
+                    matched[build] = true;
+                }
+                build = table.next(build);
+            }
+        }
+        if (matched != null) {
+            for (int build=0; build<matched.length; ++build) {
+                if (!matched[build]) {
+                    pairs.add(buildLeft ? build : -1, buildLeft ? -1 : build);
+                }
+            }
+        }
+        return pairs;
+    }
+
+
+    /**
+     * Returns the mode in which to compare keys given the types of the two join columns
+     * @param leftType      the type of the left join column
+     * @param rightType     the type of the right join column
+     * @return              the mode to compare keys
+     */
+    private static KeyMode mode(ArrayType leftType, ArrayType rightType) {
+        if (leftType == rightType) {
+            switch (leftType) {
+                case INTEGER:           return KeyMode.LONG;
+                case LONG:              return KeyMode.LONG;
+                case DOUBLE:            return KeyMode.DOUBLE;
+                case FLOAT:             return KeyMode.DOUBLE;
+                case SHORT:             return KeyMode.LONG;
+                case BYTE:              return KeyMode.LONG;
+                case DATE:              return KeyMode.LONG;
+                case INSTANT:           return KeyMode.LONG;
+                case LOCAL_DATE:        return KeyMode.LONG;
+                case LOCAL_TIME:        return KeyMode.LONG;
+                case LOCAL_DATETIME:    return KeyMode.LONG;
+                default:                return KeyMode.OBJECT;
+            }
+        } else if (leftType.isNumeric() && rightType.isNumeric()) {
+            final boolean decimal = leftType.isDouble() || leftType.isFloat() || rightType.isDouble() || rightType.isFloat();
+            return decimal ? KeyMode.DOUBLE : KeyMode.LONG;
+        } else {
+            return KeyMode.OBJECT;
+        }
+    }
+
+
+    /**
+     * Returns the joined frame by gathering column data for the row ordinal pairs
+     * @param pairs         the row ordinal pairs, where -1 implies no match
+     * @param leftColKey    the left join column key, null for CROSS joins
+     * @param rightColKey   the right join column key, null for CROSS joins
+     * @return              the joined frame
+     */
+    private DataFrame<Integer,C> combine(Pairs pairs, C leftColKey, C rightColKey) {
+        final boolean coalesce = leftColKey != null && leftColKey.equals(rightColKey);
+        final Map<C,Source> sources = new LinkedHashMap<>();
+        final int[] leftIndexes = left.content().colArrayIndexes();
+        final int[] rightIndexes = right.content().colArrayIndexes();
+        left.cols().keys().forEach(colKey -> {
+            final Array<?> array = left.content().colArray(colKey);
+            if (coalesce && colKey.equals(leftColKey)) {
+                final Array<?> other = right.content().colArray(rightColKey);
+                sources.put(colKey, new Source(array, leftIndexes, pairs.left, other, rightIndexes, pairs.right));
+            } else {
+                sources.put(colKey, new Source(array, leftIndexes, pairs.left, null, null, null));
+            }
+        });
+        right.cols().keys().forEach(colKey -> {
+            if (!coalesce || !colKey.equals(rightColKey)) {
+                if (sources.containsKey(colKey)) {
+                    throw new DataFrameException("Column key appears in both frames being joined: " + colKey);
+                } else {
+                    final Array<?> array = right.content().colArray(colKey);
+                    sources.put(colKey, new Source(array, rightIndexes, pairs.right, null, null, null));
+                }
+            }
+        });
+        final int rowCount = pairs.size();
+        final List<C> colKeys = new ArrayList<>(sources.keySet());
+        final IntStream colOrdinals = IntStream.range(0, colKeys.size());
+        final Array<?>[] arrays = new Array<?>[colKeys.size()];
+        (left.isParallel() ? colOrdinals.parallel() : colOrdinals).forEach(i -> {
+            arrays[i] = sources.get(colKeys.get(i)).gather(rowCount);
+        });
+        final Range<Integer> rowKeys = Range.of(0, rowCount);
+        final Class<C> colType = left.cols().keyType();
+        return DataFrame.of(rowKeys, colType, columns -> {
+            for (int i=0; i<arrays.length; ++i) {
+                columns.add(colKeys.get(i), arrays[i]);
+            }
+        });
+    }
+
+
+    /**
+     * A growable pair of int arrays to capture matching left & right row ordinals
+     */
+    private static class Pairs {
+
+        private TIntArrayList left;
+        private TIntArrayList right;
+
+        /**
+         * Constructor
+         * @param capacity  the initial capacity
+         */
+        Pairs(int capacity) {
+            this.left = new TIntArrayList(capacity);
+            this.right = new TIntArrayList(capacity);
+        }
+
+        /**
+         * Returns the number of pairs
+         * @return  the number of pairs
+         */
+        int size() {
+            return left.size();
+        }
+
+        /**
+         * Adds a pair of row ordinals, where -1 implies no match
+         * @param leftOrdinal   the left row ordinal
+         * @param rightOrdinal  the right row ordinal
+         */
+        void add(int leftOrdinal, int rightOrdinal) {
+            this.left.add(leftOrdinal);
+            this.right.add(rightOrdinal);
+        }
+    }
+
+
+    /**
+     * A class that provides access to the join keys of a frame column in row ordinal order
+     */
+    private static class Keys {
+
+        private Array<?> array;
+        private int[] indexes;
+        private KeyMode mode;
+        private boolean ints;
+
+        /**
+         * Constructor
+         * @param array     the column array
+         * @param indexes   the array index for each row ordinal
+         * @param mode      the mode in which keys are compared
+         */
+        Keys(Array<?> array, int[] indexes, KeyMode mode) {
+            this.array = array;
+            this.indexes = indexes;
+            this.mode = mode;
+            this.ints = array.typeCode() == ArrayType.INTEGER;
+        }
+
+        /**
+         * Returns the number of keys
+         * @return  the number of keys
+         */
+        int size() {
+            return indexes.length;
+        }
+
+        /**
+         * Returns true if the key at the row ordinal is null, in which case it never matches
+         * @param ordinal   the row ordinal
+         * @return          true if the key is null
+         */
+        boolean isNull(int ordinal) {
+            final int index = indexes[ordinal];
+            if (mode == KeyMode.DOUBLE) {
+                return Double.isNaN(array.getDouble(index));
+            } else {
+                return array.isNull(index);
+            }
+        }
+
+        /**
+         * Returns the primitive code for the key at the row ordinal
+         * @param ordinal   the row ordinal
+         * @return          the primitive key code
+         */
+        long getCode(int ordinal) {
+            final int index = indexes[ordinal];
+            if (mode == KeyMode.DOUBLE) {
+                return Double.doubleToLongBits(array.getDouble(index) + 0d);
+            } else {
+                return ints ? array.getInt(index) : array.getLong(index);
+            }
+        }
+
+        /**
+         * Returns the key value at the row ordinal
+         * @param ordinal   the row ordinal
+         * @return          the key value
+         */
+        Object getValue(int ordinal) {
+            return array.getValue(indexes[ordinal]);
+        }
+    }
+
+
+    /**
+     * A hash table that maps keys to the chain of row ordinals that share the key
+     */
+    private static class HashTable {
+
+        private int[] next;
+        private TLongIntHashMap codeMap;
+        private TObjectIntHashMap<Object> valueMap;
+
+        /**
+         * Constructor
+         * @param keys  the keys to build the table from
+         */
+        HashTable(Keys keys) {
+            final int size = keys.size();
+            final int capacity = Math.max(16, size);
+            this.next = new int[size];
+            if (keys.mode == KeyMode.OBJECT) {
+                this.valueMap = new TObjectIntHashMap<>(capacity, 0.5f, -1);
+                for (int i=size-1; i>=0; --i) {
+                    if (!keys.isNull(i)) {
+                        this.next[i] = valueMap.put(keys.getValue(i), i);
+                    }
+                }
+            } else {
+                this.codeMap = new TLongIntHashMap(capacity, 0.5f, Long.MIN_VALUE, -1);
+                for (int i=size-1; i>=0; --i) {
+                    if (!keys.isNull(i)) {
+                        this.next[i] = codeMap.put(keys.getCode(i), i);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the first build row ordinal that matches the probe key, -1 if no match
+         * @param probeKeys     the probe keys
+         * @param ordinal       the probe row ordinal
+         * @return              the first matching build row ordinal, -1 if no match
+         */
+        int first(Keys probeKeys, int ordinal) {
+            if (probeKeys.isNull(ordinal)) {
+                return -1;
+            } else if (valueMap != null) {
+                return valueMap.get(probeKeys.getValue(ordinal));
+            } else {
+                return codeMap.get(probeKeys.getCode(ordinal));
+            }
+        }
+
+        /**
+         * Returns the next build row ordinal that shares the key with the ordinal specified
+         * @param ordinal   the current build row ordinal
+         * @return          the next build row ordinal, -1 if no more
+         */
+        int next(int ordinal) {
+            return next[ordinal];
+        }
+    }
+
+
+    /**
+     * A class that gathers a column of the joined frame from one or two source arrays
+     */
+    private static class Source {
+
+        private Array<?> array;
+        private int[] indexes;
+        private TIntArrayList ordinals;
+        private Array<?> other;
+        private int[] otherIndexes;
+        private TIntArrayList otherOrdinals;
+
+        /**
+         * Constructor
+         * @param array             the primary source array
+         * @param indexes           the array index for each row ordinal in primary source
+         * @param ordinals          the primary row ordinal for each result row, -1 for no match
+         * @param other             the secondary source array to coalesce from, can be null
+         * @param otherIndexes      the array index for each row ordinal in secondary source
+         * @param otherOrdinals     the secondary row ordinal for each result row, -1 for no match
+         */
+        Source(Array<?> array, int[] indexes, TIntArrayList ordinals, Array<?> other, int[] otherIndexes, TIntArrayList otherOrdinals) {
+            this.array = array;
+            this.indexes = indexes;
+            this.ordinals = ordinals;
+            this.other = other;
+            this.otherIndexes = otherIndexes;
+            this.otherOrdinals = otherOrdinals;
+        }
+
+        /**
+         * Returns a newly created array with values gathered for each row of the result
+         * @param rowCount  the row count of the result
+         * @return          the newly created array
+         */
+        @SuppressWarnings("unchecked")
+        Array<?> gather(int rowCount) {
+            final boolean sameType = other == null || other.type() == array.type();
+            final Class<Object> type = sameType ? (Class<Object>)array.type() : Object.class;
+            final Array<Object> result = Array.of(type, rowCount);
+            final TIntArrayList fromIndexes = new TIntArrayList(rowCount);
+            final TIntArrayList toIndexes = new TIntArrayList(rowCount);
+            final TIntArrayList otherFromIndexes = new TIntArrayList(other != null ? rowCount : 0);
+            final TIntArrayList otherToIndexes = new TIntArrayList(other != null ? rowCount : 0);
+            for (int i=0; i<rowCount; ++i) {
+                final int ordinal = ordinals.get(i);
+                if (ordinal >= 0) {
+                    fromIndexes.add(indexes[ordinal]);
+                    toIndexes.add(i);
+                } else if (other != null) {
+                    final int otherOrdinal = otherOrdinals.get(i);
+                    if (otherOrdinal >= 0) {
+                        otherFromIndexes.add(otherIndexes[otherOrdinal]);
+                        otherToIndexes.add(i);
+                    }
+                }
+            }
+            if (sameType) {
+                result.update((Array<Object>)array, fromIndexes.toArray(), toIndexes.toArray());
+                if (other != null) {
+                    result.update((Array<Object>)other, otherFromIndexes.toArray(), otherToIndexes.toArray());
+                }
+            } else {
+                for (int i=0; i<fromIndexes.size(); ++i) {
+                    result.setValue(toIndexes.get(i), array.getValue(fromIndexes.get(i)));
+                }
+                for (int i=0; i<otherFromIndexes.size(); ++i) {
+                    result.setValue(otherToIndexes.get(i), other.getValue(otherFromIndexes.get(i)));
+                }
+            }
+            return result;
+        }
+    }
+
+}
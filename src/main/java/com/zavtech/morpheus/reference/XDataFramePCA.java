@@ -15,11 +15,14 @@
  */
 package com.zavtech.morpheus.reference;
 
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Function;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 
@@ -67,12 +70,21 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
 
     @Override
     public <T> Optional<T> apply(boolean demean, Solver solver, Function<Model<R, C>, Optional<T>> handler) {
+        return apply(demean, solver, frame.colCount(), handler);
+    }
+
+
+    @Override
+    public <T> Optional<T> apply(boolean demean, Solver solver, int numComponents, Function<Model<R, C>, Optional<T>> handler) {
         Asserts.notNull(solver, "The PCA Solver cannot be null");
         Asserts.notNull(handler, "The PCA lambda handler cannot be null");
+        Asserts.check(numComponents > 0 && numComponents <= frame.colCount(), "The number of components must be in [1, " + frame.colCount() + "]");
         switch (solver) {
-            case SVD:           return handler.apply(new ModelWithSVD<>(frame, demean));
-            case EVD_COV:       return handler.apply(new ModelWithEVD<>(frame, demean, true));
-            case EVD_COR:       return handler.apply(new ModelWithEVD<>(frame, demean, false));
+            case SVD:           return handler.apply(new ModelWithSVD<>(frame, demean, numComponents));
+            case EVD_COV:       return handler.apply(new ModelWithEVD<>(frame, demean, numComponents, true));
+            case EVD_COR:       return handler.apply(new ModelWithEVD<>(frame, demean, numComponents, false));
+            case RANDOMIZED:    return handler.apply(new ModelWithRandomizedSVD<>(frame, demean, numComponents));
+            case INCREMENTAL:   return handler.apply(new ModelWithIncrementalSVD<>(frame, demean, numComponents));
             default:            throw new DataFrameException("Unsupported PCA solver specified: " + solver);
         }
     }
@@ -86,11 +98,12 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
 
         /**
          * Constructor
-         * @param data      the data frame reference
-         * @param demean    true if the frame columns should be demeaned
+         * @param data          the data frame reference
+         * @param demean        true if the frame columns should be demeaned
+         * @param numComponents the number of components to retain
          */
-        private ModelWithSVD(XDataFrame<X,Y> data, boolean demean) {
-            super(data, demean);
+        private ModelWithSVD(XDataFrame<X,Y> data, boolean demean, int numComponents) {
+            super(data, demean, numComponents, true);
         }
 
         @Override()
@@ -128,12 +141,13 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
 
         /**
          * Constructor
-         * @param frame     the data frame reference
-         * @param demean    true if the frame columns should be demeaned
-         * @param cov       true to use covariance matrix, false for correlation matrix
+         * @param frame         the data frame reference
+         * @param demean        true if the frame columns should be demeaned
+         * @param numComponents the number of components to retain
+         * @param cov           true to use covariance matrix, false for correlation matrix
          */
-        private ModelWithEVD(XDataFrame<X,Y> frame, boolean demean, boolean cov) {
-            super(frame, demean);
+        private ModelWithEVD(XDataFrame<X,Y> frame, boolean demean, int numComponents, boolean cov) {
+            super(frame, demean, numComponents, true);
             this.cov = cov;
         }
 
@@ -163,6 +177,249 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
     }
 
 
+    /**
+     * An implementation of a PCA model that approximates the top components with a randomized truncated SVD
+     *
+     * <p>The range of the data matrix A is sampled by multiplying it with a random Gaussian matrix of k plus some oversampling
+     * columns, refined by a few power iterations, and orthonormalized into Q. The small matrix Q'A is then decomposed, and its
+     * right singular vectors approximate those of A. Every product with A reads the frame one column at a time, and demeaning
+     * is applied on the fly, so the frame is never copied and only n x (k + oversampling) values are held in memory.</p>
+     */
+    private class ModelWithRandomizedSVD<X,Y> extends ModelBase<X,Y> {
+
+        private static final int OVERSAMPLING = 10;
+        private static final int POWER_ITERATIONS = 2;
+
+        /**
+         * Constructor
+         * @param data          the data frame reference
+         * @param demean        true if the frame columns should be demeaned
+         * @param numComponents the number of components to compute
+         */
+        private ModelWithRandomizedSVD(XDataFrame<X,Y> data, boolean demean, int numComponents) {
+            super(data, demean, numComponents, false);
+        }
+
+        @Override()
+        boolean calculate() {
+            if (!isDirty()) {
+                return false;
+            } else {
+                try {
+                    final int n = data().rowCount();
+                    final int p = data().colCount();
+                    final int l = Math.min(p, numComponents() + OVERSAMPLING);
+                    final Random random = new Random(p * 31L + n);
+                    final double[][] omega = new double[l][p];
+                    for (int a=0; a<l; ++a) {
+                        for (int j=0; j<p; ++j) {
+                            omega[a][j] = random.nextGaussian();
+                        }
+                    }
+                    double[][] y = times(omega);
+                    for (int i=0; i<POWER_ITERATIONS; ++i) {
+                        orthonormalize(y);
+                        final double[][] z = transposeTimes(y, null);
+                        orthonormalize(z);
+                        y = times(z);
+                    }
+                    orthonormalize(y);
+                    final double[] sumOfSquares = new double[1];
+                    final double[][] b = transposeTimes(y, sumOfSquares);
+                    final SingularValueDecomposition svd = new SingularValueDecomposition(new Array2DRowRealMatrix(b, false));
+                    final DoubleStream singularValues = DoubleStream.of(svd.getSingularValues());
+                    final double[] eigenValues = singularValues.map(v -> Math.pow(v, 2d) / (n - 1d)).toArray();
+                    this.update(eigenValues, svd.getV(), sumOfSquares[0] / (n - 1d));
+                    return true;
+                } catch (Exception ex) {
+                    throw new DataFrameException("Failed to perform randomized SVD on input data for PCA", ex);
+                }
+            }
+        }
+
+        /**
+         * Returns the product of the data matrix A with a set of p-vectors, each of which yields an n-vector
+         * @param vectors   the p-vectors to multiply, which are the columns of the right operand
+         * @return          the n-vectors resulting from the product, which are the columns of the result
+         */
+        private double[][] times(double[][] vectors) {
+            final int p = data().colCount();
+            final double[] column = new double[data().rowCount()];
+            final double[][] result = new double[vectors.length][column.length];
+            for (int j=0; j<p; ++j) {
+                this.column(j, column);
+                for (int a=0; a<vectors.length; ++a) {
+                    final double weight = vectors[a][j];
+                    final double[] target = result[a];
+                    for (int i=0; i<column.length; ++i) {
+                        target[i] += column[i] * weight;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the product of the transpose of the data matrix A with a set of n-vectors, each of which yields a p-vector
+         * @param vectors       the n-vectors to multiply, which are the columns of the right operand
+         * @param sumOfSquares  if not null, the array to receive the sum of squares of the data matrix in its first element
+         * @return              the p-vectors resulting from the product, which are the columns of the result
+         */
+        private double[][] transposeTimes(double[][] vectors, double[] sumOfSquares) {
+            final int p = data().colCount();
+            final double[] column = new double[data().rowCount()];
+            final double[][] result = new double[vectors.length][p];
+            for (int j=0; j<p; ++j) {
+                this.column(j, column);
+                for (int a=0; a<vectors.length; ++a) {
+                    final double[] source = vectors[a];
+                    double sum = 0d;
+                    for (int i=0; i<column.length; ++i) {
+                        sum += column[i] * source[i];
+                    }
+                    result[a][j] = sum;
+                }
+                if (sumOfSquares != null) {
+                    for (double value : column) {
+                        sumOfSquares[0] += value * value;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Orthonormalizes a set of vectors in place using modified Gram-Schmidt with re-orthogonalization
+         * <p>Vectors that are numerically dependent on the preceding vectors are set to zero.</p>
+         * @param vectors   the vectors to orthonormalize
+         */
+        private void orthonormalize(double[][] vectors) {
+            for (int a=0; a<vectors.length; ++a) {
+                final double[] v = vectors[a];
+                final double norm0 = Math.sqrt(dot(v, v));
+                for (int pass=0; pass<2; ++pass) {
+                    for (int b=0; b<a; ++b) {
+                        final double[] u = vectors[b];
+                        final double projection = dot(u, v);
+                        for (int i=0; i<v.length; ++i) {
+                            v[i] -= projection * u[i];
+                        }
+                    }
+                }
+                final double norm = Math.sqrt(dot(v, v));
+                final double scale = norm > norm0 * 1e-10 ? 1d / norm : 0d;
+                for (int i=0; i<v.length; ++i) {
+                    v[i] *= scale;
+                }
+            }
+        }
+
+        /**
+         * Returns the dot product of two vectors
+         * @param u     the first vector
+         * @param v     the second vector
+         * @return      the dot product
+         */
+        private double dot(double[] u, double[] v) {
+            double sum = 0d;
+            for (int i=0; i<u.length; ++i) {
+                sum += u[i] * v[i];
+            }
+            return sum;
+        }
+    }
+
+
+    /**
+     * An implementation of a PCA model that updates a truncated SVD one batch of rows at a time
+     *
+     * <p>After each batch, the current components scaled by their singular values are stacked on top of the new rows, along
+     * with a correction row for the shift in the column means if demeaning, and the stack is decomposed to yield the updated
+     * top k components. Each decomposition is of a (k + batch + 1) x p matrix, so memory is bounded by the batch size rather
+     * than by the number of rows. The result is exact when k equals the number of columns, and otherwise approximates the
+     * top components, since the variance outside the retained components is discarded after each batch.</p>
+     */
+    private class ModelWithIncrementalSVD<X,Y> extends ModelBase<X,Y> {
+
+        private static final int BATCH_SIZE = 1000;
+
+        /**
+         * Constructor
+         * @param data          the data frame reference
+         * @param demean        true if the frame columns should be demeaned
+         * @param numComponents the number of components to compute
+         */
+        private ModelWithIncrementalSVD(XDataFrame<X,Y> data, boolean demean, int numComponents) {
+            super(data, demean, numComponents, false);
+        }
+
+        @Override()
+        boolean calculate() {
+            if (!isDirty()) {
+                return false;
+            } else {
+                try {
+                    final int n = data().rowCount();
+                    final int p = data().colCount();
+                    final int k = numComponents();
+                    final int batchSize = Math.max(BATCH_SIZE, k);
+                    final double[] means = new double[p];
+                    double[] singularValues = new double[0];
+                    double[][] components = new double[0][p];
+                    double sumOfSquares = 0d;
+                    for (int start=0; start<n; start += batchSize) {
+                        final int count = start;
+                        final int size = Math.min(batchSize, n - start);
+                        final boolean correct = isDemean() && count > 0;
+                        final double[][] stack = new double[singularValues.length + size + (correct ? 1 : 0)][p];
+                        for (int a=0; a<singularValues.length; ++a) {
+                            for (int j=0; j<p; ++j) {
+                                stack[a][j] = singularValues[a] * components[a][j];
+                            }
+                        }
+                        final int offset = singularValues.length;
+                        for (int j=0; j<p; ++j) {
+                            double batchMean = 0d;
+                            for (int i=0; i<size; ++i) {
+                                final double value = data().data().getDouble(start + i, j);
+                                stack[offset + i][j] = value;
+                                batchMean += value;
+                            }
+                            batchMean = isDemean() ? batchMean / size : 0d;
+                            for (int i=0; i<size; ++i) {
+                                final double value = stack[offset + i][j] - batchMean;
+                                stack[offset + i][j] = value;
+                                sumOfSquares += value * value;
+                            }
+                            if (isDemean()) {
+                                final double delta = means[j] - batchMean;
+                                final double weight = (double)count * size / (count + size);
+                                if (correct) stack[offset + size][j] = Math.sqrt(weight) * delta;
+                                sumOfSquares += weight * delta * delta;
+                                means[j] = (count * means[j] + size * batchMean) / (count + size);
+                            }
+                        }
+                        final SingularValueDecomposition svd = new SingularValueDecomposition(new Array2DRowRealMatrix(stack, false));
+                        final double[] values = svd.getSingularValues();
+                        final RealMatrix v = svd.getV();
+                        final int rank = Math.min(k, values.length);
+                        singularValues = Arrays.copyOf(values, rank);
+                        components = new double[rank][];
+                        for (int a=0; a<rank; ++a) {
+                            components[a] = v.getColumn(a);
+                        }
+                    }
+                    final double[] eigenValues = DoubleStream.of(singularValues).map(v -> Math.pow(v, 2d) / (n - 1d)).toArray();
+                    this.update(eigenValues, new Array2DRowRealMatrix(components, false).transpose(), sumOfSquares / (n - 1d));
+                    return true;
+                } catch (Exception ex) {
+                    throw new DataFrameException("Failed to perform incremental SVD on input data for PCA", ex);
+                }
+            }
+        }
+    }
+
+
     /**
      * A convenience base class for building various models to implement Principal Component Analysis
      */
@@ -172,17 +429,29 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
         private DataFrame<Y,StatType> means;
         private DataFrame<Integer,Field> eigenValues;
         private DataFrame<Integer,Integer> eigenVectors;
+        private double[] centers;
+        private int numComponents;
 
         /**
          * Constructor
-         * @param data      the data frame reference
-         * @param demean    true if the frame columns should be demeaned
+         * @param data          the data frame reference
+         * @param demean        true if the frame columns should be demeaned
+         * @param numComponents the number of components to retain
+         * @param copy          true to demean a copy of the data, false to demean values on the fly as they are read
          */
-        ModelBase(DataFrame<X,Y> data, boolean demean) {
+        ModelBase(DataFrame<X,Y> data, boolean demean, int numComponents, boolean copy) {
             this.data = data;
+            this.numComponents = numComponents;
+            this.centers = new double[data.colCount()];
             if (demean) {
                 this.means = data.cols().stats().mean();
-                this.data = data.cols().demean(false);
+                if (copy) {
+                    this.data = data.cols().demean(false);
+                } else {
+                    for (int j=0; j<centers.length; ++j) {
+                        this.centers[j] = means.data().getDouble(j, 0);
+                    }
+                }
             }
         }
 
@@ -201,6 +470,26 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
             return data;
         }
 
+        /**
+         * Returns the number of components retained by this model
+         * @return  the number of components to retain
+         */
+        int numComponents() {
+            return numComponents;
+        }
+
+        /**
+         * Reads a column of the data for this model, demeaned if demeaning is applied on the fly
+         * @param colOrdinal    the column ordinal
+         * @param values        the array to receive the column values
+         */
+        void column(int colOrdinal, double[] values) {
+            final double center = centers[colOrdinal];
+            for (int i=0; i<values.length; ++i) {
+                values[i] = data.data().getDouble(i, colOrdinal) - center;
+            }
+        }
+
         /**
          * Returns true if this model demeans the columns of the input DataFrame
          * @return  true if the columns are demeaned as part of the PCA
@@ -223,21 +512,8 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
          * @param eigenVectors      the matrix of eigen vectors expressed as columns
          */
         protected void update(double[] eigenValues, Matrix eigenVectors) {
-            final Ordering ordering = new Ordering(eigenValues);
-            SortAlgorithm.getDefault(false).sort(0, eigenValues.length, ordering, ordering);
-            final int[] indices = ordering.getIndices();
-            final Range<Integer> rowKeys = Range.of(0, eigenValues.length);
-            this.eigenValues = DataFrame.ofDoubles(rowKeys, Array.of(Field.EIGENVALUE));
-            this.eigenValues.applyDoubles(v -> eigenValues[indices[v.rowOrdinal()]]);
-            this.addVariancePercentages();
-            this.eigenVectors = DataFrame.of(Range.of(0, eigenValues.length), Integer.class, columns -> {
-                for (int i = 0; i < indices.length; ++i) {
-                    final int index = indices[i];
-                    columns.add(i, Array.of(Double.class, eigenValues.length).applyDoubles(v -> {
-                        return eigenVectors.get(v.index(), index);
-                    }));
-                }
-            });
+            final double totalVariance = DoubleStream.of(eigenValues).sum();
+            this.update(eigenValues, eigenVectors::get, totalVariance);
         }
 
 
@@ -247,18 +523,43 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
          * @param eigenVectors      the matrix of eigen vectors expressed as columns
          */
         protected void update(double[] eigenValues, RealMatrix eigenVectors) {
+            final double totalVariance = DoubleStream.of(eigenValues).sum();
+            this.update(eigenValues, eigenVectors::getEntry, totalVariance);
+        }
+
+
+        /**
+         * Called by a subclass in order to present the eigenvalues and eigenvectors of a truncated decomposition
+         * @param eigenValues       the array of eigen values
+         * @param eigenVectors      the matrix of eigen vectors expressed as columns
+         * @param totalVariance     the total variance of the data, which is the sum of all eigen values
+         */
+        protected void update(double[] eigenValues, RealMatrix eigenVectors, double totalVariance) {
+            this.update(eigenValues, eigenVectors::getEntry, totalVariance);
+        }
+
+
+        /**
+         * Retains the largest eigenvalues and their eigenvectors, up to the number of components for this model
+         * @param eigenValues       the array of eigen values
+         * @param eigenVectors      the accessor for eigen vectors expressed as columns
+         * @param totalVariance     the total variance of the data, which is the sum of all eigen values
+         */
+        private void update(double[] eigenValues, Vectors eigenVectors, double totalVariance) {
             final Ordering ordering = new Ordering(eigenValues);
             SortAlgorithm.getDefault(false).sort(0, eigenValues.length, ordering, ordering);
             final int[] indices = ordering.getIndices();
-            final Range<Integer> rowKeys = Range.of(0, eigenValues.length);
+            final int count = Math.min(numComponents, eigenValues.length);
+            final int dimension = data.colCount();
+            final Range<Integer> rowKeys = Range.of(0, count);
             this.eigenValues = DataFrame.ofDoubles(rowKeys, Array.of(Field.EIGENVALUE));
             this.eigenValues.applyDoubles(v -> eigenValues[indices[v.rowOrdinal()]]);
-            this.addVariancePercentages();
-            this.eigenVectors = DataFrame.of(Range.of(0, eigenValues.length), Integer.class, columns -> {
-                for (int i = 0; i < indices.length; ++i) {
+            this.addVariancePercentages(totalVariance);
+            this.eigenVectors = DataFrame.of(Range.of(0, dimension), Integer.class, columns -> {
+                for (int i = 0; i < count; ++i) {
                     final int index = indices[i];
-                    columns.add(i, Array.of(Double.class, eigenValues.length).applyDoubles(v -> {
-                         return eigenVectors.getEntry(v.index(), index);
+                    columns.add(i, Array.of(Double.class, dimension).applyDoubles(v -> {
+                        return eigenVectors.get(v.index(), index);
                     }));
                 }
             });
@@ -266,9 +567,9 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
 
         /**
          * Adds two columns to the eigenvalue data frame, one for percent of variance, and for cumulative percent of variance
+         * @param sum   the total variance of the data
          */
-        private void addVariancePercentages() {
-            final double sum = eigenValues.colAt(Field.EIGENVALUE).stats().sum();
+        private void addVariancePercentages(double sum) {
             this.eigenValues.cols().add(Field.VAR_PERCENT, Double.class, v -> v.row().getDouble(Field.EIGENVALUE) / sum);
             this.eigenValues.cols().add(Field.VAR_PERCENT_CUM, Double.class, v -> {
                 switch (v.rowOrdinal()) {
@@ -326,19 +627,47 @@ class XDataFramePCA<R,C> implements DataFramePCA<R,C> {
         @Override
         public DataFrame<X,Integer> getScores(int numComponents) {
             this.calculate();
-            final DataFrame<Integer,Integer> V = eigenVectors.cols().select(col -> col.ordinal() < numComponents);
-            final Matrix original = data.export().asMatrix();   // nxp
-            final Matrix basis = V.export().asMatrix();         // pxk
-            final Matrix scores = original.times(basis);        // nxk
-            final Array<X> rowKeys = data().rows().keyArray();
-            final Range<Integer> colKeys = Range.of(0, numComponents);
-            return DataFrame.ofDoubles(rowKeys, colKeys, v -> {
-                return scores.get(v.rowOrdinal(), v.colOrdinal());
-            });
+            if (numComponents > eigenVectors.colCount()) {
+                throw new DataFrameException("The number of components exceeds those in model: " + numComponents + " > " + eigenVectors.colCount());
+            } else {
+                final int p = data.colCount();
+                final double[] column = new double[data.rowCount()];
+                final double[][] scores = new double[numComponents][column.length];
+                for (int j=0; j<p; ++j) {
+                    this.column(j, column);
+                    for (int c=0; c<numComponents; ++c) {
+                        final double weight = eigenVectors.data().getDouble(j, c);
+                        final double[] target = scores[c];
+                        for (int i=0; i<column.length; ++i) {
+                            target[i] += column[i] * weight;
+                        }
+                    }
+                }
+                final Array<X> rowKeys = data().rows().keyArray();
+                final Range<Integer> colKeys = Range.of(0, numComponents);
+                return DataFrame.ofDoubles(rowKeys, colKeys, v -> {
+                    return scores[v.colOrdinal()][v.rowOrdinal()];
+                });
+            }
         }
     }
 
 
+    /**
+     * An accessor for the elements of a matrix of eigen vectors
+     */
+    private interface Vectors {
+
+        /**
+         * Returns the value of an element of a matrix
+         * @param row   the row index
+         * @param col   the column index
+         * @return      the value of the element
+         */
+        double get(int row, int col);
+    }
+
+
 
     /**
      * A class that sorts an array of indices that yield the desired order of the input array
@@ -23,6 +23,8 @@ import java.util.function.Consumer;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameRead;
 import com.zavtech.morpheus.frame.DataFrameSource;
+import com.zavtech.morpheus.source.BinarySource;
+import com.zavtech.morpheus.source.BinarySourceOptions;
 import com.zavtech.morpheus.source.CsvSource;
 import com.zavtech.morpheus.source.CsvSourceOptions;
 import com.zavtech.morpheus.source.DbSource;
@@ -46,6 +48,7 @@ class XDataFrameRead implements DataFrameRead {
         DataFrameSource.register(new CsvSource<>());
         DataFrameSource.register(new JsonSource<>());
         DataFrameSource.register(new DbSource<>());
+        DataFrameSource.register(new BinarySource<>());
     }
 
     /**
@@ -112,4 +115,15 @@ class XDataFrameRead implements DataFrameRead {
     public <R> DataFrame<R, String> db(Consumer<DbSourceOptions<R>> configurator) {
         return DataFrameSource.lookup(DbSource.class).read(configurator);
     }
+
+    @Override
+    public <R,C> DataFrame<R,C> binary(File file) {
+        return binary(options -> options.setFile(file));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R,C> DataFrame<R,C> binary(Consumer<BinarySourceOptions<R,C>> configurator) {
+        return DataFrameSource.lookup(BinarySource.class).read(configurator);
+    }
 }
@@ -17,11 +17,16 @@ package com.zavtech.morpheus.reference;
 
 import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameOptions;
+import com.zavtech.morpheus.stats.Percentile;
+import com.zavtech.morpheus.stats.StatType;
 import com.zavtech.morpheus.stats.Statistic1;
 
 /**
  * The reference implementation of Stats to provide expanding window statistics in either the row or column dimension of a DataFrame
  *
+ * <p>Each vector is traversed in a single forward pass, reusing the running state of the statistic to emit cumulative results.
+ * Percentiles are maintained incrementally with a pair of heaps split at the required rank, so each step costs O(log n).</p>
+ *
  * @param <R>       the row key type
  * @param <C>       the column key type
  *
@@ -85,6 +90,20 @@ class XDataFrameStatsExpanding<R,C> extends XDataFrameStatsBase<R,C> {
     }
 
 
+    /**
+     * Returns a statistic suitable for emitting cumulative results after each value is added
+     * @param statistic     the statistic requested
+     * @return              the statistic to use for a single forward pass
+     */
+    private static Statistic1 createStatistic(Statistic1 statistic) {
+        if (statistic instanceof Percentile) {
+            return new StreamingPercentile(statistic.getType(), ((Percentile)statistic).getNth());
+        } else {
+            return statistic.copy();
+        }
+    }
+
+
     /**
      * Action to compute expanding window statistic on the rows of a DataFrame
      */
@@ -106,7 +125,7 @@ class XDataFrameStatsExpanding<R,C> extends XDataFrameStatsBase<R,C> {
             this.from = from;
             this.to = to;
             this.result = result;
-            this.statistic = statistic.copy();
+            this.statistic = createStatistic(statistic);
         }
 
         @Override
@@ -160,7 +179,7 @@ class XDataFrameStatsExpanding<R,C> extends XDataFrameStatsBase<R,C> {
             this.from = from;
             this.to = to;
             this.result = result;
-            this.statistic = statistic.copy();
+            this.statistic = createStatistic(statistic);
         }
 
         @Override
@@ -192,4 +211,212 @@ class XDataFrameStatsExpanding<R,C> extends XDataFrameStatsBase<R,C> {
         }
     }
 
+
+    /**
+     * A percentile statistic that supports resolving the current value after each addition in O(log n) time.
+     * Values are held in a max-heap for the lower ranks and a min-heap for the upper ranks, where the lower heap
+     * is re-balanced after each addition to hold exactly the number of values at or below the R_7 estimation rank.
+     */
+    private static class StreamingPercentile implements Statistic1 {
+
+        private int n;
+        private double nth;
+        private StatType type;
+        private DoubleHeap lower = new DoubleHeap(true);
+        private DoubleHeap upper = new DoubleHeap(false);
+
+        /**
+         * Constructor
+         * @param type  the statistic type
+         * @param nth   the requested percentile, expressed as a fraction between 0 and 1
+         */
+        StreamingPercentile(StatType type, double nth) {
+            this.type = type;
+            this.nth = nth;
+        }
+
+        /**
+         * Returns the 1-based R_7 estimation position for the current sample size
+         * @return  the estimation position
+         */
+        private double position() {
+            final double p = (nth * 100d) / 100d;
+            return p == 1d ? n : 1d + (n - 1d) * p;
+        }
+
+        @Override
+        public long getN() {
+            return n;
+        }
+
+        @Override
+        public double getValue() {
+            if (n == 0) {
+                return Double.NaN;
+            } else if (n == 1 || upper.size() == 0) {
+                return lower.peek();
+            } else {
+                final double pos = position();
+                final double floor = Math.floor(pos);
+                final double low = lower.peek();
+                return low + (pos - floor) * (upper.peek() - low);
+            }
+        }
+
+        @Override
+        public StatType getType() {
+            return type;
+        }
+
+        @Override
+        public long add(double value) {
+            if (!Double.isNaN(value)) {
+                this.n++;
+                if (lower.size() > 0 && value <= lower.peek()) {
+                    this.lower.push(value);
+                } else {
+                    this.upper.push(value);
+                }
+                final int rank = Math.max(1, Math.min((int)Math.floor(position()), n));
+                while (lower.size() > rank) {
+                    this.upper.push(lower.pop());
+                }
+                while (lower.size() < rank) {
+                    this.lower.push(upper.pop());
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public Statistic1 copy() {
+            final StreamingPercentile clone = new StreamingPercentile(type, nth);
+            clone.n = n;
+            clone.lower = lower.copy();
+            clone.upper = upper.copy();
+            return clone;
+        }
+
+        @Override
+        public Statistic1 reset() {
+            this.n = 0;
+            this.lower.clear();
+            this.upper.clear();
+            return this;
+        }
+    }
+
+
+    /**
+     * A growable binary heap of primitive doubles, ordered as either a max-heap or a min-heap
+     */
+    private static class DoubleHeap {
+
+        private int size;
+        private boolean max;
+        private double[] values;
+
+        /**
+         * Constructor
+         * @param max   true for a max-heap, false for a min-heap
+         */
+        DoubleHeap(boolean max) {
+            this.max = max;
+            this.values = new double[64];
+        }
+
+        /**
+         * Returns the number of values in this heap
+         * @return  the number of values
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns the value at the top of this heap without removing it
+         * @return  the top value
+         */
+        double peek() {
+            return values[0];
+        }
+
+        /**
+         * Returns true if value a should be ordered above value b in this heap
+         * @param a     the first value
+         * @param b     the second value
+         * @return      true if a has priority over b
+         */
+        private boolean above(double a, double b) {
+            return max ? a > b : a < b;
+        }
+
+        /**
+         * Adds a value to this heap
+         * @param value the value to add
+         */
+        void push(double value) {
+            if (size == values.length) {
+                final double[] newValues = new double[values.length + (values.length >> 1)];
+                System.arraycopy(values, 0, newValues, 0, size);
+                this.values = newValues;
+            }
+            int index = size++;
+            while (index > 0) {
+                final int parent = (index - 1) >>> 1;
+                if (above(value, values[parent])) {
+                    this.values[index] = values[parent];
+                    index = parent;
+                } else {
+                    break;
+                }
+            }
+            this.values[index] = value;
+        }
+
+        /**
+         * Removes and returns the value at the top of this heap
+         * @return  the top value
+         */
+        double pop() {
+            final double result = values[0];
+            final double last = values[--size];
+            int index = 0;
+            while (true) {
+                int child = (index << 1) + 1;
+                if (child >= size) {
+                    break;
+                } else if (child + 1 < size && above(values[child + 1], values[child])) {
+                    child++;
+                }
+                if (above(values[child], last)) {
+                    this.values[index] = values[child];
+                    index = child;
+                } else {
+                    break;
+                }
+            }
+            this.values[index] = last;
+            return result;
+        }
+
+        /**
+         * Removes all values from this heap
+         */
+        void clear() {
+            this.size = 0;
+        }
+
+        /**
+         * Returns a deep copy of this heap
+         * @return  a copy of this heap
+         */
+        DoubleHeap copy() {
+            final DoubleHeap clone = new DoubleHeap(max);
+            clone.size = size;
+            clone.values = values.clone();
+            return clone;
+        }
+    }
+
 }
@@ -15,13 +15,22 @@
  */
 package com.zavtech.morpheus.reference;
 
+import java.util.Arrays;
+
 import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameOptions;
+import com.zavtech.morpheus.stats.Max;
+import com.zavtech.morpheus.stats.Min;
+import com.zavtech.morpheus.stats.Percentile;
 import com.zavtech.morpheus.stats.Statistic1;
 
 /**
  * The reference implementation of Stats to provide rolling window statistics in either the row or column dimension of a DataFrame
  *
+ * <p>Each vector is traversed once with a sliding window, so the cost per step is independent of the window size for statistics
+ * that support removal of values, O(1) amortized for min/max via a monotonic deque, and O(log w) search plus a block shift for
+ * percentiles via a sorted window. Other statistics fall back to re-computing the statistic over the window at each step.</p>
+ *
  * @param <R>       the row key type
  * @param <C>       the column key type
  *
@@ -81,13 +90,33 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
     @Override
     protected StatisticAction createStatisticAction(Statistic1 statistic, XDataFrame<R,C> result) {
         switch (axis) {
-            case 0: return new RowRollingStatistics(0, rowCount(), statistic, result);
-            case 1: return new ColumnRollingStatistics(0, colCount(), statistic, result);
+            case 0: return new RowRollingStatistics(0, rowCount() - 1, statistic, result);
+            case 1: return new ColumnRollingStatistics(0, colCount() - 1, statistic, result);
             default:    throw new DataFrameException("Unsupported axis code: " + axis);
         }
     }
 
 
+    /**
+     * Returns a newly created rolling window appropriate for the statistic specified
+     * @param statistic     the statistic to create a window for
+     * @return              the newly created rolling window
+     */
+    private Window createWindow(Statistic1 statistic) {
+        if (statistic.getClass() == Min.class) {
+            return new ExtremeWindow(windowSize, false);
+        } else if (statistic.getClass() == Max.class) {
+            return new ExtremeWindow(windowSize, true);
+        } else if (statistic instanceof Percentile) {
+            return new PercentileWindow(windowSize, ((Percentile)statistic).getNth());
+        } else if (statistic.isRemovable()) {
+            return new RemovableWindow(statistic.copy());
+        } else {
+            return new RecomputeWindow(windowSize, statistic.copy());
+        }
+    }
+
+
     /**
      * Action to compute rolling window statistic on the rows of a DataFrame
      */
@@ -101,7 +130,7 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
         /**
          * Constructor
          * @param from          the from row index
-         * @param to            the to row index
+         * @param to            the to row index, inclusive
          * @param statistic     the uni-variate statistic
          * @param result        the target frame to write results to
          */
@@ -117,18 +146,19 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
             final int count = to - from + 1;
             final int threshold = isParallel() ? DataFrameOptions.getRowSplitThreshold(frame) : Integer.MAX_VALUE;
             if (count <= threshold) {
-                final int rowCount = frame.rows().count();
                 final int colCount = frame.cols().count();
-                for (int rowIndex = from; rowIndex < rowCount; ++rowIndex) {
-                    for (int colIndex = windowSize-1; colIndex < colCount; colIndex++) {
-                        this.statistic.reset();
-                        final int from = colIndex - windowSize + 1;
-                        for (int i = from; i <= colIndex; ++i) {
-                            final double value = frame.data().getDouble(rowIndex, i);
-                            this.statistic.add(value);
+                final Window window = createWindow(statistic);
+                for (int rowIndex = from; rowIndex <= to; ++rowIndex) {
+                    window.reset();
+                    for (int colIndex = 0; colIndex < colCount; colIndex++) {
+                        if (colIndex >= windowSize) {
+                            window.remove(frame.data().getDouble(rowIndex, colIndex - windowSize));
+                        }
+                        window.add(frame.data().getDouble(rowIndex, colIndex));
+                        if (colIndex >= windowSize - 1) {
+                            final double statValue = window.getValue();
+                            this.result.data().setDouble(rowIndex, colIndex, statValue);
                         }
-                        final double statValue = statistic.getValue();
-                        this.result.data().setDouble(rowIndex, colIndex, statValue);
                     }
                 }
             } else {
@@ -156,7 +186,7 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
         /**
          * Constructor
          * @param from          the from column index
-         * @param to            the to column index
+         * @param to            the to column index, inclusive
          * @param statistic     the uni-variate statistic
          * @param result        the target frame to write results to
          */
@@ -173,17 +203,18 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
             final int threshold = isParallel() ? DataFrameOptions.getColumnSplitThreshold(frame) : Integer.MAX_VALUE;
             if (count <= threshold) {
                 final int rowCount = frame.rows().count();
-                final int colCount = frame.cols().count();
-                for (int colIndex = from; colIndex < colCount; ++colIndex) {
-                    for (int rowIndex = windowSize-1; rowIndex < rowCount; rowIndex++) {
-                        this.statistic.reset();
-                        final int from = rowIndex - windowSize + 1;
-                        for (int i = from; i <= rowIndex; ++i) {
-                            final double value = frame.data().getDouble(i, colIndex);
-                            this.statistic.add(value);
+                final Window window = createWindow(statistic);
+                for (int colIndex = from; colIndex <= to; ++colIndex) {
+                    window.reset();
+                    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                        if (rowIndex >= windowSize) {
+                            window.remove(frame.data().getDouble(rowIndex - windowSize, colIndex));
+                        }
+                        window.add(frame.data().getDouble(rowIndex, colIndex));
+                        if (rowIndex >= windowSize - 1) {
+                            final double statValue = window.getValue();
+                            this.result.data().setDouble(rowIndex, colIndex, statValue);
                         }
-                        final double statValue = statistic.getValue();
-                        this.result.data().setDouble(rowIndex, colIndex, statValue);
                     }
                 }
             } else {
@@ -196,4 +227,256 @@ class XDataFrameStatsRolling<R,C> extends XDataFrameStatsBase<R,C> {
             }
         }
     }
+
+
+    /**
+     * A sliding window over a vector of values, where values are removed in the same order they were added
+     */
+    private interface Window {
+
+        /**
+         * Adds a value entering the window
+         * @param value the value to add
+         */
+        void add(double value);
+
+        /**
+         * Removes the oldest value in the window
+         * @param value the value leaving the window
+         */
+        void remove(double value);
+
+        /**
+         * Returns the statistic value for the current window
+         * @return  the statistic value
+         */
+        double getValue();
+
+        /**
+         * Resets this window to its initial empty state
+         */
+        void reset();
+    }
+
+
+    /**
+     * A window that delegates to a statistic which supports the removal of values
+     */
+    private static class RemovableWindow implements Window {
+
+        private Statistic1 statistic;
+
+        /**
+         * Constructor
+         * @param statistic the statistic, which must support removal
+         */
+        RemovableWindow(Statistic1 statistic) {
+            this.statistic = statistic;
+        }
+
+        @Override
+        public void add(double value) {
+            this.statistic.add(value);
+        }
+
+        @Override
+        public void remove(double value) {
+            this.statistic.remove(value);
+        }
+
+        @Override
+        public double getValue() {
+            return statistic.getValue();
+        }
+
+        @Override
+        public void reset() {
+            this.statistic.reset();
+        }
+    }
+
+
+    /**
+     * A window that retains values in a ring buffer and re-computes a statistic over the window on demand
+     */
+    private static class RecomputeWindow implements Window {
+
+        private int head;
+        private int size;
+        private double[] values;
+        private Statistic1 statistic;
+
+        /**
+         * Constructor
+         * @param windowSize    the window size
+         * @param statistic     the statistic to compute
+         */
+        RecomputeWindow(int windowSize, Statistic1 statistic) {
+            this.values = new double[windowSize];
+            this.statistic = statistic;
+        }
+
+        @Override
+        public void add(double value) {
+            this.values[(head + size++) % values.length] = value;
+        }
+
+        @Override
+        public void remove(double value) {
+            this.head = (head + 1) % values.length;
+            this.size--;
+        }
+
+        @Override
+        public double getValue() {
+            this.statistic.reset();
+            for (int i = 0; i < size; ++i) {
+                this.statistic.add(values[(head + i) % values.length]);
+            }
+            return statistic.getValue();
+        }
+
+        @Override
+        public void reset() {
+            this.head = 0;
+            this.size = 0;
+        }
+    }
+
+
+    /**
+     * A window that tracks the min or max with a monotonic deque, giving O(1) amortized cost per step
+     */
+    private static class ExtremeWindow implements Window {
+
+        private boolean max;
+        private int head;
+        private int size;
+        private long added;
+        private long removed;
+        private long[] sequence;
+        private double[] values;
+
+        /**
+         * Constructor
+         * @param windowSize    the window size
+         * @param max           true to track the maximum, false for the minimum
+         */
+        ExtremeWindow(int windowSize, boolean max) {
+            this.max = max;
+            this.values = new double[windowSize];
+            this.sequence = new long[windowSize];
+        }
+
+        @Override
+        public void add(double value) {
+            final long seq = added++;
+            if (!Double.isNaN(value)) {
+                while (size > 0) {
+                    final int last = (head + size - 1) % values.length;
+                    if (max ? values[last] <= value : values[last] >= value) {
+                        this.size--;
+                    } else {
+                        break;
+                    }
+                }
+                final int tail = (head + size++) % values.length;
+                this.values[tail] = value;
+                this.sequence[tail] = seq;
+            }
+        }
+
+        @Override
+        public void remove(double value) {
+            final long seq = removed++;
+            if (size > 0 && sequence[head] == seq) {
+                this.head = (head + 1) % values.length;
+                this.size--;
+            }
+        }
+
+        @Override
+        public double getValue() {
+            return size > 0 ? values[head] : Double.NaN;
+        }
+
+        @Override
+        public void reset() {
+            this.head = 0;
+            this.size = 0;
+            this.added = 0L;
+            this.removed = 0L;
+        }
+    }
+
+
+    /**
+     * A window that maintains its non-NaN values in sorted order to resolve percentiles with the R_7 estimation method
+     */
+    private static class PercentileWindow implements Window {
+
+        private int n;
+        private double nth;
+        private double[] sorted;
+
+        /**
+         * Constructor
+         * @param windowSize    the window size
+         * @param nth           the requested percentile, expressed as a fraction between 0 and 1
+         */
+        PercentileWindow(int windowSize, double nth) {
+            this.nth = nth;
+            this.sorted = new double[windowSize];
+        }
+
+        @Override
+        public void add(double value) {
+            if (!Double.isNaN(value)) {
+                final int index = Arrays.binarySearch(sorted, 0, n, value);
+                final int insert = index < 0 ? -(index + 1) : index;
+                System.arraycopy(sorted, insert, sorted, insert + 1, n - insert);
+                this.sorted[insert] = value;
+                this.n++;
+            }
+        }
+
+        @Override
+        public void remove(double value) {
+            if (!Double.isNaN(value)) {
+                final int index = Arrays.binarySearch(sorted, 0, n, value);
+                if (index >= 0) {
+                    System.arraycopy(sorted, index + 1, sorted, index, n - index - 1);
+                    this.n--;
+                }
+            }
+        }
+
+        @Override
+        public double getValue() {
+            if (n == 0) {
+                return Double.NaN;
+            } else if (n == 1) {
+                return sorted[0];
+            } else {
+                final double p = (nth * 100d) / 100d;
+                final double pos = p == 1d ? n : 1d + (n - 1d) * p;
+                final double floor = Math.floor(pos);
+                if (pos < 1d) {
+                    return sorted[0];
+                } else if (pos >= n) {
+                    return sorted[n - 1];
+                } else {
+                    final int index = (int)floor;
+                    final double lower = sorted[index - 1];
+                    final double upper = sorted[index];
+                    return lower + (pos - floor) * (upper - lower);
+                }
+            }
+        }
+
+        @Override
+        public void reset() {
+            this.n = 0;
+        }
+    }
 }
@@ -21,6 +21,8 @@ import java.util.function.Consumer;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameSink;
 import com.zavtech.morpheus.frame.DataFrameWrite;
+import com.zavtech.morpheus.sink.BinarySink;
+import com.zavtech.morpheus.sink.BinarySinkOptions;
 import com.zavtech.morpheus.sink.CsvSink;
 import com.zavtech.morpheus.sink.CsvSinkOptions;
 import com.zavtech.morpheus.sink.DbSink;
@@ -62,6 +64,11 @@ class XDataFrameWrite<R,C> implements DataFrameWrite<R,C> {
         this.to(new JsonSink<>(), configurator);
     }
 
+    @Override
+    public final void binary(Consumer<BinarySinkOptions> configurator) {
+        this.to(new BinarySink<>(), configurator);
+    }
+
     @Override
     public final <O,S extends DataFrameSink<R,C,O>> void to(S sink, Consumer<O> configurator) {
         Objects.requireNonNull(sink, "The sink cannot be null");
@@ -313,24 +313,69 @@ public abstract class XDataFrameAlgebra<R,C> implements DataFrameAlgebra<R,C> {
             final DataFrame<R,C> left = frame();
             final Array<R> rowKeys = left.rows().keyArray();
             final Array<Y> colKeys = right.cols().keyArray();
-            final DataFrame<R,Y> result = DataFrame.ofDoubles(rowKeys, colKeys);
-            final int count = result.rowCount() * result.colCount();
-            if (frame().isParallel()) {
-                final int threshold = Math.max(10, count / Runtime.getRuntime().availableProcessors());
-                final DotProduct action = new DotProduct(left, right, result, 0, count, threshold);
-                ForkJoinPool.commonPool().invoke(action);
+            if (isNumeric(left) && isNumeric(right)) {
+                final int innerDim = left.colCount();
+                final double[][] a = toRowMajor(left, left.rowCount(), innerDim);
+                final double[][] b = toRowMajor(right, innerDim, right.colCount());
+                final double[][] c = new double[a.length][right.colCount()];
+                if (frame().isParallel()) {
+                    final int threshold = Math.max(8, a.length / (Runtime.getRuntime().availableProcessors() * 4));
+                    ForkJoinPool.commonPool().invoke(new BlockProduct(a, b, c, 0, a.length, threshold));
+                } else {
+                    new BlockProduct(a, b, c, 0, a.length, Integer.MAX_VALUE).compute();
+                }
+                return DataFrame.ofDoubles(rowKeys, colKeys, v -> c[v.rowOrdinal()][v.colOrdinal()]);
             } else {
-                final int threshold = Integer.MAX_VALUE;
-                final DotProduct action = new DotProduct(left, right, result, 0, count, threshold);
-                action.compute();
+                final DataFrame<R,Y> result = DataFrame.ofDoubles(rowKeys, colKeys);
+                final int count = result.rowCount() * result.colCount();
+                if (frame().isParallel()) {
+                    final int threshold = Math.max(10, count / Runtime.getRuntime().availableProcessors());
+                    final DotProduct action = new DotProduct(left, right, result, 0, count, threshold);
+                    ForkJoinPool.commonPool().invoke(action);
+                } else {
+                    final int threshold = Integer.MAX_VALUE;
+                    final DotProduct action = new DotProduct(left, right, result, 0, count, threshold);
+                    action.compute();
+                }
+                return result;
             }
-            return result;
         } catch (Exception ex) {
             throw new DataFrameException("Failed to calculate the dot product of two DataFrames", ex);
         }
     }
 
 
+    /**
+     * Returns true if all columns of the frame specified are of a numeric type
+     * @param frame     the frame to check
+     * @return          true if all columns are numeric
+     */
+    private static boolean isNumeric(DataFrame<?,?> frame) {
+        return frame.cols().types().allMatch(type -> ArrayType.of(type).isNumeric());
+    }
+
+
+    /**
+     * Returns the leading rows and columns of the frame specified as a row major array of doubles
+     * The values are read one column at a time, which is sequential access for column major frames.
+     * @param frame     the frame to extract values from
+     * @param rowCount  the number of rows to extract
+     * @param colCount  the number of columns to extract
+     * @return          the array of row arrays
+     */
+    private static double[][] toRowMajor(DataFrame<?,?> frame, int rowCount, int colCount) {
+        final double[][] values = new double[rowCount][colCount];
+        final DataFrameContent.Vector<?,?> column = frame.data().colCursor();
+        for (int j=0; j<colCount; ++j) {
+            column.moveTo(j);
+            for (int i=0; i<rowCount; ++i) {
+                values[i][j] = column.getDouble(i);
+            }
+        }
+        return values;
+    }
+
+
     @Override
     public final DataFrame<R,C> divide(Number scalar) throws DataFrameException {
         try {
@@ -476,4 +521,72 @@ public abstract class XDataFrameAlgebra<R,C> implements DataFrameAlgebra<R,C> {
             }
         }
     }
+
+
+    /**
+     * A recursive task that computes a range of rows of the product of two row major matrices with a cache blocked kernel
+     * Each output value accumulates its terms in the same order as a naive inner product, so results are identical to it.
+     */
+    private static class BlockProduct extends RecursiveAction {
+
+        private static final int INNER_BLOCK = 128;
+        private static final int COL_BLOCK = 256;
+
+        private double[][] a;
+        private double[][] b;
+        private double[][] c;
+        private int from;
+        private int to;
+        private int threshold;
+
+        /**
+         * Constructor
+         * @param a         the left matrix as row arrays
+         * @param b         the right matrix as row arrays
+         * @param c         the output matrix as row arrays
+         * @param from      the first row of the output to compute, inclusive
+         * @param to        the last row of the output to compute, exclusive
+         * @param threshold the row count below which not to split
+         */
+        private BlockProduct(double[][] a, double[][] b, double[][] c, int from, int to, int threshold) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            final int count = to - from;
+            if (count > threshold) {
+                final int split = from + count / 2;
+                invokeAll(
+                    new BlockProduct(a, b, c, from, split, threshold),
+                    new BlockProduct(a, b, c, split, to, threshold)
+                );
+            } else {
+                final int innerDim = b.length;
+                final int colCount = c.length > 0 ? c[0].length : 0;
+                for (int j0=0; j0<colCount; j0 += COL_BLOCK) {
+                    final int j1 = Math.min(j0 + COL_BLOCK, colCount);
+                    for (int k0=0; k0<innerDim; k0 += INNER_BLOCK) {
+                        final int k1 = Math.min(k0 + INNER_BLOCK, innerDim);
+                        for (int i=from; i<to; ++i) {
+                            final double[] ai = a[i];
+                            final double[] ci = c[i];
+                            for (int k=k0; k<k1; ++k) {
+                                final double aik = ai[k];
+                                final double[] bk = b[k];
+                                for (int j=j0; j<j1; ++j) {
+                                    ci[j] += aik * bk[j];
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
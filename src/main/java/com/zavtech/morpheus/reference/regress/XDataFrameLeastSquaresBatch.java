@@ -0,0 +1,379 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference.regress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.math3.distribution.FDistribution;
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.frame.DataFrameLeastSquares.Field;
+import com.zavtech.morpheus.frame.DataFrameLeastSquaresBatch;
+
+/**
+ * The reference implementation of the DataFrameLeastSquaresBatch interface which regresses many regressands on the same regressors using OLS.
+ *
+ * <p>The design matrix is built and QR factorized once, and the regressands are then solved against that factorization in
+ * blocks of columns, which are split across the fork-join pool if the frame is parallel. Since the parameter covariance
+ * (X'X)^-1 only depends on the design matrix, it is also computed once and scaled by the error variance of each model.</p>
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class XDataFrameLeastSquaresBatch<R,C> implements DataFrameLeastSquaresBatch<R,C> {
+
+    private static final List<Diagnostic> diagnostics = Arrays.asList(Diagnostic.values());
+    private static final List<Field> fields = Arrays.asList(Field.values());
+
+    private double alpha;
+    private DataFrame<R,C> frame;
+    private List<C> regressands;
+    private List<C> regressors;
+    private boolean hasIntercept;
+    private double[][] params;
+    private double[][] stdErrors;
+    private double[][] residuals;
+    private double[][] stats;
+
+
+    /**
+     * Constructor
+     * @param frame         the frame to operate on
+     * @param regressands   the column keys of the regressands, one per model
+     * @param regressors    the column keys of regressors shared by all models
+     * @param intercept     true to include an intercept / constant term in the models
+     */
+    XDataFrameLeastSquaresBatch(DataFrame<R,C> frame, List<C> regressands, List<C> regressors, boolean intercept) {
+        if (regressors.size() == 0) {
+            throw new DataFrameException("At least one regressor must be specified");
+        } else if (regressands.size() == 0) {
+            throw new DataFrameException("At least one regressand must be specified");
+        } else {
+            this.alpha = 0.05;
+            this.frame = frame;
+            this.hasIntercept = intercept;
+            this.regressands = new ArrayList<>(regressands);
+            this.regressors = new ArrayList<>(regressors);
+        }
+    }
+
+
+    /**
+     * Computes the models if necessary
+     */
+    private void computeIf() {
+        if (residuals == null) {
+            fit();
+        }
+    }
+
+
+    /**
+     * Creates the X design matrix shared by all models in this batch
+     * @return  the X design matrix
+     */
+    private RealMatrix createX() {
+        final int n = frame.rowCount();
+        final int offset = hasIntercept ? 1 : 0;
+        final int p = regressors.size() + offset;
+        final int[] colIndexes = regressors.stream().mapToInt(k -> frame.cols().ordinalOf(k)).toArray();
+        final double[][] x = new double[n][p];
+        for (int i=0; i<n; ++i) {
+            if (hasIntercept) x[i][0] = 1d;
+            for (int j=offset; j<p; ++j) {
+                x[i][j] = frame.data().getDouble(i, colIndexes[j - offset]);
+            }
+        }
+        return new Array2DRowRealMatrix(x, false);
+    }
+
+
+    @Override
+    public void fit() {
+        try {
+            final int m = regressands.size();
+            final int p = regressors.size() + (hasIntercept ? 1 : 0);
+            final RealMatrix x = createX();
+            final QRDecomposition decomposition = new QRDecomposition(x);
+            final DecompositionSolver solver = decomposition.getSolver();
+            if (!solver.isNonSingular()) {
+                throw new DataFrameException("The design matrix is singular for regressors " + regressors);
+            } else {
+                final RealMatrix r = decomposition.getR().getSubMatrix(0, p - 1, 0, p - 1);
+                final RealMatrix rInv = new LUDecomposition(r).getSolver().getInverse();
+                final double[] xtxInvDiag = new double[p];
+                for (int j=0; j<p; ++j) {
+                    for (int k=0; k<p; ++k) {
+                        final double value = rInv.getEntry(j, k);
+                        xtxInvDiag[j] += value * value;
+                    }
+                }
+                this.params = new double[m][];
+                this.stdErrors = new double[m][];
+                this.stats = new double[m][];
+                this.residuals = new double[m][];
+                final int[] yIndexes = regressands.stream().mapToInt(k -> frame.cols().ordinalOf(k)).toArray();
+                if (frame.isParallel() && m > BatchSolve.COL_BLOCK) {
+                    final int threshold = Math.max(BatchSolve.COL_BLOCK, m / (Runtime.getRuntime().availableProcessors() * 4));
+                    ForkJoinPool.commonPool().invoke(new BatchSolve(x, solver, xtxInvDiag, yIndexes, 0, m, threshold));
+                } else {
+                    new BatchSolve(x, solver, xtxInvDiag, yIndexes, 0, m, Integer.MAX_VALUE).compute();
+                }
+            }
+        } catch (DataFrameException ex) {
+            this.residuals = null;
+            throw ex;
+        } catch (Exception ex) {
+            this.residuals = null;
+            throw new DataFrameException("Failed while running batch linear regression of " + regressands + " on " + regressors, ex);
+        }
+    }
+
+
+    @Override
+    public int getN() {
+        return frame.rowCount();
+    }
+
+
+    @Override
+    public List<C> getRegressands() {
+        return Collections.unmodifiableList(regressands);
+    }
+
+
+    @Override
+    public List<C> getRegressors() {
+        return Collections.unmodifiableList(regressors);
+    }
+
+
+    @Override
+    public boolean hasIntercept() {
+        return hasIntercept;
+    }
+
+
+    @Override
+    public double getAlpha() {
+        return alpha;
+    }
+
+
+    @Override
+    public DataFrameLeastSquaresBatch<R,C> withAlpha(double alpha) {
+        this.alpha = alpha;
+        return this;
+    }
+
+
+    @Override
+    public DataFrame<C,C> getBetas(Field field) {
+        this.computeIf();
+        final int offset = hasIntercept ? 1 : 0;
+        final TDistribution distribution = new TDistribution(getN() - regressors.size() - offset);
+        final double critical = distribution.inverseCumulativeProbability(1d - alpha / 2d);
+        return DataFrame.ofDoubles(regressands, regressors, v -> {
+            final int model = v.rowOrdinal();
+            final int index = v.colOrdinal() + offset;
+            return valueOf(field, params[model][index], stdErrors[model][index], distribution, critical);
+        });
+    }
+
+
+    @Override
+    public DataFrame<C,Field> getIntercept() {
+        this.computeIf();
+        final TDistribution distribution = new TDistribution(getN() - regressors.size() - (hasIntercept ? 1 : 0));
+        final double critical = distribution.inverseCumulativeProbability(1d - alpha / 2d);
+        return DataFrame.ofDoubles(regressands, fields, v -> {
+            if (!hasIntercept) {
+                return Double.NaN;
+            } else {
+                final int model = v.rowOrdinal();
+                return valueOf(v.colKey(), params[model][0], stdErrors[model][0], distribution, critical);
+            }
+        });
+    }
+
+
+    @Override
+    public DataFrame<C,Diagnostic> getDiagnostics() {
+        this.computeIf();
+        return DataFrame.ofDoubles(regressands, diagnostics, v -> stats[v.rowOrdinal()][v.colOrdinal()]);
+    }
+
+
+    @Override
+    public DataFrame<R,C> getResiduals() {
+        this.computeIf();
+        return DataFrame.ofDoubles(frame.rows().keyArray(), regressands, v -> residuals[v.colOrdinal()][v.rowOrdinal()]);
+    }
+
+
+    /**
+     * Returns the value of a coefficient field given the parameter estimate and its standard error
+     * @param field         the coefficient field
+     * @param param         the parameter estimate
+     * @param stdError      the standard error of the parameter estimate
+     * @param distribution  the t-distribution for the residual degrees of freedom
+     * @param critical      the critical t-value for the confidence interval
+     * @return              the value for the field
+     */
+    private double valueOf(Field field, double param, double stdError, TDistribution distribution, double critical) {
+        switch (field) {
+            case PARAMETER:     return param;
+            case STD_ERROR:     return stdError;
+            case T_STAT:        return param / stdError;
+            case P_VALUE:       return distribution.cumulativeProbability(-Math.abs(param / stdError)) * 2d;
+            case CI_LOWER:      return param - stdError * critical;
+            case CI_UPPER:      return param + stdError * critical;
+            default:    throw new DataFrameException("Unsupported regression field: " + field);
+        }
+    }
+
+
+
+    /**
+     * A RecursiveAction that solves a range of regressands against the shared factorization, one block of columns at a time
+     */
+    private class BatchSolve extends RecursiveAction {
+
+        private static final int COL_BLOCK = 64;
+
+        private RealMatrix x;
+        private DecompositionSolver solver;
+        private double[] xtxInvDiag;
+        private int[] yIndexes;
+        private int from;
+        private int to;
+        private int threshold;
+
+        /**
+         * Constructor
+         * @param x             the design matrix
+         * @param solver        the solver for the QR factorization of the design matrix
+         * @param xtxInvDiag    the diagonal of (X'X)^-1
+         * @param yIndexes      the column ordinals of all regressands
+         * @param from          the first regressand to solve, inclusive
+         * @param to            the last regressand to solve, exclusive
+         * @param threshold     the regressand count below which not to split
+         */
+        BatchSolve(RealMatrix x, DecompositionSolver solver, double[] xtxInvDiag, int[] yIndexes, int from, int to, int threshold) {
+            this.x = x;
+            this.solver = solver;
+            this.xtxInvDiag = xtxInvDiag;
+            this.yIndexes = yIndexes;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            final int count = to - from;
+            if (count > threshold) {
+                final int split = from + count / 2;
+                invokeAll(
+                    new BatchSolve(x, solver, xtxInvDiag, yIndexes, from, split, threshold),
+                    new BatchSolve(x, solver, xtxInvDiag, yIndexes, split, to, threshold)
+                );
+            } else {
+                final int n = x.getRowDimension();
+                for (int j0=from; j0<to; j0 += COL_BLOCK) {
+                    final int j1 = Math.min(j0 + COL_BLOCK, to);
+                    final double[][] y = new double[n][j1 - j0];
+                    for (int j=j0; j<j1; ++j) {
+                        final int colOrdinal = yIndexes[j];
+                        for (int i=0; i<n; ++i) {
+                            y[i][j - j0] = frame.data().getDouble(i, colOrdinal);
+                        }
+                    }
+                    final RealMatrix beta = solver.solve(new Array2DRowRealMatrix(y, false));
+                    final RealMatrix fitted = x.multiply(beta);
+                    for (int j=j0; j<j1; ++j) {
+                        this.record(j, j - j0, y, beta.getColumn(j - j0), fitted);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Records the parameters, residuals and diagnostics for a single model
+         * @param model     the index of the model in the batch
+         * @param column    the column of the model in the current block
+         * @param y         the regressand values for the current block
+         * @param beta      the parameter estimates for the model
+         * @param fitted    the fitted values for the current block
+         */
+        private void record(int model, int column, double[][] y, double[] beta, RealMatrix fitted) {
+            final int n = y.length;
+            final int p = beta.length;
+            final int dfModel = regressors.size();
+            final double[] errors = new double[n];
+            double rss = 0d;
+            double sum = 0d;
+            for (int i=0; i<n; ++i) {
+                errors[i] = y[i][column] - fitted.getEntry(i, column);
+                rss += errors[i] * errors[i];
+                sum += y[i][column];
+            }
+            double tss = 0d;
+            final double mean = hasIntercept ? sum / n : 0d;
+            for (int i=0; i<n; ++i) {
+                final double delta = y[i][column] - mean;
+                tss += delta * delta;
+            }
+            final double ess = tss - rss;
+            final double errorVariance = rss / (n - p);
+            final double fValue = (ess / dfModel) / errorVariance;
+            final double[] stdError = new double[p];
+            for (int j=0; j<p; ++j) {
+                stdError[j] = Math.sqrt(xtxInvDiag[j] * errorVariance);
+            }
+            final double[] values = new double[diagnostics.size()];
+            values[Diagnostic.R_SQUARED.ordinal()] = 1d - (rss / tss);
+            values[Diagnostic.R_SQUARED_ADJ.ordinal()] = 1d - (rss * (n - (hasIntercept ? 1 : 0))) / (tss * (n - p));
+            values[Diagnostic.STD_ERROR.ordinal()] = Math.sqrt(errorVariance);
+            values[Diagnostic.F_VALUE.ordinal()] = fValue;
+            values[Diagnostic.F_VALUE_PROBABILITY.ordinal()] = 1d - new FDistribution(dfModel, n - p).cumulativeProbability(fValue);
+            values[Diagnostic.TSS.ordinal()] = tss;
+            values[Diagnostic.RSS.ordinal()] = rss;
+            values[Diagnostic.ESS.ordinal()] = ess;
+            params[model] = beta;
+            stdErrors[model] = stdError;
+            residuals[model] = errors;
+            stats[model] = values;
+        }
+    }
+
+}
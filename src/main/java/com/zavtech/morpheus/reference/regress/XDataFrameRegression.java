@@ -21,6 +21,8 @@ import java.util.function.Function;
 import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameLeastSquares;
+import com.zavtech.morpheus.frame.DataFrameLeastSquaresBatch;
+import com.zavtech.morpheus.frame.DataFrameOmega;
 import com.zavtech.morpheus.frame.DataFrameRegression;
 import com.zavtech.morpheus.util.Collect;
 
@@ -75,4 +77,39 @@ public class XDataFrameRegression<R,C> implements DataFrameRegression<R,C> {
     public <T> Optional<T> gls(C regressand, Iterable<C> regressors, DataFrame<?, ?> omega, boolean intercept, Function<DataFrameLeastSquares<R, C>, Optional<T>> handler) {
         return handler.apply(new XDataFrame_GLS<>(frame, regressand, Collect.asList(regressors), intercept, omega));
     }
+
+    @Override
+    public <T> Optional<T> gls(C regressand, C regressor, DataFrameOmega omega, boolean intercept, Function<DataFrameLeastSquares<R, C>, Optional<T>> handler) {
+        return handler.apply(new XDataFrame_GLS<>(frame, regressand, Collect.asList(regressor), intercept, omega));
+    }
+
+    @Override
+    public <T> Optional<T> gls(C regressand, Iterable<C> regressors, DataFrameOmega omega, boolean intercept, Function<DataFrameLeastSquares<R, C>, Optional<T>> handler) {
+        return handler.apply(new XDataFrame_GLS<>(frame, regressand, Collect.asList(regressors), intercept, omega));
+    }
+
+    @Override
+    public <T> Optional<T> olsBatch(Iterable<C> regressands, Iterable<C> regressors, boolean intercept, Function<DataFrameLeastSquaresBatch<R,C>, Optional<T>> handler) {
+        return handler.apply(new XDataFrameLeastSquaresBatch<>(frame, Collect.asList(regressands), Collect.asList(regressors), intercept));
+    }
+
+    @Override
+    public DataFrame<R,String> rollingOls(C regressand, Iterable<C> regressors, int windowSize, boolean intercept) {
+        return new XDataFrameRollingLeastSquares<>(frame, regressand, Collect.asList(regressors), null, intercept, windowSize, windowSize).compute();
+    }
+
+    @Override
+    public DataFrame<R,String> rollingWls(C regressand, Iterable<C> regressors, Array<Double> weights, int windowSize, boolean intercept) {
+        return new XDataFrameRollingLeastSquares<>(frame, regressand, Collect.asList(regressors), weights, intercept, windowSize, windowSize).compute();
+    }
+
+    @Override
+    public DataFrame<R,String> expandingOls(C regressand, Iterable<C> regressors, int minPeriods, boolean intercept) {
+        return new XDataFrameRollingLeastSquares<>(frame, regressand, Collect.asList(regressors), null, intercept, Integer.MAX_VALUE, minPeriods).compute();
+    }
+
+    @Override
+    public DataFrame<R,String> expandingWls(C regressand, Iterable<C> regressors, Array<Double> weights, int minPeriods, boolean intercept) {
+        return new XDataFrameRollingLeastSquares<>(frame, regressand, Collect.asList(regressors), weights, intercept, Integer.MAX_VALUE, minPeriods).compute();
+    }
 }
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference.regress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+
+/**
+ * A class that fits a linear regression model over a rolling or expanding window of rows by updating the normal equations incrementally
+ *
+ * <p>As the window moves forward, the contribution of each incoming row is added to the cross products X'WX and X'Wy,
+ * and the contribution of each outgoing row is subtracted, so each window end only costs a p x p solve rather than a full
+ * re-fit of the window. To bound the drift that repeated downdates can introduce, rolling windows rebuild the cross products
+ * from scratch once every window length. Rows where the regressand, any regressor or the weight is NaN are excluded, and do
+ * not count towards the minimum number of periods. The normal equations are scaled to a unit diagonal before the Cholesky
+ * solve, so that the singularity test is relative to the scale of each regressor rather than an absolute threshold.</p>
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class XDataFrameRollingLeastSquares<R,C> {
+
+    private DataFrame<R,C> frame;
+    private C regressand;
+    private List<C> regressors;
+    private Array<Double> weights;
+    private boolean intercept;
+    private int windowSize;
+    private int minPeriods;
+
+    private int count;
+    private double sumW;
+    private double sumWY;
+    private double sumWYY;
+    private double[] xty;
+    private double[][] xtx;
+
+    /**
+     * Constructor
+     * @param frame         the frame to operate on
+     * @param regressand    the column key of the regressand
+     * @param regressors    the column keys of the regressors
+     * @param weights       the regression weights for WLS, null for OLS
+     * @param intercept     true to include an intercept / constant term in the model
+     * @param windowSize    the number of rows in the window, Integer.MAX_VALUE for an expanding window
+     * @param minPeriods    the minimum number of valid observations in the window before a result is produced
+     */
+    XDataFrameRollingLeastSquares(DataFrame<R,C> frame, C regressand, List<C> regressors, Array<Double> weights, boolean intercept, int windowSize, int minPeriods) {
+        if (regressors.size() == 0) {
+            throw new DataFrameException("At least one regressor must be specified");
+        } else if (windowSize < 1 || minPeriods < 1) {
+            throw new DataFrameException("The window size and min periods must be > 0");
+        } else if (weights != null && weights.length() != frame.rowCount()) {
+            throw new DataFrameException("The weights array length does not match the number of rows: " + weights.length() + " != " + frame.rowCount());
+        } else {
+            this.frame = frame;
+            this.regressand = regressand;
+            this.regressors = new ArrayList<>(regressors);
+            this.weights = weights;
+            this.intercept = intercept;
+            this.windowSize = windowSize;
+            this.minPeriods = minPeriods;
+        }
+    }
+
+
+    /**
+     * Returns the column keys of the result frame
+     * @return  the column keys of the result frame
+     */
+    private List<String> columnKeys() {
+        final List<String> keys = new ArrayList<>();
+        if (intercept) keys.add("Intercept");
+        regressors.forEach(regressor -> keys.add(String.valueOf(regressor)));
+        if (intercept) keys.add("Intercept(StdError)");
+        regressors.forEach(regressor -> keys.add(regressor + "(StdError)"));
+        keys.add("R-Squared");
+        return keys;
+    }
+
+
+    /**
+     * Computes the regression at the end of each window and returns the coefficients, standard errors and R-squared
+     * @return  the frame of results keyed by the row at the end of each window
+     */
+    DataFrame<R,String> compute() {
+        try {
+            final int n = frame.rowCount();
+            final int p = regressors.size() + (intercept ? 1 : 0);
+            final double[][] x = new double[n][p];
+            final double[] y = new double[n];
+            final double[] w = new double[n];
+            final boolean[] complete = new boolean[n];
+            final int yIndex = frame.cols().ordinalOf(regressand);
+            final int[] xIndexes = regressors.stream().mapToInt(k -> frame.cols().ordinalOf(k)).toArray();
+            for (int i=0; i<n; ++i) {
+                final int offset = intercept ? 1 : 0;
+                boolean valid = true;
+                y[i] = frame.data().getDouble(i, yIndex);
+                w[i] = weights != null ? weights.getDouble(i) : 1d;
+                valid &= !Double.isNaN(y[i]) && !Double.isNaN(w[i]);
+                if (intercept) x[i][0] = 1d;
+                for (int j=0; j<xIndexes.length; ++j) {
+                    x[i][j + offset] = frame.data().getDouble(i, xIndexes[j]);
+                    valid &= !Double.isNaN(x[i][j + offset]);
+                }
+                complete[i] = valid;
+            }
+            final List<String> colKeys = columnKeys();
+            final DataFrame<R,String> result = DataFrame.ofDoubles(frame.rows().keyArray(), colKeys);
+            result.applyDoubles(v -> Double.NaN);
+            this.reset(p);
+            for (int i=0; i<n; ++i) {
+                final int drop = i - windowSize;
+                if (drop >= 0 && (i % windowSize) == 0) {
+                    this.reset(p);
+                    for (int k=drop+1; k<=i; ++k) {
+                        if (complete[k]) update(x[k], y[k], w[k], 1d);
+                    }
+                } else {
+                    if (complete[i]) update(x[i], y[i], w[i], 1d);
+                    if (drop >= 0 && complete[drop]) update(x[drop], y[drop], w[drop], -1d);
+                }
+                if (count >= minPeriods && count > p) {
+                    this.solve(result, i, p);
+                }
+            }
+            return result;
+        } catch (DataFrameException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DataFrameException("Failed to compute rolling regression of " + regressand + " on " + regressors, ex);
+        }
+    }
+
+
+    /**
+     * Resets the cross products for a model with the number of parameters specified
+     * @param p     the number of parameters
+     */
+    private void reset(int p) {
+        this.count = 0;
+        this.sumW = 0d;
+        this.sumWY = 0d;
+        this.sumWYY = 0d;
+        this.xty = new double[p];
+        this.xtx = new double[p][p];
+    }
+
+
+    /**
+     * Adds or removes the contribution of an observation to the cross products
+     * @param x         the regressor values for the observation
+     * @param y         the regressand value for the observation
+     * @param w         the weight of the observation
+     * @param sign      1 to add the observation, -1 to remove it
+     */
+    private void update(double[] x, double y, double w, double sign) {
+        final double weight = sign * w;
+        final int p = x.length;
+        for (int j=0; j<p; ++j) {
+            final double wx = weight * x[j];
+            this.xty[j] += wx * y;
+            for (int k=0; k<=j; ++k) {
+                this.xtx[j][k] += wx * x[k];
+            }
+        }
+        this.sumW += weight;
+        this.sumWY += weight * y;
+        this.sumWYY += weight * y * y;
+        this.count += (int)sign;
+    }
+
+
+    /**
+     * Solves the normal equations for the current window and records the results in the row specified
+     * @param result      the result frame
+     * @param rowOrdinal  the row ordinal for the end of the current window
+     * @param p           the number of parameters
+     */
+    private void solve(DataFrame<R,String> result, int rowOrdinal, int p) {
+        try {
+            final double[] scale = new double[p];
+            for (int j=0; j<p; ++j) {
+                if (xtx[j][j] > 0d) {
+                    scale[j] = 1d / Math.sqrt(xtx[j][j]);
+                } else {
+                    return; //A regressor is zero throughout the window, so leave the results as NaN
+                }
+            }
+            final RealMatrix a = new Array2DRowRealMatrix(p, p);
+            for (int j=0; j<p; ++j) {
+                for (int k=0; k<=j; ++k) {
+                    final double value = xtx[j][k] * scale[j] * scale[k];
+                    a.setEntry(j, k, value);
+                    a.setEntry(k, j, value);
+                }
+            }
+            final RealMatrix inverse = new CholeskyDecomposition(a).getSolver().getInverse();
+            for (int j=0; j<p; ++j) {
+                for (int k=0; k<p; ++k) {
+                    inverse.multiplyEntry(j, k, scale[j] * scale[k]);
+                }
+            }
+            final double[] beta = inverse.operate(xty);
+            double fitted = 0d;
+            for (int j=0; j<p; ++j) {
+                fitted += beta[j] * xty[j];
+            }
+            final double rss = Math.max(0d, sumWYY - fitted);
+            final double tss = intercept ? sumWYY - sumWY * sumWY / sumW : sumWYY;
+            final double errorVariance = rss / (count - p);
+            for (int j=0; j<p; ++j) {
+                result.data().setDouble(rowOrdinal, j, beta[j]);
+                result.data().setDouble(rowOrdinal, p + j, Math.sqrt(inverse.getEntry(j, j) * errorVariance));
+            }
+            result.data().setDouble(rowOrdinal, 2 * p, 1d - rss / tss);
+        } catch (MathIllegalArgumentException ex) {
+            //The window is singular, so leave the results as NaN
+        }
+    }
+
+}
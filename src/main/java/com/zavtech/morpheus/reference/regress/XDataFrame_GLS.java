@@ -19,17 +19,27 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
+import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.frame.DataFrameOmega;
 import com.zavtech.morpheus.jama.CholeskyDecomposition;
 import com.zavtech.morpheus.jama.Matrix;
 
 /**
  * The reference implementation of the DataFrameLeastSquares interface which exposes a Generalized Least Squares Linear Regression model on column data.
  *
+ * <p>A dense omega is inverted and the transpose of the Cholesky factor of the inverse is used to whiten the data, which is
+ * O(n^3). For structured omegas, the data is instead whitened by P = U^-1, where U is the upper triangular factor such that
+ * omega = UU', which is the same whitening matrix. Rather than forming P, U is factorized in band storage and the data is
+ * whitened by back substitution, so omega is never inverted. A diagonal omega whitens each row by its standard deviation,
+ * and an AR(1) omega whitens each row using the next row only, so both are O(n.p) with no n x n storage. Block diagonal and
+ * banded omegas factorize each block or band independently.</p>
+ *
  * @param <R>   the row key type
  * @param <C>   the column key type
  *
@@ -39,7 +49,7 @@ import com.zavtech.morpheus.jama.Matrix;
  */
 class XDataFrame_GLS<R,C> extends XDataFrameLeastSquares<R,C> {
 
-    private DataFrame<?,?> omega;
+    private DataFrameOmega omega;
 
     /**
      * Constructor
@@ -50,6 +60,19 @@ class XDataFrame_GLS<R,C> extends XDataFrameLeastSquares<R,C> {
      * @param omega         the omega matrix, covariance of the residuals
      */
     XDataFrame_GLS(DataFrame<R,C> frame, C regressand, List<C> regressors, boolean intercept, DataFrame<?,?> omega) {
+        this(frame, regressand, regressors, intercept, DataFrameOmega.dense(omega));
+    }
+
+
+    /**
+     * Constructor
+     * @param frame         the frame to operate on
+     * @param regressand    the column key of the regressand
+     * @param regressors    the column keys of regressors
+     * @param intercept     true to include an intercept / constant term in the model
+     * @param omega         the structured specification of the covariance of the residuals
+     */
+    XDataFrame_GLS(DataFrame<R,C> frame, C regressand, List<C> regressors, boolean intercept, DataFrameOmega omega) {
         super("GLS", frame, regressand, regressors, intercept);
         this.omega = omega;
     }
@@ -60,10 +83,32 @@ class XDataFrame_GLS<R,C> extends XDataFrameLeastSquares<R,C> {
         try {
             final RealVector y = createY();
             final RealMatrix x = createX();
-            final RealMatrix p = initTransformMatrixJanma(omega);
-            final RealVector whiteY = p.operate(y);
-            final RealMatrix whiteX = p.multiply(x);
-            this.compute(whiteY, whiteX);
+            if (omega.getType() == DataFrameOmega.Type.DENSE) {
+                final RealMatrix p = initTransformMatrixJanma(omega.getBlocks().get(0));
+                final RealVector whiteY = p.operate(y);
+                final RealMatrix whiteX = p.multiply(x);
+                this.compute(whiteY, whiteX);
+            } else {
+                final int n = x.getRowDimension();
+                final int p = x.getColumnDimension();
+                final double[][] data = new double[n][p + 1];
+                for (int i=0; i<n; ++i) {
+                    data[i][0] = y.getEntry(i);
+                    for (int j=0; j<p; ++j) {
+                        data[i][j + 1] = x.getEntry(i, j);
+                    }
+                }
+                this.whiten(data);
+                final RealVector whiteY = new ArrayRealVector(n);
+                final RealMatrix whiteX = new Array2DRowRealMatrix(n, p);
+                for (int i=0; i<n; ++i) {
+                    whiteY.setEntry(i, data[i][0]);
+                    for (int j=0; j<p; ++j) {
+                        whiteX.setEntry(i, j, data[i][j + 1]);
+                    }
+                }
+                this.compute(whiteY, whiteX);
+            }
         } catch (DataFrameException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -93,4 +138,153 @@ class XDataFrame_GLS<R,C> extends XDataFrameLeastSquares<R,C> {
         }
         return matrix;
     }
+
+
+    /**
+     * Whitens the rows of data in place according to the structure of omega
+     * @param data  the row major data, with the regressand in the first column and the design matrix thereafter
+     */
+    private void whiten(double[][] data) {
+        final int n = data.length;
+        switch (omega.getType()) {
+            case DIAGONAL:
+                whitenDiagonal(data, omega.getVariances());
+                break;
+            case AR1:
+                whitenAR1(data, omega.getRho());
+                break;
+            case BANDED:
+                final DataFrame<?,?> bands = omega.getBands();
+                checkSize(bands.rowCount(), n);
+                whitenBanded(data, 0, n, bands.colCount() - 1, (i, j) -> bands.data().getDouble(i, j - i));
+                break;
+            case BLOCK_DIAGONAL:
+                int offset = 0;
+                checkSize(omega.getBlocks().stream().mapToInt(DataFrame::rowCount).sum(), n);
+                for (DataFrame<?,?> block : omega.getBlocks()) {
+                    final int size = block.rowCount();
+                    whitenBanded(data, offset, size, size - 1, (i, j) -> block.data().getDouble(i, j));
+                    offset += size;
+                }
+                break;
+            default:
+                throw new DataFrameException("Unsupported omega structure: " + omega.getType());
+        }
+    }
+
+
+    /**
+     * Checks that the size of omega matches the number of observations
+     * @param size      the size of omega
+     * @param n         the number of observations
+     */
+    private void checkSize(int size, int n) {
+        if (size != n) {
+            throw new DataFrameException("The size of omega does not match the number of observations: " + size + " != " + n);
+        }
+    }
+
+
+    /**
+     * Whitens data for a diagonal omega by dividing each row by the standard deviation of its error
+     * @param data          the row major data to whiten in place
+     * @param variances     the error variance for each observation
+     */
+    private void whitenDiagonal(double[][] data, Array<Double> variances) {
+        this.checkSize(variances.length(), data.length);
+        for (int i=0; i<data.length; ++i) {
+            final double[] row = data[i];
+            final double scale = 1d / Math.sqrt(variances.getDouble(i));
+            for (int j=0; j<row.length; ++j) {
+                row[j] *= scale;
+            }
+        }
+    }
+
+
+    /**
+     * Whitens data for an AR(1) omega, where the correlation between observations i and j is rho^|i-j|
+     * <p>The upper triangular whitening matrix for this omega is bidiagonal, so row i of the whitened data is
+     * (z[i] - rho * z[i+1]) / sqrt(1 - rho^2), and the last row is unchanged.</p>
+     * @param data  the row major data to whiten in place
+     * @param rho   the AR(1) coefficient
+     */
+    private void whitenAR1(double[][] data, double rho) {
+        final double scale = 1d / Math.sqrt(1d - rho * rho);
+        for (int i=0; i<data.length - 1; ++i) {
+            final double[] row = data[i];
+            final double[] next = data[i + 1];
+            for (int j=0; j<row.length; ++j) {
+                row[j] = (row[j] - rho * next[j]) * scale;
+            }
+        }
+    }
+
+
+    /**
+     * Whitens a range of rows given a banded omega for that range, which covers dense blocks when the bandwidth is size-1
+     * <p>The upper triangular factor U such that omega = UU' has the same bandwidth as omega, and is computed in band storage
+     * in O(size.b^2) by processing columns from last to first. The rows are then replaced by the solution of Uw = z by back
+     * substitution in O(size.b.p).</p>
+     * @param data      the row major data to whiten in place
+     * @param offset    the offset of the first row in the range
+     * @param size      the number of rows in the range
+     * @param bandwidth the number of non-zero super-diagonals in omega
+     * @param omega     the accessor for omega values with row &lt;= col, relative to the start of the range
+     */
+    private void whitenBanded(double[][] data, int offset, int size, int bandwidth, Omega omega) {
+        final int b = Math.min(bandwidth, size - 1);
+        final double[][] u = new double[size][b + 1];
+        for (int j=size-1; j>=0; --j) {
+            final int last = Math.min(size - 1, j + b);
+            double diagonal = omega.getDouble(j, j);
+            for (int k=j+1; k<=last; ++k) {
+                diagonal -= u[j][k - j] * u[j][k - j];
+            }
+            if (!(diagonal > 0d)) {
+                throw new DataFrameException("The omega matrix is not positive definite at observation " + (offset + j));
+            } else {
+                final double ujj = Math.sqrt(diagonal);
+                u[j][0] = ujj;
+                for (int i=Math.max(0, j - b); i<j; ++i) {
+                    final int end = Math.min(size - 1, i + b);
+                    double value = omega.getDouble(i, j);
+                    for (int k=j+1; k<=end; ++k) {
+                        value -= u[i][k - i] * u[j][k - j];
+                    }
+                    u[i][j - i] = value / ujj;
+                }
+            }
+        }
+        for (int i=size-1; i>=0; --i) {
+            final double[] row = data[offset + i];
+            final int last = Math.min(size - 1, i + b);
+            for (int k=i+1; k<=last; ++k) {
+                final double uik = u[i][k - i];
+                final double[] other = data[offset + k];
+                for (int j=0; j<row.length; ++j) {
+                    row[j] -= uik * other[j];
+                }
+            }
+            final double uii = u[i][0];
+            for (int j=0; j<row.length; ++j) {
+                row[j] /= uii;
+            }
+        }
+    }
+
+
+    /**
+     * An accessor for the upper triangle of omega
+     */
+    private interface Omega {
+
+        /**
+         * Returns the covariance between two observations
+         * @param i     the first observation, where i &lt;= j
+         * @param j     the second observation
+         * @return      the covariance between observations i and j
+         */
+        double getDouble(int i, int j);
+    }
 }
@@ -0,0 +1,418 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.sink;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.array.coding.IntCoding;
+import com.zavtech.morpheus.array.coding.LongCoding;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameContent;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.frame.DataFrameSink;
+import com.zavtech.morpheus.util.Initialiser;
+
+/**
+ * A DataFrameSink implementation that writes a DataFrame out in the Morpheus binary columnar format.
+ *
+ * <p>The file starts with a magic number and version, followed by one contiguous block per axis and per column,
+ * each aligned on an 8 byte boundary, and ends with a metadata section and the long offset of that section. Blocks
+ * use the big endian layout of the memory mapped arrays, so booleans are stored as shorts, numeric primitives
+ * as themselves, and date/time types as the long codes of the standard LongCodings. All other types are dictionary
+ * encoded as int codes (-1 for null), with the distinct values stored in the metadata. Each dictionary entry is
+ * tagged with its kind and stored exactly, namely strings as UTF-8, boxed primitives and date/times in their raw
+ * binary form, and any other Serializable value by Java serialization. This layout allows the BinarySource to
+ * open a file by mapping each block rather than parsing it.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class BinarySink<R,C> implements DataFrameSink<R,C,BinarySinkOptions> {
+
+    /** The magic number that identifies the format, namely the ASCII characters MRPH */
+    public static final int MAGIC = 0x4D525048;
+    /** The current version of the format */
+    public static final int VERSION = 1;
+    /** The encoding for blocks that hold values in the mapped array layout */
+    public static final byte ENCODING_PRIMITIVE = 0;
+    /** The encoding for blocks that hold int codes into a dictionary */
+    public static final byte ENCODING_DICTIONARY = 1;
+
+    /** The dictionary entry tag for a String, stored as length prefixed UTF-8 */
+    public static final byte ENTRY_STRING = 0;
+    /** The dictionary entry tag for an Enum, stored as its class name and constant name */
+    public static final byte ENTRY_ENUM = 1;
+    /** The dictionary entry tag for a Boolean */
+    public static final byte ENTRY_BOOLEAN = 2;
+    /** The dictionary entry tag for an Integer */
+    public static final byte ENTRY_INTEGER = 3;
+    /** The dictionary entry tag for a Long */
+    public static final byte ENTRY_LONG = 4;
+    /** The dictionary entry tag for a Double */
+    public static final byte ENTRY_DOUBLE = 5;
+    /** The dictionary entry tag for a Float */
+    public static final byte ENTRY_FLOAT = 6;
+    /** The dictionary entry tag for a Short */
+    public static final byte ENTRY_SHORT = 7;
+    /** The dictionary entry tag for a Byte */
+    public static final byte ENTRY_BYTE = 8;
+    /** The dictionary entry tag for a java.util.Date, stored as epoch millis */
+    public static final byte ENTRY_DATE = 9;
+    /** The dictionary entry tag for an Instant, stored as epoch seconds and nanos */
+    public static final byte ENTRY_INSTANT = 10;
+    /** The dictionary entry tag for a LocalDate, stored as the epoch day */
+    public static final byte ENTRY_LOCAL_DATE = 11;
+    /** The dictionary entry tag for a LocalTime, stored as the nano of day */
+    public static final byte ENTRY_LOCAL_TIME = 12;
+    /** The dictionary entry tag for a LocalDateTime, stored as the epoch day and nano of day */
+    public static final byte ENTRY_LOCAL_DATETIME = 13;
+    /** The dictionary entry tag for a ZonedDateTime, stored as epoch seconds, nanos and zone id */
+    public static final byte ENTRY_ZONED_DATETIME = 14;
+    /** The dictionary entry tag for any other Serializable value, stored as length prefixed Java serialization bytes */
+    public static final byte ENTRY_SERIALIZED = 15;
+
+    /**
+     * Constructor
+     */
+    public BinarySink() {
+        super();
+    }
+
+
+    @Override
+    public void write(DataFrame<R,C> frame, Consumer<BinarySinkOptions> configurator) {
+        final BinarySinkOptions options = Initialiser.apply(BinarySinkOptions.class, configurator);
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(options.getResource().toOutputStream(), 1024 * 1024))) {
+            final Writer writer = new Writer(os);
+            final int rowCount = frame.rowCount();
+            final int colCount = frame.colCount();
+            final DataFrameContent<R,C> data = frame.data();
+            final List<Block<?>> blocks = new ArrayList<>(colCount + 2);
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            writer.position = 8L;
+            blocks.add(writer.writeValues(frame.rows().keyType(), rowCount, i -> frame.rows().key(i)));
+            blocks.add(writer.writeValues(frame.cols().keyType(), colCount, i -> frame.cols().key(i)));
+            for (int j=0; j<colCount; ++j) {
+                final int colOrdinal = j;
+                final Class<?> type = frame.cols().type(frame.cols().key(j));
+                blocks.add(writer.writeColumn(data, type, rowCount, colOrdinal));
+            }
+            final long metaOffset = writer.position;
+            os.writeInt(rowCount);
+            os.writeInt(colCount);
+            for (Block<?> block : blocks) {
+                writer.writeBlock(block);
+            }
+            os.writeLong(metaOffset);
+        } catch (DataFrameException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DataFrameException("Failed to write DataFrame to binary output", ex);
+        }
+    }
+
+
+    /**
+     * Returns the long coding used to store the array type in a primitive block
+     * @param type  the array type
+     * @return      the long coding, null if the type is not long coded
+     */
+    private static LongCoding<?> longCoding(ArrayType type) {
+        switch (type) {
+            case DATE:              return LongCoding.ofDate();
+            case INSTANT:           return LongCoding.ofInstant();
+            case LOCAL_DATE:        return LongCoding.ofLocalDate();
+            case LOCAL_TIME:        return LongCoding.ofLocalTime();
+            case LOCAL_DATETIME:    return LongCoding.ofLocalDateTime();
+            default:                return null;
+        }
+    }
+
+
+    /**
+     * A class that writes blocks to the output while tracking the position as a long
+     */
+    private static class Writer {
+
+        private long position;
+        private DataOutputStream os;
+
+        /**
+         * Constructor
+         * @param os        the output stream to write to
+         */
+        Writer(DataOutputStream os) {
+            this.os = os;
+        }
+
+        /**
+         * Pads the output to the next 8 byte boundary
+         * @return  the aligned position
+         * @throws IOException  if there is an I/O exception
+         */
+        private long align() throws IOException {
+            while (position % 8 != 0) {
+                os.writeByte(0);
+                position++;
+            }
+            return position;
+        }
+
+        /**
+         * Writes a column block using the primitive accessors of the frame content where possible
+         * @param data          the frame content
+         * @param type          the column type
+         * @param rowCount      the row count
+         * @param colOrdinal    the column ordinal
+         * @return              the block written
+         * @throws IOException  if there is an I/O exception
+         */
+        @SuppressWarnings("unchecked")
+        private <T> Block<T> writeColumn(DataFrameContent<?,?> data, Class<T> type, int rowCount, int colOrdinal) throws IOException {
+            final long offset = align();
+            switch (ArrayType.of(type)) {
+                case BOOLEAN:
+                    for (int i=0; i<rowCount; ++i) os.writeShort(data.getBoolean(i, colOrdinal) ? 1 : 0);
+                    this.position += 2L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case INTEGER:
+                    for (int i=0; i<rowCount; ++i) os.writeInt(data.getInt(i, colOrdinal));
+                    this.position += 4L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case LONG:
+                    for (int i=0; i<rowCount; ++i) os.writeLong(data.getLong(i, colOrdinal));
+                    this.position += 8L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case DOUBLE:
+                    for (int i=0; i<rowCount; ++i) os.writeDouble(data.getDouble(i, colOrdinal));
+                    this.position += 8L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case FLOAT:
+                    for (int i=0; i<rowCount; ++i) os.writeFloat((float)data.getDouble(i, colOrdinal));
+                    this.position += 4L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case SHORT:
+                    for (int i=0; i<rowCount; ++i) os.writeShort(data.getInt(i, colOrdinal));
+                    this.position += 2L * rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                case BYTE:
+                    for (int i=0; i<rowCount; ++i) os.writeByte(data.getInt(i, colOrdinal));
+                    this.position += rowCount;
+                    return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+                default:
+                    return writeValues(type, rowCount, i -> (T)data.getValue(i, colOrdinal));
+            }
+        }
+
+        /**
+         * Writes a block of values accessed by ordinal
+         * @param type      the value type
+         * @param length    the number of values
+         * @param values    the function to access values by ordinal
+         * @return          the block written
+         * @throws IOException  if there is an I/O exception
+         */
+        @SuppressWarnings("unchecked")
+        private <T> Block<T> writeValues(Class<T> type, int length, IntFunction<T> values) throws IOException {
+            final long offset = align();
+            final ArrayType arrayType = ArrayType.of(type);
+            final LongCoding<T> longCoding = (LongCoding<T>)longCoding(arrayType);
+            if (longCoding != null) {
+                for (int i=0; i<length; ++i) os.writeLong(longCoding.getCode(values.apply(i)));
+                this.position += 8L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isBoolean()) {
+                for (int i=0; i<length; ++i) os.writeShort((Boolean)values.apply(i) ? 1 : 0);
+                this.position += 2L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isInteger()) {
+                for (int i=0; i<length; ++i) os.writeInt((Integer)values.apply(i));
+                this.position += 4L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isLong()) {
+                for (int i=0; i<length; ++i) os.writeLong((Long)values.apply(i));
+                this.position += 8L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isDouble()) {
+                for (int i=0; i<length; ++i) os.writeDouble((Double)values.apply(i));
+                this.position += 8L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isFloat()) {
+                for (int i=0; i<length; ++i) os.writeFloat((Float)values.apply(i));
+                this.position += 4L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isShort()) {
+                for (int i=0; i<length; ++i) os.writeShort((Short)values.apply(i));
+                this.position += 2L * length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else if (arrayType.isByte()) {
+                for (int i=0; i<length; ++i) os.writeByte((Byte)values.apply(i));
+                this.position += length;
+                return new Block<>(type, ENCODING_PRIMITIVE, offset, null);
+            } else {
+                final T[] empty = (T[])java.lang.reflect.Array.newInstance(type, 0);
+                final IntCoding.OfDictionary<T> dictionary = IntCoding.ofDictionary(type, empty);
+                for (int i=0; i<length; ++i) os.writeInt(dictionary.getCode(values.apply(i)));
+                this.position += 4L * length;
+                return new Block<>(type, ENCODING_DICTIONARY, offset, dictionary);
+            }
+        }
+
+        /**
+         * Writes the metadata that describes a block, including the dictionary if any
+         * @param block     the block to describe
+         * @throws IOException  if there is an I/O exception
+         */
+        private <T> void writeBlock(Block<T> block) throws IOException {
+            os.writeUTF(block.type.getName());
+            os.writeByte(block.encoding);
+            os.writeLong(block.offset);
+            if (block.encoding == ENCODING_DICTIONARY) {
+                final int size = block.dictionary.size();
+                os.writeInt(size);
+                for (int code=0; code<size; ++code) {
+                    writeEntry(block.dictionary.getValue(code));
+                }
+            }
+        }
+
+        /**
+         * Writes a dictionary entry as a tag that identifies its kind followed by its exact binary representation
+         * @param value     the entry value, which is never null
+         * @throws IOException  if there is an I/O exception
+         */
+        private void writeEntry(Object value) throws IOException {
+            final Class<?> type = value.getClass();
+            if (type == String.class) {
+                os.writeByte(ENTRY_STRING);
+                writeString((String)value);
+            } else if (value instanceof Enum) {
+                os.writeByte(ENTRY_ENUM);
+                os.writeUTF(((Enum<?>)value).getDeclaringClass().getName());
+                writeString(((Enum<?>)value).name());
+            } else if (type == Boolean.class) {
+                os.writeByte(ENTRY_BOOLEAN);
+                os.writeBoolean((Boolean)value);
+            } else if (type == Integer.class) {
+                os.writeByte(ENTRY_INTEGER);
+                os.writeInt((Integer)value);
+            } else if (type == Long.class) {
+                os.writeByte(ENTRY_LONG);
+                os.writeLong((Long)value);
+            } else if (type == Double.class) {
+                os.writeByte(ENTRY_DOUBLE);
+                os.writeDouble((Double)value);
+            } else if (type == Float.class) {
+                os.writeByte(ENTRY_FLOAT);
+                os.writeFloat((Float)value);
+            } else if (type == Short.class) {
+                os.writeByte(ENTRY_SHORT);
+                os.writeShort((Short)value);
+            } else if (type == Byte.class) {
+                os.writeByte(ENTRY_BYTE);
+                os.writeByte((Byte)value);
+            } else if (type == Date.class) {
+                os.writeByte(ENTRY_DATE);
+                os.writeLong(((Date)value).getTime());
+            } else if (type == Instant.class) {
+                os.writeByte(ENTRY_INSTANT);
+                os.writeLong(((Instant)value).getEpochSecond());
+                os.writeInt(((Instant)value).getNano());
+            } else if (type == LocalDate.class) {
+                os.writeByte(ENTRY_LOCAL_DATE);
+                os.writeLong(((LocalDate)value).toEpochDay());
+            } else if (type == LocalTime.class) {
+                os.writeByte(ENTRY_LOCAL_TIME);
+                os.writeLong(((LocalTime)value).toNanoOfDay());
+            } else if (type == LocalDateTime.class) {
+                os.writeByte(ENTRY_LOCAL_DATETIME);
+                os.writeLong(((LocalDateTime)value).toLocalDate().toEpochDay());
+                os.writeLong(((LocalDateTime)value).toLocalTime().toNanoOfDay());
+            } else if (type == ZonedDateTime.class) {
+                os.writeByte(ENTRY_ZONED_DATETIME);
+                os.writeLong(((ZonedDateTime)value).toEpochSecond());
+                os.writeInt(((ZonedDateTime)value).getNano());
+                os.writeUTF(((ZonedDateTime)value).getZone().getId());
+            } else if (value instanceof Serializable) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(value);
+                }
+                os.writeByte(ENTRY_SERIALIZED);
+                os.writeInt(bytes.size());
+                bytes.writeTo(os);
+            } else {
+                throw new DataFrameException("Cannot write value of type " + type.getName() + " in binary format as it is not Serializable");
+            }
+        }
+
+        /**
+         * Writes a length prefixed UTF-8 string, which unlike writeUTF() is not limited to 64K
+         * @param value     the string value
+         * @throws IOException  if there is an I/O exception
+         */
+        private void writeString(String value) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            os.writeInt(bytes.length);
+            os.write(bytes);
+        }
+    }
+
+
+    /**
+     * A class that describes a block written to the output
+     */
+    private static class Block<T> {
+
+        private Class<T> type;
+        private byte encoding;
+        private long offset;
+        private IntCoding.OfDictionary<T> dictionary;
+
+        /**
+         * Constructor
+         * @param type          the value type
+         * @param encoding      the block encoding
+         * @param offset        the byte offset of the block
+         * @param dictionary    the dictionary for dictionary encoded blocks, otherwise null
+         */
+        Block(Class<T> type, byte encoding, long offset, IntCoding.OfDictionary<T> dictionary) {
+            this.type = type;
+            this.encoding = encoding;
+            this.offset = offset;
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.sink;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import com.zavtech.morpheus.util.Resource;
+
+/**
+ * The options to configure a BinarySink that writes a DataFrame in the Morpheus binary columnar format
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class BinarySinkOptions {
+
+    private Resource resource;
+
+    /**
+     * Constructor
+     */
+    public BinarySinkOptions() {
+        super();
+    }
+
+    /**
+     * Returns the resource for these options
+     * @return  the resource
+     */
+    public Resource getResource() {
+        return resource;
+    }
+
+    /**
+     * Sets the resource for these options
+     * @param resource  the resource to apply
+     */
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Sets the resource output stream for these options
+     * @param os    the output stream to write to
+     */
+    public void setOutputStream(OutputStream os) {
+        this.resource = Resource.of(os);
+    }
+
+    /**
+     * Sets the resource file for these options
+     * @param file  the output file to write to
+     */
+    public void setFile(File file) {
+        this.resource = Resource.of(file);
+    }
+
+    /**
+     * Sets the resource file for these options
+     * @param path  the output file path to write to
+     */
+    public void setFile(String path) {
+        this.resource = Resource.of(new File(path));
+    }
+}
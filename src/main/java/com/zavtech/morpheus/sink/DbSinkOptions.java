@@ -264,6 +264,9 @@ public class DbSinkOptions<R,C> {
             this.add(Integer.class, Integer.class, Function1.toInt(DataFrameValue::getInt));
             this.add(Long.class, Long.class, Function1.toLong(DataFrameValue::getLong));
             this.add(Double.class, Double.class, Function1.toDouble(DataFrameValue::getDouble));
+            this.add(Float.class, Double.class, Function1.toDouble(DataFrameValue::getDouble));
+            this.add(Short.class, Integer.class, Function1.toInt(DataFrameValue::getInt));
+            this.add(Byte.class, Integer.class, Function1.toInt(DataFrameValue::getInt));
             this.add(String.class, String.class, Function1.toValue(DataFrameValue::<String>getValue));
             this.add(java.sql.Date.class, java.sql.Date.class, Function1.toValue(DataFrameValue::<Date>getValue));
             this.add(java.sql.Time.class, java.sql.Time.class, Function1.toValue(DataFrameValue::<Time>getValue));
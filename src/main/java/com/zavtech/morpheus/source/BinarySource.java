@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.source;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayBuilder;
+import com.zavtech.morpheus.array.ArrayType;
+import com.zavtech.morpheus.array.coding.IntCoding;
+import com.zavtech.morpheus.array.mapped.MappedArrayConstructor;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.frame.DataFrameSource;
+import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.sink.BinarySink;
+
+/**
+ * A DataFrameSource implementation that opens a file in the Morpheus binary columnar format written by a BinarySink.
+ *
+ * <p>Only the metadata section of the file is read, and each column is backed by a memory mapped array over its
+ * block in the file, so opening a frame does not copy or parse the column data. The row keys are also mapped, but
+ * the row index still has to hash each key, so that step is linear in the number of rows.</p>
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class BinarySource<R,C> extends DataFrameSource<R,C,BinarySourceOptions<R,C>> {
+
+    /**
+     * Constructor
+     */
+    public BinarySource() {
+        super();
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DataFrame<R,C> read(Consumer<BinarySourceOptions<R,C>> configurator) throws DataFrameException {
+        final BinarySourceOptions<R,C> options = initOptions(new BinarySourceOptions<>(), configurator);
+        final File file = options.getFile();
+        final FileChannel.MapMode mode = options.isReadOnly() ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.PRIVATE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < 16 || raf.readInt() != BinarySink.MAGIC) {
+                throw new DataFrameException("The file is not in Morpheus binary format: " + file.getAbsolutePath());
+            } else {
+                final int version = raf.readInt();
+                if (version > BinarySink.VERSION) {
+                    throw new DataFrameException("Unsupported Morpheus binary format version " + version + " in " + file.getAbsolutePath());
+                }
+                raf.seek(raf.length() - 8);
+                raf.seek(raf.readLong());
+                final DataInputStream is = new DataInputStream(new BufferedInputStream(Channels.newInputStream(raf.getChannel())));
+                final int rowCount = is.readInt();
+                final int colCount = is.readInt();
+                final Array<R> rowKeys = (Array<R>)readBlock(is, file, rowCount, mode);
+                final Array<C> colKeys = (Array<C>)readBlock(is, file, colCount, mode);
+                final List<Array<?>> arrays = new ArrayList<>(colCount);
+                for (int j=0; j<colCount; ++j) {
+                    arrays.add(readBlock(is, file, rowCount, mode));
+                }
+                final Index<R> rowIndex = Index.of(toKeyArray(rowKeys));
+                return DataFrame.of(rowIndex, colKeys.type(), columns -> {
+                    for (int j=0; j<colCount; ++j) {
+                        columns.add(colKeys.getValue(j), arrays.get(j));
+                    }
+                });
+            }
+        } catch (DataFrameException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DataFrameException("Failed to load DataFrame from binary file: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+
+    /**
+     * Returns an array of keys suitable to back an index, copying dictionary encoded zoned date times
+     * @param keys  the keys read from the file
+     * @return      the array to back the index
+     */
+    private <K> Array<K> toKeyArray(Array<K> keys) {
+        if (ArrayType.of(keys.type()) != ArrayType.ZONED_DATETIME) {
+            return keys;
+        } else {
+            return ArrayBuilder.of(keys.length(), keys.type()).addAll(keys).toArray();
+        }
+    }
+
+
+    /**
+     * Reads the metadata for a block and returns an array that maps the block in the file
+     * @param is        the input stream positioned at the block metadata
+     * @param file      the file to map
+     * @param length    the number of values in the block
+     * @param mode      the map mode
+     * @return          the array backed by the block
+     * @throws IOException  if there is an I/O exception
+     * @throws ClassNotFoundException   if the block type cannot be resolved
+     */
+    @SuppressWarnings("unchecked")
+    private Array<?> readBlock(DataInputStream is, File file, int length, FileChannel.MapMode mode) throws IOException, ClassNotFoundException {
+        final Class<Object> type = (Class<Object>)Class.forName(is.readUTF());
+        final byte encoding = is.readByte();
+        final long offset = is.readLong();
+        final Object defaultValue = ArrayType.defaultValue(type);
+        if (encoding == BinarySink.ENCODING_PRIMITIVE) {
+            return MappedArrayConstructor.map(type, length, defaultValue, file, offset, mode);
+        } else if (encoding == BinarySink.ENCODING_DICTIONARY) {
+            final int size = is.readInt();
+            final Object[] values = (Object[])java.lang.reflect.Array.newInstance(type, size);
+            for (int code=0; code<size; ++code) {
+                values[code] = readEntry(is);
+            }
+            final IntCoding<Object> coding = IntCoding.ofDictionary(type, values);
+            return MappedArrayConstructor.map(coding, length, defaultValue, file, offset, mode);
+        } else {
+            throw new DataFrameException("Unsupported block encoding in Morpheus binary file: " + encoding);
+        }
+    }
+
+
+    /**
+     * Reads a dictionary entry written by the BinarySink, which is a tag that identifies its kind followed by its value
+     * @param is    the input stream positioned at the entry
+     * @return      the entry value
+     * @throws IOException  if there is an I/O exception
+     * @throws ClassNotFoundException   if the class of an enum or serialized entry cannot be resolved
+     */
+    @SuppressWarnings("unchecked")
+    private Object readEntry(DataInputStream is) throws IOException, ClassNotFoundException {
+        final byte tag = is.readByte();
+        switch (tag) {
+            case BinarySink.ENTRY_STRING:           return readString(is);
+            case BinarySink.ENTRY_ENUM:             return Enum.valueOf((Class<Enum>)Class.forName(is.readUTF()), readString(is));
+            case BinarySink.ENTRY_BOOLEAN:          return is.readBoolean();
+            case BinarySink.ENTRY_INTEGER:          return is.readInt();
+            case BinarySink.ENTRY_LONG:             return is.readLong();
+            case BinarySink.ENTRY_DOUBLE:           return is.readDouble();
+            case BinarySink.ENTRY_FLOAT:            return is.readFloat();
+            case BinarySink.ENTRY_SHORT:            return is.readShort();
+            case BinarySink.ENTRY_BYTE:             return is.readByte();
+            case BinarySink.ENTRY_DATE:             return new Date(is.readLong());
+            case BinarySink.ENTRY_INSTANT:          return Instant.ofEpochSecond(is.readLong(), is.readInt());
+            case BinarySink.ENTRY_LOCAL_DATE:       return LocalDate.ofEpochDay(is.readLong());
+            case BinarySink.ENTRY_LOCAL_TIME:       return LocalTime.ofNanoOfDay(is.readLong());
+            case BinarySink.ENTRY_LOCAL_DATETIME:   return LocalDateTime.of(LocalDate.ofEpochDay(is.readLong()), LocalTime.ofNanoOfDay(is.readLong()));
+            case BinarySink.ENTRY_ZONED_DATETIME:
+                final Instant instant = Instant.ofEpochSecond(is.readLong(), is.readInt());
+                return ZonedDateTime.ofInstant(instant, ZoneId.of(is.readUTF()));
+            case BinarySink.ENTRY_SERIALIZED:
+                final byte[] bytes = new byte[is.readInt()];
+                is.readFully(bytes);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return ois.readObject();
+                }
+            default:
+                throw new DataFrameException("Unsupported dictionary entry in Morpheus binary file: " + tag);
+        }
+    }
+
+
+    /**
+     * Reads a length prefixed UTF-8 string
+     * @param is    the input stream
+     * @return      the string value
+     * @throws IOException  if there is an I/O exception
+     */
+    private String readString(DataInputStream is) throws IOException {
+        final byte[] bytes = new byte[is.readInt()];
+        is.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.source;
+
+import java.io.File;
+
+import com.zavtech.morpheus.frame.DataFrameSource;
+import com.zavtech.morpheus.util.Asserts;
+
+/**
+ * The options to load a DataFrame from a file in the Morpheus binary columnar format written by a BinarySink.
+ *
+ * @param <R>   the row key type
+ * @param <C>   the column key type
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class BinarySourceOptions<R,C> implements DataFrameSource.Options<R,C> {
+
+    private File file;
+    private boolean readOnly;
+
+    /**
+     * Constructor
+     */
+    public BinarySourceOptions() {
+        super();
+    }
+
+
+    @Override
+    public void validate() {
+        Asserts.notNull(getFile(), "The binary options file cannot be null");
+        Asserts.check(getFile().isFile(), "The binary options file does not exist: " + getFile().getAbsolutePath());
+    }
+
+    /**
+     * Returns the file to load from
+     * @return  the file to load from
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if the file is mapped read only, rather than copy-on-write
+     * @return  true if the resulting frame cannot be modified
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Sets the file to load from
+     * @param file  the input file
+     */
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Sets the file to load from
+     * @param path  the input file path
+     */
+    public void setFile(String path) {
+        this.file = new File(path);
+    }
+
+    /**
+     * Sets whether the file should be mapped read only
+     * <p>By default the file is mapped copy-on-write, so the resulting frame can be modified without ever
+     * updating the file. When read only, any attempt to modify the mapped values will fail.</p>
+     * @param readOnly  true to map the file read only
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+}
@@ -16,13 +16,21 @@
 package com.zavtech.morpheus.source;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -46,9 +54,12 @@ import com.zavtech.morpheus.frame.DataFrameContent;
 import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameSource;
 import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.range.Range;
 import com.zavtech.morpheus.util.Resource;
+import com.zavtech.morpheus.util.functions.FunctionStyle;
 import com.zavtech.morpheus.util.http.HttpClient;
 import com.zavtech.morpheus.util.text.Formats;
+import com.zavtech.morpheus.util.text.parser.InferredType;
 import com.zavtech.morpheus.util.text.parser.Parser;
 
 /**
@@ -77,7 +88,7 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
             final CsvSourceOptions<R> options = initOptions(new CsvSourceOptions<>(), configurator);
             final Resource resource = options.getResource();
             switch (resource.getType()) {
-                case FILE:          return parse(options, new FileInputStream(resource.asFile()));
+                case FILE:          return parse(options, resource.asFile());
                 case URL:           return parse(options, resource.asURL());
                 case INPUT_STREAM:  return parse(options, resource.asInputStream());
                 default:    throw new DataFrameException("Unsupported resource specified in CSVRequest: " + resource);
@@ -90,6 +101,149 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
     }
 
 
+    /**
+     * Returns a DataFrame parsed from the file specified, which is split into line aligned chunks if so configured
+     * @param options   the CSV options
+     * @param file      the file to parse
+     * @return          the DataFrame parsed from file
+     * @throws IOException      if there stream read error
+     */
+    private DataFrame<R,String> parse(CsvSourceOptions<R> options, File file) throws IOException {
+        final Charset charset = options.getCharset().orElse(StandardCharsets.UTF_8);
+        final boolean singleByteLineFeed = "\n".getBytes(charset).length == 1;
+        if (options.getChunkCount(file.length()) < 2 || !singleByteLineFeed) {
+            return parse(options, new FileInputStream(file));
+        } else {
+            final CsvRequestHandler template = new CsvRequestHandler(options, null, true);
+            try (InputStream stream = new FileInputStream(file)) {
+                parse(options, stream, template, options.isHeader());
+            }
+            if (template.headers == null) {
+                return parse(options, new FileInputStream(file));
+            } else {
+                final long[] bounds = chunkBounds(file, options.getChunkCount(file.length()));
+                final List<CsvRequestHandler> chunks = IntStream.range(0, bounds.length - 1).parallel().mapToObj(i -> {
+                    final CsvRequestHandler handler = new CsvRequestHandler(options, template, false);
+                    try (InputStream stream = new FileRangeInputStream(file, bounds[i], bounds[i+1])) {
+                        parse(options, stream, handler, i == 0 && options.isHeader());
+                        return handler;
+                    } catch (IOException ex) {
+                        throw new DataFrameException("Failed to parse CSV chunk " + i + " of file: " + file.getAbsolutePath(), ex);
+                    }
+                }).collect(Collectors.toList());
+                return stitch(options, template, chunks);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the byte offsets that split a file into line aligned chunks, where chunk i spans [bounds[i], bounds[i+1])
+     * @param file          the file to split
+     * @param chunkCount    the requested number of chunks
+     * @return              the chunk bounds, starting at zero and ending at the file length
+     * @throws IOException  if there is an I/O error
+     */
+    private long[] chunkBounds(File file, int chunkCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            final long[] bounds = new long[chunkCount + 1];
+            int count = 1;
+            for (int i=1; i<chunkCount; ++i) {
+                final long target = Math.max(length * i / chunkCount, bounds[count-1]);
+                final long bound = nextLineStart(channel, target, length);
+                if (bound > bounds[count-1] && bound < length) {
+                    bounds[count++] = bound;
+                }
+            }
+            bounds[count++] = length;
+            return Arrays.copyOf(bounds, count);
+        }
+    }
+
+
+    /**
+     * Returns the offset of the first line that starts at or after the position specified
+     * @param channel   the file channel
+     * @param position  the position from which to search
+     * @param length    the length of the file
+     * @return          the offset of the next line start, or the file length if there is none
+     * @throws IOException  if there is an I/O error
+     */
+    private long nextLineStart(FileChannel channel, long position, long length) throws IOException {
+        if (position <= 0L) {
+            return 0L;
+        } else {
+            long offset = position - 1;
+            final ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (offset < length) {
+                buffer.clear();
+                final int count = channel.read(buffer, offset);
+                if (count <= 0) {
+                    return length;
+                } else {
+                    buffer.flip();
+                    for (int i=0; i<count; ++i) {
+                        if (buffer.get(i) == '\n') {
+                            return offset + i + 1;
+                        }
+                    }
+                    offset += count;
+                }
+            }
+            return length;
+        }
+    }
+
+
+    /**
+     * Returns a DataFrame that combines the rows of the chunk frames in order
+     * Any column that was widened in some chunks is widened to the common type in all chunks before combining
+     * @param options   the CSV options
+     * @param template  the handler that resolved the column types
+     * @param chunks    the handlers that parsed each chunk, in file order
+     * @return          the combined DataFrame
+     */
+    @SuppressWarnings("unchecked")
+    private DataFrame<R,String> stitch(CsvSourceOptions<R> options, CsvRequestHandler template, List<CsvRequestHandler> chunks) {
+        final List<CsvRequestHandler> handlers = chunks.stream().filter(c -> c.frame != null && c.frame.rowCount() > 0).collect(Collectors.toList());
+        final Class<?>[] types = template.types.clone();
+        handlers.forEach(handler -> {
+            for (int j=0; j<types.length; ++j) {
+                if (handler.types[j] != types[j]) {
+                    final InferredType widened = InferredType.of(types[j]).widen(InferredType.of(handler.types[j]));
+                    types[j] = widened.isNumeric() ? widened.getType() : Object.class;
+                }
+            }
+        });
+        handlers.forEach(handler -> {
+            for (int j=0; j<types.length; ++j) {
+                if (handler.types[j] != types[j]) {
+                    handler.widen(j, types[j]);
+                }
+            }
+        });
+        final List<DataFrame<R,String>> frames = handlers.stream().map(c -> c.frame).collect(Collectors.toList());
+        final int rowCount = frames.stream().mapToInt(DataFrame::rowCount).sum();
+        final Class<R> rowType = options.getRowAxisType();
+        final Array<R> rowKeys;
+        if (options.getRowKeyParser().isPresent()) {
+            rowKeys = Array.concat(rowType, frames.stream().map(c -> c.rows().keyArray()).collect(Collectors.toList()));
+        } else {
+            rowKeys = (Array<R>)Range.of(0, rowCount).toArray();
+        }
+        final Index<R> index = Index.of(rowKeys);
+        return DataFrame.of(index, String.class, columns -> {
+            for (int j=0; j<template.headers.length; ++j) {
+                final int colOrdinal = j;
+                final Class<Object> type = (Class<Object>)types[j];
+                final List<Array<Object>> arrays = frames.stream().map(c -> c.colAt(colOrdinal).<Object>toArray()).collect(Collectors.toList());
+                columns.add(template.headers[j], Array.concat(type, arrays));
+            }
+        });
+    }
+
+
     /**
      * Returns a DataFrame parsed from the url specified
      * @param url   the url to parse
@@ -123,11 +277,25 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
      * @throws IOException      if there stream read error
      */
     private DataFrame<R,String> parse(CsvSourceOptions<R> options, InputStream stream) throws IOException {
+        final CsvRequestHandler handler = new CsvRequestHandler(options, null, false);
+        return parse(options, stream, handler, options.isHeader());
+    }
+
+
+    /**
+     * Returns a DataFrame parsed from the stream specified using the handler provided
+     * @param options   the CSV options
+     * @param stream    the stream to parse
+     * @param handler   the handler to receive parsed rows
+     * @param header    true if the first line of the stream is a header
+     * @return          the DataFrame parsed from stream
+     * @throws IOException      if there stream read error
+     */
+    private DataFrame<R,String> parse(CsvSourceOptions<R> options, InputStream stream, CsvRequestHandler handler, boolean header) throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, options.getCharset().orElse(StandardCharsets.UTF_8)))) {
-            final CsvRequestHandler handler = new CsvRequestHandler(options);
             final CsvParserSettings settings = new CsvParserSettings();
             settings.getFormat().setDelimiter(options.getDelimiter());
-            settings.setHeaderExtractionEnabled(options.isHeader());
+            settings.setHeaderExtractionEnabled(header);
             settings.setLineSeparatorDetectionEnabled(true);
             settings.setRowProcessor(handler);
             settings.setIgnoreTrailingWhitespaces(true);
@@ -147,8 +315,14 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
      */
     private class CsvRequestHandler implements RowProcessor, Runnable {
 
+        private boolean sample;
+        private boolean threaded;
         private int rowCounter;
         private String[] headers;
+        private Class<?>[] types;
+        private boolean[] inferred;
+        private BitSet[] nulls;
+        private CsvRequestHandler template;
         private int[] colIndexes;
         private int logBatchSize;
         private String[] rowValues;
@@ -166,13 +340,18 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
         /**
          * Constructor
          * @param options   the options
+         * @param template  the handler that has resolved headers and column types to adopt, null to resolve from content
+         * @param sample    true to stop parsing once the column types have been resolved from the first batch
          */
-        CsvRequestHandler(CsvSourceOptions<R> options) {
+        CsvRequestHandler(CsvSourceOptions<R> options, CsvRequestHandler template, boolean sample) {
             this.options = options;
+            this.template = template;
+            this.sample = sample;
+            this.threaded = options.isParallel() && template == null && !sample;
             this.rowPredicate = options.getRowPredicate().orElse(null);
             this.rowKeyParser = options.getRowKeyParser().orElse(null);
             this.logBatchSize = options.getLogBatchSize();
-            if (options.isParallel()) {
+            if (threaded) {
                 this.countDownLatch = new CountDownLatch(1);
                 this.queue = new LinkedTransferQueue<>();
                 final Thread thread = new Thread(this, "DataFrameCsvReaderThread");
@@ -188,7 +367,7 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
          */
         public DataFrame<R,String> getFrame() {
             try {
-                if (options.isParallel()) {
+                if (threaded) {
                     this.countDownLatch.await();
                     return frame;
                 } else {
@@ -259,9 +438,12 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
                         this.batch.addRow(rowKey, rowValues);
                     }
                     if (batch.rowCount() == options.getReadBatchSize()) {
-                        if (!options.isParallel()) {
+                        if (!threaded) {
                             this.processBatch(batch);
                             this.batch.clear();
+                            if (sample) {
+                                context.stop();
+                            }
                         } else {
                             synchronized (lock) {
                                 this.queue.add(batch);
@@ -282,7 +464,7 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
         @Override
         public void processEnded(ParsingContext context) {
             try {
-                if (!options.isParallel()) {
+                if (!threaded) {
                     this.batch = batch != null ? batch : new DataBatch<>(options, 0);
                     this.processBatch(batch);
                 } else {
@@ -307,10 +489,26 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
          */
         @SuppressWarnings("unchecked")
         private void initBatch(int csvColCount, ParsingContext context) {
-            final int colCount = initHeader(csvColCount, context);
+            final int colCount = template != null ? initHeader(template) : initHeader(csvColCount, context);
             this.rowValues = new String[colCount];
             this.batch = new DataBatch<>(options, colCount);
             this.parsers = new Parser[colCount];
+            this.types = new Class[colCount];
+            this.inferred = new boolean[colCount];
+            this.nulls = new BitSet[colCount];
+            Arrays.setAll(nulls, i -> new BitSet());
+        }
+
+
+        /**
+         * Initializes the header array and column ordinals from a template handler
+         * @param template  the template handler that has resolved headers
+         * @return          the column count for frame
+         */
+        private int initHeader(CsvRequestHandler template) {
+            this.headers = template.headers;
+            this.colIndexes = template.colIndexes;
+            return colIndexes.length;
         }
 
 
@@ -347,7 +545,18 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
          * @param batch     the initial batch to initialize frame
          */
         private void initFrame(DataBatch<R> batch) {
-            if (headers == null) {
+            if (headers != null && template != null) {
+                final Class<R> rowType = options.getRowAxisType();
+                final Index<R> rowKeys = Index.of(rowType, options.getRowCapacity().orElse(10000));
+                final Index<String> colKeys = Index.of(String.class, headers.length);
+                this.frame = DataFrame.of(rowKeys, colKeys, Object.class);
+                for (int i=0; i<headers.length; ++i) {
+                    this.types[i] = template.types[i];
+                    this.parsers[i] = template.parsers[i];
+                    this.inferred[i] = template.inferred[i];
+                    this.frame.cols().add(headers[i], types[i]);
+                }
+            } else if (headers == null) {
                 final Class<R> rowType = options.getRowAxisType();
                 final Index<R> rowKeys = Index.of(rowType, 1);
                 final Index<String> colKeys = Index.of(String.class, 1);
@@ -362,20 +571,22 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
                 for (int i=0; i<colCount; ++i) {
                     final String colName = headers[i] != null ? headers[i] : "Column-" + i;
                     try {
-                        final String[] rawValues = batch.colData(i);
+                        final List<String> rawValues = Arrays.asList(batch.colData(i)).subList(0, batch.rowCount());
                         final Optional<Parser<?>> userParser = getParser(colName);
                         final Optional<Class<?>> colType = getColumnType(colName);
                         if (colType.isPresent()) {
                             final Class<?> type = colType.get();
                             final Parser<?> parser = userParser.orElse(formats.getParserOrFail(type, Object.class));
                             this.parsers[i] = parser;
+                            this.types[i] = type;
                             this.frame.cols().add(colName, type);
                         } else {
                             final Parser<?> stringParser = formats.getParserOrFail(String.class);
-                            final Parser<?> parser = userParser.orElse(formats.findParser(rawValues).orElse(stringParser));
-                            final Set<Class<?>> typeSet = Arrays.stream(rawValues).map(parser).filter(v -> v != null).map(Object::getClass).collect(Collectors.toSet());
-                            final Class<?> type = typeSet.size() == 1 ? typeSet.iterator().next() : Object.class;
+                            final Parser<?> parser = userParser.orElse(formats.findParser(rawValues, options.getTypeSampleSize()).orElse(stringParser));
+                            final Class<?> type = resolveType(parser, rawValues);
                             this.parsers[i] = parser;
+                            this.types[i] = type;
+                            this.inferred[i] = !userParser.isPresent();
                             this.frame.cols().add(colName, type);
                         }
                     } catch (Exception ex) {
@@ -385,6 +596,64 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
             }
         }
 
+        /**
+         * Returns the column type implied by the parser, inspecting the parsed seed values only if the parser type is not exact
+         * @param parser    the parser for column
+         * @param rawValues the seed values for column
+         * @return          the column type
+         */
+        private Class<?> resolveType(Parser<?> parser, List<String> rawValues) {
+            final Class<?> parserType = parser.getType();
+            if (parser.getStyle() != FunctionStyle.OBJECT || Modifier.isFinal(parserType.getModifiers())) {
+                return parserType;
+            } else {
+                final Set<Class<?>> typeSet = rawValues.stream().map(parser).filter(v -> v != null).map(Object::getClass).collect(Collectors.toSet());
+                return typeSet.size() == 1 ? typeSet.iterator().next() : Object.class;
+            }
+        }
+
+
+        /**
+         * Widens the type of a column whose inferred parser failed on a value from a later batch
+         * @param colIndex  the column index
+         * @param rawValue  the value that could not be parsed
+         * @param cause     the parse failure
+         */
+        private void widen(int colIndex, String rawValue, RuntimeException cause) {
+            final InferredType current = InferredType.of(types[colIndex]);
+            final InferredType widened = current.widen(InferredType.classify(rawValue));
+            if (!inferred[colIndex] || types[colIndex] == Object.class) {
+                throw cause;
+            } else {
+                widen(colIndex, widened != current ? widened.getType() : Object.class);
+            }
+        }
+
+
+        /**
+         * Converts the values parsed so far for a column to the wider type specified
+         * Null values parsed while the column was an int or long column, which are stored as zero, become NaN or null
+         * @param colIndex  the column index
+         * @param type      the wider type, which is either Long, Double or Object
+         */
+        private void widen(int colIndex, Class<?> type) {
+            final String colKey = frame.cols().key(colIndex);
+            final Class<?> current = types[colIndex];
+            final BitSet nullRows = nulls[colIndex];
+            if (type == Long.class) {
+                this.frame = frame.mapToLongs(colKey, v -> current == Integer.class ? v.getInt() : v.getLong());
+            } else if (type == Double.class) {
+                this.frame = frame.mapToDoubles(colKey, v -> nullRows.get(v.rowOrdinal()) ? Double.NaN : v.getDouble());
+                this.nulls[colIndex] = new BitSet();
+            } else {
+                this.frame = frame.mapToObjects(colKey, Object.class, v -> nullRows.get(v.rowOrdinal()) ? null : v.getValue());
+                this.nulls[colIndex] = new BitSet();
+            }
+            this.types[colIndex] = type;
+            this.parsers[colIndex] = options.getFormats().getParserOrFail(type);
+        }
+
+
         /**
          * Returns the column type for the column name
          * @param colName   the column name
@@ -447,19 +716,34 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
                     final int fromRowIndex = frame.rowCount();
                     final Array<R> rowKeys = rowCount < options.getReadBatchSize() ? keys.copy(0, rowCount) : keys;
                     this.frame.rows().addAll(rowKeys);
-                    final DataFrameContent<R,String> data = frame.data();
                     for (int j=0; j<colIndexes.length; ++j) {
                         final String[] colValues = batch.colData(j);
-                        final Parser<?> parser = parsers[j];
+                        Parser<?> parser = parsers[j];
+                        BitSet nullRows = nulls[j];
+                        DataFrameContent<R,String> data = frame.data();
                         for (int i=0; i<rowCount; ++i) {
                             rowIndex = fromRowIndex + i;
                             final String rawValue = colValues[i];
-                            switch (parser.getStyle()) {
-                                case BOOLEAN:   data.setBoolean(rowIndex, j, parser.applyAsBoolean(rawValue));  break;
-                                case INTEGER:   data.setInt(rowIndex, j, parser.applyAsInt(rawValue));          break;
-                                case LONG:      data.setLong(rowIndex, j, parser.applyAsLong(rawValue));        break;
-                                case DOUBLE:    data.setDouble(rowIndex, j, parser.applyAsDouble(rawValue));    break;
-                                default:        data.setValue(rowIndex, j, parser.apply(rawValue));             break;
+                            try {
+                                switch (parser.getStyle()) {
+                                    case BOOLEAN:   data.setBoolean(rowIndex, j, parser.applyAsBoolean(rawValue));  break;
+                                    case INTEGER:
+                                        data.setInt(rowIndex, j, parser.applyAsInt(rawValue));
+                                        if (parser.getNullChecker().applyAsBoolean(rawValue)) nullRows.set(rowIndex);
+                                        break;
+                                    case LONG:
+                                        data.setLong(rowIndex, j, parser.applyAsLong(rawValue));
+                                        if (parser.getNullChecker().applyAsBoolean(rawValue)) nullRows.set(rowIndex);
+                                        break;
+                                    case DOUBLE:    data.setDouble(rowIndex, j, parser.applyAsDouble(rawValue));    break;
+                                    default:        data.setValue(rowIndex, j, parser.apply(rawValue));             break;
+                                }
+                            } catch (RuntimeException ex) {
+                                this.widen(j, rawValue, ex);
+                                parser = parsers[j];
+                                nullRows = nulls[j];
+                                data = frame.data();
+                                --i;
                             }
                         }
                     }
@@ -565,6 +849,80 @@ public class CsvSource<R> extends DataFrameSource<R,String,CsvSourceOptions<R>>
     }
 
 
+    /**
+     * An InputStream over a byte range of a file, read via positional reads on a FileChannel
+     */
+    private static class FileRangeInputStream extends InputStream {
+
+        private long position;
+        private long end;
+        private ByteBuffer buffer;
+        private FileChannel channel;
+
+        /**
+         * Constructor
+         * @param file      the file to read
+         * @param start     the start offset in file, inclusive
+         * @param end       the end offset in file, exclusive
+         * @throws IOException  if the file cannot be opened
+         */
+        FileRangeInputStream(File file, long start, long end) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.position = start;
+            this.end = end;
+            this.buffer = ByteBuffer.allocate(1024 * 64);
+            this.buffer.flip();
+        }
+
+        /**
+         * Fills the buffer from the channel if it has been consumed
+         * @return  true if the buffer has data, false if the end of the range has been reached
+         * @throws IOException  if there is an I/O error
+         */
+        private boolean fill() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            } else if (position >= end) {
+                return false;
+            } else {
+                this.buffer.clear();
+                this.buffer.limit((int)Math.min(buffer.capacity(), end - position));
+                final int count = channel.read(buffer, position);
+                this.buffer.flip();
+                if (count <= 0) {
+                    return false;
+                } else {
+                    this.position += count;
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            } else if (!fill()) {
+                return -1;
+            } else {
+                final int count = Math.min(length, buffer.remaining());
+                this.buffer.get(bytes, offset, count);
+                return count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+
+
     public static void main(String[] args) {
         final long t1 = System.currentTimeMillis();
         final String path = "/Users/witdxav/Dropbox/data/uk-house-prices/uk-house-prices-2006.csv";
@@ -48,6 +48,11 @@ import com.zavtech.morpheus.util.text.parser.Parser;
  */
 public class CsvSourceOptions<R> implements DataFrameSource.Options<R,String> {
 
+    /**
+     * The minimum number of bytes in each chunk when a file is parsed in chunks
+     */
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+
     private boolean header;
     private Formats formats;
     private Resource resource;
@@ -56,6 +61,8 @@ public class CsvSourceOptions<R> implements DataFrameSource.Options<R,String> {
     private int rowCapacity;
     private Class<R> rowAxisType;
     private int logBatchSize;
+    private int chunkCount;
+    private int typeSampleSize = Integer.MAX_VALUE;
     private int readBatchSize = 1000;
     private char delimiter = ',';
     private Predicate<String[]> rowPredicate;
@@ -144,6 +151,32 @@ public class CsvSourceOptions<R> implements DataFrameSource.Options<R,String> {
         return readBatchSize;
     }
 
+    /**
+     * Returns the number of line aligned byte ranges a file resource is split into for parallel parsing
+     * @return  the chunk count, where a value less than 2 implies a file is parsed sequentially
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Returns the number of chunks a file of the length specified is split into, which is the chunk count clamped so
+     * that each chunk spans at least MIN_CHUNK_SIZE bytes, as smaller chunks cost more to set up and stitch than they save
+     * @param length    the file length in bytes
+     * @return          the effective chunk count, where a value less than 2 implies the file is parsed sequentially
+     */
+    public int getChunkCount(long length) {
+        return (int)Math.min(chunkCount, length / MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the max number of leading rows inspected to infer the type of each column
+     * @return  the type inference sample size
+     */
+    public int getTypeSampleSize() {
+        return typeSampleSize;
+    }
+
     /**
      * Returns the log batch size for printing progress to std out
      * @return  the log batch size for printing progress to std out
@@ -332,6 +365,30 @@ public class CsvSourceOptions<R> implements DataFrameSource.Options<R,String> {
         this.parallel = parallel;
     }
 
+    /**
+     * Sets the number of line aligned byte ranges a file resource is split into, each of which is parsed and type
+     * converted on its own worker before the columns are stitched into the final frame. Column types are resolved
+     * from the first batch of the file as per sequential parsing. This mode only applies to file resources, and
+     * requires that records do not contain quoted line breaks, and that any user supplied parsers are thread safe.
+     * The count is clamped so that each chunk spans at least MIN_CHUNK_SIZE bytes of the file.
+     * @param chunkCount    the chunk count, where a value less than 2 disables chunked parsing
+     */
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * Sets the max number of leading rows inspected to infer the type of each column without an explicit type or parser
+     * The sample is taken from the first read batch, so it is effectively capped at the read batch size. If a later
+     * value cannot be parsed with the inferred type, the column is widened from int to long to double, or otherwise
+     * to Object, rather than failing.
+     * @param typeSampleSize    the type inference sample size, which must be at least 1
+     */
+    public void setTypeSampleSize(int typeSampleSize) {
+        Asserts.check(typeSampleSize > 0, "The type sample size must be > 0");
+        this.typeSampleSize = typeSampleSize;
+    }
+
     /**
      * Sets the row batch size for processing, which is also used to size the seed for type resolution
      * @param readBatchSize the row batch size, which is also used to size the seed for type resolution
@@ -233,6 +233,9 @@ public class DbSource<R> extends DataFrameSource<R,String,DbSourceOptions<R>> {
                     case INTEGER:   array.addInt(extractor.getInt(rs, index));          break;
                     case LONG:      array.addLong(extractor.getLong(rs, index));        break;
                     case DOUBLE:    array.addDouble(extractor.getDouble(rs, index));    break;
+                    case FLOAT:     array.addDouble(extractor.getDouble(rs, index));    break;
+                    case SHORT:     array.addInt(extractor.getInt(rs, index));          break;
+                    case BYTE:      array.addInt(extractor.getInt(rs, index));          break;
                     default:        array.add(extractor.getValue(rs, index));           break;
                 }
             } catch (Exception ex) {
@@ -25,6 +25,7 @@ package com.zavtech.morpheus.stats;
 public class Kurtosis implements Statistic1 {
 
     private long n;
+    private long nanCount;
     private double m1;
     private double m2;
     private double m3;
@@ -39,12 +40,12 @@ public class Kurtosis implements Statistic1 {
 
     @Override
     public long getN() {
-        return n;
+        return n + nanCount;
     }
 
     @Override
     public double getValue() {
-        if (n < 3) {
+        if (n < 3 || nanCount > 0) {
             return Double.NaN;
         } else {
             final double variance = m2 / (n - 1d);
@@ -65,6 +66,9 @@ public class Kurtosis implements Statistic1 {
 
     @Override
     public long add(double value) {
+        if (Double.isNaN(value)) {
+            return n + ++nanCount;
+        }
         final double prevM2 = m2;
         final double prevM3 = m3;
         final double dev = value - m1;
@@ -74,7 +78,38 @@ public class Kurtosis implements Statistic1 {
         this.m2 += (n - 1d) * dev * nDev;
         this.m3 = m3 - 3d * nDev * prevM2 + (n - 1d) * (n - 2d) * nDevSq * dev;
         this.m4 = m4 - 4d * nDev * prevM3 + 6d * nDevSq * prevM2 + ((n * n) - 3d * (n -1d)) * (nDevSq * nDevSq * (n - 1d) * n);
-        return n;
+        return n + nanCount;
+    }
+
+    @Override
+    public boolean isRemovable() {
+        return true;
+    }
+
+    @Override
+    public long remove(double value) {
+        if (Double.isNaN(value)) {
+            this.nanCount--;
+        } else if (n <= 1) {
+            this.n = 0L;
+            this.m1 = 0d;
+            this.m2 = 0d;
+            this.m3 = 0d;
+            this.m4 = 0d;
+        } else {
+            final double prevM1 = m1 - (value - m1) / (n - 1d);
+            final double dev = value - prevM1;
+            final double nDev = dev / n;
+            final double nDevSq = nDev * nDev;
+            final double prevM2 = Math.max(0d, m2 - (n - 1d) * dev * nDev);
+            final double prevM3 = m3 + 3d * nDev * prevM2 - (n - 1d) * (n - 2d) * nDevSq * dev;
+            this.m4 = m4 + 4d * nDev * prevM3 - 6d * nDevSq * prevM2 - ((n * n) - 3d * (n -1d)) * (nDevSq * nDevSq * (n - 1d) * n);
+            this.m3 = prevM3;
+            this.m2 = prevM2;
+            this.m1 = prevM1;
+            this.n--;
+        }
+        return n + nanCount;
     }
 
     @Override
@@ -89,6 +124,7 @@ public class Kurtosis implements Statistic1 {
     @Override()
     public Statistic1 reset() {
         this.n = 0L;
+        this.nanCount = 0L;
         this.m1 = 0d;
         this.m2 = 0d;
         this.m3 = 0d;
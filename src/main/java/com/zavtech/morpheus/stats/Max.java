@@ -25,7 +25,7 @@ package com.zavtech.morpheus.stats;
 public class Max implements Statistic1 {
 
     private long n;
-    private double max = Double.MIN_VALUE;
+    private double max = -Double.MAX_VALUE;
 
     /**
      * Constructor
@@ -68,7 +68,7 @@ public class Max implements Statistic1 {
     @Override
     public Statistic1 reset() {
         this.n = 0;
-        this.max = Double.MIN_VALUE;
+        this.max = -Double.MAX_VALUE;
         return this;
     }
 }
@@ -57,6 +57,24 @@ public class Mean implements Statistic1 {
         return n;
     }
 
+    @Override
+    public boolean isRemovable() {
+        return true;
+    }
+
+    @Override
+    public long remove(double value) {
+        if (!Double.isNaN(value)) {
+            if (n <= 1) {
+                this.n = 0L;
+                this.m1 = 0d;
+            } else {
+                this.m1 -= (value - m1) / --n;
+            }
+        }
+        return n;
+    }
+
     @Override
     public Statistic1 copy() {
         try {
@@ -43,6 +43,15 @@ public class Percentile implements Statistic1 {
     }
 
 
+    /**
+     * Returns the requested percentile for this statistic, expressed as a fraction between 0 and 1
+     * @return  the requested percentile
+     */
+    public double getNth() {
+        return nth;
+    }
+
+
     @Override
     public long getN() {
         return n;
@@ -25,6 +25,7 @@ package com.zavtech.morpheus.stats;
 public class Skew implements Statistic1 {
 
     private long n;
+    private long nanCount;
     private double m1;
     private double m2;
     private double m3;
@@ -38,12 +39,12 @@ public class Skew implements Statistic1 {
 
     @Override
     public long getN() {
-        return n;
+        return n + nanCount;
     }
 
     @Override
     public double getValue() {
-        if (n < 3) {
+        if (n < 3 || nanCount > 0) {
             return Double.NaN;
         } else {
             final double variance = m2 / (n - 1d);
@@ -62,6 +63,9 @@ public class Skew implements Statistic1 {
 
     @Override
     public long add(double value) {
+        if (Double.isNaN(value)) {
+            return n + ++nanCount;
+        }
         final double prevM2 = m2;
         final double dev = value - m1;
         final double nDev = dev / ++n;
@@ -69,7 +73,35 @@ public class Skew implements Statistic1 {
         this.m1 += nDev;
         this.m2 += (n - 1d) * dev * nDev;
         this.m3 = m3 - 3d * nDev * prevM2 + (n - 1d) * (n - 2d) * nDevSq * dev;
-        return n;
+        return n + nanCount;
+    }
+
+    @Override
+    public boolean isRemovable() {
+        return true;
+    }
+
+    @Override
+    public long remove(double value) {
+        if (Double.isNaN(value)) {
+            this.nanCount--;
+        } else if (n <= 1) {
+            this.n = 0L;
+            this.m1 = 0d;
+            this.m2 = 0d;
+            this.m3 = 0d;
+        } else {
+            final double prevM1 = m1 - (value - m1) / (n - 1d);
+            final double dev = value - prevM1;
+            final double nDev = dev / n;
+            final double nDevSq = nDev * nDev;
+            final double prevM2 = Math.max(0d, m2 - (n - 1d) * dev * nDev);
+            this.m3 = m3 + 3d * nDev * prevM2 - (n - 1d) * (n - 2d) * nDevSq * dev;
+            this.m2 = prevM2;
+            this.m1 = prevM1;
+            this.n--;
+        }
+        return n + nanCount;
     }
 
     @Override
@@ -84,6 +116,7 @@ public class Skew implements Statistic1 {
     @Override()
     public Statistic1 reset() {
         this.n = 0L;
+        this.nanCount = 0L;
         this.m1 = 0d;
         this.m2 = 0d;
         this.m3 = 0d;
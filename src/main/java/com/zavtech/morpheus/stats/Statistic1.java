@@ -43,6 +43,25 @@ public interface Statistic1 extends Statistic {
      */
     Statistic1 reset();
 
+    /**
+     * Returns true if this statistic supports removing values via remove()
+     * @return  true if values can be removed from the sample of this statistic
+     */
+    default boolean isRemovable() {
+        return false;
+    }
+
+    /**
+     * Removes a value previously added to the sample for this statistic
+     * This enables rolling window calculations to be updated in constant time per step
+     * @param value     the value to remove, which must have been previously added
+     * @return          the sample size after removing value
+     * @throws StatException    if this statistic does not support removal
+     */
+    default long remove(double value) {
+        throw new StatException("The statistic does not support removal of values: " + getType());
+    }
+
 
     /**
      * Convenience function to compute a univariate statistic on some sample
@@ -58,6 +58,23 @@ public class Sum implements Statistic1 {
         return n;
     }
 
+    @Override
+    public boolean isRemovable() {
+        return true;
+    }
+
+    @Override
+    public long remove(double value) {
+        if (!Double.isNaN(value)) {
+            this.sum -= value;
+            this.n--;
+            if (n == 0) {
+                this.sum = 0d;
+            }
+        }
+        return n;
+    }
+
     @Override
     public Statistic1 copy() {
         try {
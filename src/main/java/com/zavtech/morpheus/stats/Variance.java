@@ -73,6 +73,30 @@ public class Variance implements Statistic1 {
         return n;
     }
 
+    @Override
+    public boolean isRemovable() {
+        return true;
+    }
+
+    @Override
+    public long remove(double value) {
+        if (!Double.isNaN(value)) {
+            if (n <= 1) {
+                this.n = 0L;
+                this.m1 = 0d;
+                this.m2 = 0d;
+            } else {
+                final double prevM1 = m1 - (value - m1) / (n - 1d);
+                final double dev = value - prevM1;
+                final double nDev = dev / n;
+                this.m2 = Math.max(0d, m2 - (n - 1d) * dev * nDev);
+                this.m1 = prevM1;
+                this.n--;
+            }
+        }
+        return n;
+    }
+
     @Override
     public Statistic1 copy() {
         try {
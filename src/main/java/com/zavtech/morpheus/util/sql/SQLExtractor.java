@@ -78,10 +78,16 @@ public class SQLExtractor implements Cloneable {
             extractorMap.put(int.class, new IntegerExtractor());
             extractorMap.put(long.class, new LongExtractor());
             extractorMap.put(double.class, new DoubleExtractor());
+            extractorMap.put(float.class, new FloatExtractor());
+            extractorMap.put(short.class, new ShortExtractor());
+            extractorMap.put(byte.class, new ByteExtractor());
             extractorMap.put(Boolean.class, new BooleanExtractor());
             extractorMap.put(Integer.class, new IntegerExtractor());
             extractorMap.put(Long.class, new LongExtractor());
             extractorMap.put(Double.class, new DoubleExtractor());
+            extractorMap.put(Float.class, new FloatExtractor());
+            extractorMap.put(Short.class, new ShortExtractor());
+            extractorMap.put(Byte.class, new ByteExtractor());
             extractorMap.put(String.class, new StringExtractor());
             extractorMap.put(java.util.Date.class, new DateExtractor());
             extractorMap.put(java.sql.Date.class, new DateExtractor());
@@ -261,6 +267,76 @@ public class SQLExtractor implements Cloneable {
     }
 
 
+    private static class FloatExtractor extends SQLExtractor {
+
+        /**
+         * Constructor
+         */
+        FloatExtractor() {
+            super(Float.class);
+        }
+
+        @Override
+        public double getDouble(ResultSet rs, int colIndex) throws SQLException {
+            final float value = rs.getFloat(colIndex);
+            return rs.wasNull() ? Double.NaN : value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V getValue(ResultSet rs, int colIndex) throws SQLException {
+            final float value = rs.getFloat(colIndex);
+            return rs.wasNull() ? null : (V)Float.valueOf(value);
+        }
+    }
+
+
+    private static class ShortExtractor extends SQLExtractor {
+
+        /**
+         * Constructor
+         */
+        ShortExtractor() {
+            super(Short.class);
+        }
+
+        @Override
+        public int getInt(ResultSet rs, int colIndex) throws SQLException {
+            return rs.getShort(colIndex);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V getValue(ResultSet rs, int colIndex) throws SQLException {
+            final short value = rs.getShort(colIndex);
+            return rs.wasNull() ? null : (V)Short.valueOf(value);
+        }
+    }
+
+
+    private static class ByteExtractor extends SQLExtractor {
+
+        /**
+         * Constructor
+         */
+        ByteExtractor() {
+            super(Byte.class);
+        }
+
+        @Override
+        public int getInt(ResultSet rs, int colIndex) throws SQLException {
+            return rs.getByte(colIndex);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V getValue(ResultSet rs, int colIndex) throws SQLException {
+            final byte value = rs.getByte(colIndex);
+            return rs.wasNull() ? null : (V)Byte.valueOf(value);
+        }
+    }
+
+
     private static class IntegerExtractor extends SQLExtractor {
 
         /**
@@ -27,6 +27,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -41,6 +42,7 @@ import java.util.stream.Collectors;
 
 import com.zavtech.morpheus.util.Asserts;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
+import com.zavtech.morpheus.util.text.parser.InferredType;
 import com.zavtech.morpheus.util.text.parser.Parser;
 import com.zavtech.morpheus.util.text.printer.Printer;
 
@@ -55,6 +57,7 @@ public class Formats {
 
     private final Map<Object,Parser<?>> parserMap = new LinkedHashMap<>();
     private final Map<Object,Printer<?>> printerMap = new LinkedHashMap<>();
+    private final Map<InferredType,Parser<?>> inferenceMap = new EnumMap<>(InferredType.class);
 
     private Supplier<String> nullValue = () -> "null";
     private Set<String> nullSet = new HashSet<>(Arrays.asList("null", "NULL", "Null", "N/A", "n/a", "-"));
@@ -79,8 +82,14 @@ public class Formats {
         this.setParser(Integer.class, Parser.ofInteger().withNullChecker(nullCheck));
         this.setParser(long.class, Parser.ofLong().withNullChecker(nullCheck));
         this.setParser(Long.class, Parser.ofLong().withNullChecker(nullCheck));
-        this.setParser(double.class, Parser.ofDouble("0.0000####;-0.0000####", 1).withNullChecker(nullCheck));
-        this.setParser(Double.class, Parser.ofDouble("0.0000####;-0.0000####", 1).withNullChecker(nullCheck));
+        this.setParser(double.class, Parser.ofDouble().withNullChecker(nullCheck));
+        this.setParser(Double.class, Parser.ofDouble().withNullChecker(nullCheck));
+        this.setParser(float.class, Parser.ofFloat().withNullChecker(nullCheck));
+        this.setParser(Float.class, Parser.ofFloat().withNullChecker(nullCheck));
+        this.setParser(short.class, Parser.ofShort().withNullChecker(nullCheck));
+        this.setParser(Short.class, Parser.ofShort().withNullChecker(nullCheck));
+        this.setParser(byte.class, Parser.ofByte().withNullChecker(nullCheck));
+        this.setParser(Byte.class, Parser.ofByte().withNullChecker(nullCheck));
         this.setParser(BigDecimal.class, Parser.ofBigDecimal().withNullChecker(nullCheck));
         this.setParser(LocalDate.class, Parser.ofLocalDate(DateTimeFormatter.ISO_LOCAL_DATE).withNullChecker(nullCheck));
         this.setParser(LocalTime.class, Parser.ofLocalTime(DateTimeFormatter.ISO_LOCAL_TIME).withNullChecker(nullCheck));
@@ -93,6 +102,12 @@ public class Formats {
         this.setParser(java.util.Date.class, Parser.ofDate().withNullChecker(nullCheck));
         this.setParser(String.class, Parser.ofString().withNullChecker(nullCheck));
         this.setParser(Object.class, Parser.ofObject().withNullChecker(nullCheck));
+        for (InferredType type : InferredType.values()) {
+            final Parser<?> parser = parserMap.get(type.getType());
+            if (parser != null && type != InferredType.NONE && type != InferredType.OTHER) {
+                this.inferenceMap.put(type, parser);
+            }
+        }
     }
 
     /**
@@ -108,6 +123,12 @@ public class Formats {
         this.setPrinter(Long.class, Printer.ofLong().withNullValue(nullValue));
         this.setPrinter(double.class, Printer.ofDouble("0.0000####;-0.0000####").withNullValue(nullValue));
         this.setPrinter(Double.class, Printer.ofDouble("0.0000####;-0.0000####").withNullValue(nullValue));
+        this.setPrinter(float.class, Printer.ofFloat("0.0000####;-0.0000####").withNullValue(nullValue));
+        this.setPrinter(Float.class, Printer.ofFloat("0.0000####;-0.0000####").withNullValue(nullValue));
+        this.setPrinter(short.class, Printer.ofShort().withNullValue(nullValue));
+        this.setPrinter(Short.class, Printer.ofShort().withNullValue(nullValue));
+        this.setPrinter(byte.class, Printer.ofByte().withNullValue(nullValue));
+        this.setPrinter(Byte.class, Printer.ofByte().withNullValue(nullValue));
         this.setPrinter(LocalDate.class, Printer.ofLocalDate(DateTimeFormatter.ISO_DATE).withNullValue(nullValue));
         this.setPrinter(LocalTime.class, Printer.ofLocalTime(DateTimeFormatter.ISO_TIME).withNullValue(nullValue));
         this.setPrinter(LocalDateTime.class, Printer.ofLocalDateTime(DateTimeFormatter.ISO_DATE_TIME).withNullValue(nullValue));
@@ -508,21 +529,46 @@ public class Formats {
      * @param values    the values to attempt to parse
      * @return          the Parser that can parse all values
      */
-    @SuppressWarnings("unchecked")
     public Optional<Parser<?>> findParser(Collection<String> values) {
+        return findParser(values, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds a Parser that can parse the leading values in the collection, up to the sample size specified
+     * <p>Each sampled value is classified exactly once into the boolean/int/long/double/date/datetime lattice
+     * defined by InferredType, and the classifications are widened as the scan proceeds. If the result is in
+     * the lattice and the corresponding default parser has not been replaced, that parser is returned directly.
+     * Otherwise every registered parser is tested against the sample in registration order.</p>
+     * @param values        the values to attempt to parse
+     * @param sampleSize    the max number of leading values to inspect
+     * @return              the Parser that can parse all sampled values
+     */
+    public Optional<Parser<?>> findParser(Collection<String> values, int sampleSize) {
         Objects.requireNonNull(values, "The values to parse cannot be null");
-        final List<String> nonNullValues = values.stream().filter(v -> !nullCheck.applyAsBoolean(v)).collect(Collectors.toList());
+        final List<String> nonNullValues = values.stream().limit(sampleSize).filter(v -> !nullCheck.applyAsBoolean(v)).collect(Collectors.toList());
         if (nonNullValues.size() == 0) {
             return Optional.empty();
         } else {
-            for (Map.Entry<Object,Parser<?>> entry : parserMap.entrySet()) {
-                final Parser<?> parser = entry.getValue();
-                final boolean allMatch = nonNullValues.stream().allMatch(parser::isSupported);
-                if (allMatch && !parser.getType().equals(Object.class)) {
-                    return Optional.of(parser.optimize(nonNullValues.iterator().next()));
+            InferredType inferred = InferredType.NONE;
+            for (String value : nonNullValues) {
+                inferred = inferred.widen(InferredType.classify(value));
+                if (inferred == InferredType.OTHER) {
+                    break;
                 }
             }
-            return Optional.empty();
+            final Parser<?> inferredParser = inferenceMap.get(inferred);
+            if (inferredParser != null && parserMap.get(inferred.getType()) == inferredParser) {
+                return Optional.of(inferredParser.optimize(nonNullValues.get(0)));
+            } else {
+                for (Map.Entry<Object,Parser<?>> entry : parserMap.entrySet()) {
+                    final Parser<?> parser = entry.getValue();
+                    final boolean allMatch = nonNullValues.stream().allMatch(parser::isSupported);
+                    if (allMatch && !parser.getType().equals(Object.class)) {
+                        return Optional.of(parser.optimize(nonNullValues.iterator().next()));
+                    }
+                }
+                return Optional.empty();
+            }
         }
     }
 }
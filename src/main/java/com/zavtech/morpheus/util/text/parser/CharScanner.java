@@ -0,0 +1,583 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util.text.parser;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A utility class that recognizes and parses primitive and date values by scanning characters directly
+ *
+ * <p>All methods operate on a window <code>[start, end)</code> of a CharSequence so that a token can be parsed
+ * without creating an intermediate String. A <code>char[]</code> buffer can be scanned without copying by
+ * wrapping it in a <code>java.nio.CharBuffer</code>. The <code>isXXX()</code> methods never throw and never
+ * allocate, which makes them suitable for type inference, while the <code>parseXXX()</code> methods throw a
+ * NumberFormatException or DateTimeException if the window is not a valid value.</p>
+ *
+ * <p>The grammars accepted are: integers as <code>[-+]?[0-9]+</code> within the range of the target type,
+ * doubles as <code>NaN</code> or <code>[-+]?[0-9]+(\.[0-9]*)?([Ee][-+]?[0-9]+)?</code>, dates as
+ * <code>yyyy-MM-dd</code> and date-times as <code>yyyy-MM-dd[T ]HH:mm[:ss[.SSSSSSSSS]]</code>.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public final class CharScanner {
+
+    /** Powers of ten that can be represented exactly as a double */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** The largest integer mantissa for which conversion to double is exact */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Private constructor
+     */
+    private CharScanner() {
+        super();
+    }
+
+
+    /**
+     * Returns true if the entire text represents an int
+     * @param text  the text to scan
+     * @return      true if the text is a valid int
+     */
+    public static boolean isInt(CharSequence text) {
+        return text != null && isInteger(text, 0, text.length(), Integer.MIN_VALUE);
+    }
+
+
+    /**
+     * Returns true if the window of the text specified represents an int
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window is a valid int
+     */
+    public static boolean isInt(CharSequence text, int start, int end) {
+        return isInteger(text, start, end, Integer.MIN_VALUE);
+    }
+
+
+    /**
+     * Returns true if the entire text represents a long
+     * @param text  the text to scan
+     * @return      true if the text is a valid long
+     */
+    public static boolean isLong(CharSequence text) {
+        return text != null && isInteger(text, 0, text.length(), Long.MIN_VALUE);
+    }
+
+
+    /**
+     * Returns true if the window of the text specified represents a long
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window is a valid long
+     */
+    public static boolean isLong(CharSequence text, int start, int end) {
+        return isInteger(text, start, end, Long.MIN_VALUE);
+    }
+
+
+    /**
+     * Returns true if the entire text represents a double
+     * @param text  the text to scan
+     * @return      true if the text is a valid double
+     */
+    public static boolean isDouble(CharSequence text) {
+        return text != null && isDouble(text, 0, text.length());
+    }
+
+
+    /**
+     * Returns true if the window of the text specified represents a double
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window is a valid double
+     */
+    public static boolean isDouble(CharSequence text, int start, int end) {
+        if (isNaN(text, start, end)) {
+            return true;
+        } else {
+            int i = skipSign(text, start, end);
+            final int digitStart = i;
+            while (i < end && isDigit(text.charAt(i))) i++;
+            if (i == digitStart) {
+                return false;
+            } else if (i < end && text.charAt(i) == '.') {
+                i++;
+                while (i < end && isDigit(text.charAt(i))) i++;
+            }
+            if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                i = skipSign(text, i + 1, end);
+                final int expStart = i;
+                while (i < end && isDigit(text.charAt(i))) i++;
+                return i > expStart && i == end;
+            } else {
+                return i == end;
+            }
+        }
+    }
+
+
+    /**
+     * Returns true if the entire text represents an ISO local date of the form yyyy-MM-dd
+     * @param text  the text to scan
+     * @return      true if the text is a valid date
+     */
+    public static boolean isLocalDate(CharSequence text) {
+        return text != null && isLocalDate(text, 0, text.length());
+    }
+
+
+    /**
+     * Returns true if the window of the text specified represents an ISO local date of the form yyyy-MM-dd
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window is a valid date
+     */
+    public static boolean isLocalDate(CharSequence text, int start, int end) {
+        return end - start == 10 && isDatePrefix(text, start);
+    }
+
+
+    /**
+     * Returns true if the entire text represents a local date time of the form yyyy-MM-dd[T ]HH:mm[:ss[.SSSSSSSSS]]
+     * @param text  the text to scan
+     * @return      true if the text is a valid date time
+     */
+    public static boolean isLocalDateTime(CharSequence text) {
+        return text != null && isLocalDateTime(text, 0, text.length());
+    }
+
+
+    /**
+     * Returns true if the window of the text specified represents a local date time of the form yyyy-MM-dd[T ]HH:mm[:ss[.SSSSSSSSS]]
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window is a valid date time
+     */
+    public static boolean isLocalDateTime(CharSequence text, int start, int end) {
+        final int length = end - start;
+        if (length < 16 || !isDatePrefix(text, start)) {
+            return false;
+        } else {
+            final char separator = text.charAt(start + 10);
+            if (separator != 'T' && separator != ' ') {
+                return false;
+            } else if (!isTwoDigits(text, start + 11, 23) || text.charAt(start + 13) != ':' || !isTwoDigits(text, start + 14, 59)) {
+                return false;
+            } else if (length == 16) {
+                return true;
+            } else if (length < 19 || text.charAt(start + 16) != ':' || !isTwoDigits(text, start + 17, 59)) {
+                return false;
+            } else if (length == 19) {
+                return true;
+            } else if (text.charAt(start + 19) != '.' || length > 29) {
+                return false;
+            } else {
+                for (int i = start + 20; i < end; ++i) {
+                    if (!isDigit(text.charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * Parses the entire text as an int
+     * @param text  the text to parse
+     * @return      the parsed int value
+     * @throws NumberFormatException    if the text is not a valid int
+     */
+    public static int parseInt(CharSequence text) {
+        return parseInt(text, 0, text.length());
+    }
+
+
+    /**
+     * Parses the window of the text specified as an int
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the parsed int value
+     * @throws NumberFormatException    if the window is not a valid int
+     */
+    public static int parseInt(CharSequence text, int start, int end) {
+        return (int)parseInteger(text, start, end, Integer.MIN_VALUE);
+    }
+
+
+    /**
+     * Parses the entire text as a long
+     * @param text  the text to parse
+     * @return      the parsed long value
+     * @throws NumberFormatException    if the text is not a valid long
+     */
+    public static long parseLong(CharSequence text) {
+        return parseLong(text, 0, text.length());
+    }
+
+
+    /**
+     * Parses the window of the text specified as a long
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the parsed long value
+     * @throws NumberFormatException    if the window is not a valid long
+     */
+    public static long parseLong(CharSequence text, int start, int end) {
+        return parseInteger(text, start, end, Long.MIN_VALUE);
+    }
+
+
+    /**
+     * Parses the entire text as a double
+     * @param text  the text to parse
+     * @return      the parsed double value
+     * @throws NumberFormatException    if the text is not a valid double
+     */
+    public static double parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+
+
+    /**
+     * Parses the window of the text specified as a double
+     * <p>Values with at most 18 significant digits and a decimal exponent within the range of exactly
+     * representable powers of ten are converted with a single correctly rounded multiply or divide. All
+     * other values are delegated to <code>Double.parseDouble()</code> to guarantee correct rounding.</p>
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the parsed double value
+     * @throws NumberFormatException    if the window is not a valid double
+     */
+    public static double parseDouble(CharSequence text, int start, int end) {
+        if (isNaN(text, start, end)) {
+            return Double.NaN;
+        } else {
+            long mantissa = 0L;
+            int digits = 0;
+            int exponent = 0;
+            boolean truncated = false;
+            final boolean negative = start < end && text.charAt(start) == '-';
+            int i = skipSign(text, start, end);
+            final int digitStart = i;
+            for (; i < end; ++i) {
+                final char c = text.charAt(i);
+                if (!isDigit(c)) break;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits += mantissa > 0 ? 1 : 0;
+                } else {
+                    exponent++;
+                    truncated |= c != '0';
+                }
+            }
+            if (i == digitStart) {
+                throw new NumberFormatException("Not a valid double: " + text.subSequence(start, end));
+            } else if (i < end && text.charAt(i) == '.') {
+                for (i = i + 1; i < end; ++i) {
+                    final char c = text.charAt(i);
+                    if (!isDigit(c)) break;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits += mantissa > 0 ? 1 : 0;
+                        exponent--;
+                    } else {
+                        truncated |= c != '0';
+                    }
+                }
+            }
+            if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                final boolean negativeExp = i + 1 < end && text.charAt(i + 1) == '-';
+                i = skipSign(text, i + 1, end);
+                final int expStart = i;
+                int exp = 0;
+                for (; i < end && isDigit(text.charAt(i)); ++i) {
+                    exp = exp < 100000 ? exp * 10 + (text.charAt(i) - '0') : exp;
+                }
+                if (i == expStart) {
+                    throw new NumberFormatException("Not a valid double: " + text.subSequence(start, end));
+                }
+                exponent += negativeExp ? -exp : exp;
+            }
+            if (i != end) {
+                throw new NumberFormatException("Not a valid double: " + text.subSequence(start, end));
+            } else if (mantissa == 0L && !truncated) {
+                return negative ? -0d : 0d;
+            } else if (!truncated && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                final double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            } else {
+                return Double.parseDouble(text.subSequence(start, end).toString());
+            }
+        }
+    }
+
+
+    /**
+     * Parses the entire text as an ISO local date of the form yyyy-MM-dd
+     * @param text  the text to parse
+     * @return      the parsed date
+     * @throws DateTimeException  if the text is not a valid date
+     */
+    public static LocalDate parseLocalDate(CharSequence text) {
+        return parseLocalDate(text, 0, text.length());
+    }
+
+
+    /**
+     * Parses the window of the text specified as an ISO local date of the form yyyy-MM-dd
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the parsed date
+     * @throws DateTimeException  if the window is not a valid date
+     */
+    public static LocalDate parseLocalDate(CharSequence text, int start, int end) {
+        if (!isLocalDate(text, start, end)) {
+            throw new DateTimeException("Not a valid yyyy-MM-dd date: " + text.subSequence(start, end));
+        } else {
+            final int year = digits(text, start, 4);
+            final int month = digits(text, start + 5, 2);
+            final int day = digits(text, start + 8, 2);
+            return LocalDate.of(year, month, day);
+        }
+    }
+
+
+    /**
+     * Parses the entire text as a local date time of the form yyyy-MM-dd[T ]HH:mm[:ss[.SSSSSSSSS]]
+     * @param text  the text to parse
+     * @return      the parsed date time
+     * @throws DateTimeException  if the text is not a valid date time
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text) {
+        return parseLocalDateTime(text, 0, text.length());
+    }
+
+
+    /**
+     * Parses the window of the text specified as a local date time of the form yyyy-MM-dd[T ]HH:mm[:ss[.SSSSSSSSS]]
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      the parsed date time
+     * @throws DateTimeException  if the window is not a valid date time
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text, int start, int end) {
+        if (!isLocalDateTime(text, start, end)) {
+            throw new DateTimeException("Not a valid yyyy-MM-dd'T'HH:mm:ss date time: " + text.subSequence(start, end));
+        } else {
+            final int length = end - start;
+            final int year = digits(text, start, 4);
+            final int month = digits(text, start + 5, 2);
+            final int day = digits(text, start + 8, 2);
+            final int hour = digits(text, start + 11, 2);
+            final int minute = digits(text, start + 14, 2);
+            final int second = length >= 19 ? digits(text, start + 17, 2) : 0;
+            int nanos = 0;
+            if (length > 20) {
+                nanos = digits(text, start + 20, length - 20);
+                for (int i = length - 20; i < 9; ++i) {
+                    nanos *= 10;
+                }
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        }
+    }
+
+
+    /**
+     * Returns true if the character is an ASCII digit
+     * @param c     the character to check
+     * @return      true if an ASCII digit
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+
+    /**
+     * Returns the index after an optional leading sign character
+     * @param text  the text to scan
+     * @param start the start index
+     * @param end   the end index, exclusive
+     * @return      the index of the first character after any sign
+     */
+    private static int skipSign(CharSequence text, int start, int end) {
+        if (start < end) {
+            final char c = text.charAt(start);
+            return c == '-' || c == '+' ? start + 1 : start;
+        } else {
+            return start;
+        }
+    }
+
+
+    /**
+     * Returns true if the window is exactly the text NaN
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return      true if the window equals NaN
+     */
+    private static boolean isNaN(CharSequence text, int start, int end) {
+        return end - start == 3 && text.charAt(start) == 'N' && text.charAt(start + 1) == 'a' && text.charAt(start + 2) == 'N';
+    }
+
+
+    /**
+     * Returns true if the window is an optionally signed integer within the range [limit, -(limit+1)]
+     * @param text  the text to scan
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @param limit the most negative value allowed
+     * @return      true if the window is a valid integer in range
+     */
+    private static boolean isInteger(CharSequence text, int start, int end, long limit) {
+        final boolean negative = start < end && text.charAt(start) == '-';
+        final long min = negative ? limit : limit + 1;
+        final long multMin = min / 10;
+        final int digitStart = skipSign(text, start, end);
+        if (digitStart == end) {
+            return false;
+        } else {
+            long result = 0L;
+            for (int i = digitStart; i < end; ++i) {
+                final char c = text.charAt(i);
+                if (!isDigit(c)) {
+                    return false;
+                } else if (result < multMin) {
+                    return false;
+                } else {
+                    result *= 10;
+                    final int digit = c - '0';
+                    if (result < min + digit) {
+                        return false;
+                    }
+                    result -= digit;
+                }
+            }
+            return true;
+        }
+    }
+
+
+    /**
+     * Parses the window as an optionally signed integer within the range [limit, -(limit+1)]
+     * <p>Digits are accumulated negatively, as in Long.parseLong(), so that the most negative value can be represented</p>
+     * @param text  the text to parse
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @param limit the most negative value allowed
+     * @return      the parsed value
+     * @throws NumberFormatException    if the window is not a valid integer in range
+     */
+    private static long parseInteger(CharSequence text, int start, int end, long limit) {
+        final boolean negative = start < end && text.charAt(start) == '-';
+        final long min = negative ? limit : limit + 1;
+        final long multMin = min / 10;
+        final int digitStart = skipSign(text, start, end);
+        if (digitStart == end) {
+            throw new NumberFormatException("Not a valid integer: " + text.subSequence(start, end));
+        } else {
+            long result = 0L;
+            for (int i = digitStart; i < end; ++i) {
+                final char c = text.charAt(i);
+                if (!isDigit(c)) {
+                    throw new NumberFormatException("Not a valid integer: " + text.subSequence(start, end));
+                } else if (result < multMin) {
+                    throw new NumberFormatException("Integer value out of range: " + text.subSequence(start, end));
+                } else {
+                    result *= 10;
+                    final int digit = c - '0';
+                    if (result < min + digit) {
+                        throw new NumberFormatException("Integer value out of range: " + text.subSequence(start, end));
+                    }
+                    result -= digit;
+                }
+            }
+            return negative ? result : -result;
+        }
+    }
+
+
+    /**
+     * Returns true if the 10 characters from start have the form yyyy-MM-dd with month in 1-12 and day in 1-31
+     * @param text  the text to scan
+     * @param start the start index
+     * @return      true if a valid date prefix
+     */
+    private static boolean isDatePrefix(CharSequence text, int start) {
+        for (int i = 0; i < 4; ++i) {
+            if (!isDigit(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        if (text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return false;
+        } else if (!isTwoDigits(text, start + 5, 12) || !isTwoDigits(text, start + 8, 31)) {
+            return false;
+        } else {
+            return digits(text, start + 5, 2) > 0 && digits(text, start + 8, 2) > 0;
+        }
+    }
+
+
+    /**
+     * Returns true if the two characters from start are digits whose value does not exceed the max
+     * @param text  the text to scan
+     * @param start the start index
+     * @param max   the max value allowed
+     * @return      true if two digits in range
+     */
+    private static boolean isTwoDigits(CharSequence text, int start, int max) {
+        return isDigit(text.charAt(start)) && isDigit(text.charAt(start + 1)) && digits(text, start, 2) <= max;
+    }
+
+
+    /**
+     * Returns the value of a run of digits which is assumed to have been validated
+     * @param text  the text to read from
+     * @param start the start index
+     * @param count the number of digits
+     * @return      the decimal value of the digits
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = 0; i < count; ++i) {
+            value = value * 10 + (text.charAt(start + i) - '0');
+        }
+        return value;
+    }
+}
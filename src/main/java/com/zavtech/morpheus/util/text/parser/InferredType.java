@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util.text.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An enum that defines the lattice of types that can be inferred from text in a single pass
+ *
+ * <p>Each value is classified once into the most specific type that can represent it, and the classifications
+ * of a sequence of values are combined with <code>widen()</code>. The numeric types widen from INTEGER to LONG
+ * to DOUBLE, while any other disagreement widens to OTHER, which indicates that a more general parser is required.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public enum InferredType {
+
+    NONE(Object.class),
+    BOOLEAN(Boolean.class),
+    INTEGER(Integer.class),
+    LONG(Long.class),
+    DOUBLE(Double.class),
+    LOCAL_DATE(LocalDate.class),
+    LOCAL_DATE_TIME(LocalDateTime.class),
+    OTHER(Object.class);
+
+    private Class<?> type;
+
+    /**
+     * Constructor
+     * @param type  the data type for this inferred type
+     */
+    InferredType(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the data type for this inferred type
+     * @return  the data type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns true if this is one of the numeric types
+     * @return  true if INTEGER, LONG or DOUBLE
+     */
+    public boolean isNumeric() {
+        return this == INTEGER || this == LONG || this == DOUBLE;
+    }
+
+    /**
+     * Returns the narrowest type that can represent values of both this and the other type
+     * @param other     the other type
+     * @return          the combined type
+     */
+    public InferredType widen(InferredType other) {
+        if (this == other || other == NONE) {
+            return this;
+        } else if (this == NONE) {
+            return other;
+        } else if (isNumeric() && other.isNumeric()) {
+            return ordinal() > other.ordinal() ? this : other;
+        } else {
+            return OTHER;
+        }
+    }
+
+    /**
+     * Returns the inferred type that corresponds to the data type specified
+     * @param type  the data type, boxed or primitive
+     * @return      the matching inferred type, OTHER if not in the lattice
+     */
+    public static InferredType of(Class<?> type) {
+        if (type == Boolean.class || type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == Integer.class || type == int.class) {
+            return INTEGER;
+        } else if (type == Long.class || type == long.class) {
+            return LONG;
+        } else if (type == Double.class || type == double.class) {
+            return DOUBLE;
+        } else if (type == LocalDate.class) {
+            return LOCAL_DATE;
+        } else if (type == LocalDateTime.class) {
+            return LOCAL_DATE_TIME;
+        } else {
+            return OTHER;
+        }
+    }
+
+    /**
+     * Classifies a single non-null value into the most specific type that can represent it
+     * <p>The grammars recognized match those of the default Parsers, namely the case sensitive boolean
+     * literals true/yes/on/y and false/no/off/n, and the CharScanner grammars for all other types.</p>
+     * @param value     the value to classify, which should not represent null
+     * @return          the most specific type for value
+     */
+    public static InferredType classify(String value) {
+        final int length = value.length();
+        if (length == 0) {
+            return OTHER;
+        } else {
+            final char first = value.charAt(0);
+            if ((first >= '0' && first <= '9') || first == '-' || first == '+') {
+                if (CharScanner.isLong(value)) {
+                    return length <= 11 && CharScanner.isInt(value) ? INTEGER : LONG;
+                } else if (CharScanner.isDouble(value)) {
+                    return DOUBLE;
+                } else if (CharScanner.isLocalDate(value)) {
+                    return LOCAL_DATE;
+                } else if (CharScanner.isLocalDateTime(value)) {
+                    return LOCAL_DATE_TIME;
+                } else {
+                    return OTHER;
+                }
+            } else if (first == 'N' && length == 3) {
+                return value.equals("NaN") ? DOUBLE : OTHER;
+            } else {
+                switch (value) {
+                    case "true":    return BOOLEAN;
+                    case "false":   return BOOLEAN;
+                    case "yes":     return BOOLEAN;
+                    case "no":      return BOOLEAN;
+                    case "on":      return BOOLEAN;
+                    case "off":     return BOOLEAN;
+                    case "y":       return BOOLEAN;
+                    case "n":       return BOOLEAN;
+                    default:        return OTHER;
+                }
+            }
+        }
+    }
+
+}
@@ -259,7 +259,31 @@ public abstract class Parser<T> extends Function1<String,T> {
      * @return  newly created Parser
      */
     public static Parser<Double> ofDouble() {
-        return new ParserOfDouble(defaultNullCheck, Double::parseDouble);
+        return new ParserOfDouble(defaultNullCheck, null);
+    }
+
+    /**
+     * Returns a newly created Parser for Float
+     * @return  newly created Parser
+     */
+    public static Parser<Float> ofFloat() {
+        return new ParserOfFloat(defaultNullCheck);
+    }
+
+    /**
+     * Returns a newly created Parser for Short
+     * @return  newly created Parser
+     */
+    public static Parser<Short> ofShort() {
+        return new ParserOfShort(defaultNullCheck);
+    }
+
+    /**
+     * Returns a newly created Parser for Byte
+     * @return  newly created Parser
+     */
+    public static Parser<Byte> ofByte() {
+        return new ParserOfByte(defaultNullCheck);
     }
 
     /**
@@ -269,10 +293,10 @@ public abstract class Parser<T> extends Function1<String,T> {
      * @return  newly created Parser
      */
     public static Parser<Double> ofDouble(String pattern, int multiplier) {
-        final DecimalFormat decimalFormat = createDecimalFormat(pattern, multiplier);
+        final ThreadLocal<DecimalFormat> decimalFormat = ThreadLocal.withInitial(() -> createDecimalFormat(pattern, multiplier));
         return new ParserOfDouble(defaultNullCheck, value -> {
             try {
-                return decimalFormat.parse(value);
+                return decimalFormat.get().parse(value);
             } catch (Exception ex) {
                 throw new FormatException("Failed to parse value into double: " + value, ex);
             }
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util.text.parser;
+
+import com.zavtech.morpheus.util.functions.FunctionStyle;
+import com.zavtech.morpheus.util.functions.ToBooleanFunction;
+import com.zavtech.morpheus.util.text.FormatException;
+
+/**
+ * A Parser implementation for bytes, which is an INTEGER style parser that rejects values outside the range of a byte
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class ParserOfByte extends Parser<Byte> {
+
+    /**
+     * Constructor
+     * @param nullChecker   the null checker function
+     */
+    ParserOfByte(ToBooleanFunction<String> nullChecker) {
+        super(FunctionStyle.INTEGER, Byte.class, nullChecker);
+    }
+
+    @Override
+    public Parser<Byte> optimize(String value) {
+        return this;
+    }
+
+    @Override
+    public final boolean isSupported(String value) {
+        if (getNullChecker().applyAsBoolean(value) || !CharScanner.isInt(value)) {
+            return false;
+        } else {
+            final int intValue = CharScanner.parseInt(value);
+            return intValue >= Byte.MIN_VALUE && intValue <= Byte.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public final Byte apply(String value) {
+        return (byte)applyAsInt(value);
+    }
+
+    @Override
+    public final int applyAsInt(String value) {
+        final int result;
+        try {
+            if (getNullChecker().applyAsBoolean(value)) {
+                return 0;
+            } else {
+                result = CharScanner.parseInt(value);
+            }
+        } catch (Exception ex) {
+            throw new FormatException("Failed to parse value into Byte: " + value, ex);
+        }
+        if (result < Byte.MIN_VALUE || result > Byte.MAX_VALUE) {
+            throw new FormatException("Failed to parse value into Byte, out of range: " + value);
+        } else {
+            return result;
+        }
+    }
+}
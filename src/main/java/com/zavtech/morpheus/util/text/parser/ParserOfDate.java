@@ -36,10 +36,9 @@ import com.zavtech.morpheus.util.text.FormatException;
 class ParserOfDate<T extends java.util.Date> extends Parser<T> {
 
     private static final Map<Pattern,DateTimeFormatter> patternMap = new LinkedHashMap<>();
+    private static final Pattern pattern1 = Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})");
 
     private Class<?> dateClass;
-    private Calendar calendar = Calendar.getInstance();
-    private Matcher matcher1 = Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})").matcher("");
 
     /**
      * Static initializer
@@ -105,14 +104,13 @@ class ParserOfDate<T extends java.util.Date> extends Parser<T> {
      * @return          the UTC epoch millis
      */
     private long toEpochMillis(String value) {
-        if (matcher1.reset(value).matches()) {
+        final Matcher matcher1 = pattern1.matcher(value);
+        if (matcher1.matches()) {
+            final Calendar calendar = Calendar.getInstance();
+            calendar.clear();
             calendar.set(Calendar.YEAR, Integer.parseInt(matcher1.group(1)));
             calendar.set(Calendar.MONTH, Integer.parseInt(matcher1.group(2))-1);
             calendar.set(Calendar.DATE, Integer.parseInt(matcher1.group(3)));
-            calendar.set(Calendar.HOUR_OF_DAY, 0);
-            calendar.set(Calendar.MINUTE, 0);
-            calendar.set(Calendar.SECOND, 0);
-            calendar.set(Calendar.MILLISECOND, 0);
             return calendar.getTimeInMillis();
         } else {
             throw new IllegalArgumentException("Unrecognized date format for value: " + value);
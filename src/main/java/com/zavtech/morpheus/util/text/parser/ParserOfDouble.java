@@ -15,11 +15,7 @@
  */
 package com.zavtech.morpheus.util.text.parser;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.zavtech.morpheus.util.functions.FunctionStyle;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
@@ -34,22 +30,12 @@ import com.zavtech.morpheus.util.text.FormatException;
  */
 class ParserOfDouble extends Parser<Double> {
 
-    private static final Set<Pattern> patternSet = new HashSet<>();
-
     private Function<String,Number> handler;
 
-    /**
-     * Static initializer
-     */
-    static {
-        patternSet.add(Pattern.compile("NaN|[-+]?[0-9]+\\.?[0-9]*"));
-        patternSet.add(Pattern.compile("[-+]?[0-9]+\\.?[0-9]*([Ee][+-]?[0-9]+)?"));
-    }
-
     /**
      * Constructor
      * @param nullChecker   the null checker function
-     * @param handler       the handler for this parser, which may be null in order to use pattern matching
+     * @param handler       the handler for this parser, which may be null in order to use character scanning
      */
     ParserOfDouble(ToBooleanFunction<String> nullChecker, Function<String,Number> handler) {
         super(FunctionStyle.DOUBLE, Double.class, nullChecker);
@@ -63,15 +49,7 @@ class ParserOfDouble extends Parser<Double> {
 
     @Override
     public final boolean isSupported(String value) {
-        if (!getNullChecker().applyAsBoolean(value)) {
-            for (Pattern pattern : patternSet) {
-                final Matcher matcher = pattern.matcher(value);
-                if (matcher.reset(value).matches()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return !getNullChecker().applyAsBoolean(value) && CharScanner.isDouble(value);
     }
 
     @Override
@@ -84,13 +62,7 @@ class ParserOfDouble extends Parser<Double> {
                     final Number number = handler.apply(value);
                     return number instanceof Double ? ((Double)number) : number.doubleValue();
                 } else {
-                    for (Pattern pattern : patternSet) {
-                        final Matcher matcher = pattern.matcher(value);
-                        if (matcher.reset(value).matches()) {
-                            return Double.parseDouble(value);
-                        }
-                    }
-                    throw new IllegalArgumentException("Unable to parse value into Double: " + value);
+                    return CharScanner.parseDouble(value);
                 }
             }
         } catch (Exception ex) {
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util.text.parser;
+
+import com.zavtech.morpheus.util.functions.FunctionStyle;
+import com.zavtech.morpheus.util.functions.ToBooleanFunction;
+import com.zavtech.morpheus.util.text.FormatException;
+
+/**
+ * A Parser implementation for floats, which is a DOUBLE style parser that rounds values to float precision
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class ParserOfFloat extends Parser<Float> {
+
+    /**
+     * Constructor
+     * @param nullChecker   the null checker function
+     */
+    ParserOfFloat(ToBooleanFunction<String> nullChecker) {
+        super(FunctionStyle.DOUBLE, Float.class, nullChecker);
+    }
+
+    @Override
+    public Parser<Float> optimize(String value) {
+        return this;
+    }
+
+    @Override
+    public final boolean isSupported(String value) {
+        return !getNullChecker().applyAsBoolean(value) && CharScanner.isDouble(value);
+    }
+
+    @Override
+    public final Float apply(String value) {
+        return (float)applyAsDouble(value);
+    }
+
+    @Override
+    public final double applyAsDouble(String value) {
+        try {
+            if (getNullChecker().applyAsBoolean(value) || value.equalsIgnoreCase("NaN")) {
+                return Float.NaN;
+            } else {
+                return (float)CharScanner.parseDouble(value);
+            }
+        } catch (Exception ex) {
+            throw new FormatException("Failed to parse value into Float: " + value, ex);
+        }
+    }
+}
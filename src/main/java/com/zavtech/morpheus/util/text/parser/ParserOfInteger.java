@@ -15,8 +15,6 @@
  */
 package com.zavtech.morpheus.util.text.parser;
 
-import java.util.regex.Pattern;
-
 import com.zavtech.morpheus.util.functions.FunctionStyle;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
 import com.zavtech.morpheus.util.text.FormatException;
@@ -30,8 +28,6 @@ import com.zavtech.morpheus.util.text.FormatException;
  */
 class ParserOfInteger extends Parser<Integer> {
 
-    private static final Pattern pattern = Pattern.compile("[-+]?[0-9]{1,10}");
-
     /**
      * Constructor
      * @param nullChecker   the null checker function
@@ -47,7 +43,7 @@ class ParserOfInteger extends Parser<Integer> {
 
     @Override
     public final boolean isSupported(String value) {
-        return !getNullChecker().applyAsBoolean(value) && pattern.matcher(value).matches();
+        return !getNullChecker().applyAsBoolean(value) && CharScanner.isInt(value);
     }
 
     @Override
@@ -55,10 +51,8 @@ class ParserOfInteger extends Parser<Integer> {
         try {
             if (getNullChecker().applyAsBoolean(value)) {
                 return 0;
-            } else if (pattern.matcher(value).matches()) {
-                return Integer.parseInt(value);
             } else {
-                throw new IllegalArgumentException("Cannot parse value into an int: " + value + " pattern: " + pattern.pattern());
+                return CharScanner.parseInt(value);
             }
         } catch (Exception ex) {
             throw new FormatException("Failed to parse value into Integer: " + value, ex);
@@ -44,14 +44,13 @@ class ParserOfLocalDate extends Parser<LocalDate> {
      * Static initializer
      */
     static {
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2}"), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
         patternMap.put(Pattern.compile("\\d{2}-\\p{Alpha}{3}]-\\d{4}"), DateTimeFormatter.ofPattern("dd-MMM-yyyy"));
     }
 
     /**
      * Constructor
      * @param nullChecker   the null checker function
-     * @param format        the date format supplier, which may return a null format in order to use pattern matching
+     * @param format        the date format supplier, which may return a null format in order to use scanning / pattern matching
      */
     ParserOfLocalDate(ToBooleanFunction<String> nullChecker, Supplier<DateTimeFormatter> format) {
         super(FunctionStyle.OBJECT, LocalDate.class, nullChecker);
@@ -63,6 +62,8 @@ class ParserOfLocalDate extends Parser<LocalDate> {
     public Parser<LocalDate> optimize(String value) {
         if (value == null) {
             throw new IllegalArgumentException("Cannot optimize to parse a null");
+        } else if (CharScanner.isLocalDate(value)) {
+            return new ParserOfLocalDate(getNullChecker(), () -> DateTimeFormatter.ISO_LOCAL_DATE);
         } else {
             for (Map.Entry<Pattern,DateTimeFormatter> entry : patternMap.entrySet()) {
                 final Matcher matcher = entry.getKey().matcher(value);
@@ -78,7 +79,11 @@ class ParserOfLocalDate extends Parser<LocalDate> {
 
     @Override
     public final boolean isSupported(String value) {
-        if (!getNullChecker().applyAsBoolean(value)) {
+        if (getNullChecker().applyAsBoolean(value)) {
+            return false;
+        } else if (CharScanner.isLocalDate(value)) {
+            return true;
+        } else {
             for (Map.Entry<Pattern,DateTimeFormatter> entry : patternMap.entrySet()) {
                 final Matcher matcher = entry.getKey().matcher(value);
                 if (matcher.reset(value).matches()) {
@@ -97,7 +102,9 @@ class ParserOfLocalDate extends Parser<LocalDate> {
                 return null;
             } else {
                 final DateTimeFormatter formatter = format.get();
-                if (formatter != null) {
+                if ((formatter == null || formatter == DateTimeFormatter.ISO_LOCAL_DATE) && CharScanner.isLocalDate(value)) {
+                    return CharScanner.parseLocalDate(value);
+                } else if (formatter != null) {
                     return LocalDate.parse(value, formatter);
                 } else {
                     for (Map.Entry<Pattern,DateTimeFormatter> entry : patternMap.entrySet()) {
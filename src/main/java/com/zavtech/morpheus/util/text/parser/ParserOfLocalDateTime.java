@@ -44,19 +44,14 @@ class ParserOfLocalDateTime extends Parser<LocalDateTime> {
      * Static initializer
      */
     static {
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
         patternMap.put(Pattern.compile("\\d{2}-\\p{Alpha}{3}]-\\d{4} \\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm"));
         patternMap.put(Pattern.compile("\\d{2}-\\p{Alpha}{3}]-\\d{4} \\d{2}:\\d{2}:\\d{2}"), DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm:ss"));
-        patternMap.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.{1}\\d*"), DateTimeFormatter.ISO_DATE_TIME);
     }
 
     /**
      * Constructor
      * @param nullChecker   the null checker function
-     * @param format        the date format supplier, which may return a null format in order to use pattern matching
+     * @param format        the date format supplier, which may return a null format in order to use scanning / pattern matching
      */
     ParserOfLocalDateTime(ToBooleanFunction<String> nullChecker, Supplier<DateTimeFormatter> format) {
         super(FunctionStyle.OBJECT, LocalDateTime.class, nullChecker);
@@ -65,7 +60,11 @@ class ParserOfLocalDateTime extends Parser<LocalDateTime> {
 
     @Override
     public final boolean isSupported(String value) {
-        if (!getNullChecker().applyAsBoolean(value)) {
+        if (getNullChecker().applyAsBoolean(value)) {
+            return false;
+        } else if (CharScanner.isLocalDateTime(value)) {
+            return true;
+        } else {
             for (Map.Entry<Pattern, DateTimeFormatter> entry : patternMap.entrySet()) {
                 final Matcher matcher = entry.getKey().matcher(value);
                 if (matcher.reset(value).matches()) {
@@ -81,6 +80,9 @@ class ParserOfLocalDateTime extends Parser<LocalDateTime> {
     public final Parser<LocalDateTime> optimize(String value) {
         if (value == null) {
             throw new IllegalArgumentException("Cannot optimize to parse a null");
+        } else if (CharScanner.isLocalDateTime(value)) {
+            final DateTimeFormatter formatter = value.charAt(10) == 'T' ? DateTimeFormatter.ISO_LOCAL_DATE_TIME : null;
+            return new ParserOfLocalDateTime(getNullChecker(), () -> formatter);
         } else {
             for (Map.Entry<Pattern,DateTimeFormatter> entry : patternMap.entrySet()) {
                 final Matcher matcher = entry.getKey().matcher(value);
@@ -101,7 +103,11 @@ class ParserOfLocalDateTime extends Parser<LocalDateTime> {
                 return null;
             } else {
                 final DateTimeFormatter formatter = format.get();
-                if (formatter != null) {
+                if (formatter == null && CharScanner.isLocalDateTime(value)) {
+                    return CharScanner.parseLocalDateTime(value);
+                } else if (formatter == DateTimeFormatter.ISO_LOCAL_DATE_TIME && CharScanner.isLocalDateTime(value) && value.charAt(10) == 'T') {
+                    return CharScanner.parseLocalDateTime(value);
+                } else if (formatter != null) {
                     return LocalDateTime.parse(value, formatter);
                 } else {
                     for (Map.Entry<Pattern,DateTimeFormatter> entry : patternMap.entrySet()) {
@@ -15,8 +15,6 @@
  */
 package com.zavtech.morpheus.util.text.parser;
 
-import java.util.regex.Pattern;
-
 import com.zavtech.morpheus.util.functions.FunctionStyle;
 import com.zavtech.morpheus.util.functions.ToBooleanFunction;
 import com.zavtech.morpheus.util.text.FormatException;
@@ -30,8 +28,6 @@ import com.zavtech.morpheus.util.text.FormatException;
  */
 class ParserOfLong extends Parser<Long> {
 
-    private static final Pattern pattern = Pattern.compile("[-+]?[0-9]{1,20}");
-
     /**
      * Constructor
      * @param nullChecker   the null checker function
@@ -42,7 +38,7 @@ class ParserOfLong extends Parser<Long> {
 
     @Override
     public final boolean isSupported(String value) {
-        return !getNullChecker().applyAsBoolean(value) && pattern.matcher(value).matches();
+        return !getNullChecker().applyAsBoolean(value) && CharScanner.isLong(value);
     }
 
     @Override
@@ -55,10 +51,8 @@ class ParserOfLong extends Parser<Long> {
         try {
             if (getNullChecker().applyAsBoolean(value)) {
                 return 0L;
-            } else if (pattern.matcher(value).matches()) {
-                return Long.parseLong(value);
             } else {
-                throw new IllegalArgumentException("Cannot parse value into an long: " + value + " pattern: " + pattern.pattern());
+                return CharScanner.parseLong(value);
             }
         } catch (Exception ex) {
             throw new FormatException("Failed to parse value into Long: " + value, ex);
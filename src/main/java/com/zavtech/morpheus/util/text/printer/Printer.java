@@ -204,6 +204,32 @@ public abstract class Printer<T> extends Function2<T,String> {
         return new PrinterOfPrimitive<>(FunctionStyle.DOUBLE, () -> decimalFormat);
     }
 
+    /**
+     * Returns a Printer for values of type Float
+     * @param pattern   the decimal format pattern
+     * @return      thw newly created Printer
+     */
+    public static Printer<Float> ofFloat(String pattern) {
+        final DecimalFormat decimalFormat = createDecimalFormat(pattern, 1);
+        return new PrinterOfFloat(() -> decimalFormat);
+    }
+
+    /**
+     * Returns a Printer for values of type Short
+     * @return      thw newly created Printer
+     */
+    public static Printer<Short> ofShort() {
+        return new PrinterOfPrimitive<>(FunctionStyle.INTEGER);
+    }
+
+    /**
+     * Returns a Printer for values of type Byte
+     * @return      thw newly created Printer
+     */
+    public static Printer<Byte> ofByte() {
+        return new PrinterOfPrimitive<>(FunctionStyle.INTEGER);
+    }
+
     /**
      * Returns a Printer for values of type BigDecimal
      * @return      thw newly created Printer
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util.text.printer;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.function.Supplier;
+
+import com.zavtech.morpheus.util.functions.FunctionStyle;
+
+/**
+ * A Printer implementation for floats, which formats the shortest decimal that represents the float value
+ *
+ * <p>Floats are passed to a DOUBLE style Printer widened to double, which exposes binary representation
+ * error in the trailing digits, so the value is narrowed back to float before formatting.</p>
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+class PrinterOfFloat extends Printer<Float> {
+
+    private Supplier<DecimalFormat> decimalFormat;
+
+    /**
+     * Constructor
+     * @param decimalFormat the optional decimal format
+     */
+    PrinterOfFloat(Supplier<DecimalFormat> decimalFormat) {
+        super(FunctionStyle.DOUBLE, DEFAULT_NULL);
+        this.decimalFormat = decimalFormat;
+    }
+
+    @Override
+    public final String apply(double input) {
+        final float value = (float)input;
+        if (Float.isNaN(value)) {
+            return "NaN";
+        } else if (Float.isInfinite(value)) {
+            return String.valueOf(value);
+        } else {
+            final DecimalFormat format = decimalFormat != null ? decimalFormat.get() : null;
+            return format != null ? format.format(new BigDecimal(Float.toString(value))) : String.valueOf(value);
+        }
+    }
+}
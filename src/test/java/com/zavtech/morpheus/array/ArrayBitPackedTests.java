@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the bit packed boolean arrays and the logical operations on boolean arrays
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArrayBitPackedTests {
+
+
+    @DataProvider(name="styles")
+    public Object[][] styles() {
+        return new Object[][] {
+            { ArrayStyle.DENSE, 0 },
+            { ArrayStyle.DENSE, 1 },
+            { ArrayStyle.DENSE, 64 },
+            { ArrayStyle.DENSE, 1000 },
+            { ArrayStyle.MAPPED, 0 },
+            { ArrayStyle.MAPPED, 63 },
+            { ArrayStyle.MAPPED, 1000 },
+            { ArrayStyle.OFF_HEAP, 1000 },
+        };
+    }
+
+
+    /**
+     * Returns a boolean array of the style specified populated with random values, recording them in expected
+     * @param style     the array style
+     * @param expected  the array to record the values in
+     * @param seed      the random seed
+     * @return          the newly created array
+     */
+    private Array<Boolean> random(ArrayStyle style, boolean[] expected, long seed) {
+        final Random random = new Random(seed);
+        final Array<Boolean> array = Array.of(Boolean.class, expected.length, false, style);
+        for (int i=0; i<expected.length; ++i) {
+            expected[i] = random.nextBoolean();
+            array.setBoolean(i, expected[i]);
+        }
+        return array;
+    }
+
+
+    /**
+     * Asserts the array holds the expected values
+     * @param array     the array to check
+     * @param expected  the expected values
+     */
+    private void assertValues(Array<Boolean> array, boolean[] expected) {
+        Assert.assertEquals(array.length(), expected.length, "The lengths match");
+        int count = 0;
+        for (int i=0; i<expected.length; ++i) {
+            Assert.assertEquals(array.getBoolean(i), expected[i], "Values match at " + i);
+            count += expected[i] ? 1 : 0;
+        }
+        Assert.assertEquals(array.countTrue(), count, "The true counts match");
+    }
+
+
+    @Test()
+    public void testClasses() {
+        Assert.assertEquals(Array.of(Boolean.class, 10).getClass().getSimpleName(), "DenseArrayOfBooleans");
+        Assert.assertEquals(Array.of(Boolean.class, 10, false, ArrayStyle.MAPPED).getClass().getSimpleName(), "MappedArrayOfBits");
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testValues(ArrayStyle style, int length) {
+        final boolean[] expected = new boolean[length];
+        final Array<Boolean> array = random(style, expected, 1L);
+        this.assertValues(array, expected);
+        this.assertValues(array.copy(), expected);
+        if (length > 10) {
+            final boolean[] subset = Arrays.copyOfRange(expected, 3, length - 5);
+            this.assertValues(array.copy(3, length - 5), subset);
+            final int[] indexes = new int[] { 9, 0, 4, length - 1 };
+            final boolean[] picked = new boolean[] { expected[9], expected[0], expected[4], expected[length-1] };
+            this.assertValues(array.copy(indexes), picked);
+        }
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testFill(ArrayStyle style, int length) {
+        final boolean[] expected = new boolean[length];
+        final Array<Boolean> array = random(style, expected, 2L);
+        final int[][] ranges = { {0, length}, {0, length / 3}, {length / 4, length / 2}, {length / 2, length} };
+        for (int[] range : ranges) {
+            for (boolean value : new boolean[] { true, false }) {
+                array.fill(value, range[0], range[1]);
+                Arrays.fill(expected, range[0], range[1], value);
+                this.assertValues(array, expected);
+            }
+        }
+    }
+
+
+
+    @Test(dataProvider="styles")
+    public void testFillOutOfBounds(ArrayStyle style, int length) {
+        final boolean[] expected = new boolean[length];
+        final Array<Boolean> array = random(style, expected, 7L);
+        final int[][] ranges = { {0, length + 10}, {-1, length}, {length, length + 1}, {length / 2 + 1, length / 2} };
+        for (int[] range : ranges) {
+            try {
+                array.fill(true, range[0], range[1]);
+                Assert.fail("Fill of range [" + range[0] + ", " + range[1] + ") should fail for length " + length);
+            } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException ex) {
+                this.assertValues(array, expected);
+            }
+        }
+        array.fill(true, length, length);
+        this.assertValues(array, expected);
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testLogicalOperations(ArrayStyle style, int length) {
+        final boolean[] left = new boolean[length];
+        final boolean[] right = new boolean[length];
+        final Array<Boolean> array1 = random(style, left, 3L);
+        final Array<Boolean> array2 = random(style, right, 4L);
+        final Array<Boolean> array3 = random(ArrayStyle.DENSE, new boolean[length], 4L);
+        final boolean[] and = new boolean[length];
+        final boolean[] or = new boolean[length];
+        final boolean[] not = new boolean[length];
+        for (int i=0; i<length; ++i) {
+            and[i] = left[i] && right[i];
+            or[i] = left[i] || right[i];
+            not[i] = !left[i];
+        }
+        this.assertValues(array1.copy().and(array2), and);
+        this.assertValues(array1.copy().and(array3), and);
+        this.assertValues(array1.copy().or(array2), or);
+        this.assertValues(array1.copy().or(array3), or);
+        this.assertValues(array1.copy().not(), not);
+        this.assertValues(array1.copy().not().not(), left);
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testSortAndExpand(ArrayStyle style, int length) {
+        final boolean[] expected = new boolean[length];
+        final Array<Boolean> array = random(style, expected, 5L);
+        final int count = array.countTrue();
+        array.sort(true);
+        for (int i=0; i<length; ++i) {
+            Assert.assertEquals(array.getBoolean(i), i >= length - count, "Ascending value at " + i);
+        }
+        array.sort(false);
+        for (int i=0; i<length; ++i) {
+            Assert.assertEquals(array.getBoolean(i), i < count, "Descending value at " + i);
+        }
+        array.expand(length + 100);
+        Assert.assertEquals(array.length(), length + 100);
+        Assert.assertEquals(array.countTrue(), count);
+        final Array<Boolean> trues = Array.of(Boolean.class, length, true, style);
+        trues.expand(length + 70);
+        Assert.assertEquals(trues.countTrue(), length + 70);
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testSerialization(ArrayStyle style, int length) throws Exception {
+        final boolean[] expected = new boolean[length];
+        final Array<Boolean> array = random(style, expected, 6L);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream os = new ObjectOutputStream(bytes)) {
+            os.writeObject(array);
+        }
+        try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            final Array<Boolean> result = (Array<Boolean>)is.readObject();
+            this.assertValues(result, expected);
+        }
+    }
+
+
+    @Test()
+    public void testParallelUpdates() {
+        final int length = 100000;
+        final Array<Integer> values = Array.of(Integer.class, length).applyInts(v -> v.index() % 3);
+        final Array<Boolean> mask = values.parallel().mapToBooleans(v -> v.getInt() == 0);
+        Assert.assertEquals(mask.countTrue(), (length + 2) / 3);
+        for (int i=0; i<length; ++i) {
+            Assert.assertEquals(mask.getBoolean(i), i % 3 == 0, "Mask value at " + i);
+        }
+    }
+
+
+    @Test()
+    public void testMappedReopen() {
+        final File file = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString() + ".dat");
+        try {
+            final Array<Boolean> array = Array.map(Boolean.class, 130, true, file.getAbsolutePath());
+            array.applyBooleans(v -> v.index() % 5 != 0);
+            array.expand(200);
+            Assert.assertEquals(file.length(), 256L + 4 * 8L);
+            final Array<Boolean> reopened = Array.open(Boolean.class, file.getAbsolutePath(), true);
+            Assert.assertEquals(reopened.length(), 200);
+            Assert.assertEquals(reopened.defaultValue(), Boolean.TRUE);
+            for (int i=0; i<200; ++i) {
+                Assert.assertEquals(reopened.getBoolean(i), i >= 130 || i % 5 != 0, "Value at " + i);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test(expectedExceptions={ArrayException.class})
+    public void testLengthMismatch() {
+        Array.of(Boolean.class, 10).and(Array.of(Boolean.class, 11));
+    }
+
+
+    @Test(expectedExceptions={ArrayIndexOutOfBoundsException.class})
+    public void testOutOfBounds() {
+        Array.of(Boolean.class, 10).getBoolean(10);
+    }
+
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.util.text.Formats;
+import com.zavtech.morpheus.util.text.FormatException;
+
+/**
+ * Unit tests for the compact float, short and byte array types
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArrayCompactTypesTests {
+
+
+    @DataProvider(name="types")
+    public Object[][] types() {
+        final IntFunction<Object> floats = i -> i % 11 == 0 ? Float.NaN : i * 0.1f;
+        final IntFunction<Object> shorts = i -> (short)((i * 37) % 30000 - 15000);
+        final IntFunction<Object> bytes = i -> (byte)((i * 7) % 250 - 125);
+        return new Object[][] {
+            { Float.class, ArrayStyle.DENSE, floats },
+            { Float.class, ArrayStyle.SPARSE, floats },
+            { Float.class, ArrayStyle.MAPPED, floats },
+            { Short.class, ArrayStyle.DENSE, shorts },
+            { Short.class, ArrayStyle.SPARSE, shorts },
+            { Short.class, ArrayStyle.MAPPED, shorts },
+            { Byte.class, ArrayStyle.DENSE, bytes },
+            { Byte.class, ArrayStyle.SPARSE, bytes },
+            { Byte.class, ArrayStyle.MAPPED, bytes },
+        };
+    }
+
+
+    @Test()
+    public void testArrayTypes() {
+        Assert.assertEquals(ArrayType.of(float.class), ArrayType.FLOAT);
+        Assert.assertEquals(ArrayType.of(Float.class), ArrayType.FLOAT);
+        Assert.assertEquals(ArrayType.of(short.class), ArrayType.SHORT);
+        Assert.assertEquals(ArrayType.of(Short.class), ArrayType.SHORT);
+        Assert.assertEquals(ArrayType.of(byte.class), ArrayType.BYTE);
+        Assert.assertEquals(ArrayType.of(Byte.class), ArrayType.BYTE);
+        Assert.assertTrue(ArrayType.FLOAT.isNumeric());
+        Assert.assertTrue(ArrayType.SHORT.isNumeric());
+        Assert.assertTrue(ArrayType.BYTE.isNumeric());
+        Assert.assertTrue(Float.isNaN(ArrayType.defaultValue(Float.class)));
+        Assert.assertEquals(ArrayType.defaultValue(Short.class), Short.valueOf((short)0));
+        Assert.assertEquals(ArrayType.defaultValue(Byte.class), Byte.valueOf((byte)0));
+        Assert.assertEquals(Array.of(new float[] {1.5f, 2.5f}).getValue(1), 2.5f);
+        Assert.assertEquals(Array.of(new short[] {1, -2}).getValue(1), Short.valueOf((short)-2));
+        Assert.assertEquals(Array.of(new byte[] {1, -2}).getInt(1), -2);
+    }
+
+
+    @Test(dataProvider = "types")
+    @SuppressWarnings("unchecked")
+    public <T> void testValues(Class<T> type, ArrayStyle style, IntFunction<Object> generator) {
+        final int length = 5000;
+        final Array<T> array = Array.of(type, length, null, style);
+        Assert.assertEquals(array.typeCode(), ArrayType.of(type));
+        Assert.assertEquals(array.style(), style);
+        array.applyValues(v -> (T)generator.apply(v.index()));
+        final Array<T> copy = array.copy();
+        final Array<T> range = array.copy(100, 200);
+        final Array<T> subset = array.copy(new int[] {5, 50, 500});
+        array.expand(length * 2);
+        Assert.assertEquals(array.length(), length * 2);
+        for (int i=0; i<length; ++i) {
+            final Object expected = generator.apply(i);
+            Assert.assertEquals(array.getValue(i), expected, "Values match at index " + i);
+            Assert.assertEquals(copy.getValue(i), expected, "Copy values match at index " + i);
+            Assert.assertEquals(Double.compare(array.getDouble(i), ((Number)expected).doubleValue()), 0, "Double values match at index " + i);
+            Assert.assertEquals(array.getValue(length + i), array.defaultValue(), "Expanded value is default at " + i);
+        }
+        for (int i=0; i<range.length(); ++i) {
+            Assert.assertEquals(range.getValue(i), generator.apply(100 + i), "Range values match at index " + i);
+        }
+        Assert.assertEquals(subset.getValue(2), generator.apply(500));
+        Assert.assertEquals(copy, array.copy(0, length));
+    }
+
+
+    @Test(dataProvider = "types")
+    @SuppressWarnings("unchecked")
+    public <T> void testSortAndStats(Class<T> type, ArrayStyle style, IntFunction<Object> generator) {
+        final int length = 2000;
+        final Array<T> array = Array.of(type, length, null, style).applyValues(v -> (T)generator.apply(v.index()));
+        final double[] expected = new double[length];
+        for (int i=0; i<length; ++i) expected[i] = ((Number)generator.apply(i)).doubleValue();
+        final double mean = Arrays.stream(expected).filter(v -> !Double.isNaN(v)).average().orElse(Double.NaN);
+        Assert.assertEquals(array.stats().mean().doubleValue(), mean, 0.0001d);
+        Assert.assertEquals(array.stats().count().intValue(), (int)Arrays.stream(expected).filter(v -> !Double.isNaN(v)).count());
+        array.sort(true);
+        for (int i=1; i<length; ++i) {
+            final double v1 = array.getDouble(i-1);
+            final double v2 = array.getDouble(i);
+            Assert.assertTrue(Double.compare(v1, v2) <= 0, "Sorted at index " + i);
+        }
+        final Array<T> distinct = array.filter(v -> !v.isNull()).distinct();
+        Assert.assertEquals(distinct.typeCode(), ArrayType.of(type));
+        Assert.assertEquals(distinct.length(), (int)Arrays.stream(expected).filter(v -> !Double.isNaN(v)).distinct().count());
+    }
+
+
+    @Test(expectedExceptions = { ArrayException.class })
+    public void testShortOutOfRange() {
+        Array.of(Short.class, 10).setInt(0, Short.MAX_VALUE + 1);
+    }
+
+
+    @Test(expectedExceptions = { ArrayException.class })
+    public void testByteOutOfRange() {
+        Array.of(Byte.class, 10, 0.5f).setInt(0, Byte.MIN_VALUE - 1);
+    }
+
+
+    @Test()
+    public void testMappedReopen() {
+        final File file = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString() + ".dat");
+        try {
+            final Array<Short> array = Array.map(Short.class, 100, (short)-1, file.getAbsolutePath());
+            array.applyInts(v -> v.index() * 100);
+            final Array<Short> reopened = Array.open(Short.class, file.getAbsolutePath(), true);
+            Assert.assertEquals(reopened.defaultValue(), Short.valueOf((short)-1));
+            for (int i=0; i<100; ++i) {
+                Assert.assertEquals(reopened.getInt(i), i * 100);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test()
+    public void testParsersAndPrinters() {
+        final Formats formats = new Formats();
+        Assert.assertEquals(formats.getParserOrFail(Float.class).apply("1.1"), 1.1f);
+        Assert.assertEquals(formats.getParserOrFail(float.class).applyAsDouble("0.1"), (double)0.1f);
+        Assert.assertEquals(formats.getParserOrFail(Short.class).apply("-300"), Short.valueOf((short)-300));
+        Assert.assertEquals(formats.getParserOrFail(Byte.class).apply("127"), Byte.valueOf((byte)127));
+        Assert.assertFalse(formats.getParserOrFail(Byte.class).isSupported("128"));
+        Assert.assertTrue(formats.getParserOrFail(Short.class).isSupported("32767"));
+        Assert.assertEquals(formats.getPrinterOrFail(Float.class).apply(0.1f), "0.1000");
+        Assert.assertEquals(formats.getPrinterOrFail(Short.class).apply((short)-300), "-300");
+        Assert.assertEquals(formats.getPrinterOrFail(Byte.class).apply((byte)12), "12");
+    }
+
+
+    @Test(expectedExceptions = { FormatException.class })
+    public void testParseShortOutOfRange() {
+        new Formats().getParserOrFail(Short.class).applyAsInt("40000");
+    }
+
+
+    @Test()
+    public void testIndex() {
+        final Index<Short> index = Index.of(Array.of(new short[] {5, -3, 12, 0}));
+        Assert.assertEquals(index.type(), Short.class);
+        Assert.assertEquals(index.getIndexForKey((short)12), 2);
+        Assert.assertTrue(index.contains((short)-3));
+        Assert.assertFalse(index.contains((short)7));
+        final Index<Byte> bytes = Index.of(Byte.class, 10);
+        bytes.add((byte)-1);
+        bytes.add((byte)4);
+        Assert.assertEquals(bytes.getIndexForKey((byte)4), 1);
+    }
+
+
+    @Test()
+    public void testDataFrameColumns() {
+        final DataFrame<Integer,String> frame = DataFrame.of(Index.of(0, 1, 2, 3), String.class, columns -> {
+            columns.add("Floats", Array.of(new float[] {1.5f, 2.5f, Float.NaN, 4f}));
+            columns.add("Shorts", Array.of(new short[] {10, 20, 30, 40}));
+            columns.add("Bytes", Array.of(new byte[] {-1, -2, -3, -4}));
+        });
+        Assert.assertEquals(frame.cols().type("Floats"), Float.class);
+        Assert.assertTrue(frame.colAt("Shorts").isNumeric());
+        Assert.assertEquals(frame.data().getDouble(1, "Floats"), 2.5d);
+        Assert.assertEquals(frame.data().getInt(3, "Shorts"), 40);
+        Assert.assertEquals(frame.data().getInt(2, "Bytes"), -3);
+        Assert.assertEquals(frame.colAt("Shorts").stats().sum().doubleValue(), 100d);
+        Assert.assertEquals(frame.colAt("Floats").stats().mean().doubleValue(), 8d / 3d, 0.00001d);
+        frame.data().setInt(0, "Bytes", 100);
+        Assert.assertEquals(frame.data().<Byte>getValue(0, "Bytes"), Byte.valueOf((byte)100));
+    }
+
+}
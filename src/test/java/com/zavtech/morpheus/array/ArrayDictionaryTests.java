@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.array.coding.IntCoding;
+import com.zavtech.morpheus.array.coding.WithIntCoding;
+
+/**
+ * Unit tests for String arrays which opt in to dictionary encoding with per-array int codes
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArrayDictionaryTests {
+
+    private static final String[] tickers = {"MSFT", "AAPL", "GOOGL", "BLK", "CSCO", "SPY", "YHOO", "AMZN", "IBM", "ORCL"};
+
+
+    @DataProvider(name="styles")
+    public Object[][] styles() {
+        return new Object[][] { {ArrayStyle.DENSE}, {ArrayStyle.SPARSE}, {ArrayStyle.MAPPED} };
+    }
+
+
+    /**
+     * Returns a dictionary encoded String array of the style specified populated with random tickers and some nulls
+     * @param style     the array style
+     * @param length    the array length
+     * @return          the newly created array
+     */
+    private Array<String> create(ArrayStyle style, int length) {
+        final Array<String> array = Array.ofDictionary(String.class, length, null, style);
+        final Random random = new Random(12345);
+        for (int i=0; i<length; ++i) {
+            array.setValue(i, i % 17 == 0 ? null : new String(tickers[random.nextInt(tickers.length)]));
+        }
+        return array;
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testEncoding(ArrayStyle style) {
+        final Array<String> array = create(style, 1000);
+        final Random random = new Random(12345);
+        Assert.assertEquals(array.style(), style);
+        Assert.assertEquals(array.type(), String.class);
+        Assert.assertTrue(array instanceof WithIntCoding);
+        final IntCoding.OfDictionary<?> coding = (IntCoding.OfDictionary<?>)((WithIntCoding<?>)array).getCoding();
+        Assert.assertEquals(coding.size(), tickers.length);
+        for (int i=0; i<array.length(); ++i) {
+            final String expected = i % 17 == 0 ? null : tickers[random.nextInt(tickers.length)];
+            Assert.assertEquals(array.getValue(i), expected, "Values match at index " + i);
+            Assert.assertEquals(array.isNull(i), expected == null);
+            Assert.assertTrue(array.isEqualTo(i, expected));
+            Assert.assertFalse(array.isEqualTo(i, "XXX"));
+        }
+        Assert.assertEquals(coding.size(), tickers.length, "Equality tests do not grow the dictionary");
+        Assert.assertEquals(array.distinct().length(), tickers.length + 1);
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testSort(ArrayStyle style) {
+        final Array<String> array = create(style, 1000);
+        final String[] expected = array.stream().values().toArray(String[]::new);
+        Arrays.sort(expected, (v1, v2) -> v1 == null ? v2 == null ? 0 : -1 : v2 == null ? 1 : v1.compareTo(v2));
+        array.sort(true);
+        for (int i=0; i<array.length(); ++i) {
+            Assert.assertEquals(array.getValue(i), expected[i], "Values match at index " + i);
+        }
+        array.setValue(0, "ZZZ");
+        array.setValue(1, "A");
+        Assert.assertTrue(array.compare(0, 1) > 0);
+        Assert.assertTrue(array.compare(1, array.length() - 1) < 0);
+    }
+
+
+    @Test(dataProvider="styles")
+    public void testUpdateAcrossDictionaries(ArrayStyle style) {
+        final Array<String> source = create(style, 100);
+        final Array<String> target = Array.ofDictionary(String.class, 100, null, style);
+        target.setValue(0, "IBM");
+        target.update(0, source, 0, 100);
+        for (int i=0; i<source.length(); ++i) {
+            Assert.assertEquals(target.getValue(i), source.getValue(i), "Values match at index " + i);
+        }
+    }
+
+
+    @Test(dataProvider="styles")
+    @SuppressWarnings("unchecked")
+    public void testSerialization(ArrayStyle style) throws Exception {
+        final Array<String> array = create(style, 500);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream os = new ObjectOutputStream(bytes)) {
+            os.writeObject(array);
+            array.write(os, new int[] {3, 2, 1});
+        }
+        try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Array<String> result = (Array<String>)is.readObject();
+            final Array<String> other = Array.ofDictionary(String.class, 3, null, style);
+            other.setValue(0, "IBM");
+            other.read(is, 3);
+            for (int i=0; i<array.length(); ++i) {
+                Assert.assertEquals(result.getValue(i), array.getValue(i), "Values match at index " + i);
+            }
+            for (int i=0; i<3; ++i) {
+                Assert.assertEquals(other.getValue(i), array.getValue(3 - i), "Values match at index " + i);
+            }
+        }
+    }
+
+
+    @Test()
+    public void testOptIn() {
+        for (ArrayStyle style : new ArrayStyle[] {ArrayStyle.DENSE, ArrayStyle.SPARSE, ArrayStyle.MAPPED}) {
+            final Array<String> array = Array.of(String.class, 10, null, style);
+            Assert.assertFalse(array instanceof WithIntCoding, "String arrays are not dictionary encoded by default for " + style);
+        }
+        Assert.assertTrue(Array.ofDictionary(String.class, 10) instanceof WithIntCoding);
+    }
+
+
+    @Test()
+    public void testEqualityLookupIsCached() {
+        final Array<String> array = create(ArrayStyle.DENSE, 1000);
+        final IntCoding.OfDictionary<?> coding = (IntCoding.OfDictionary<?>)((WithIntCoding<?>)array).getCoding();
+        final String missing = "XXX";
+        Assert.assertEquals(array.count(v -> v.isEqualTo(missing)), 0);
+        array.setValue(5, "XXX");
+        Assert.assertEquals(coding.size(), tickers.length + 1);
+        Assert.assertEquals(array.count(v -> v.isEqualTo(missing)), 1, "A cached miss is invalidated when the dictionary grows");
+        final String ticker = new String("IBM");
+        final long expected = array.stream().values().filter(ticker::equals).count();
+        Assert.assertEquals(array.count(v -> v.isEqualTo(ticker)), expected);
+    }
+
+
+    @Test()
+    public void testConcurrentEncoding() throws Exception {
+        final IntCoding.OfDictionary<String> coding = IntCoding.ofDictionary(String.class);
+        final String[] values = IntStream.range(0, 5000).mapToObj(i -> "V" + i).toArray(String[]::new);
+        final int[][] codes = new int[4][];
+        final Thread[] threads = new Thread[codes.length];
+        final AtomicInteger mismatches = new AtomicInteger();
+        for (int t=0; t<threads.length; ++t) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                codes[thread] = new int[values.length];
+                for (int i=0; i<values.length; ++i) {
+                    final int index = (i + thread * 997) % values.length;
+                    codes[thread][index] = coding.getCode(values[index]);
+                    if (!values[index].equals(coding.getValue(codes[thread][index]))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(mismatches.get(), 0, "Values are visible to the thread that resolved their code");
+        Assert.assertEquals(coding.size(), values.length);
+        for (int i=0; i<values.length; ++i) {
+            Assert.assertEquals(coding.getValue(codes[0][i]), values[i], "Value matches for code at " + i);
+            for (int[] other : codes) {
+                Assert.assertEquals(other[i], codes[0][i], "All threads resolve the same code at " + i);
+            }
+        }
+    }
+}
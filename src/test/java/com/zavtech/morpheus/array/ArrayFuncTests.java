@@ -63,7 +63,7 @@ public class ArrayFuncTests {
                         final Array<?> array = ArraysBasicTests.createRandomArray(clazz, 1000, style);
                         argList.add(new Object[]  { array });
                     }
-                } else {
+                } else if (ArraysBasicTests.isSupported(clazz, style)) {
                     final Array<?> array = ArraysBasicTests.createRandomArray(clazz, 1000, style);
                     argList.add(new Object[]  { array });
                 }
@@ -16,11 +16,19 @@
 package com.zavtech.morpheus.array;
 
 
+import java.io.File;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.Year;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
 
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 /**
@@ -33,6 +41,20 @@ import org.testng.annotations.Test;
 public class ArrayMappedTests {
 
 
+    @DataProvider(name="segmented")
+    public Object[][] segmented() {
+        final ZonedDateTime start = ZonedDateTime.of(2017, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        return new Object[][] {
+            { Boolean.class, (IntFunction<Object>)i -> i % 3 == 0 },
+            { Integer.class, (IntFunction<Object>)i -> i * 7 },
+            { Long.class, (IntFunction<Object>)i -> i * 1000000000L },
+            { Double.class, (IntFunction<Object>)i -> i * 0.25d },
+            { LocalDate.class, (IntFunction<Object>)i -> LocalDate.of(2000, 1, 1).plusDays(i) },
+            { Year.class, (IntFunction<Object>)i -> Year.of(1900 + i % 200) },
+            { ZonedDateTime.class, (IntFunction<Object>)start::plusMinutes },
+        };
+    }
+
 
     @Test()
     public void testBuild() {
@@ -98,4 +120,209 @@ public class ArrayMappedTests {
             System.out.println(v1);
         }
     }
+
+
+    @Test(dataProvider="segmented")
+    @SuppressWarnings("unchecked")
+    public <T> void testSegmented(Class<T> type, IntFunction<T> values) {
+        final String property = "morpheus.array.segmentBytes";
+        try {
+            System.setProperty(property, "100");
+            final int length = 1000;
+            final Array<T> array = Array.map(type, length, null);
+            for (int i=0; i<length; ++i) {
+                array.setValue(i, values.apply(i));
+            }
+            for (int i=0; i<length; ++i) {
+                Assert.assertEquals(array.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+            final Array<T> copy = array.copy();
+            final Array<T> range = array.copy(123, 877);
+            array.expand(2500);
+            Assert.assertEquals(array.length(), 2500);
+            Assert.assertEquals(copy.length(), length);
+            Assert.assertEquals(range.length(), 877 - 123);
+            for (int i=0; i<length; ++i) {
+                Assert.assertEquals(array.getValue(i), values.apply(i), "Values match at index " + i);
+                Assert.assertEquals(copy.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+            for (int i=0; i<range.length(); ++i) {
+                Assert.assertEquals(range.getValue(i), values.apply(123 + i), "Values match at index " + i);
+            }
+            for (int i=length; i<array.length(); ++i) {
+                Assert.assertEquals(array.getValue(i), array.defaultValue(), "Default value at index " + i);
+                array.setValue(i, values.apply(i));
+                Assert.assertEquals(array.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+
+    @Test(dataProvider="segmented")
+    public <T> void testReopen(Class<T> type, IntFunction<T> values) {
+        final File file = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString() + ".dat");
+        try {
+            final int length = 1000;
+            final Array<T> array = Array.map(type, length, null, file.getAbsolutePath());
+            for (int i=0; i<length; ++i) {
+                array.setValue(i, values.apply(i));
+            }
+            final Array<T> reopened = Array.open(type, file.getAbsolutePath(), false);
+            Assert.assertEquals(reopened.length(), length);
+            Assert.assertEquals(reopened.defaultValue(), array.defaultValue());
+            for (int i=0; i<length; ++i) {
+                Assert.assertEquals(reopened.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+            reopened.setValue(0, values.apply(7));
+            reopened.expand(1500);
+            for (int i=length; i<1500; ++i) {
+                reopened.setValue(i, values.apply(i));
+            }
+            final Array<T> readOnly = Array.open(type, file.getAbsolutePath(), true);
+            Assert.assertEquals(readOnly.length(), 1500);
+            Assert.assertEquals(readOnly.getValue(0), values.apply(7));
+            for (int i=1; i<1500; ++i) {
+                Assert.assertEquals(readOnly.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+            readOnly.expand(2000);
+            Assert.assertEquals(readOnly.getValue(1499), values.apply(1499));
+            Assert.assertEquals(readOnly.getValue(1999), readOnly.defaultValue());
+            Assert.assertEquals(Array.open(type, file.getAbsolutePath(), true).length(), 1500);
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test(expectedExceptions = { ReadOnlyBufferException.class })
+    public void testReopenReadOnly() {
+        final File file = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString() + ".dat");
+        try {
+            Array.map(Double.class, 100, Double.NaN, file.getAbsolutePath()).fill(1d);
+            final Array<Double> array = Array.open(Double.class, file.getAbsolutePath(), true);
+            Assert.assertEquals(array.getDouble(99), 1d);
+            array.setDouble(0, 2d);
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test(expectedExceptions = { ArrayException.class })
+    public void testReopenWrongType() {
+        final File file = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString() + ".dat");
+        try {
+            Array.map(Double.class, 100, Double.NaN, file.getAbsolutePath());
+            Array.open(Long.class, file.getAbsolutePath(), true);
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test(expectedExceptions = { ArrayException.class })
+    public void testReopenWithoutHeader() throws Exception {
+        final File file = File.createTempFile("morpheus", ".dat");
+        try {
+            Files.write(file.toPath(), new byte[1024]);
+            Array.open(Double.class, file.getAbsolutePath(), true);
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test()
+    public void testStrings() {
+        final String property = "morpheus.array.segmentBytes";
+        try {
+            System.setProperty(property, "100");
+            final int length = 2000;
+            final IntFunction<String> values = i -> i % 13 == 0 ? null : "Value-\u00e9\u4e2d-" + (i % 50) + (i % 7 == 0 ? "-a-much-longer-value-that-straddles-segments" : "");
+            final Array<String> array = Array.map(String.class, length, "Default");
+            Assert.assertEquals(array.getValue(0), "Default");
+            for (int i=0; i<length; ++i) {
+                array.setValue(i, values.apply(i));
+            }
+            for (int i=0; i<length; ++i) {
+                Assert.assertEquals(array.getValue(i), values.apply(i), "Values match at index " + i);
+                Assert.assertEquals(array.isNull(i), values.apply(i) == null);
+                Assert.assertTrue(array.isEqualTo(i, values.apply(i)));
+                Assert.assertFalse(array.isEqualTo(i, "Other"));
+            }
+            final Array<String> copy = array.copy();
+            final Array<String> range = array.copy(100, 200);
+            array.expand(2500);
+            array.setValue(0, "Changed");
+            Assert.assertEquals(array.getValue(2499), "Default");
+            Assert.assertEquals(copy.getValue(0), values.apply(0));
+            Assert.assertEquals(array.distinct().length(), copy.distinct().length() + 2);
+            for (int i=1; i<length; ++i) {
+                Assert.assertEquals(copy.getValue(i), values.apply(i), "Values match at index " + i);
+            }
+            for (int i=0; i<range.length(); ++i) {
+                Assert.assertEquals(range.getValue(i), values.apply(100 + i), "Values match at index " + i);
+            }
+            copy.sort(true);
+            for (int i=1; i<length; ++i) {
+                Assert.assertTrue(copy.compare(i - 1, i) <= 0, "Sorted at index " + i);
+            }
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+
+    @Test()
+    public void testObjects() {
+        final int length = 100;
+        final Array<Object> array = Array.map(Object.class, length, null);
+        for (int i=0; i<length; ++i) {
+            array.setValue(i, i % 3 == 0 ? LocalDate.of(2000, 1, 1).plusDays(i) : i % 3 == 1 ? "Text" + i : null);
+        }
+        array.setDouble(5, 1.5d);
+        for (int i=0; i<length; ++i) {
+            final Object expected = i == 5 ? 1.5d : i % 3 == 0 ? LocalDate.of(2000, 1, 1).plusDays(i) : i % 3 == 1 ? "Text" + i : null;
+            Assert.assertEquals(array.getValue(i), expected, "Values match at index " + i);
+        }
+        Assert.assertEquals(array.getDouble(5), 1.5d);
+    }
+
+
+    @DataProvider(name="dedupLimits")
+    public Object[][] dedupLimits() {
+        return new Object[][] { {"0"}, {"3"}, {null} };
+    }
+
+
+    @Test(dataProvider="dedupLimits")
+    public void testStringDedupLimit(String dedupLimit) {
+        final String property = "morpheus.array.dedupLimit";
+        try {
+            if (dedupLimit != null) {
+                System.setProperty(property, dedupLimit);
+            }
+            final int length = 500;
+            final IntFunction<String> values = i -> i % 11 == 0 ? null : "Value" + (i % 10);
+            final Array<String> array = Array.map(String.class, length, null);
+            for (int i=0; i<length; ++i) {
+                array.setValue(i, values.apply(i));
+            }
+            System.setProperty(property, "1000");
+            final Array<String> copy = array.copy();
+            for (int i=0; i<length; ++i) {
+                final String expected = values.apply(i);
+                final String other = "Value" + ((i + 1) % 10);
+                Assert.assertEquals(array.getValue(i), expected, "Values match at index " + i);
+                Assert.assertTrue(array.isEqualTo(i, expected == null ? null : new String(expected)), "Equal at index " + i);
+                Assert.assertFalse(array.isEqualTo(i, other), "Not equal at index " + i);
+                Assert.assertTrue(copy.isEqualTo(i, expected == null ? null : new String(expected)), "Copy equal at index " + i);
+                Assert.assertFalse(copy.isEqualTo(i, other), "Copy not equal at index " + i);
+            }
+        } finally {
+            System.clearProperty(property);
+        }
+    }
 }
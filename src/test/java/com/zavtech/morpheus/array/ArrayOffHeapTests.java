@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.function.IntFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests specific to off heap arrays
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArrayOffHeapTests {
+
+
+    @DataProvider(name="types")
+    public Object[][] types() {
+        return new Object[][] {
+            { Boolean.class, (IntFunction<Object>)i -> i % 3 == 0 },
+            { Integer.class, (IntFunction<Object>)i -> i * 7 },
+            { Long.class, (IntFunction<Object>)i -> i * 1000000000L },
+            { Double.class, (IntFunction<Object>)i -> i * 0.25d },
+            { LocalDate.class, (IntFunction<Object>)i -> LocalDate.of(2000, 1, 1).plusDays(i) },
+            { Year.class, (IntFunction<Object>)i -> Year.of(1900 + i % 200) },
+            { Month.class, (IntFunction<Object>)i -> Month.of(1 + i % 12) },
+        };
+    }
+
+
+    @Test(dataProvider = "types")
+    @SuppressWarnings("unchecked")
+    public <T> void testValues(Class<T> type, IntFunction<Object> generator) {
+        final int length = 10000;
+        final Array<T> array = Array.offHeap(type, length);
+        Assert.assertEquals(array.style(), ArrayStyle.OFF_HEAP);
+        Assert.assertEquals(array.length(), length);
+        array.applyValues(v -> (T)generator.apply(v.index()));
+        final Array<T> copy = array.copy();
+        final Array<T> range = array.copy(100, 200);
+        final Array<T> subset = array.copy(new int[] {5, 50, 500});
+        array.expand(length * 2);
+        Assert.assertEquals(array.length(), length * 2);
+        for (int i=0; i<length; ++i) {
+            Assert.assertEquals(array.getValue(i), generator.apply(i), "Values match at index " + i);
+            Assert.assertEquals(copy.getValue(i), generator.apply(i), "Copy values match at index " + i);
+            Assert.assertEquals(array.getValue(length + i), array.defaultValue(), "Expanded value is default at " + i);
+        }
+        for (int i=0; i<range.length(); ++i) {
+            Assert.assertEquals(range.getValue(i), generator.apply(100 + i), "Range values match at index " + i);
+        }
+        Assert.assertEquals(subset.getValue(2), generator.apply(500));
+        array.release();
+        copy.release();
+        range.release();
+        subset.release();
+    }
+
+
+    @Test()
+    public void testRelease() {
+        final Array<Double> array = Array.offHeap(Double.class, 1000, 0d).applyDoubles(v -> v.index() * 2d);
+        final Array<Double> copy = array.copy();
+        array.release();
+        array.release();
+        Assert.assertEquals(array.length(), 0);
+        Assert.assertEquals(copy.length(), 1000);
+        Assert.assertEquals(copy.getDouble(999), 1998d);
+        try {
+            array.getDouble(0);
+            Assert.fail("Access to a released array should fail");
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            Assert.assertNotNull(ex.getMessage());
+        }
+        try {
+            array.expand(2000);
+            Assert.fail("Expanding a released array should fail");
+        } catch (ArrayException ex) {
+            Assert.assertNotNull(ex.getMessage());
+        }
+        copy.release();
+    }
+
+
+    @Test()
+    public void testExpandWhileParallelViewReads() throws Exception {
+        final int length = 100000;
+        final Array<Double> array = Array.offHeap(Double.class, length).applyDoubles(v -> v.index() * 2d);
+        final Array<Double> view = array.parallel();
+        final Thread expander = new Thread(() -> {
+            for (int i=1; i<=20; ++i) {
+                array.expand(length + i * 10000);
+            }
+        });
+        expander.start();
+        for (int run=0; run<20; ++run) {
+            Assert.assertEquals(view.stats().sum().doubleValue(), (double)length * (length - 1), 0d);
+        }
+        expander.join();
+        Assert.assertEquals(array.length(), length + 200000);
+        Assert.assertEquals(view.length(), length);
+        for (int i=0; i<length; ++i) {
+            Assert.assertEquals(view.getDouble(i), i * 2d, 0d, "View value matches at " + i);
+            Assert.assertEquals(array.getDouble(i), i * 2d, 0d, "Array value matches at " + i);
+        }
+        array.release();
+    }
+
+
+    @Test()
+    public void testReleaseIsNoOpOnHeap() {
+        final Array<Integer> array = Array.of(Integer.class, 100).applyInts(v -> 5);
+        array.release();
+        Assert.assertEquals(array.length(), 100);
+        Assert.assertEquals(array.getInt(99), 5);
+    }
+
+
+    @Test()
+    public void testSortAndStats() {
+        final Array<Double> array = Array.offHeap(Double.class, 1000).applyDoubles(v -> 1000d - v.index());
+        Assert.assertEquals(array.stats().sum().doubleValue(), 500500d, 0d);
+        array.sort(true);
+        for (int i=0; i<array.length(); ++i) {
+            Assert.assertEquals(array.getDouble(i), i + 1d, 0d);
+        }
+        array.release();
+    }
+
+
+    @Test(expectedExceptions = { UnsupportedOperationException.class })
+    public void testUnsupportedType() {
+        Array.offHeap(String.class, 10);
+    }
+
+}
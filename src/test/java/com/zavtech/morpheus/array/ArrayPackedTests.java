@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the compressed read only arrays created by packing dense arrays
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArrayPackedTests {
+
+
+    @DataProvider(name="packable")
+    public Object[][] packable() {
+        final Random random = new Random(7);
+        final int length = 10000;
+        return new Object[][] {
+            { "runs", Array.of(Integer.class, length).applyInts(v -> v.index() / 500) },
+            { "flags", Array.of(Boolean.class, length).applyBooleans(v -> (v.index() / 1000) % 2 == 0) },
+            { "small", Array.of(Long.class, length).applyLongs(v -> 1000000L + random.nextInt(16)) },
+            { "negative", Array.of(Integer.class, length).applyInts(v -> -random.nextInt(100)) },
+            { "sorted", Array.of(Long.class, length).applyLongs(v -> 1500000000000L + v.index() * 60000L + random.nextInt(100)) },
+            { "extremes", Array.of(Long.class, length).applyLongs(v -> (v.index() / 300) % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE) },
+            { "wrapping", Array.of(Long.class, length).applyLongs(v -> Long.MIN_VALUE + v.index() * (Long.MAX_VALUE / 4000L)) },
+            { "dates", Array.of(LocalDate.class, length).applyValues(v -> LocalDate.of(2000, 1, 1).plusDays(v.index())) },
+            { "times", Array.of(LocalDateTime.class, length).applyValues(v -> LocalDateTime.of(2017, 1, 1, 0, 0).plusSeconds(v.index() * 5)) },
+        };
+    }
+
+
+    @Test(dataProvider="packable")
+    public <T> void testPacked(String label, Array<T> source) {
+        final Array<T> packed = source.readOnly();
+        Assert.assertEquals(packed.getClass().getSimpleName(), "PackedArray", label);
+        Assert.assertTrue(packed.isReadOnly());
+        Assert.assertEquals(packed.type(), source.type());
+        Assert.assertEquals(packed.style(), ArrayStyle.DENSE);
+        Assert.assertEquals(packed.length(), source.length());
+        Assert.assertEquals(packed.defaultValue(), source.defaultValue());
+        Assert.assertEquals(packed, source, label);
+        Assert.assertEquals(source, packed, label);
+        for (int i=source.length()-1; i>=0; i-=7) {
+            Assert.assertEquals(packed.getValue(i), source.getValue(i), "Random access at " + i);
+        }
+        Assert.assertEquals(packed.copy(100, 900), source.copy(100, 900));
+        Assert.assertEquals(packed.copy(new int[] {5, 3000, 17}), source.copy(new int[] {5, 3000, 17}));
+        Assert.assertEquals(packed.distinct(), source.distinct());
+        Assert.assertEquals(packed.filter(v -> v.index() % 3 == 0), source.filter(v -> v.index() % 3 == 0));
+        Assert.assertEquals(packed.parallel().filter(v -> v.index() % 3 == 0), source.filter(v -> v.index() % 3 == 0));
+    }
+
+
+    @Test()
+    public void testNumericOperations() {
+        final Array<Long> source = Array.of(Long.class, 5000).applyLongs(v -> 100L + v.index() * 3L);
+        final Array<Long> packed = source.readOnly();
+        Assert.assertEquals(packed.getClass().getSimpleName(), "PackedArray");
+        Assert.assertEquals(packed.stats().sum().doubleValue(), source.stats().sum().doubleValue(), 0d);
+        Assert.assertEquals(packed.stats().mean().doubleValue(), source.stats().mean().doubleValue(), 0d);
+        Assert.assertEquals(packed.cumSum(), source.cumSum());
+        Assert.assertEquals(packed.binarySearch(100L + 3L * 1234L), 1234);
+        Assert.assertEquals(packed.min(), source.min());
+        Assert.assertEquals(packed.max(), source.max());
+    }
+
+
+    @Test()
+    public void testSnapshot() {
+        final Array<Integer> source = Array.of(Integer.class, 1000).applyInts(v -> v.index() / 100);
+        final Array<Integer> packed = source.readOnly();
+        source.setInt(0, 99);
+        Assert.assertEquals(packed.getInt(0), 0);
+        Assert.assertSame(packed.readOnly(), packed);
+    }
+
+
+    @Test()
+    public void testSerialization() throws Exception {
+        final Array<LocalDate> source = Array.of(LocalDate.class, 2000).applyValues(v -> LocalDate.of(2010, 1, 1).plusDays(v.index()));
+        final Array<LocalDate> packed = source.readOnly();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream os = new ObjectOutputStream(bytes)) {
+            os.writeObject(packed);
+        }
+        try (ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            final Array<LocalDate> result = (Array<LocalDate>)is.readObject();
+            Assert.assertEquals(result, source);
+            Assert.assertTrue(result.isReadOnly());
+        }
+    }
+
+
+    @Test()
+    public void testNotPacked() {
+        final Random random = new Random(3);
+        final Array<Long> noise = Array.of(Long.class, 5000).applyLongs(v -> random.nextLong());
+        final Array<Boolean> flags = Array.of(Boolean.class, 5000).applyBooleans(v -> random.nextBoolean());
+        final Array<Integer> small = Array.of(Integer.class, 100).applyInts(v -> 1);
+        final Array<Double> doubles = Array.of(Double.class, 5000).applyDoubles(v -> 1d);
+        Assert.assertEquals(noise.readOnly().getClass().getSimpleName(), "ArrayReadOnly");
+        Assert.assertEquals(flags.readOnly().getClass().getSimpleName(), "ArrayReadOnly");
+        Assert.assertEquals(small.readOnly().getClass().getSimpleName(), "ArrayReadOnly");
+        Assert.assertEquals(doubles.readOnly().getClass().getSimpleName(), "ArrayReadOnly");
+    }
+
+
+    @Test(expectedExceptions={ArrayException.class})
+    public void testReadOnly() {
+        Array.of(Integer.class, 1000).applyInts(v -> 5).readOnly().setInt(0, 1);
+    }
+
+
+    @Test(expectedExceptions={ArrayIndexOutOfBoundsException.class})
+    public void testOutOfBounds() {
+        Array.of(Integer.class, 1000).applyInts(v -> 5).readOnly().getInt(1000);
+    }
+
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.array;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.stats.Stats;
+
+/**
+ * Unit tests for the compressed sparse int, long and double arrays, which are compared against dense arrays with the same content
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class ArraySparseTests {
+
+
+    @DataProvider(name="arrays")
+    public Object[][] arrays() {
+        return new Object[][] {
+            { Double.class, Double.NaN, 0.1d },
+            { Double.class, 0d, 0.1d },
+            { Double.class, 2.5d, 0.3d },
+            { Double.class, Double.NaN, 0d },
+            { Double.class, 0d, 0.9d },
+            { Integer.class, 0, 0.1d },
+            { Integer.class, 7, 0.2d },
+            { Integer.class, 0, 0d },
+            { Long.class, 0L, 0.1d },
+            { Long.class, -3L, 0.5d },
+        };
+    }
+
+
+    /**
+     * Populates a sparse array and a dense array of the same type with identical random content, in random order
+     * @param type          the array element type
+     * @param defaultValue  the default value for both arrays
+     * @param density       the fraction of entries to populate with a non-default value
+     * @param length        the length of the arrays
+     * @param seed          the random seed
+     * @return              the sparse and dense arrays
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<Array<T>> create(Class<T> type, T defaultValue, double density, int length, long seed) {
+        final Random random = new Random(seed);
+        final Array<T> sparse = Array.of(type, length, defaultValue, ArrayStyle.SPARSE);
+        final Array<T> dense = Array.of(type, length, defaultValue, ArrayStyle.DENSE);
+        final int count = (int)(length * density);
+        for (int i=0; i<count; ++i) {
+            final int index = random.nextInt(length);
+            final double value = (random.nextDouble() - 0.2d) * 100d;
+            switch (ArrayType.of(type)) {
+                case INTEGER:   sparse.setInt(index, (int)value);   dense.setInt(index, (int)value);    break;
+                case LONG:      sparse.setLong(index, (long)value); dense.setLong(index, (long)value);  break;
+                default:        sparse.setDouble(index, value);     dense.setDouble(index, value);      break;
+            }
+        }
+        final List<Array<T>> result = new ArrayList<>();
+        result.add(sparse);
+        result.add(dense);
+        return result;
+    }
+
+
+    /**
+     * Asserts that the two arrays have the same length and content
+     * @param actual    the actual array
+     * @param expected  the expected array
+     */
+    private <T> void assertContent(Array<T> actual, Array<T> expected) {
+        Assert.assertEquals(actual.length(), expected.length(), "The lengths match");
+        for (int i=0; i<expected.length(); ++i) {
+            Assert.assertEquals(actual.getValue(i), expected.getValue(i), "Values match at " + i);
+        }
+    }
+
+
+    /**
+     * Asserts that two statistic values agree to a relative tolerance
+     * @param actual    the actual value
+     * @param expected  the expected value
+     * @param name      the statistic name
+     */
+    private void assertClose(Number actual, Number expected, String name) {
+        final double v1 = actual.doubleValue();
+        final double v2 = expected.doubleValue();
+        if (Double.isNaN(v2)) {
+            Assert.assertTrue(Double.isNaN(v1), name);
+        } else if (Double.isInfinite(v2)) {
+            Assert.assertEquals(v1, v2, 0d, name);
+        } else {
+            Assert.assertEquals(v1, v2, Math.max(1d, Math.abs(v2)) * 1e-9, name);
+        }
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testRandomAccess(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 5000, 1);
+        final Array<T> sparse = arrays.get(0);
+        final Array<T> dense = arrays.get(1);
+        Assert.assertEquals(sparse.style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(sparse.defaultValue(), defaultValue);
+        this.assertContent(sparse, dense);
+        for (int i=0; i<dense.length(); i += 3) {
+            sparse.setValue(i, defaultValue);
+            dense.setValue(i, defaultValue);
+        }
+        this.assertContent(sparse, dense);
+        Assert.assertTrue(sparse.loadFactor() <= density, "Default values are not stored");
+        final List<Array<T>> fresh = create(type, defaultValue, 0d, 100, 2);
+        Assert.assertEquals(fresh.get(0).loadFactor(), 0f, "An empty sparse array stores nothing");
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testForEachStored(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 5000, 3);
+        final Array<T> sparse = arrays.get(0);
+        final Array<T> dense = arrays.get(1);
+        final double defaultDouble = ((Number)defaultValue).doubleValue();
+        final List<Integer> indexes = new ArrayList<>();
+        sparse.forEachStored((index, value) -> {
+            Assert.assertTrue(Double.compare(value, defaultDouble) != 0, "Default values are not visited at " + index);
+            Assert.assertEquals(value, dense.getDouble(index), 0d, "Values match at " + index);
+            Assert.assertTrue(indexes.isEmpty() || indexes.get(indexes.size()-1) < index, "Indexes are ascending");
+            indexes.add(index);
+        });
+        final long expected = dense.stream().values().filter(v -> !v.equals(defaultValue)).count();
+        Assert.assertEquals(indexes.size(), expected, "Only the stored entries are visited");
+        Assert.assertEquals(indexes.size(), Math.round(sparse.loadFactor() * sparse.length()), "Visits match the load factor");
+        final int[] count = new int[1];
+        dense.forEachStored((index, value) -> Assert.assertEquals(index, count[0]++, "Dense arrays visit every index"));
+        Assert.assertEquals(count[0], dense.length(), "Dense arrays visit every element");
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testForEach(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 2000, 3);
+        final List<T> actual = new ArrayList<>();
+        final List<T> expected = new ArrayList<>();
+        arrays.get(0).forEach(actual::add);
+        arrays.get(1).forEach(expected::add);
+        Assert.assertEquals(actual, expected);
+        final List<Double> doubles = new ArrayList<>();
+        arrays.get(0).forEachDouble(doubles::add);
+        for (int i=0; i<doubles.size(); ++i) {
+            Assert.assertEquals(doubles.get(i), arrays.get(1).getDouble(i), "Values match at " + i);
+        }
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testStats(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 3000, 4);
+        final Stats<Number> stats1 = arrays.get(0).stats();
+        final Stats<Number> stats2 = arrays.get(1).stats();
+        final Stats<Number> range1 = arrays.get(0).stats(500, 1200);
+        final Stats<Number> range2 = arrays.get(1).stats(500, 1200);
+        for (int i=0; i<2; ++i) {
+            final Stats<Number> actual = i == 0 ? stats1 : range1;
+            final Stats<Number> expected = i == 0 ? stats2 : range2;
+            this.assertClose(actual.count(), expected.count(), "count");
+            this.assertClose(actual.min(), expected.min(), "min");
+            this.assertClose(actual.max(), expected.max(), "max");
+            this.assertClose(actual.mean(), expected.mean(), "mean");
+            this.assertClose(actual.median(), expected.median(), "median");
+            this.assertClose(actual.mad(), expected.mad(), "mad");
+            this.assertClose(actual.stdDev(), expected.stdDev(), "stdDev");
+            this.assertClose(actual.sem(), expected.sem(), "sem");
+            this.assertClose(actual.sum(), expected.sum(), "sum");
+            this.assertClose(actual.sumLogs(), expected.sumLogs(), "sumLogs");
+            this.assertClose(actual.sumSquares(), expected.sumSquares(), "sumSquares");
+            this.assertClose(actual.variance(), expected.variance(), "variance");
+            this.assertClose(actual.kurtosis(), expected.kurtosis(), "kurtosis");
+            this.assertClose(actual.skew(), expected.skew(), "skew");
+            this.assertClose(actual.geoMean(), expected.geoMean(), "geoMean");
+            if (expected.count().intValue() > 1) {
+                this.assertClose(actual.autocorr(1), expected.autocorr(1), "autocorr");
+            }
+            this.assertClose(actual.percentile(0.9d), expected.percentile(0.9d), "percentile");
+        }
+    }
+
+
+    @Test()
+    public void testStatsOfPositiveValues() {
+        final Array<Double> sparse = Array.of(Double.class, 1000, 1.5d, ArrayStyle.SPARSE);
+        final Array<Double> dense = Array.of(Double.class, 1000, 1.5d, ArrayStyle.DENSE);
+        final Random random = new Random(5);
+        for (int i=0; i<100; ++i) {
+            final int index = random.nextInt(1000);
+            final double value = 0.5d + random.nextDouble();
+            sparse.setDouble(index, value);
+            dense.setDouble(index, value);
+        }
+        this.assertClose(sparse.stats().sumLogs(), dense.stats().sumLogs(), "sumLogs");
+        this.assertClose(sparse.stats().geoMean(), dense.stats().geoMean(), "geoMean");
+        this.assertClose(sparse.stats().product(), dense.stats().product(), "product");
+        this.assertClose(sparse.stats(10, 3).product(), dense.stats(10, 3).product(), "product");
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testCumSum(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 1000, 6);
+        final Array<T> actual = arrays.get(0).cumSum();
+        final Array<T> expected = arrays.get(1).cumSum();
+        Assert.assertEquals(actual.length(), expected.length());
+        for (int i=0; i<expected.length(); ++i) {
+            this.assertClose(actual.getDouble(i), expected.getDouble(i), "Values match at " + i);
+        }
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testSort(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 1000, 7);
+        this.assertContent(arrays.get(0).copy().sort(true), arrays.get(1).copy().sort(true));
+        this.assertContent(arrays.get(0).copy().sort(false), arrays.get(1).copy().sort(false));
+        this.assertContent(arrays.get(0).copy().sort(100, 700, true), arrays.get(1).copy().sort(100, 700, true));
+        this.assertContent(arrays.get(0).copy().sort(100, 700, false), arrays.get(1).copy().sort(100, 700, false));
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testCopyAndFill(Class<T> type, T defaultValue, double density) {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 1000, 8);
+        final Array<T> sparse = arrays.get(0);
+        final Array<T> dense = arrays.get(1);
+        this.assertContent(sparse.copy(), dense.copy());
+        this.assertContent(sparse.copy(250, 750), dense.copy(250, 750));
+        this.assertContent(sparse.copy(new int[] {999, 0, 5, 5, 400}), dense.copy(new int[] {999, 0, 5, 5, 400}));
+        final Array<T> copy = sparse.copy();
+        copy.fill(defaultValue, 0, 1000);
+        this.assertContent(sparse, dense);
+        sparse.fill(defaultValue, 100, 200);
+        dense.fill(defaultValue, 100, 200);
+        this.assertContent(sparse, dense);
+        sparse.fill(sparse.getValue(42), 300, 320);
+        dense.fill(dense.getValue(42), 300, 320);
+        this.assertContent(sparse, dense);
+        sparse.expand(1500);
+        dense.expand(1500);
+        this.assertContent(sparse, dense);
+    }
+
+
+    @Test()
+    public void testParallelViewSharesStorage() {
+        final Array<Double> sparse = Array.of(Double.class, 100000, 0d, ArrayStyle.SPARSE);
+        sparse.parallel().applyDoubles(v -> v.index() % 10 == 0 ? v.index() : 0d);
+        for (int i=0; i<sparse.length(); ++i) {
+            Assert.assertEquals(sparse.getDouble(i), i % 10 == 0 ? (double)i : 0d, "Values match at " + i);
+        }
+        Assert.assertEquals(sparse.loadFactor(), 0.1f - 0.00001f, 0.0001f);
+    }
+
+
+    @Test()
+    public void testBuilder() {
+        final ArrayBuilder<Double> builder = ArrayBuilder.of(10, Double.class, 0d, 0.1f);
+        for (int i=0; i<100000; ++i) {
+            builder.addDouble(i % 100 == 0 ? i : 0d);
+        }
+        final Array<Double> array = builder.toArray();
+        Assert.assertEquals(array.style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(array.length(), 100000);
+        Assert.assertEquals(array.loadFactor(), 0.01f - 0.00001f, 0.0001f);
+        Assert.assertEquals(array.stats().sum().doubleValue(), 49950000d, 0d);
+        Assert.assertEquals(array.stats().count().intValue(), 100000);
+        for (int i=0; i<array.length(); ++i) {
+            Assert.assertEquals(array.getDouble(i), i % 100 == 0 ? (double)i : 0d);
+        }
+    }
+
+
+    @Test(dataProvider="arrays")
+    public <T> void testSerialization(Class<T> type, T defaultValue, double density) throws Exception {
+        final List<Array<T>> arrays = create(type, defaultValue, density, 1000, 9);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream os = new ObjectOutputStream(bytes);
+        os.writeObject(arrays.get(0));
+        os.close();
+        final ObjectInputStream is = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        @SuppressWarnings("unchecked")
+        final Array<T> result = (Array<T>)is.readObject();
+        Assert.assertEquals(result.style(), ArrayStyle.SPARSE);
+        this.assertContent(result, arrays.get(1));
+    }
+
+}
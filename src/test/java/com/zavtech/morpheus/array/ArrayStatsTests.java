@@ -226,6 +226,23 @@ public class ArrayStatsTests {
     }
 
 
+    @Test(dataProvider = "styles")
+    public void testCumSumOfBytesAndShortsWidens(ArrayStyle style) {
+        final Array<Byte> bytes = Array.of(Byte.class, 200, (byte)0, style).applyInts(v -> 1);
+        final Array<Short> shorts = Array.of(Short.class, 40000, (short)0, style).applyInts(v -> v.index() % 2 == 0 ? 1 : 2);
+        final Array<Byte> bytesCumSum = bytes.cumSum();
+        final Array<Short> shortsCumSum = shorts.cumSum();
+        Assert.assertEquals(bytesCumSum.typeCode(), ArrayType.INTEGER);
+        Assert.assertEquals(shortsCumSum.typeCode(), ArrayType.INTEGER);
+        for (int i=0; i<bytes.length(); ++i) {
+            Assert.assertEquals(bytesCumSum.getInt(i), i + 1, "Values match at index " + i);
+        }
+        for (int i=0; i<shorts.length(); ++i) {
+            Assert.assertEquals(shortsCumSum.getInt(i), (i / 2) * 3 + (i % 2 == 0 ? 1 : 3), "Values match at index " + i);
+        }
+    }
+
+
     @Test(dataProvider = "styles")
     public void testCumSumOfDoubles(ArrayStyle style) {
         final Random random = new Random();
@@ -87,12 +87,7 @@ public class ArraysBasicTests {
         final List<Object[]> argList = new ArrayList<>();
         for (ArrayStyle style : ArrayStyle.values()) {
             for (Class<?> clazz : classes) {
-                if (style.isMapped()) {
-                    final ArrayType type = ArrayType.of(clazz);
-                    if (!type.isString() && !type.isObject()) {
-                        argList.add(new Object[]  { clazz, style });
-                    }
-                } else {
+                if (isSupported(clazz, style)) {
                     argList.add(new Object[]  { clazz, style });
                 }
             }
@@ -1218,11 +1213,22 @@ public class ArraysBasicTests {
 
 
 
+    /**
+     * Returns true if arrays of the type specified can be created in the style specified
+     * @param type      the array element type
+     * @param style     the array style
+     * @return          true if the type is supported by the style
+     */
+    public static boolean isSupported(Class<?> type, ArrayStyle style) {
+        return Arrays.asList(style.getSupportedTypes()).contains(ArrayType.of(type));
+    }
+
+
     @SuppressWarnings("unchecked")
     public static <T> Array<T> createRandomArray(Class<T> type, int length, ArrayStyle style) {
         final Random random = new Random();
         final float loadFactor = style.isSparse() ? 0.5F : 1F;
-        final Array<T> array = style.isMapped() ? Array.map(type, length) : Array.of(type, length, loadFactor);
+        final Array<T> array = style.isMapped() ? Array.map(type, length) : style.isOffHeap() ? Array.offHeap(type, length) : Array.of(type, length, loadFactor);
         switch (ArrayType.of(type)) {
             case OBJECT:            return array.applyDoubles(v -> random.nextDouble());
             case BOOLEAN:           return array.applyBooleans(v -> random.nextBoolean());
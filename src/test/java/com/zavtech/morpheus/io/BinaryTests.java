@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.io;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.ReadOnlyBufferException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import com.zavtech.morpheus.TestSuite;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameAsserts;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.range.Range;
+import com.zavtech.morpheus.reference.TestDataFrames;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for reading / writing DataFrames in the Morpheus binary columnar format
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class BinaryTests {
+
+    @DataProvider(name="ticker")
+    public Object[][] getTickers() {
+        return new Object[][] { {"blk"}, {"csco"}, {"spy"}, {"yhoo"} };
+    }
+
+    @DataProvider(name="types")
+    public Object[][] types() {
+        return new Object[][] {
+            {String.class},
+            {Integer.class},
+            {Long.class},
+            {LocalDate.class},
+            {LocalTime.class},
+            {LocalDateTime.class},
+            {ZonedDateTime.class}
+        };
+    }
+
+
+    @Test(dataProvider="types")
+    public <T> void testReadWriteMixedFrame(Class<T> rowType) throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-" + rowType.getSimpleName() + ".bin");
+        final DataFrame<T,String> frame = TestDataFrames.createMixedRandomFrame(rowType, 100);
+        frame.write().binary(o -> o.setFile(file));
+        final DataFrame<T,String> result = DataFrame.read().binary(file);
+        DataFrameAsserts.assertEqualsByIndex(frame, result);
+    }
+
+
+    @Test(dataProvider="ticker")
+    public void testWriteFollowedByRead(String ticker) throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-" + ticker + ".bin");
+        final DataFrame<LocalDate,String> frame1 = TestDataFrames.getQuotes(ticker);
+        frame1.write().binary(options -> options.setFile(file));
+        final DataFrame<LocalDate,String> frame2 = DataFrame.read().binary(options -> options.setFile(file));
+        DataFrameAsserts.assertEqualsByIndex(frame1, frame2);
+    }
+
+
+    @Test()
+    public void testNullsAndObjects() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-Objects.bin");
+        final DataFrame<Integer,String> frame = DataFrame.of(Range.of(0, 1000), String.class, columns -> {
+            columns.add("Strings", String.class).applyValues(v -> v.rowOrdinal() % 7 == 0 ? null : "Value-" + (v.rowOrdinal() % 13));
+            columns.add("Objects", Object.class).applyValues(v -> v.rowOrdinal() % 3 == 0 ? v.rowOrdinal() : v.rowOrdinal() % 3 == 1 ? "Text" + v.rowOrdinal() : null);
+            columns.add("Dates", LocalDate.class).applyValues(v -> v.rowOrdinal() % 5 == 0 ? null : LocalDate.of(2017, 1, 1).plusDays(v.rowOrdinal()));
+            columns.add("Doubles", Double.class).applyDoubles(v -> v.rowOrdinal() % 4 == 0 ? Double.NaN : v.rowOrdinal() * 0.5d);
+        });
+        frame.write().binary(o -> o.setFile(file));
+        final DataFrame<Integer,String> result = DataFrame.read().binary(file);
+        DataFrameAsserts.assertEqualsByIndex(frame, result);
+        Assert.assertEquals(result.cols().type("Objects"), Object.class);
+        Assert.assertEquals(result.data().<Object>getValue(3, "Objects"), 3);
+        Assert.assertNull(result.data().getValue(7, "Strings"));
+    }
+
+
+    @Test()
+    public void testObjectsRoundTripExactly() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-ExactObjects.bin");
+        final Object[] values = new Object[] {
+            Math.PI * 1000d,
+            1d / 3d,
+            new Date(1508342245123L),
+            Instant.ofEpochSecond(1508342245L, 123456789),
+            LocalDateTime.of(2017, 10, 18, 15, 57, 25, 123456789),
+            LocalTime.of(15, 57, 25, 123456789),
+            ZonedDateTime.of(2017, 10, 18, 15, 57, 25, 123456789, ZoneId.of("America/New_York")),
+            new BigDecimal("3.14159265358979323846264338327950288"),
+            Month.OCTOBER,
+            12.5f,
+            (short)7,
+            (byte)3,
+            true,
+            "Text",
+            null
+        };
+        final DataFrame<Integer,String> frame = DataFrame.of(Range.of(0, 100), String.class, columns -> {
+            columns.add("Objects", Object.class).applyValues(v -> values[v.rowOrdinal() % values.length]);
+        });
+        frame.write().binary(o -> o.setFile(file));
+        final DataFrame<Integer,String> result = DataFrame.read().binary(file);
+        Assert.assertEquals(result.cols().type("Objects"), Object.class);
+        for (int i=0; i<frame.rowCount(); ++i) {
+            final Object expected = values[i % values.length];
+            final Object actual = result.data().getValue(i, "Objects");
+            Assert.assertEquals(actual, expected, "Values match at " + i);
+            Assert.assertEquals(actual != null ? actual.getClass() : null, expected != null ? expected.getClass() : null, "Types match at " + i);
+        }
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testNonSerializableObjectsAreRejected() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-NonSerializable.bin");
+        final DataFrame<Integer,String> frame = DataFrame.of(Range.of(0, 10), String.class, columns -> {
+            columns.add("Objects", Object.class).applyValues(v -> v.rowOrdinal() % 2 == 0 ? new Object() : 1d);
+        });
+        frame.write().binary(o -> o.setFile(file));
+    }
+
+
+    @Test()
+    public void testCopyOnWrite() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-CopyOnWrite.bin");
+        final DataFrame<LocalDate,String> frame = TestDataFrames.getQuotes("blk");
+        frame.write().binary(options -> options.setFile(file));
+        final DataFrame<LocalDate,String> result1 = DataFrame.read().binary(file);
+        result1.colAt("Close").applyDoubles(v -> 0d);
+        result1.rows().add(LocalDate.of(2050, 1, 1));
+        result1.cols().add("Extra", String.class).applyValues(v -> "Extra" + v.rowOrdinal());
+        final DataFrame<LocalDate,String> result2 = DataFrame.read().binary(file);
+        DataFrameAsserts.assertEqualsByIndex(frame, result2);
+        Assert.assertEquals(result1.rowCount(), frame.rowCount() + 1);
+        Assert.assertEquals(result1.data().getDouble(0, "Close"), 0d);
+    }
+
+
+    @Test()
+    public void testReadOnly() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-ReadOnly.bin");
+        final DataFrame<LocalDate,String> frame = TestDataFrames.getQuotes("blk");
+        frame.write().binary(options -> options.setFile(file));
+        final DataFrame<LocalDate,String> result = DataFrame.read().binary(options -> {
+            options.setFile(file);
+            options.setReadOnly(true);
+        });
+        DataFrameAsserts.assertEqualsByIndex(frame, result);
+        try {
+            result.data().setDouble(0, "Close", 1d);
+            Assert.fail("A read only frame should not be modifiable");
+        } catch (DataFrameException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ReadOnlyBufferException);
+        }
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testInvalidFile() throws Exception {
+        final File file = TestSuite.getOutputFile("BinaryTests", "DataFrame-Invalid.json");
+        TestDataFrames.getQuotes("blk").write().json(options -> options.setFile(file));
+        DataFrame.read().binary(file);
+    }
+
+}
@@ -18,6 +18,8 @@ package com.zavtech.morpheus.io;
 import java.io.File;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -37,7 +39,9 @@ import static org.testng.Assert.assertTrue;
 import com.zavtech.morpheus.TestSuite;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
+import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.reference.TestDataFrames;
+import com.zavtech.morpheus.source.CsvSourceOptions;
 import com.zavtech.morpheus.util.Predicates;
 import com.zavtech.morpheus.util.text.Formats;
 import com.zavtech.morpheus.util.text.parser.Parser;
@@ -65,6 +69,12 @@ public class CsvTests {
     }
 
 
+    @DataProvider(name="chunks")
+    public Object[][] chunks() {
+        return new Object[][] { {1}, {2}, {3}, {7}, {64} };
+    }
+
+
     @DataProvider(name="types")
     public Object[][] types() {
         return new Object[][] {
@@ -328,6 +338,112 @@ public class CsvTests {
     }
 
 
+    @Test(dataProvider = "chunks")
+    public void testChunkedRead(int chunkCount) throws Exception {
+        final File file = new File(tmpDir, "aapl-chunks.csv");
+        Files.copy(getClass().getResourceAsStream("/csv/aapl.csv"), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        final DataFrame<Integer,String> expected1 = DataFrame.read().csv(options -> options.setFile(file));
+        final DataFrame<Integer,String> actual1 = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setChunkCount(chunkCount);
+        });
+        DataFrameAsserts.assertEqualsByIndex(expected1, actual1);
+        final DataFrame<LocalDate,String> expected2 = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setExcludeColumns("Date");
+            options.setRowPredicate(values -> !values[0].startsWith("1999"));
+            options.setRowKeyParser(LocalDate.class, values -> LocalDate.parse(values[0]));
+        });
+        final DataFrame<LocalDate,String> actual2 = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setChunkCount(chunkCount);
+            options.setExcludeColumns("Date");
+            options.setRowPredicate(values -> !values[0].startsWith("1999"));
+            options.setRowKeyParser(LocalDate.class, values -> LocalDate.parse(values[0]));
+        });
+        DataFrameAsserts.assertEqualsByIndex(expected2, actual2);
+        final DataFrame<Integer,String> expected3 = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setHeader(false);
+        });
+        final DataFrame<Integer,String> actual3 = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setHeader(false);
+            options.setChunkCount(chunkCount);
+        });
+        assertEquals(actual3.rowCount(), 8504);
+        DataFrameAsserts.assertEqualsByIndex(expected3, actual3);
+    }
+
+
+    @Test()
+    public void testChunkCountIsClamped() throws Exception {
+        final File file = new File(tmpDir, "aapl-clamped.csv");
+        Files.copy(getClass().getResourceAsStream("/csv/aapl.csv"), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        final CsvSourceOptions<Integer> options = new CsvSourceOptions<>();
+        options.setChunkCount(100000);
+        assertEquals(options.getChunkCount(), 100000);
+        assertEquals(options.getChunkCount(file.length()), (int)(file.length() / CsvSourceOptions.MIN_CHUNK_SIZE));
+        assertEquals(options.getChunkCount(CsvSourceOptions.MIN_CHUNK_SIZE - 1), 0);
+        options.setChunkCount(3);
+        assertEquals(options.getChunkCount(file.length()), 3);
+        final DataFrame<Integer,String> expected = DataFrame.read().csv(o -> o.setFile(file));
+        final DataFrame<Integer,String> actual = DataFrame.read().csv(o -> {
+            o.setFile(file);
+            o.setChunkCount(100000);
+        });
+        DataFrameAsserts.assertEqualsByIndex(expected, actual);
+    }
+
+
+    @Test(dataProvider = "chunks")
+    public void testTypeWidening(int chunkCount) throws Exception {
+        final File file = new File(tmpDir, "widening.csv");
+        final StringBuilder csv = new StringBuilder("Ints,Longs,Doubles,Mixed,Dates,Flags\n");
+        for (int i=0; i<20000; ++i) {
+            final String longs = i == 14000 ? "9999999999" : String.valueOf(i);
+            final String doubles = i == 5000 ? "" : i == 8000 ? "2.5" : i == 16000 ? "NaN" : String.valueOf(i);
+            final String mixed = i == 17000 ? "" : i == 18000 ? "Hello" : String.valueOf(i);
+            final String dates = i == 19000 ? "N/A" : i == 19800 ? "Unknown" : LocalDate.of(2000, 1, 1).plusDays(i).toString();
+            csv.append(i).append(",").append(longs).append(",").append(doubles).append(",").append(mixed).append(",").append(dates).append(",").append(i % 2 == 0 ? "true" : "false").append("\n");
+        }
+        Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+        final DataFrame<Integer,String> frame = DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setReadBatchSize(100);
+            options.setTypeSampleSize(50);
+            options.setChunkCount(chunkCount);
+        });
+        assertEquals(frame.rowCount(), 20000);
+        assertEquals(frame.cols().type("Ints"), Integer.class);
+        assertEquals(frame.cols().type("Longs"), Long.class);
+        assertEquals(frame.cols().type("Doubles"), Double.class);
+        assertEquals(frame.cols().type("Mixed"), Object.class);
+        assertEquals(frame.cols().type("Dates"), Object.class);
+        assertEquals(frame.cols().type("Flags"), Boolean.class);
+        for (int i=0; i<20000; ++i) {
+            assertEquals(frame.data().getInt(i, "Ints"), i);
+            assertEquals(frame.data().getLong(i, "Longs"), i == 14000 ? 9999999999L : (long)i);
+            assertEquals(frame.data().getDouble(i, "Doubles"), i == 5000 || i == 16000 ? Double.NaN : i == 8000 ? 2.5d : (double)i);
+            assertEquals(frame.data().<Object>getValue(i, "Mixed"), i == 17000 ? null : i == 18000 ? "Hello" : i);
+            assertEquals(frame.data().<Object>getValue(i, "Dates"), i == 19000 ? null : i == 19800 ? "Unknown" : LocalDate.of(2000, 1, 1).plusDays(i));
+            assertEquals(frame.data().getBoolean(i, "Flags"), i % 2 == 0);
+        }
+    }
+
+
+    @Test(expectedExceptions = { DataFrameException.class })
+    public void testNoWideningOfExplicitTypes() throws Exception {
+        final File file = new File(tmpDir, "explicit.csv");
+        Files.write(file.toPath(), "Values\n1\n2\nHello\n".getBytes(StandardCharsets.UTF_8));
+        DataFrame.read().csv(options -> {
+            options.setFile(file);
+            options.setReadBatchSize(2);
+            options.setColumnType("Values", Integer.class);
+        });
+    }
+
+
     @Test()
     public void testWriteFollowedByRead() throws Exception {
         final File file = new File(tmpDir, "aapl.csv");
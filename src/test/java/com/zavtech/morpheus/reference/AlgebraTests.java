@@ -31,6 +31,7 @@ import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.array.ArrayType;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAlgebra;
+import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameValue;
 import com.zavtech.morpheus.range.Range;
 
@@ -310,6 +311,32 @@ public class AlgebraTests {
         });
     }
 
+
+    @Test(dataProvider = "styles")
+    public void testDotProductOfFilters(DataFrameAlgebra.Lib lib, boolean parallel) {
+        DataFrameAlgebra.LIBRARY.set(lib);
+        final DataFrame<Integer,Integer> left = random(300, 200, parallel, double.class).rows().select(row -> row.key() % 3 == 0).cols().select(col -> col.key() < 150);
+        final DataFrame<Integer,Integer> right = random(150, 40, parallel, int.class).cols().select(col -> col.key() % 2 == 1);
+        final DataFrame<Integer,Integer> result = left.dot(right);
+        Assert.assertEquals(result.rowCount(), 100);
+        Assert.assertEquals(result.colCount(), 20);
+        Assert.assertEquals(result.rows().keyArray(), left.rows().keyArray());
+        Assert.assertEquals(result.cols().keyArray(), right.cols().keyArray());
+        final RealMatrix matrix = toMatrix(left).multiply(toMatrix(right));
+        assertEquals(result, matrix);
+        final DataFrame<Integer,Integer> copy = left.copy().dot(right.copy());
+        copy.forEachValue(v -> Assert.assertEquals(v.getDouble(), result.data().getDouble(v.rowOrdinal(), v.colOrdinal()), 0d));
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testDotProductNonNumeric() {
+        final DataFrame<Integer,String> left = DataFrame.of(Range.of(0, 5), String.class, columns -> {
+            columns.add("A", Range.of(0, 5).map(i -> "x" + i));
+        });
+        left.dot(random(1, 3, false, double.class));
+    }
+
     /*
     @Test(dataProvider = "styles")
     public void testDeterminant(DataFrameAlgebra.Lib lib, boolean parallel) {
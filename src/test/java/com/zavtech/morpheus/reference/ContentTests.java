@@ -21,8 +21,11 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.array.ArrayStyle;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameCursor;
+import com.zavtech.morpheus.frame.DataFrameDensity;
+import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.index.Index;
 import com.zavtech.morpheus.range.Range;
 
@@ -58,4 +61,76 @@ public class ContentTests {
         }
     }
 
+
+    @Test()
+    public void testDensityPolicy() {
+        final Index<Integer> rowKeys = Range.of(0, 5000).toIndex(Integer.class);
+        final Index<String> colKeys = Index.of(Array.of("Sparse", "Dense", "Empty"));
+        final XDataFrame<Integer,String> frame = (XDataFrame<Integer,String>)DataFrame.ofDoubles(rowKeys, colKeys);
+        frame.rows().forEach(row -> {
+            row.setDouble("Sparse", row.ordinal() % 50 == 0 ? 1d : Double.NaN);
+            row.setDouble("Dense", row.ordinal() % 2 == 0 ? 1d : Double.NaN);
+        });
+        Assert.assertFalse(frame.data().densityPolicy().isPresent());
+        Assert.assertEquals(frame.data().density("Sparse"), 0.02d, 1e-9);
+        Assert.assertEquals(frame.data().density("Dense"), 0.5d, 1e-9);
+        Assert.assertEquals(frame.content().colArray("Sparse").style(), ArrayStyle.DENSE);
+        Assert.assertEquals(frame.data().densityPolicy(DataFrameDensity.of(0.1d, 0.3d)), 2);
+        Assert.assertEquals(frame.content().colArray("Sparse").style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(frame.content().colArray("Dense").style(), ArrayStyle.DENSE);
+        Assert.assertEquals(frame.content().colArray("Empty").style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(frame.data().density("Sparse"), 0.02d, 1e-9);
+        Assert.assertEquals(frame.data().applyDensityPolicy(), 0);
+        frame.rows().forEach(row -> {
+            Assert.assertEquals(row.getDouble("Sparse"), row.ordinal() % 50 == 0 ? 1d : Double.NaN);
+            Assert.assertEquals(row.getDouble("Dense"), row.ordinal() % 2 == 0 ? 1d : Double.NaN);
+        });
+        frame.rows().forEach(row -> row.setDouble("Empty", row.ordinal() % 4 == 0 ? Double.NaN : 2d));
+        Assert.assertEquals(frame.data().density("Empty"), 0.75d, 1e-9);
+        Assert.assertEquals(frame.data().applyDensityPolicy(), 1);
+        Assert.assertEquals(frame.content().colArray("Empty").style(), ArrayStyle.DENSE);
+        frame.cols().add("Added", Double.class);
+        Assert.assertEquals(frame.content().colArray("Added").style(), ArrayStyle.SPARSE);
+        final XDataFrame<Integer,String> copy = (XDataFrame<Integer,String>)frame.copy();
+        Assert.assertTrue(copy.data().densityPolicy().isPresent());
+        Assert.assertEquals(copy.content().colArray("Sparse").style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(copy.content().colArray("Dense").style(), ArrayStyle.DENSE);
+        final DataFrame<Integer,String> filter = frame.rows().select(row -> row.ordinal() < 100);
+        Assert.assertEquals(filter.data().density("Sparse"), 0.02d, 1e-9);
+        Assert.assertEquals(filter.data().applyDensityPolicy(), 0);
+        Assert.assertEquals(frame.data().densityPolicy(null), 0);
+        Assert.assertFalse(frame.data().densityPolicy().isPresent());
+    }
+
+
+    @Test()
+    public void testDensityPolicyIgnoresCapacity() {
+        final Index<Integer> rowKeys = Range.of(0, 2000).toIndex(Integer.class);
+        final Index<String> colKeys = Index.of(Array.of("Values"));
+        final XDataFrame<Integer,String> frame = (XDataFrame<Integer,String>)DataFrame.ofDoubles(rowKeys, colKeys);
+        frame.rows().add(2000);
+        frame.rows().forEach(row -> row.setDouble("Values", row.ordinal() % 5 == 0 ? 1d : Double.NaN));
+        Assert.assertEquals(frame.rowCount(), 2001);
+        Assert.assertTrue(frame.content().colArray("Values").length() > 2500, "Capacity exceeds the row count");
+        Assert.assertEquals(frame.data().density("Values"), 401d / 2001d, 1e-9);
+        Assert.assertEquals(frame.data().densityPolicy(DataFrameDensity.of(0.15d, 0.3d)), 0);
+        Assert.assertEquals(frame.content().colArray("Values").style(), ArrayStyle.DENSE);
+        final Array<Double> values = Array.of(Double.class, 2001);
+        values.applyDoubles(v -> v.index() % 5 == 0 ? 1d : Double.NaN);
+        frame.cols().add("Added", values);
+        Assert.assertTrue(frame.content().colArray("Added").length() > 2500, "Capacity exceeds the row count");
+        Assert.assertEquals(frame.content().colArray("Added").style(), ArrayStyle.DENSE);
+        Assert.assertEquals(frame.data().density("Added"), 401d / 2001d, 1e-9);
+        Assert.assertEquals(frame.data().densityPolicy(DataFrameDensity.of(0.25d, 0.3d)), 2);
+        Assert.assertEquals(frame.content().colArray("Values").style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(frame.content().colArray("Added").style(), ArrayStyle.SPARSE);
+        Assert.assertEquals(frame.data().density("Added"), 401d / 2001d, 1e-9);
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testDensityPolicyThresholds() {
+        DataFrameDensity.of(0.5d, 0.2d);
+    }
+
 }
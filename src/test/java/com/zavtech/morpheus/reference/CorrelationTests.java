@@ -21,6 +21,7 @@ import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
 import com.zavtech.morpheus.frame.DataFrameColumns;
 import com.zavtech.morpheus.frame.DataFrameRows;
+import com.zavtech.morpheus.stats.Correlation;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -106,5 +107,33 @@ public class CorrelationTests {
     }
 
 
+    @Test(dataProvider="style")
+    public void testCorrelationWithNaNs(boolean parallel) throws IOException {
+        final DataFrame<Integer,String> source = loadSourceData();
+        final String nanKey = source.cols().key(0);
+        source.rows().filter(row -> row.ordinal() % 7 == 3).forEach(row -> row.setDouble(nanKey, Double.NaN));
+        final DataFrameColumns<Integer,String> columns = parallel ? source.cols().parallel() : source.cols().sequential();
+        final DataFrame<String,String> expected = loadExpectedColumnCorr();
+        final DataFrame<String,String> actual1 = columns.stats().correlation();
+        final DataFrame<String,String> actual2 = columns.stats().correlation(true);
+        expected.cols().keys().forEach(key1 -> expected.cols().keys().forEach(key2 -> {
+            if (key1.equals(nanKey) || key2.equals(nanKey)) {
+                final Correlation stat = new Correlation();
+                source.rows().forEach(row -> {
+                    final double v1 = row.getDouble(key1);
+                    final double v2 = row.getDouble(key2);
+                    if (!Double.isNaN(v1) && !Double.isNaN(v2)) {
+                        stat.add(v1, v2);
+                    }
+                });
+                Assert.assertTrue(Double.isNaN(actual1.data().getDouble(key1, key2)), "NaN propagates for " + key1 + ", " + key2);
+                Assert.assertEquals(actual2.data().getDouble(key1, key2), stat.getValue(), 0.0000001, "Pairwise match for " + key1 + ", " + key2);
+            } else {
+                final double value = expected.data().getDouble(key1, key2);
+                Assert.assertEquals(actual1.data().getDouble(key1, key2), value, 0.0000001, "Correlation match for " + key1 + ", " + key2);
+                Assert.assertEquals(actual2.data().getDouble(key1, key2), value, 0.0000001, "Correlation match for " + key1 + ", " + key2);
+            }
+        }));
+    }
 
 }
@@ -25,6 +25,8 @@ import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
 import com.zavtech.morpheus.frame.DataFrameColumns;
 import com.zavtech.morpheus.frame.DataFrameRows;
+import com.zavtech.morpheus.range.Range;
+import com.zavtech.morpheus.stats.Covariance;
 
 /**
  * Unit tests of covariance estimator in both the row and column dimensions of a DataFrame
@@ -107,4 +109,65 @@ public class CovarianceTests {
     }
 
 
+    @Test(dataProvider="style")
+    public void testCovarianceWithNaNs(boolean parallel) throws IOException {
+        final DataFrame<Integer,String> source = loadSourceData();
+        final String nanKey = source.cols().key(0);
+        source.rows().filter(row -> row.ordinal() % 7 == 3).forEach(row -> row.setDouble(nanKey, Double.NaN));
+        final DataFrameColumns<Integer,String> columns = parallel ? source.cols().parallel() : source.cols().sequential();
+        final DataFrame<String,String> expected = loadExpectedColumnCov();
+        final DataFrame<String,String> actual1 = columns.stats().covariance();
+        final DataFrame<String,String> actual2 = columns.stats().covariance(true);
+        expected.cols().keys().forEach(key1 -> expected.cols().keys().forEach(key2 -> {
+            if (key1.equals(nanKey) || key2.equals(nanKey)) {
+                final Covariance stat = new Covariance();
+                source.rows().forEach(row -> {
+                    final double v1 = row.getDouble(key1);
+                    final double v2 = row.getDouble(key2);
+                    if (!Double.isNaN(v1) && !Double.isNaN(v2)) {
+                        stat.add(v1, v2);
+                    }
+                });
+                Assert.assertTrue(Double.isNaN(actual1.data().getDouble(key1, key2)), "NaN propagates for " + key1 + ", " + key2);
+                Assert.assertEquals(actual2.data().getDouble(key1, key2), stat.getValue(), 0.0000001, "Pairwise match for " + key1 + ", " + key2);
+            } else {
+                final double value = expected.data().getDouble(key1, key2);
+                Assert.assertEquals(actual1.data().getDouble(key1, key2), value, 0.0000001, "Covariance match for " + key1 + ", " + key2);
+                Assert.assertEquals(actual2.data().getDouble(key1, key2), value, 0.0000001, "Covariance match for " + key1 + ", " + key2);
+            }
+        }));
+    }
+
+
+    @Test(dataProvider="style")
+    public void testCovarianceOfLargeFrame(boolean parallel) {
+        final Range<Integer> rowKeys = Range.of(0, 1500);
+        final Range<String> colKeys = Range.of(0, 75).map(i -> "C" + i);
+        final DataFrame<Integer,String> source = DataFrame.ofDoubles(rowKeys, colKeys, v -> Math.random() * 10d + v.colOrdinal());
+        source.cols().add("Ints", Integer.class, v -> v.rowOrdinal() % 13);
+        final DataFrameColumns<Integer,String> columns = parallel ? source.cols().parallel() : source.cols().sequential();
+        final DataFrame<String,String> covActual = columns.stats().covariance();
+        Assert.assertEquals(covActual.rowCount(), 76);
+        Assert.assertEquals(covActual.colCount(), 76);
+        covActual.cols().keys().forEach(key1 -> covActual.cols().keys().forEach(key2 -> {
+            final double expected = source.cols().stats().covariance(key1, key2);
+            final double actual = covActual.data().getDouble(key1, key2);
+            Assert.assertEquals(actual, expected, 0.0000001, "Covariance match for " + key1 + ", " + key2);
+        }));
+    }
+
+
+    @Test(dataProvider="style")
+    public void testCovarianceOfRowsMatchesPairs(boolean parallel) throws IOException {
+        final DataFrame<Integer,String> source = loadSourceData().rows().select(row -> row.ordinal() < 100);
+        final DataFrameRows<Integer,String> rows = parallel ? source.rows().parallel() : source.rows().sequential();
+        final DataFrame<Integer,Integer> covActual = rows.stats().covariance();
+        Assert.assertEquals(covActual.rowCount(), source.rowCount());
+        covActual.cols().keys().forEach(key1 -> covActual.cols().keys().forEach(key2 -> {
+            final double expected = source.rows().stats().covariance(key1, key2);
+            final double actual = covActual.data().getDouble(key1, key2);
+            Assert.assertEquals(actual, expected, 0.0000001, "Covariance match for " + key1 + ", " + key2);
+        }));
+    }
+
 }
@@ -20,6 +20,7 @@ import java.time.LocalDate;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
 
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -62,16 +63,178 @@ public class ExpWeightedTests {
     }
 
 
-    @Test()
-    public void testExpWeightedMovingStdDev() {
+    @Test(dataProvider="style")
+    public void testExpWeightedMovingStdDev(boolean parallel) {
+        final DataFrame<LocalDate,String> expected = load("/ewmw/spy-ewmastd.csv");
+        final DataFrame<LocalDate,String> actual = load("/ewmw/spy.csv");
+        if (parallel) {
+            final DataFrame<LocalDate,String> ewmstd = actual.cols().parallel().stats().ewmstd(20);
+            assertEquals(ewmstd, expected, 0.000001);
+        } else {
+            final DataFrame<LocalDate,String> ewmstd = actual.cols().sequential().stats().ewmstd(20);
+            assertEquals(ewmstd, expected, 0.000001);
+        }
+    }
 
+
+    @Test(dataProvider="style")
+    public void testExpWeightedMovingVariance(boolean parallel) {
+        final DataFrame<LocalDate,String> expected = load("/ewmw/spy-ewmavar.csv");
+        final DataFrame<LocalDate,String> actual = load("/ewmw/spy.csv");
+        if (parallel) {
+            final DataFrame<LocalDate,String> ewmvar = actual.cols().parallel().stats().ewmvar(20);
+            assertEquals(ewmvar, expected, 0.000001);
+        } else {
+            final DataFrame<LocalDate,String> ewmvar = actual.cols().sequential().stats().ewmvar(20);
+            assertEquals(ewmvar, expected, 0.000001);
+        }
     }
 
 
-    @Test()
-    public void testExpWeightedMovingVariance() {
+    @Test(dataProvider="style")
+    public void testExpWeightedMovingCovariance(boolean parallel) {
+        final DataFrame<LocalDate,String> frame = load("/ewmw/spy.csv");
+        final DataFrame<LocalDate,String> variance = frame.cols().sequential().stats().ewmvar(20);
+        final DataFrame<String,String> cov = parallel ? frame.cols().parallel().stats().ewmcov(20) : frame.cols().sequential().stats().ewmcov(20);
+        final DataFrame<String,String> corr = parallel ? frame.cols().parallel().stats().ewmcorr(20) : frame.cols().sequential().stats().ewmcorr(20);
+        Assert.assertEquals(cov.rows().keyArray(), frame.cols().keyArray());
+        Assert.assertEquals(cov.cols().keyArray(), frame.cols().keyArray());
+        frame.cols().keys().forEach(x -> frame.cols().keys().forEach(y -> {
+            final double[] valuesX = frame.colAt(x).toDoubleStream().toArray();
+            final double[] valuesY = frame.colAt(y).toDoubleStream().toArray();
+            final double expectedCov = ewmcov(valuesX, valuesY, 20);
+            final double expectedCorr = expectedCov / Math.sqrt(ewmcov(valuesX, valuesX, 20) * ewmcov(valuesY, valuesY, 20));
+            assertEquals(cov.data().getDouble(x, y), expectedCov, 0.000001, "Covariance of " + x + " and " + y);
+            assertEquals(corr.data().getDouble(x, y), expectedCorr, 0.000001, "Correlation of " + x + " and " + y);
+            if (x.equals(y)) {
+                assertEquals(cov.data().getDouble(x, x), variance.data().getDouble(variance.rowCount()-1, x), 0.000001, "Variance of " + x);
+            }
+        }));
+    }
+
 
+    @Test(dataProvider="style")
+    public void testExpWeightedMovingCovarianceWithNaNs(boolean parallel) {
+        final DataFrame<LocalDate,String> frame = load("/ewmw/spy.csv");
+        final int rowCount = frame.rowCount();
+        frame.data().setDouble(0, "Open", Double.NaN);
+        frame.data().setDouble(rowCount / 2, "Open", Double.NaN);
+        frame.data().setDouble(rowCount - 3, "Close", Double.NaN);
+        final DataFrame<String,String> cov = parallel ? frame.cols().parallel().stats().ewmcov(20) : frame.cols().sequential().stats().ewmcov(20);
+        final DataFrame<String,String> corr = parallel ? frame.cols().parallel().stats().ewmcorr(20) : frame.cols().sequential().stats().ewmcorr(20);
+        final DataFrame<LocalDate,String> variance = frame.cols().sequential().stats().ewmvar(20);
+        for (String key : new String[] {"Open", "Close"}) {
+            assertEquals(cov.data().getDouble(key, key), variance.data().getDouble(rowCount-1, key), 0.000001, "Variance of " + key);
+        }
+        frame.cols().keys().forEach(x -> frame.cols().keys().forEach(y -> {
+            final double[] valuesX = frame.colAt(x).toDoubleStream().toArray();
+            final double[] valuesY = frame.colAt(y).toDoubleStream().toArray();
+            for (int i=0; i<rowCount; ++i) {
+                if (Double.isNaN(valuesX[i]) || Double.isNaN(valuesY[i])) {
+                    valuesX[i] = Double.NaN;
+                    valuesY[i] = Double.NaN;
+                }
+            }
+            final double expectedCov = ewmcov(valuesX, valuesY, 20);
+            final double expectedCorr = expectedCov / Math.sqrt(ewmcov(valuesX, valuesX, 20) * ewmcov(valuesY, valuesY, 20));
+            assertEquals(cov.data().getDouble(x, y), expectedCov, 0.000001, "Covariance of " + x + " and " + y);
+            assertEquals(corr.data().getDouble(x, y), expectedCorr, 0.000001, "Correlation of " + x + " and " + y);
+        }));
     }
 
 
+    /**
+     * Returns a frame loaded from a CSV resource of daily prices
+     * @param resource  the resource path
+     * @return          the frame of daily prices
+     */
+    private DataFrame<LocalDate,String> load(String resource) {
+        return DataFrame.read().csv(options -> {
+            options.setResource(resource);
+            options.setExcludeColumns("Date");
+            options.getFormats().copyParser(Double.class, "Volume");
+            options.setRowKeyParser(LocalDate.class, values -> LocalDate.parse(values[0]));
+        });
+    }
+
+
+    /**
+     * Returns the bias corrected EWM covariance as at the last observation by explicitly weighting all observations
+     * <p>Each new observation has weight alpha against the decayed weights of prior observations, and the weights are
+     * then normalized to sum to one, so weights keep decaying through NaN values without new weight being added.</p>
+     * @param x         the first vector, where NaN values are skipped
+     * @param y         the second vector, where NaN values are skipped
+     * @param halfLife  the half-life for the EWM weights
+     * @return          the EWM covariance
+     */
+    private double ewmcov(double[] x, double[] y, int halfLife) {
+        final double alpha = 1d - Math.exp(Math.log(0.5d) / halfLife);
+        final double[] weights = new double[x.length];
+        double scale = 1d, total = 0d;
+        for (int i=0; i<x.length; ++i) {
+            scale *= total > 0d ? (1d - alpha) : 1d;
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                final double weight = total > 0d ? alpha : 1d;
+                weights[i] = weight / scale;
+                total += weights[i];
+                scale /= total * scale;
+            }
+        }
+        for (int i=0; i<x.length; ++i) {
+            weights[i] *= scale;
+        }
+        double sumOfWeights = 0d, sumOfSquaredWeights = 0d, meanX = 0d, meanY = 0d;
+        for (int i=0; i<x.length; ++i) {
+            if (weights[i] > 0d) {
+                sumOfWeights += weights[i];
+                sumOfSquaredWeights += weights[i] * weights[i];
+                meanX += weights[i] * x[i];
+                meanY += weights[i] * y[i];
+            }
+        }
+        meanX /= sumOfWeights;
+        meanY /= sumOfWeights;
+        double covariance = 0d;
+        for (int i=0; i<x.length; ++i) {
+            if (weights[i] > 0d) {
+                covariance += weights[i] * (x[i] - meanX) * (y[i] - meanY);
+            }
+        }
+        return covariance / (sumOfWeights - sumOfSquaredWeights / sumOfWeights);
+    }
+
+
+    /**
+     * Asserts two frames are equal by index, with doubles compared using a relative tolerance
+     * @param actual    the actual frame
+     * @param expected  the expected frame
+     * @param tolerance the relative tolerance
+     */
+    private void assertEquals(DataFrame<?,?> actual, DataFrame<?,?> expected, double tolerance) {
+        DataFrameAsserts.assertEqualStructure(expected, actual);
+        for (int j=0; j<expected.colCount(); ++j) {
+            for (int i=0; i<expected.rowCount(); ++i) {
+                final double expectedValue = expected.data().getDouble(i, j);
+                final double actualValue = actual.data().getDouble(i, j);
+                assertEquals(actualValue, expectedValue, tolerance, "The DataFrame doubles match at (" + i + "," + j + ")");
+            }
+        }
+    }
+
+
+    /**
+     * Asserts two doubles are equal using a relative tolerance, where NaN only equals NaN
+     * @param actual    the actual value
+     * @param expected  the expected value
+     * @param tolerance the relative tolerance
+     * @param message   the assertion message
+     */
+    private void assertEquals(double actual, double expected, double tolerance, String message) {
+        if (Double.isNaN(expected)) {
+            Assert.assertTrue(Double.isNaN(actual), message + ", expected NaN but was " + actual);
+        } else {
+            Assert.assertEquals(actual, expected, Math.max(Math.abs(expected) * tolerance, 1E-12), message);
+        }
+    }
+
 }
@@ -16,14 +16,18 @@
 package com.zavtech.morpheus.reference;
 
 import java.time.Year;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
-import org.junit.Test;
+import org.testng.annotations.Test;
 import org.testng.Assert;
 
 import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameLeastSquares.Field;
+import com.zavtech.morpheus.frame.DataFrameOmega;
 import com.zavtech.morpheus.range.Range;
 
 /**
@@ -260,6 +264,101 @@ public class GLSTests {
 
 
 
+    @Test()
+    public void testStructuredAR1() {
+        final double rho = -0.3634294908770692;
+        final DataFrame<Integer,Integer> omega = createOmega(16, rho);
+        assertStructured(omega, DataFrameOmega.ar1(rho), true);
+        assertStructured(omega, DataFrameOmega.ar1(rho), false);
+    }
+
+
+    @Test()
+    public void testStructuredDiagonal() {
+        final Array<Double> variances = Range.of(0, 16).map(i -> 1d + (i % 4) * 0.5d).toArray();
+        final DataFrame<Integer,Integer> omega = DataFrame.ofDoubles(Range.of(0, 16), Range.of(0, 16), v -> {
+            return v.rowOrdinal() == v.colOrdinal() ? variances.getDouble(v.rowOrdinal()) : 0d;
+        });
+        assertStructured(omega, DataFrameOmega.diagonal(variances), true);
+        assertStructured(omega, DataFrameOmega.diagonal(variances), false);
+    }
+
+
+    @Test()
+    public void testStructuredBlockDiagonal() {
+        final List<DataFrame<Integer,Integer>> blocks = Arrays.asList(createOmega(6, 0.5d), createOmega(5, -0.2d), createOmega(5, 0.7d));
+        final DataFrame<Integer,Integer> omega = DataFrame.ofDoubles(Range.of(0, 16), Range.of(0, 16), v -> {
+            int offset = 0;
+            for (DataFrame<Integer,Integer> block : blocks) {
+                final int i = v.rowOrdinal() - offset;
+                final int j = v.colOrdinal() - offset;
+                if (i >= 0 && j >= 0 && i < block.rowCount() && j < block.colCount()) {
+                    return block.data().getDouble(i, j);
+                }
+                offset += block.rowCount();
+            }
+            return 0d;
+        });
+        assertStructured(omega, DataFrameOmega.blockDiagonal(blocks), true);
+        assertStructured(omega, DataFrameOmega.blockDiagonal(blocks), false);
+    }
+
+
+    @Test()
+    public void testStructuredBanded() {
+        final double theta = 0.6d;
+        final DataFrame<Integer,Integer> omega = DataFrame.ofDoubles(Range.of(0, 16), Range.of(0, 16), v -> {
+            final int lag = Math.abs(v.rowOrdinal() - v.colOrdinal());
+            return lag == 0 ? 1d + theta * theta : lag == 1 ? theta : 0d;
+        });
+        final DataFrame<Integer,Integer> bands = DataFrame.ofDoubles(Range.of(0, 16), Range.of(0, 3), v -> {
+            return omega.data().getDouble(v.rowOrdinal(), Math.min(15, v.rowOrdinal() + v.colOrdinal()));
+        });
+        assertStructured(omega, DataFrameOmega.banded(bands), true);
+        assertStructured(omega, DataFrameOmega.banded(bands), false);
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testStructuredSizeMismatch() {
+        longley().regress().gls("TOTEMP", "POP", DataFrameOmega.diagonal(Array.of(1d, 2d, 3d)), true, model -> {
+            return Optional.of(model.getRSquared());
+        });
+    }
+
+
+    /**
+     * Asserts that a GLS regression with a structured omega matches the regression with the equivalent dense omega
+     * @param omega         the dense omega matrix
+     * @param structured    the structured omega specification
+     * @param intercept     true to include an intercept
+     */
+    private void assertStructured(DataFrame<Integer,Integer> omega, DataFrameOmega structured, boolean intercept) {
+        final DataFrame<Year,String> frame = longley();
+        final Array<String> regressors = Array.of("GNPDEFL", "GNP", "UNEMP", "ARMED", "POP", "YEAR");
+        frame.regress().gls("TOTEMP", regressors, omega, intercept, expected -> {
+            frame.regress().gls("TOTEMP", regressors, structured, intercept, actual -> {
+                Assert.assertEquals(actual.getRSquared(), expected.getRSquared(), 0.0000001);
+                Assert.assertEquals(actual.getStdError() / expected.getStdError(), 1d, 0.0000001);
+                if (intercept) {
+                    for (Field field : Field.values()) {
+                        final double value = expected.getInterceptValue(field);
+                        Assert.assertEquals(actual.getInterceptValue(field), value, Math.max(Math.abs(value) * 0.0000001, 0.0000001));
+                    }
+                }
+                for (String regressor : regressors) {
+                    for (Field field : Field.values()) {
+                        final double value = expected.getBetaValue(regressor, field);
+                        Assert.assertEquals(actual.getBetaValue(regressor, field), value, Math.max(Math.abs(value) * 0.0000001, 0.0000001));
+                    }
+                }
+                return Optional.empty();
+            });
+            return Optional.empty();
+        });
+    }
+
+
     /**
      * Returns the correlation matrix omega
      * @param size      the size for the correlation matrix
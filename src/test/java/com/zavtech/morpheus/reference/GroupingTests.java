@@ -15,7 +15,9 @@
  */
 package com.zavtech.morpheus.reference;
 
+import java.util.Random;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import org.testng.Assert;
@@ -26,9 +28,13 @@ import com.zavtech.morpheus.array.Array;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
 import com.zavtech.morpheus.frame.DataFrameColumn;
+import com.zavtech.morpheus.frame.DataFrameException;
 import com.zavtech.morpheus.frame.DataFrameGrouping;
+import com.zavtech.morpheus.frame.DataFrameOptions;
 import com.zavtech.morpheus.frame.DataFrameRow;
 import com.zavtech.morpheus.index.Index;
+import com.zavtech.morpheus.range.Range;
+import com.zavtech.morpheus.stats.StatType;
 import com.zavtech.morpheus.util.Tuple;
 
 /**
@@ -162,6 +168,115 @@ public class GroupingTests {
     }
 
 
+    @DataProvider(name="aggregations")
+    public Object[][] aggregations() {
+        final StatType[] statTypes = {
+            StatType.COUNT, StatType.SUM, StatType.SUM_SQUARES, StatType.MEAN,
+            StatType.MIN, StatType.MAX, StatType.VARIANCE, StatType.STD_DEV
+        };
+        final Object[][] result = new Object[statTypes.length * 2][];
+        for (int i=0; i<statTypes.length; ++i) {
+            result[i * 2] = new Object[] { statTypes[i], false };
+            result[i * 2 + 1] = new Object[] { statTypes[i], true };
+        }
+        return result;
+    }
+
+
+    @Test(dataProvider = "aggregations")
+    public void testAggregateRows2D(StatType statType, boolean parallel) throws Exception {
+        final DataFrame<String,String> source = frame();
+        final DataFrameGrouping.Rows<String,String> grouping = parallel ? source.rows().parallel().groupBy("Issuer", "Niche") : source.rows().groupBy("Issuer", "Niche");
+        final DataFrame<Tuple,String> result = grouping.aggregate(colKey -> source.cols().type(colKey) == Double.class ? statType : null);
+        Assert.assertEquals(result.rowCount(), grouping.getGroupCount(1), "The group counts match");
+        Assert.assertTrue(result.colCount() > 0, "There are aggregated columns");
+        Assert.assertFalse(result.cols().contains("Issuer"), "Group by columns are excluded");
+        result.rows().forEach(row -> {
+            final DataFrame<String,String> group = grouping.getGroup(row.key());
+            row.forEachValue(v -> {
+                final double expected = expected(group.colAt(v.colKey()), statType);
+                assertEquals(v.getDouble(), expected, 0.0000001, "Aggregate " + statType + " matches for " + v.rowKey() + ", " + v.colKey());
+            });
+        });
+    }
+
+
+    @Test()
+    public void testAggregatePartitions() throws Exception {
+        final Random random = new Random(5);
+        final String[] names = {"A", "B", "C", "D", "E", "F", "G"};
+        final DataFrame<Integer,String> source = DataFrame.of(Range.of(0, 50000), String.class, columns -> {
+            columns.add("Key1", Integer.class, v -> random.nextInt(40));
+            columns.add("Key2", String.class, v -> names[random.nextInt(names.length)]);
+            columns.add("Value1", Double.class, v -> random.nextDouble() < 0.1 ? Double.NaN : random.nextDouble() * 100d - 50d);
+            columns.add("Value2", Long.class, v -> random.nextLong() % 1000L);
+        });
+        final ToIntFunction<DataFrame<?,?>> threshold = DataFrameOptions.getDefaultRowSplitThreshold();
+        try {
+            DataFrameOptions.setDefaultRowSplitThreshold(frame -> 1000);
+            final DataFrameGrouping.Rows<Integer,String> grouping = source.rows().groupBy("Key1", "Key2");
+            final DataFrame<Tuple,String> sequential = grouping.aggregate(colKey -> colKey.equals("Value1") ? StatType.VARIANCE : StatType.MAX);
+            final DataFrame<Tuple,String> parallel = source.rows().parallel().groupBy("Key1", "Key2").aggregate(colKey -> colKey.equals("Value1") ? StatType.VARIANCE : StatType.MAX);
+            final DataFrame<Tuple,String> function = source.rows().parallel().groupBy(row -> Tuple.of(row.getInt("Key1"), row.<String>getValue("Key2"))).aggregate(colKey -> {
+                return colKey.equals("Value1") ? StatType.VARIANCE : colKey.equals("Value2") ? StatType.MAX : null;
+            });
+            Assert.assertEquals(sequential.rowCount(), 40 * names.length, "All groups are present");
+            DataFrameAsserts.assertEqualsByIndex(sequential, parallel);
+            DataFrameAsserts.assertEqualsByIndex(sequential, function);
+            sequential.rows().forEach(row -> {
+                final DataFrame<Integer,String> group = grouping.getGroup(row.key());
+                assertEquals(row.getDouble("Value1"), group.colAt("Value1").stats().variance(), 0.0000001, "Variance matches for " + row.key());
+                assertEquals(row.getDouble("Value2"), group.colAt("Value2").stats().max(), 0.0000001, "Max matches for " + row.key());
+            });
+        } finally {
+            DataFrameOptions.setDefaultRowSplitThreshold(threshold);
+        }
+    }
+
+
+    @Test(expectedExceptions = DataFrameException.class)
+    public void testAggregateNonNumeric() throws Exception {
+        final DataFrame<String,String> source = frame();
+        source.rows().groupBy("Issuer").aggregate(colKey -> colKey.equals("Niche") ? StatType.SUM : null);
+    }
+
+
+    @Test()
+    public void testAggregateCountNonNumeric() throws Exception {
+        final DataFrame<String,String> source = frame();
+        final DataFrameGrouping.Rows<String,String> grouping = source.rows().groupBy("Issuer");
+        final DataFrame<Tuple,String> result = grouping.aggregate(colKey -> colKey.equals("Niche") ? StatType.COUNT : null);
+        Assert.assertEquals(result.colCount(), 1);
+        result.rows().forEach(row -> {
+            final DataFrame<String,String> group = grouping.getGroup(row.key());
+            final long expected = group.colAt("Niche").toValueStream().filter(v -> v != null).count();
+            Assert.assertEquals(row.getDouble("Niche"), (double)expected, "Count matches for " + row.key());
+        });
+    }
+
+
+    /**
+     * Returns the expected aggregate value for a column of a group, where statistics over no values are NaN
+     * @param column    the group column
+     * @param statType  the statistic type
+     * @return          the expected value
+     */
+    private double expected(DataFrameColumn<String,String> column, StatType statType) {
+        final double count = column.stats().count();
+        switch (statType) {
+            case COUNT:         return count;
+            case SUM:           return column.stats().sum();
+            case SUM_SQUARES:   return column.stats().sumSquares();
+            case MEAN:          return count == 0 ? Double.NaN : column.stats().mean();
+            case MIN:           return count == 0 ? Double.NaN : column.stats().min();
+            case MAX:           return count == 0 ? Double.NaN : column.stats().max();
+            case VARIANCE:      return column.stats().variance();
+            case STD_DEV:       return column.stats().stdDev();
+            default:    throw new IllegalArgumentException("Unsupported stat type: " + statType);
+        }
+    }
+
+
     @Test()
     public void testTranspose() {
         final DataFrame<String,String> source = frame();
@@ -0,0 +1,285 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.array.Array;
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFrameException;
+import com.zavtech.morpheus.join.JoinType;
+import com.zavtech.morpheus.range.Range;
+
+/**
+ * Unit tests for joining DataFrames
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ *
+ * @author  Xavier Witdouck
+ */
+public class JoinTests {
+
+
+    @DataProvider(name="types")
+    public Object[][] types() {
+        return new Object[][] {
+            { JoinType.INNER, false },
+            { JoinType.INNER, true },
+            { JoinType.LEFT_OUTER, false },
+            { JoinType.LEFT_OUTER, true },
+            { JoinType.RIGHT_OUTER, false },
+            { JoinType.RIGHT_OUTER, true },
+            { JoinType.FULL_OUTER, false },
+            { JoinType.FULL_OUTER, true },
+        };
+    }
+
+
+    /**
+     * Returns a frame of venues keyed by venue id, where some ids are repeated
+     * @param count     the row count
+     * @return          the frame of venues
+     */
+    private DataFrame<String,String> venues(int count) {
+        return DataFrame.of(Range.of(0, count).map(i -> "V" + i), String.class, columns -> {
+            columns.add("venueId", Array.of(Integer.class, count).applyInts(v -> v.index() % 13));
+            columns.add("venueName", Array.of(String.class, count).applyValues(v -> "Venue-" + v.index()));
+            columns.add("capacity", Array.of(Double.class, count).applyDoubles(v -> v.index() * 100d));
+        });
+    }
+
+
+    /**
+     * Returns a frame of events keyed by event id, which reference venues
+     * @param count     the row count
+     * @return          the frame of events
+     */
+    private DataFrame<Integer,String> events(int count) {
+        final LocalDate start = LocalDate.of(2017, 1, 1);
+        return DataFrame.of(Range.of(0, count), String.class, columns -> {
+            columns.add("venueId", Array.of(Integer.class, count).applyInts(v -> (v.index() * 7) % 17));
+            columns.add("eventDate", Array.of(LocalDate.class, count).applyValues(v -> start.plusDays(v.index())));
+            columns.add("price", Array.of(Double.class, count).applyDoubles(v -> v.index() * 1.5d));
+        });
+    }
+
+
+    /**
+     * Returns the expected join result rows computed by nested loop, as sorted strings
+     */
+    private <X,Y> List<String> expected(DataFrame<X,String> left, DataFrame<Y,String> right, JoinType type, String leftKey, String rightKey) {
+        final List<String> rows = new ArrayList<>();
+        final boolean[] rightMatched = new boolean[right.rowCount()];
+        for (int i=0; i<left.rowCount(); ++i) {
+            boolean matched = false;
+            final Object leftValue = type.isCross() ? null : left.data().getValue(i, leftKey);
+            for (int j=0; j<right.rowCount(); ++j) {
+                final Object rightValue = type.isCross() ? null : right.data().getValue(j, rightKey);
+                if (type.isCross() || (!isNull(leftValue) && Objects.equals(leftValue, rightValue))) {
+                    rows.add(toString(left, i, right, j, leftKey, rightKey));
+                    rightMatched[j] = true;
+                    matched = true;
+                }
+            }
+            if (!matched && type.isLeftPreserved()) {
+                rows.add(toString(left, i, right, -1, leftKey, rightKey));
+            }
+        }
+        if (type.isRightPreserved()) {
+            for (int j=0; j<right.rowCount(); ++j) {
+                if (!rightMatched[j]) {
+                    rows.add(toString(left, -1, right, j, leftKey, rightKey));
+                }
+            }
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+
+    /**
+     * Returns true if the value is null or NaN
+     */
+    private boolean isNull(Object value) {
+        return value == null || (value instanceof Double && Double.isNaN((Double)value));
+    }
+
+
+    /**
+     * Returns a string representation of a joined row given left and right row ordinals, where -1 implies no match
+     */
+    private <X,Y> String toString(DataFrame<X,String> left, int i, DataFrame<Y,String> right, int j, String leftKey, String rightKey) {
+        final List<Object> values = new ArrayList<>();
+        final boolean coalesce = leftKey != null && leftKey.equals(rightKey);
+        left.cols().keys().forEach(colKey -> {
+            if (i >= 0) {
+                values.add(left.data().getValue(i, colKey));
+            } else if (coalesce && colKey.equals(leftKey)) {
+                values.add(right.data().getValue(j, rightKey));
+            } else {
+                values.add(null);
+            }
+        });
+        right.cols().keys().forEach(colKey -> {
+            if (!coalesce || !colKey.equals(rightKey)) {
+                values.add(j >= 0 ? right.data().getValue(j, colKey) : null);
+            }
+        });
+        return values.stream().map(v -> isNull(v) ? "null" : String.valueOf(v)).collect(Collectors.joining(","));
+    }
+
+
+    /**
+     * Returns the rows of a joined frame as sorted strings
+     */
+    private List<String> actual(DataFrame<Integer,String> joined) {
+        final List<String> rows = joined.rows().stream().map(row -> {
+            final List<Object> values = new ArrayList<>();
+            row.forEach(v -> values.add(v.getValue()));
+            return values.stream().map(v -> isNull(v) ? "null" : String.valueOf(v)).collect(Collectors.joining(","));
+        }).collect(Collectors.toList());
+        Collections.sort(rows);
+        return rows;
+    }
+
+
+    @Test(dataProvider="types")
+    public void testJoinSmallerLeft(JoinType type, boolean parallel) {
+        final DataFrame<String,String> venues = parallel ? venues(20).parallel() : venues(20);
+        final DataFrame<Integer,String> events = events(200);
+        final DataFrame<Integer,String> joined = venues.join(events, type, "venueId");
+        Assert.assertEquals(joined.cols().keyArray(), Array.of("venueId", "venueName", "capacity", "eventDate", "price"));
+        Assert.assertEquals(joined.rows().keyArray(), Range.of(0, joined.rowCount()).toArray());
+        Assert.assertEquals(actual(joined), expected(venues, events, type, "venueId", "venueId"));
+    }
+
+
+    @Test(dataProvider="types")
+    public void testJoinSmallerRight(JoinType type, boolean parallel) {
+        final DataFrame<String,String> venues = parallel ? venues(500).parallel() : venues(500);
+        final DataFrame<Integer,String> events = events(40);
+        final DataFrame<Integer,String> joined = venues.join(events, type, "venueId");
+        Assert.assertEquals(joined.colCount(), 5);
+        Assert.assertEquals(actual(joined), expected(venues, events, type, "venueId", "venueId"));
+    }
+
+
+    @Test(dataProvider="types")
+    public void testJoinOnFilteredFrames(JoinType type, boolean parallel) {
+        final DataFrame<String,String> venues = venues(100).rows().select(row -> row.ordinal() % 3 == 0);
+        final DataFrame<Integer,String> events = events(300).rows().sort(false, "price").rows().select(row -> row.ordinal() % 2 == 0);
+        final DataFrame<Integer,String> joined = (parallel ? venues.parallel() : venues).join(events, type, "venueId");
+        Assert.assertEquals(actual(joined), expected(venues, events, type, "venueId", "venueId"));
+    }
+
+
+    @Test()
+    public void testJoinOnStringKeys() {
+        final DataFrame<String,String> venues = venues(50).mapToObjects("venueName", String.class, v -> "K" + (v.rowOrdinal() % 5));
+        final DataFrame<Integer,String> events = events(50).cols().add("key", String.class, v -> "K" + (v.rowOrdinal() % 7));
+        final DataFrame<Integer,String> joined = venues.join(events.cols().select("key", "price"), JoinType.INNER, "venueName", "key");
+        Assert.assertEquals(joined.cols().keyArray(), Array.of("venueId", "venueName", "capacity", "key", "price"));
+        joined.rows().forEach(row -> Assert.assertEquals(row.<String>getValue("venueName"), row.<String>getValue("key")));
+        final long expected = venues.rows().stream().mapToLong(v -> events.rows().stream().filter(e -> e.getValue("key").equals(v.getValue("venueName"))).count()).sum();
+        Assert.assertEquals(joined.rowCount(), (int)expected);
+    }
+
+
+    @Test()
+    public void testJoinWithMixedNumericKeys() {
+        final DataFrame<String,String> venues = venues(30);
+        final DataFrame<Integer,String> events = events(60).mapToLongs("venueId", v -> v.getInt()).cols().replaceKey("venueId", "id");
+        final DataFrame<Integer,String> joined = venues.join(events, JoinType.INNER, "venueId", "id");
+        final List<String> expected = expected(venues, events.mapToInts("id", v -> (int)v.getLong()), JoinType.INNER, "venueId", "id");
+        Assert.assertEquals(actual(joined), expected);
+        joined.rows().forEach(row -> Assert.assertEquals(row.getInt("venueId"), (int)row.getLong("id")));
+    }
+
+
+    @Test()
+    public void testJoinExcludesNullKeys() {
+        final DataFrame<Integer,String> left = DataFrame.of(Range.of(0, 4), String.class, columns -> {
+            columns.add("key", Array.of(1d, Double.NaN, 3d, 4d));
+            columns.add("a", Array.of("a1", "a2", "a3", "a4"));
+        });
+        final DataFrame<Integer,String> right = DataFrame.of(Range.of(0, 3), String.class, columns -> {
+            columns.add("key", Array.of(Double.NaN, 3d, 1d));
+            columns.add("b", Array.of("b1", "b2", "b3"));
+        });
+        final DataFrame<Integer,String> inner = left.join(right, JoinType.INNER, "key");
+        final DataFrame<Integer,String> full = left.join(right, JoinType.FULL_OUTER, "key");
+        Assert.assertEquals(inner.rowCount(), 2);
+        Assert.assertEquals(full.rowCount(), 5);
+        Assert.assertEquals(full.rows().stream().filter(row -> Double.isNaN(row.getDouble("key"))).count(), 2L);
+    }
+
+
+    @Test()
+    public void testCrossJoin() {
+        final DataFrame<String,String> venues = venues(7);
+        final DataFrame<Integer,String> events = events(11).cols().select("eventDate", "price");
+        final DataFrame<Integer,String> joined = venues.join(events, JoinType.CROSS, null);
+        Assert.assertEquals(joined.rowCount(), 77);
+        Assert.assertEquals(joined.colCount(), 5);
+        Assert.assertEquals(actual(joined), expected(venues, events, JoinType.CROSS, null, null));
+    }
+
+
+    @Test()
+    public void testJoinWithEmptyFrame() {
+        final DataFrame<String,String> venues = venues(10);
+        final DataFrame<Integer,String> events = events(10).rows().select(row -> false);
+        Assert.assertEquals(venues.join(events, JoinType.INNER, "venueId").rowCount(), 0);
+        Assert.assertEquals(venues.join(events, JoinType.LEFT_OUTER, "venueId").rowCount(), 10);
+        Assert.assertEquals(venues.join(events, JoinType.RIGHT_OUTER, "venueId").rowCount(), 0);
+    }
+
+
+    @Test(expectedExceptions={DataFrameException.class})
+    public void testJoinColumnCollision() {
+        final DataFrame<String,String> venues = venues(10);
+        final DataFrame<String,String> other = venues(10);
+        venues.join(other, JoinType.INNER, "venueId");
+    }
+
+
+    @Test(expectedExceptions={DataFrameException.class})
+    public void testJoinMissingColumn() {
+        venues(10).join(events(10), JoinType.INNER, "unknown");
+    }
+
+
+    @Test()
+    public void testJoinTypeMatchesLoopJoin() {
+        final DataFrame<String,String> venues = venues(25);
+        final DataFrame<Integer,String> events = events(75);
+        for (JoinType type : Arrays.asList(JoinType.INNER, JoinType.LEFT_OUTER, JoinType.RIGHT_OUTER, JoinType.FULL_OUTER)) {
+            final DataFrame<Integer,String> joined = events.join(venues, type, "venueId");
+            Assert.assertEquals(actual(joined), expected(events, venues, type, "venueId", "venueId"), "Match for " + type);
+        }
+    }
+
+}
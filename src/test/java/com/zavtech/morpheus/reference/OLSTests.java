@@ -17,6 +17,7 @@ package com.zavtech.morpheus.reference;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
@@ -30,6 +31,7 @@ import static com.zavtech.morpheus.util.Asserts.assertEquals;
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameLeastSquares;
 import com.zavtech.morpheus.frame.DataFrameLeastSquares.Field;
+import com.zavtech.morpheus.frame.DataFrameLeastSquaresBatch;
 import com.zavtech.morpheus.index.Index;
 import com.zavtech.morpheus.range.Range;
 
@@ -48,6 +50,12 @@ public class OLSTests {
     }
 
 
+    @DataProvider(name="style")
+    public Object[][] style() {
+        return new Object[][] { {true}, {false} };
+    }
+
+
     @DataProvider(name="solver")
     public Object[][] solver() {
         return new Object[][] {
@@ -286,4 +294,162 @@ public class OLSTests {
         });
     }
 
+
+    @Test(dataProvider = "style")
+    public void testRollingRegression(boolean intercept) {
+        final DataFrame<Integer,String> frame = loadCarDataset();
+        final List<String> regressors = Arrays.asList("EngineSize", "RPM", "Weight");
+        final DataFrame<Integer,String> results = frame.regress().rollingOls("Horsepower", regressors, 30, intercept);
+        Assert.assertEquals(results.rowCount(), frame.rowCount());
+        Assert.assertEquals(results.colCount(), intercept ? 9 : 7);
+        for (int i=0; i<frame.rowCount(); ++i) {
+            final int end = i;
+            if (end < 29) {
+                Assert.assertTrue(results.rowAt(end).toDoubleStream().allMatch(Double::isNaN), "No results for incomplete window at " + end);
+            } else {
+                final DataFrame<Integer,String> window = frame.rows().select(row -> row.ordinal() > end - 30 && row.ordinal() <= end);
+                assertWindow(results, end, window, regressors, intercept);
+            }
+        }
+    }
+
+
+    @Test(dataProvider = "style")
+    public void testExpandingRegression(boolean intercept) {
+        final DataFrame<Integer,String> frame = loadCarDataset();
+        final List<String> regressors = Arrays.asList("EngineSize", "RPM", "Weight");
+        final DataFrame<Integer,String> results = frame.regress().expandingOls("Horsepower", regressors, 10, intercept);
+        Assert.assertEquals(results.rowCount(), frame.rowCount());
+        for (int i=0; i<frame.rowCount(); ++i) {
+            final int end = i;
+            if (end < 9) {
+                Assert.assertTrue(results.rowAt(end).toDoubleStream().allMatch(Double::isNaN), "No results for incomplete window at " + end);
+            } else {
+                final DataFrame<Integer,String> window = frame.rows().select(row -> row.ordinal() <= end);
+                assertWindow(results, end, window, regressors, intercept);
+            }
+        }
+    }
+
+
+    @Test(dataProvider = "style")
+    public void testRollingRegressionWithSmallScaleRegressors(boolean intercept) {
+        final List<String> regressors = Arrays.asList("EngineSize", "RPM", "Weight");
+        final DataFrame<Integer,String> frame = loadCarDataset().cols().select(col -> col.key().equals("Horsepower") || regressors.contains(col.key())).mapToDoubles(v -> v.getDouble());
+        final DataFrame<Integer,String> scaled = frame.mapToDoubles(v -> v.colKey().equals("Horsepower") ? v.getDouble() : v.getDouble() * 1e-8);
+        final DataFrame<Integer,String> expected = frame.regress().rollingOls("Horsepower", regressors, 30, intercept);
+        final DataFrame<Integer,String> actual = scaled.regress().rollingOls("Horsepower", regressors, 30, intercept);
+        for (int i=29; i<frame.rowCount(); ++i) {
+            if (intercept) {
+                assertEquals(actual.data().getDouble(i, "Intercept"), expected.data().getDouble(i, "Intercept"), 0.000001);
+                assertEquals(actual.data().getDouble(i, "Intercept(StdError)"), expected.data().getDouble(i, "Intercept(StdError)"), 0.000001);
+            }
+            for (String regressor : regressors) {
+                final double beta = expected.data().getDouble(i, regressor);
+                final double stdError = expected.data().getDouble(i, regressor + "(StdError)");
+                Assert.assertEquals(actual.data().getDouble(i, regressor) * 1e-8, beta, Math.abs(beta) * 1e-6, "Beta matches at " + i);
+                Assert.assertEquals(actual.data().getDouble(i, regressor + "(StdError)") * 1e-8, stdError, stdError * 1e-6, "Std error matches at " + i);
+            }
+            assertEquals(actual.data().getDouble(i, "R-Squared"), expected.data().getDouble(i, "R-Squared"), 0.000001);
+        }
+    }
+
+
+    @Test(dataProvider = "style")
+    public void testMinPeriodsCountsValidRows(boolean intercept) {
+        final List<String> regressors = Arrays.asList("EngineSize", "RPM", "Weight");
+        final DataFrame<Integer,String> frame = loadCarDataset().cols().select(col -> col.key().equals("Horsepower") || regressors.contains(col.key())).mapToDoubles(v -> v.getDouble());
+        for (int i=0; i<5; ++i) {
+            frame.data().setDouble(i, "Horsepower", Double.NaN);
+        }
+        frame.data().setDouble(40, "Weight", Double.NaN);
+        final DataFrame<Integer,String> expanding = frame.regress().expandingOls("Horsepower", regressors, 10, intercept);
+        for (int i=0; i<frame.rowCount(); ++i) {
+            final int end = i;
+            if (end < 14) {
+                Assert.assertTrue(expanding.rowAt(end).toDoubleStream().allMatch(Double::isNaN), "No results for fewer than 10 valid rows at " + end);
+            } else {
+                final DataFrame<Integer,String> window = frame.rows().select(row -> row.ordinal() >= 5 && row.ordinal() <= end && row.ordinal() != 40);
+                assertWindow(expanding, end, window, regressors, intercept);
+            }
+        }
+        final DataFrame<Integer,String> rolling = frame.regress().rollingOls("Horsepower", regressors, 30, intercept);
+        for (int i=0; i<frame.rowCount(); ++i) {
+            final int end = i;
+            if (end < 34 || (end >= 40 && end < 70)) {
+                Assert.assertTrue(rolling.rowAt(end).toDoubleStream().allMatch(Double::isNaN), "No results for window with NaN rows at " + end);
+            } else {
+                final DataFrame<Integer,String> window = frame.rows().select(row -> row.ordinal() > end - 30 && row.ordinal() <= end);
+                assertWindow(rolling, end, window, regressors, intercept);
+            }
+        }
+    }
+
+
+    @Test(dataProvider = "style")
+    public void testBatchRegression(boolean parallel) {
+        final DataFrame<Integer,String> frame = loadCarDataset();
+        final DataFrame<Integer,String> input = parallel ? frame.parallel() : frame.sequential();
+        final List<String> regressands = Arrays.asList("Horsepower", "Price", "MPG.city", "MPG.highway", "Length");
+        final List<String> regressors = Arrays.asList("EngineSize", "RPM", "Weight");
+        input.regress().olsBatch(regressands, regressors, true, batch -> {
+            Assert.assertEquals(batch.getRegressands(), regressands);
+            Assert.assertEquals(batch.getRegressors(), regressors);
+            final DataFrame<String,String> params = batch.getBetas(Field.PARAMETER);
+            final DataFrame<String,String> stdErrors = batch.getBetas(Field.STD_ERROR);
+            final DataFrame<String,String> pValues = batch.getBetas(Field.P_VALUE);
+            final DataFrame<String,Field> intercept = batch.getIntercept();
+            final DataFrame<String,DataFrameLeastSquaresBatch.Diagnostic> diagnostics = batch.getDiagnostics();
+            final DataFrame<Integer,String> residuals = batch.getResiduals();
+            Assert.assertEquals(residuals.rowCount(), frame.rowCount());
+            for (String regressand : regressands) {
+                frame.regress().ols(regressand, regressors, true, model -> {
+                    assertEquals(intercept.data().getDouble(regressand, Field.PARAMETER), model.getInterceptValue(Field.PARAMETER), 0.000001);
+                    assertEquals(intercept.data().getDouble(regressand, Field.STD_ERROR), model.getInterceptValue(Field.STD_ERROR), 0.000001);
+                    assertEquals(intercept.data().getDouble(regressand, Field.CI_LOWER), model.getInterceptValue(Field.CI_LOWER), 0.000001);
+                    for (String regressor : regressors) {
+                        assertEquals(params.data().getDouble(regressand, regressor), model.getBetaValue(regressor, Field.PARAMETER), 0.000001);
+                        assertEquals(stdErrors.data().getDouble(regressand, regressor), model.getBetaValue(regressor, Field.STD_ERROR), 0.000001);
+                        assertEquals(pValues.data().getDouble(regressand, regressor), model.getBetaValue(regressor, Field.P_VALUE), 0.000001);
+                    }
+                    assertEquals(diagnostics.data().getDouble(regressand, DataFrameLeastSquaresBatch.Diagnostic.R_SQUARED), model.getRSquared(), 0.000001);
+                    assertEquals(diagnostics.data().getDouble(regressand, DataFrameLeastSquaresBatch.Diagnostic.R_SQUARED_ADJ), model.getRSquaredAdj(), 0.000001);
+                    assertEquals(diagnostics.data().getDouble(regressand, DataFrameLeastSquaresBatch.Diagnostic.STD_ERROR), model.getStdError(), 0.000001);
+                    assertEquals(diagnostics.data().getDouble(regressand, DataFrameLeastSquaresBatch.Diagnostic.F_VALUE), model.getFValue(), 0.000001);
+                    assertEquals(diagnostics.data().getDouble(regressand, DataFrameLeastSquaresBatch.Diagnostic.RSS), model.getResidualSumOfSquares(), 0.000001);
+                    model.getResiduals().rows().forEach(row -> {
+                        assertEquals(residuals.data().getDouble(row.key(), regressand), row.getDouble(0), 0.000001);
+                    });
+                    return Optional.empty();
+                });
+            }
+            return Optional.empty();
+        });
+    }
+
+
+
+    /**
+     * Asserts that the rolling results at the row ordinal specified match a full regression over the window
+     * @param results       the rolling regression results
+     * @param ordinal       the row ordinal of the window end
+     * @param window        the frame with the rows in the window
+     * @param regressors    the regressors
+     * @param intercept     true if model includes an intercept
+     */
+    private void assertWindow(DataFrame<Integer,String> results, int ordinal, DataFrame<Integer,String> window, List<String> regressors, boolean intercept) {
+        window.regress().ols("Horsepower", regressors, intercept, model -> {
+            if (intercept) {
+                assertEquals(results.data().getDouble(ordinal, "Intercept"), model.getInterceptValue(Field.PARAMETER), 0.000001);
+                assertEquals(results.data().getDouble(ordinal, "Intercept(StdError)"), model.getInterceptValue(Field.STD_ERROR), 0.000001);
+            }
+            for (String regressor : regressors) {
+                assertEquals(results.data().getDouble(ordinal, regressor), model.getBetaValue(regressor, Field.PARAMETER), 0.000001);
+                assertEquals(results.data().getDouble(ordinal, regressor + "(StdError)"), model.getBetaValue(regressor, Field.STD_ERROR), 0.000001);
+            }
+            assertEquals(results.data().getDouble(ordinal, "R-Squared"), model.getRSquared(), 0.000001);
+            return Optional.empty();
+        });
+    }
+
 }
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.reference;
+
+import java.util.Optional;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.frame.DataFrame;
+import com.zavtech.morpheus.frame.DataFramePCA;
+import com.zavtech.morpheus.frame.DataFramePCA.Field;
+import com.zavtech.morpheus.range.Range;
+
+/**
+ * Unit tests for the truncated Principal Component Analysis solvers, which are checked against the full SVD solver
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class PCASolverTests {
+
+
+    @DataProvider(name="demean")
+    public Object[][] demean() {
+        return new Object[][] { {true}, {false} };
+    }
+
+
+    /**
+     * Returns a frame of rank 5 signal with decreasing strength plus a little noise, and non-zero column means
+     * @return  the frame of test data
+     */
+    private DataFrame<Integer,Integer> data() {
+        final int n = 2500, p = 40, rank = 5;
+        final Random random = new Random(7);
+        final double[][] loadings = new double[rank][p];
+        final double[][] factors = new double[n][rank];
+        for (int r=0; r<rank; ++r) {
+            for (int j=0; j<p; ++j) loadings[r][j] = random.nextGaussian();
+            for (int i=0; i<n; ++i) factors[i][r] = random.nextGaussian() * (10d - 2d * r);
+        }
+        return DataFrame.ofDoubles(Range.of(0, n), Range.of(0, p), v -> {
+            double value = 3d + v.colOrdinal() * 0.1d + random.nextGaussian() * 0.01d;
+            for (int r=0; r<rank; ++r) {
+                value += factors[v.rowOrdinal()][r] * loadings[r][v.colOrdinal()];
+            }
+            return value;
+        });
+    }
+
+
+    @Test(dataProvider = "demean")
+    public void testRandomized(boolean demean) {
+        final DataFrame<Integer,Integer> data = data();
+        data.pca().apply(demean, DataFramePCA.Solver.SVD, expected -> {
+            data.pca().apply(demean, DataFramePCA.Solver.RANDOMIZED, 5, actual -> {
+                assertComponents(actual, expected, 5, 0.000001);
+                assertProjection(actual, expected, 5, 0.000001);
+                return Optional.empty();
+            });
+            return Optional.empty();
+        });
+    }
+
+
+    @Test(dataProvider = "demean")
+    public void testIncremental(boolean demean) {
+        final DataFrame<Integer,Integer> data = data();
+        data.pca().apply(demean, DataFramePCA.Solver.SVD, expected -> {
+            data.pca().apply(demean, DataFramePCA.Solver.INCREMENTAL, 8, actual -> {
+                assertComponents(actual, expected, 8, 0.0001);
+                assertProjection(actual, expected, 5, 0.001);
+                return Optional.empty();
+            });
+            data.pca().apply(demean, DataFramePCA.Solver.INCREMENTAL, actual -> {
+                assertComponents(actual, expected, data.colCount(), 0.000001);
+                assertProjection(actual, expected, 20, 0.000001);
+                return Optional.empty();
+            });
+            return Optional.empty();
+        });
+    }
+
+
+    @Test()
+    public void testTruncatedSVD() {
+        final DataFrame<Integer,Integer> data = data();
+        data.pca().apply(true, DataFramePCA.Solver.SVD, expected -> {
+            data.pca().apply(true, DataFramePCA.Solver.SVD, 3, actual -> {
+                Assert.assertEquals(actual.getEigenValues().rowCount(), 3);
+                Assert.assertEquals(actual.getEigenVectors().colCount(), 3);
+                assertComponents(actual, expected, 3, 0.000001);
+                return Optional.empty();
+            });
+            return Optional.empty();
+        });
+    }
+
+
+    /**
+     * Asserts the eigenvalues, variance percentages and eigenvectors of a truncated model match the full model
+     * @param actual        the truncated model
+     * @param expected      the full model
+     * @param k             the number of components in the truncated model
+     * @param tolerance     the relative tolerance
+     */
+    private void assertComponents(DataFramePCA.Model<Integer,Integer> actual, DataFramePCA.Model<Integer,Integer> expected, int k, double tolerance) {
+        final DataFrame<Integer,Field> actualValues = actual.getEigenValues();
+        final DataFrame<Integer,Field> expectedValues = expected.getEigenValues();
+        final DataFrame<Integer,Integer> actualVectors = actual.getEigenVectors();
+        final DataFrame<Integer,Integer> expectedVectors = expected.getEigenVectors();
+        Assert.assertEquals(actualValues.rowCount(), k);
+        Assert.assertEquals(actualVectors.rowCount(), expectedVectors.rowCount());
+        Assert.assertEquals(actualVectors.colCount(), k);
+        for (int i=0; i<Math.min(k, 5); ++i) {
+            for (Field field : Field.values()) {
+                final double value = expectedValues.data().getDouble(i, field);
+                Assert.assertEquals(actualValues.data().getDouble(i, field), value, Math.abs(value) * tolerance, "Eigenvalue field " + field + " at " + i);
+            }
+            final double dot = dot(actualVectors, expectedVectors, i);
+            Assert.assertEquals(Math.abs(dot), 1d, tolerance, "Eigenvector " + i + " matches up to sign");
+        }
+    }
+
+
+    /**
+     * Asserts the projection onto the first k components of a model matches the full model
+     * @param actual        the truncated model
+     * @param expected      the full model
+     * @param k             the number of components to project onto
+     * @param tolerance     the tolerance relative to the scale of the data
+     */
+    private void assertProjection(DataFramePCA.Model<Integer,Integer> actual, DataFramePCA.Model<Integer,Integer> expected, int k, double tolerance) {
+        final DataFrame<Integer,Integer> actualProjection = actual.getProjection(k);
+        final DataFrame<Integer,Integer> expectedProjection = expected.getProjection(k);
+        final double scale = expectedProjection.stats().stdDev();
+        Assert.assertEquals(actualProjection.rowCount(), expectedProjection.rowCount());
+        Assert.assertEquals(actualProjection.colCount(), expectedProjection.colCount());
+        expectedProjection.forEachValue(v -> {
+            final double value = actualProjection.data().getDouble(v.rowOrdinal(), v.colOrdinal());
+            Assert.assertEquals(value, v.getDouble(), scale * tolerance, "Projection at (" + v.rowOrdinal() + "," + v.colOrdinal() + ")");
+        });
+    }
+
+
+    /**
+     * Returns the dot product between the eigenvectors at the same column in two frames
+     * @param left      the first frame of eigenvectors
+     * @param right     the second frame of eigenvectors
+     * @param col       the column ordinal
+     * @return          the dot product
+     */
+    private double dot(DataFrame<Integer,Integer> left, DataFrame<Integer,Integer> right, int col) {
+        double sum = 0d;
+        for (int i=0; i<left.rowCount(); ++i) {
+            sum += left.data().getDouble(i, col) * right.data().getDouble(i, col);
+        }
+        return sum;
+    }
+
+}
@@ -16,9 +16,12 @@
 package com.zavtech.morpheus.reference;
 
 import java.io.IOException;
+import java.util.Random;
 
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
+import com.zavtech.morpheus.range.Range;
+import com.zavtech.morpheus.stats.Percentile;
 import com.zavtech.morpheus.stats.StatType;
 import com.zavtech.morpheus.index.Index;
 import org.testng.annotations.DataProvider;
@@ -38,6 +41,12 @@ public class StatsExpandingTests {
         return new Object[][] { {false}, {true} };
     }
 
+    @DataProvider(name="percentiles")
+    public Object[][] percentiles() {
+        return new Object[][] { {0.01d}, {0.1d}, {0.5d}, {0.75d}, {0.99d}, {1d} };
+    }
+
+
     private DataFrame<Integer,String> loadSourceData() throws IOException {
         return DataFrame.read().csv("/stats-expanding/source-data.csv");
     }
@@ -291,4 +300,34 @@ public class StatsExpandingTests {
         }
     }
 
+
+    @Test(dataProvider = "percentiles")
+    public void expandingPercentileWithMissingValues(double nth) {
+        final int minPeriods = 5;
+        final Random random = new Random(3);
+        final DataFrame<Integer,String> source = DataFrame.ofDoubles(Range.of(0, 400), Range.of(0, 30).map(i -> "C" + i), v -> {
+            final double value = Math.rint(random.nextDouble() * 50d - 20d);
+            return random.nextDouble() < 0.1 ? Double.NaN : value;
+        });
+        final Percentile statistic = new Percentile(nth);
+        final DataFrame<Integer,String> rowStats = source.rows().parallel().stats().expanding(minPeriods).percentile(nth);
+        final DataFrame<Integer,String> colStats = source.cols().parallel().stats().expanding(minPeriods).percentile(nth);
+        final DataFrame<Integer,String> expectedRowStats = source.copy().applyDoubles(v -> {
+            statistic.reset();
+            for (int i = 0; i <= v.colOrdinal(); ++i) {
+                statistic.add(source.data().getDouble(v.rowOrdinal(), i));
+            }
+            return statistic.getN() < minPeriods ? Double.NaN : statistic.getValue();
+        });
+        final DataFrame<Integer,String> expectedColStats = source.copy().applyDoubles(v -> {
+            statistic.reset();
+            for (int i = 0; i <= v.rowOrdinal(); ++i) {
+                statistic.add(source.data().getDouble(i, v.colOrdinal()));
+            }
+            return statistic.getN() < minPeriods ? Double.NaN : statistic.getValue();
+        });
+        DataFrameAsserts.assertEqualsByIndex(expectedRowStats, rowStats);
+        DataFrameAsserts.assertEqualsByIndex(expectedColStats, colStats);
+    }
+
 }
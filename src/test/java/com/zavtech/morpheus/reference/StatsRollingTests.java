@@ -16,10 +16,27 @@
 package com.zavtech.morpheus.reference;
 
 import java.io.IOException;
+import java.util.Random;
+import java.util.function.Function;
 
 import com.zavtech.morpheus.frame.DataFrame;
 import com.zavtech.morpheus.frame.DataFrameAsserts;
+import com.zavtech.morpheus.range.Range;
+import com.zavtech.morpheus.stats.Count;
+import com.zavtech.morpheus.stats.Kurtosis;
+import com.zavtech.morpheus.stats.Max;
+import com.zavtech.morpheus.stats.Mean;
+import com.zavtech.morpheus.stats.Median;
+import com.zavtech.morpheus.stats.Min;
+import com.zavtech.morpheus.stats.Percentile;
+import com.zavtech.morpheus.stats.Skew;
 import com.zavtech.morpheus.stats.StatType;
+import com.zavtech.morpheus.stats.Statistic1;
+import com.zavtech.morpheus.stats.Stats;
+import com.zavtech.morpheus.stats.StdDev;
+import com.zavtech.morpheus.stats.Sum;
+import com.zavtech.morpheus.stats.SumSquares;
+import com.zavtech.morpheus.stats.Variance;
 import com.zavtech.morpheus.index.Index;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -39,6 +56,25 @@ public class StatsRollingTests {
     }
 
 
+    @DataProvider(name="statistics")
+    public Object[][] statistics() {
+        return new Object[][] {
+            { new Count(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::count },
+            { new Min(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::min },
+            { new Max(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::max },
+            { new Sum(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::sum },
+            { new SumSquares(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::sumSquares },
+            { new Mean(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::mean },
+            { new Variance(true), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::variance },
+            { new StdDev(true), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::stdDev },
+            { new Skew(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::skew },
+            { new Kurtosis(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::kurtosis },
+            { new Median(), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)Stats::median },
+            { new Percentile(0.3), (Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>>)s -> s.percentile(0.3) },
+        };
+    }
+
+
     private DataFrame<Integer,String> loadSourceData() throws IOException {
         return DataFrame.read().csv("/stats-rolling/source-data.csv");
     }
@@ -292,4 +328,36 @@ public class StatsRollingTests {
         }
     }
 
+
+
+    @Test(dataProvider = "statistics")
+    public void rollingWithMissingValues(Statistic1 statistic, Function<Stats<DataFrame<Integer,String>>,DataFrame<Integer,String>> function) {
+        final int windowSize = 15;
+        final Random random = new Random(7);
+        final DataFrame<Integer,String> source = DataFrame.ofDoubles(Range.of(0, 300), Range.of(0, 40).map(i -> "C" + i), v -> {
+            final double value = random.nextDouble() * 20d - 5d;
+            return random.nextDouble() < 0.05 ? Double.NaN : value;
+        });
+        final DataFrame<Integer,String> rowStats = function.apply(source.rows().parallel().stats().rolling(windowSize));
+        final DataFrame<Integer,String> colStats = function.apply(source.cols().parallel().stats().rolling(windowSize));
+        final DataFrame<Integer,String> expectedRowStats = source.copy().applyDoubles(v -> {
+            if (v.colOrdinal() < windowSize - 1) return Double.NaN;
+            statistic.reset();
+            for (int i = v.colOrdinal() - windowSize + 1; i <= v.colOrdinal(); ++i) {
+                statistic.add(source.data().getDouble(v.rowOrdinal(), i));
+            }
+            return statistic.getValue();
+        });
+        final DataFrame<Integer,String> expectedColStats = source.copy().applyDoubles(v -> {
+            if (v.rowOrdinal() < windowSize - 1) return Double.NaN;
+            statistic.reset();
+            for (int i = v.rowOrdinal() - windowSize + 1; i <= v.rowOrdinal(); ++i) {
+                statistic.add(source.data().getDouble(i, v.colOrdinal()));
+            }
+            return statistic.getValue();
+        });
+        DataFrameAsserts.assertEqualsByIndex(expectedRowStats, rowStats);
+        DataFrameAsserts.assertEqualsByIndex(expectedColStats, colStats);
+    }
+
 }
@@ -182,6 +182,30 @@ public class WLSTests {
 
 
 
+    @Test(dataProvider = "data2")
+    public void testRollingWithIntercept(DataFrame<Integer,String> data) {
+        final Array<Double> weights = computeWeightsMultiple(data);
+        final DataFrame<Integer,String> results = data.regress().rollingWls("Y", Array.of("X1", "X2"), weights, 40, true);
+        Assert.assertEquals(results.rowCount(), data.rowCount());
+        for (int i=39; i<data.rowCount(); ++i) {
+            final int start = i - 39;
+            final int end = i;
+            final DataFrame<Integer,String> window = data.rows().select(row -> row.ordinal() >= start && row.ordinal() <= end);
+            window.regress().wls("Y", Array.of("X1", "X2"), weights.copy(start, end + 1), true, model -> {
+                Assert.assertEquals(results.data().getDouble(end, "Intercept"), model.getInterceptValue(Field.PARAMETER), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "Intercept(StdError)"), model.getInterceptValue(Field.STD_ERROR), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "X1"), model.getBetaValue("X1", Field.PARAMETER), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "X1(StdError)"), model.getBetaValue("X1", Field.STD_ERROR), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "X2"), model.getBetaValue("X2", Field.PARAMETER), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "X2(StdError)"), model.getBetaValue("X2", Field.STD_ERROR), 0.000001);
+                Assert.assertEquals(results.data().getDouble(end, "R-Squared"), model.getRSquared(), 0.000001);
+                return Optional.empty();
+            });
+        }
+    }
+
+
+
     /**
      * Returns the vector of weights for the WLS regression by regressing |residuals| on the predictor
      * @param frame     the frame of original data
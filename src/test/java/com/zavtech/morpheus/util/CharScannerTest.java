@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2014-2017 Xavier Witdouck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zavtech.morpheus.util;
+
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.zavtech.morpheus.util.text.Formats;
+import com.zavtech.morpheus.util.text.FormatException;
+import com.zavtech.morpheus.util.text.parser.CharScanner;
+
+/**
+ * Unit tests for the CharScanner class
+ *
+ * @author  Xavier Witdouck
+ *
+ * <p><strong>This is open source software released under the <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache 2.0 License</a></strong></p>
+ */
+public class CharScannerTest {
+
+    @DataProvider(name="doubles")
+    public Object[][] doubles() {
+        return new Object[][] {
+            { "0" }, { "-0" }, { "0.0" }, { "1." }, { "+1.5" }, { "-1.5" }, { "34.233435" }, { "123456789012345678" },
+            { "1234567890123456789012" }, { "0.1" }, { "0.30000000000000004" }, { "1e22" }, { "1e23" }, { "1.7976931348623157E308" },
+            { "4.9E-324" }, { "2.2250738585072014E-308" }, { "9007199254740993" }, { "1E-5" }, { "-3.14159e+2" }, { "00012.5000" },
+        };
+    }
+
+
+    @Test()
+    public void testIntegers() {
+        assertTrue(CharScanner.isInt("0"));
+        assertTrue(CharScanner.isInt("+15"));
+        assertTrue(CharScanner.isInt("-2147483648"));
+        assertTrue(CharScanner.isInt("2147483647"));
+        assertFalse(CharScanner.isInt("2147483648"));
+        assertFalse(CharScanner.isInt("-2147483649"));
+        assertFalse(CharScanner.isInt(""));
+        assertFalse(CharScanner.isInt("-"));
+        assertFalse(CharScanner.isInt("12a"));
+        assertFalse(CharScanner.isInt("1.0"));
+        assertTrue(CharScanner.isLong("2147483648"));
+        assertTrue(CharScanner.isLong("-9223372036854775808"));
+        assertFalse(CharScanner.isLong("9223372036854775808"));
+        assertEquals(CharScanner.parseInt("-2147483648"), Integer.MIN_VALUE);
+        assertEquals(CharScanner.parseInt("+2147483647"), Integer.MAX_VALUE);
+        assertEquals(CharScanner.parseLong("-9223372036854775808"), Long.MIN_VALUE);
+        assertEquals(CharScanner.parseLong("9223372036854775807"), Long.MAX_VALUE);
+        assertEquals(CharScanner.parseInt("xx1234yy", 2, 6), 1234);
+        assertEquals(CharScanner.parseLong(CharBuffer.wrap("a,-99,b".toCharArray()), 2, 5), -99L);
+    }
+
+
+    @Test(expectedExceptions = NumberFormatException.class)
+    public void testIntOverflow() {
+        CharScanner.parseInt("2147483648");
+    }
+
+
+    @Test(dataProvider = "doubles")
+    public void testDoubles(String value) {
+        assertTrue(CharScanner.isDouble(value), value);
+        assertEquals(Double.doubleToLongBits(CharScanner.parseDouble(value)), Double.doubleToLongBits(Double.parseDouble(value)), value);
+    }
+
+
+    @Test()
+    public void testRandomDoubles() {
+        final Random random = new Random(12345);
+        for (int i = 0; i < 100000; ++i) {
+            final double expected = (random.nextDouble() - 0.5d) * Math.pow(10d, random.nextInt(40) - 20);
+            final String text = String.valueOf(expected);
+            assertEquals(CharScanner.parseDouble(text), expected, 0d, text);
+            final String rounded = String.format("%.4f", expected);
+            assertEquals(CharScanner.parseDouble(rounded), Double.parseDouble(rounded), 0d, rounded);
+        }
+    }
+
+
+    @Test()
+    public void testInvalidDoubles() {
+        assertTrue(CharScanner.isDouble("NaN"));
+        assertTrue(Double.isNaN(CharScanner.parseDouble("NaN")));
+        for (String value : new String[] {"", "-", ".5", "1e", "1e+", "1.2.3", "Infinity", "1,000", " 1", "1 ", "0x10"}) {
+            assertFalse(CharScanner.isDouble(value), value);
+            try {
+                CharScanner.parseDouble(value);
+                fail("Expected NumberFormatException for " + value);
+            } catch (NumberFormatException ex) {
+                assertNotNull(ex.getMessage());
+            }
+        }
+    }
+
+
+    @Test()
+    public void testDates() {
+        assertTrue(CharScanner.isLocalDate("2014-05-22"));
+        assertFalse(CharScanner.isLocalDate("2014-13-22"));
+        assertFalse(CharScanner.isLocalDate("2014-05-32"));
+        assertFalse(CharScanner.isLocalDate("2014/05/22"));
+        assertFalse(CharScanner.isLocalDate("2014-05-2"));
+        assertEquals(CharScanner.parseLocalDate("2014-05-22"), LocalDate.of(2014, 5, 22));
+        assertEquals(CharScanner.parseLocalDate("x,2016-02-29,y", 2, 12), LocalDate.of(2016, 2, 29));
+        assertTrue(CharScanner.isLocalDateTime("2014-05-22T22:34"));
+        assertTrue(CharScanner.isLocalDateTime("2014-05-22 22:34:01"));
+        assertTrue(CharScanner.isLocalDateTime("2014-05-22T22:34:01.123456789"));
+        assertFalse(CharScanner.isLocalDateTime("2014-05-22T24:00"));
+        assertFalse(CharScanner.isLocalDateTime("2014-05-22T22:34:01.1234567891"));
+        assertFalse(CharScanner.isLocalDateTime("2014-05-22X22:34"));
+        assertEquals(CharScanner.parseLocalDateTime("2014-05-22T22:34"), LocalDateTime.of(2014, 5, 22, 22, 34));
+        assertEquals(CharScanner.parseLocalDateTime("2014-05-22 22:34:01"), LocalDateTime.of(2014, 5, 22, 22, 34, 1));
+        assertEquals(CharScanner.parseLocalDateTime("2014-05-22T22:34:01.12"), LocalDateTime.of(2014, 5, 22, 22, 34, 1, 120000000));
+    }
+
+
+    @Test(expectedExceptions = DateTimeException.class)
+    public void testInvalidDate() {
+        CharScanner.parseLocalDate("2015-02-29");
+    }
+
+
+    @Test()
+    public void testFormatsUseScanners() {
+        final Formats formats = new Formats();
+        assertEquals(formats.getParserOrFail(double.class).apply("1.5E3"), 1500d);
+        assertEquals(formats.getParserOrFail(Double.class).applyAsDouble("-0.125"), -0.125d);
+        assertEquals(formats.getParserOrFail(Object.class).apply("3000000000"), 3000000000L);
+        assertEquals(formats.getParserOrFail(Object.class).apply("2014-05-22 05:00"), LocalDateTime.of(2014, 5, 22, 5, 0));
+        assertEquals(formats.findParser("1", "2", "3000000000").map(p -> p.getType()).orElse(null), Long.class);
+        assertEquals(formats.findParser("1", "2.5", "3").map(p -> p.getType()).orElse(null), Double.class);
+    }
+
+
+    @Test(expectedExceptions = FormatException.class)
+    public void testFormatsRejectInvalidInt() {
+        new Formats().getParserOrFail(int.class).applyAsInt("12x");
+    }
+
+}
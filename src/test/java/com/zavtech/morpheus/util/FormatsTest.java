@@ -20,6 +20,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.TimeZone;
 
 import static org.testng.Assert.*;
@@ -145,4 +146,22 @@ public class FormatsTest {
     }
 
 
+    @Test
+    public void testFindParser() {
+        final Formats formats = new Formats();
+        assertEquals(formats.findParser("1", null, "2").get().getType(), Integer.class);
+        assertEquals(formats.findParser("1", "3000000000").get().getType(), Long.class);
+        assertEquals(formats.findParser("1", "3000000000", "2.5").get().getType(), Double.class);
+        assertEquals(formats.findParser("true", "n", "-").get().getType(), Boolean.class);
+        assertEquals(formats.findParser("2014-05-22", "2014-05-23").get().getType(), LocalDate.class);
+        assertEquals(formats.findParser("2014-05-22T10:00", "2014-05-23T11:00:01").get().getType(), LocalDateTime.class);
+        assertEquals(formats.findParser("2014-05-22", "2014-05-23T11:00:01").get().getType(), String.class);
+        assertEquals(formats.findParser("18:35", "09:10").get().getType(), LocalTime.class);
+        assertEquals(formats.findParser("1", "Hello").get().getType(), String.class);
+        assertEquals(formats.findParser(Arrays.asList("1", "2", "2.5"), 2).get().getType(), Integer.class);
+        assertFalse(formats.findParser("null", "", "N/A").isPresent());
+        formats.setDecimalFormat("0.00;-0.00", 1);
+        assertEquals(formats.findParser("1.5", "2.25").get(), formats.getParserOrFail(double.class));
+    }
+
 }